@@ -0,0 +1,115 @@
+package benchmarks;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import entities.Car;
+import entities.Driver;
+import entities.Violation;
+import utils.SyntheticDataGenerator;
+import validators.BatchValidator;
+import validators.ValidationReport;
+
+/**
+ * Время пакетной проверки записей при импорте в пересчёте на одну запись.
+ * Пачка совпадает по размеру с порцией импорта XML, записи построены генератором данных
+ * в виде соответствия имени тега XML значению, как при чтении файла.
+ * Проверка автомобилей включает запрос занятых госномеров к базе, содержащей эти автомобили.
+ * <p>
+ * Запуск: {@code mvn -P benchmarks verify -Djmh.args="BatchValidator"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@OperationsPerInvocation(BatchValidatorBenchmark.BATCH_SIZE)
+public class BatchValidatorBenchmark {
+
+    static final int BATCH_SIZE = 500;
+
+    private final List<Map<String, String>> drivers = new ArrayList<>();
+    private final List<Map<String, String>> cars = new ArrayList<>();
+    private final List<Map<String, String>> violations = new ArrayList<>();
+    private final List<Map<String, String>> articles = new ArrayList<>();
+
+    private EntityManagerFactory emf;
+    private EntityManager em;
+
+    @Setup(Level.Trial)
+    public void createRecords() {
+        SyntheticDataGenerator generator = SyntheticDataGenerator.forViolations(BenchmarkDatabase.SEED, 20 * BATCH_SIZE);
+        emf = BenchmarkDatabase.create("validators", generator);
+        em = emf.createEntityManager();
+
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            Map<String, String> driver = new HashMap<>();
+            Driver generatedDriver = generator.driver(i);
+            driver.put("licenseNumber", generatedDriver.getLicenseNumber());
+            drivers.add(driver);
+
+            Map<String, String> car = new HashMap<>();
+            Car generatedCar = generator.car(i);
+            car.put("vinNumber", generatedCar.getVinNumber());
+            car.put("licensePlate", generatedCar.getLicensePlate());
+            cars.add(car);
+
+            Map<String, String> violation = new HashMap<>();
+            Violation generatedViolation = generator.violation(i);
+            violation.put("violationResolution", generatedViolation.getViolationResolution());
+            violations.add(violation);
+
+            Map<String, String> article = new HashMap<>();
+            article.put("violationArticleCode",
+                    generator.article(i % generator.getArticleCount()).getViolationArticleCode());
+            articles.add(article);
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void dropDatabase() {
+        em.close();
+        emf.close();
+    }
+
+    @Benchmark
+    public ValidationReport validateDrivers() {
+        return BatchValidator.validateDrivers(drivers);
+    }
+
+    @Benchmark
+    public ValidationReport validateCars() {
+        return BatchValidator.validateCars(cars, em);
+    }
+
+    @Benchmark
+    public ValidationReport validateViolations() {
+        return BatchValidator.validateViolations(violations);
+    }
+
+    @Benchmark
+    public ValidationReport validateViolationArticles() {
+        return BatchValidator.validateViolationArticles(articles);
+    }
+}
@@ -0,0 +1,61 @@
+package benchmarks;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Persistence;
+
+import utils.SyntheticDataGenerator;
+
+/**
+ * Встроенная база данных H2 для бенчмарков.
+ * <p>
+ * Используется единица персистентности приложения, в которой подключение к MySQL заменено
+ * базой H2 в памяти в режиме совместимости с MySQL, а схема создаётся Hibernate по сущностям.
+ * Пул HikariCP не используется: его настройки относятся к драйверу MySQL.
+ */
+final class BenchmarkDatabase {
+
+    /**
+     * Начальное значение генератора данных, общее для всех бенчмарков.
+     */
+    static final long SEED = 20240101L;
+
+    private BenchmarkDatabase() {
+    }
+
+    /**
+     * Создаёт пустую базу данных.
+     *
+     * @param name имя базы данных в памяти; базы с различными именами независимы.
+     * @return фабрика EntityManager созданной базы.
+     */
+    static EntityManagerFactory create(String name) {
+        Map<String, Object> properties = new HashMap<>();
+        properties.put("javax.persistence.jdbc.driver", "org.h2.Driver");
+        properties.put("javax.persistence.jdbc.url", "jdbc:h2:mem:" + name + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+        properties.put("javax.persistence.jdbc.user", "sa");
+        properties.put("javax.persistence.jdbc.password", "");
+        properties.put("hibernate.dialect", "org.hibernate.dialect.H2Dialect");
+        properties.put("hibernate.connection.provider_class",
+                "org.hibernate.engine.jdbc.connections.internal.DriverManagerConnectionProviderImpl");
+        properties.put("hibernate.hbm2ddl.auto", "create");
+        properties.put("hibernate.hbm2ddl.create_namespaces", "true");
+        properties.put("hibernate.generate_statistics", "false");
+        return Persistence.createEntityManagerFactory("persistence_connection", properties);
+    }
+
+    /**
+     * Создаёт базу данных и заполняет её синтетическими данными.
+     *
+     * @param name имя базы данных в памяти.
+     * @param generator генератор набора данных.
+     * @return фабрика EntityManager заполненной базы.
+     */
+    static EntityManagerFactory create(String name, SyntheticDataGenerator generator) {
+        EntityManagerFactory emf = create(name);
+        generator.writeTo(emf);
+        return emf;
+    }
+}
@@ -0,0 +1,164 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import validators.CharClasses;
+import validators.LicensePlateValidator;
+import validators.VinNumberValidator;
+import validators.ViolationArticleCodeValidator;
+
+/**
+ * Стоимость проверки формата одного значения до и после перехода на таблицу классов символов.
+ * Методы {@code legacy...} повторяют прежние проверки валидаторов (регулярные выражения,
+ * {@code toCharArray()}, {@code contains(String.valueOf(...))}), методы без префикса вызывают текущие.
+ * Каждый вызов проверяет все значения набора, а результат приводится к одному значению.
+ * <p>
+ * Запуск: {@code mvn -P benchmarks verify -Djmh.args="FormatValidator -prof gc"};
+ * профилировщик {@code gc} показывает выделение памяти на вызов.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@OperationsPerInvocation(FormatValidatorBenchmark.VALUES_PER_CALL)
+public class FormatValidatorBenchmark {
+
+    static final int VALUES_PER_CALL = 4;
+
+    private final String[] names = {"Иван", "Петров", "Smith", "Александровна"};
+    private final String[] vins = {"1HGBH41JXMN109186", "WVWZZZ1JZXW000001", "1HGBH41IOQN109186", "1H!BH41JX_N109)86"};
+    private final String[] plates = {"А123ВС77", "М456ОР199", "Б123ВС77", "А12ВВС77"};
+    private final String[] articles = {"КоАП РФ 12.9 п.2", "КоАП РФ 12.16", "КоАП РФ 21.9", "КоАП 12.9"};
+
+    @Benchmark
+    public void legacyRussianName(Blackhole bh) {
+        for (String name : names) {
+            bh.consume(name.matches("[а-яА-Я]+"));
+        }
+    }
+
+    @Benchmark
+    public void russianName(Blackhole bh) {
+        for (String name : names) {
+            bh.consume(CharClasses.consistsOf(name, CharClasses.RUSSIAN_LETTER));
+        }
+    }
+
+    @Benchmark
+    public void legacyVin(Blackhole bh) {
+        for (String vin : vins) {
+            bh.consume(legacyCheckVin(vin));
+        }
+    }
+
+    @Benchmark
+    public void vin(Blackhole bh) {
+        for (String vin : vins) {
+            bh.consume(VinNumberValidator.checkVin(vin));
+        }
+    }
+
+    @Benchmark
+    public void legacyLicensePlate(Blackhole bh) {
+        for (String plate : plates) {
+            bh.consume(legacyCheckLicensePlate(plate));
+        }
+    }
+
+    @Benchmark
+    public void licensePlate(Blackhole bh) {
+        for (String plate : plates) {
+            bh.consume(LicensePlateValidator.checkLicensePlate(plate));
+        }
+    }
+
+    @Benchmark
+    public void legacyArticleCode(Blackhole bh) {
+        for (String article : articles) {
+            bh.consume(legacyCheckArticleCode(article));
+        }
+    }
+
+    @Benchmark
+    public void articleCode(Blackhole bh) {
+        for (String article : articles) {
+            bh.consume(ViolationArticleCodeValidator.checkArticleCode(article));
+        }
+    }
+
+    /**
+     * Прежняя проверка VIN-номера: обход копии строки, полученной через {@code toCharArray()}.
+     */
+    private static boolean legacyCheckVin(String vin) {
+        if (vin == null || vin.length() != 17) {
+            return false;
+        }
+        for (char c : vin.toCharArray()) {
+            if ("IOQ".indexOf(c) != -1 || !Character.isLetterOrDigit(c)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Прежняя проверка госномера: строка из одного символа на каждую проверку буквы.
+     */
+    private static boolean legacyCheckLicensePlate(String plate) {
+        String validLetters = "АВЕКМНОРСТУХ";
+        if (plate == null || plate.length() < 8 || plate.length() > 9) {
+            return false;
+        }
+        if (!validLetters.contains(String.valueOf(plate.charAt(0))) ||
+            !validLetters.contains(String.valueOf(plate.charAt(4))) ||
+            !validLetters.contains(String.valueOf(plate.charAt(5)))) {
+            return false;
+        }
+        for (int i = 1; i < 4; i++) {
+            if (!Character.isDigit(plate.charAt(i))) {
+                return false;
+            }
+        }
+        for (int i = 6; i < plate.length(); i++) {
+            if (!Character.isDigit(plate.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Прежняя проверка кода статьи: регулярное выражение, затем замена префикса,
+     * разбиение строки и разбор чисел.
+     */
+    private static boolean legacyCheckArticleCode(String article) {
+        if (article == null || article.trim().isEmpty() || !article.matches("КоАП РФ \\d+\\.\\d+( п\\.\\d+)?")) {
+            return false;
+        }
+        String[] parts = article.replace("КоАП РФ ", "").split("[\\. ]");
+        int chapter = Integer.parseInt(parts[0]);
+        int paragraph = Integer.parseInt(parts[1]);
+        if (chapter < 1 || chapter > 20 || paragraph < 1 || paragraph > 50) {
+            return false;
+        }
+        if (parts.length == 3 && parts[2].startsWith("п")) {
+            int point = Integer.parseInt(parts[2].substring(2));
+            return point >= 1 && point <= 10;
+        }
+        return true;
+    }
+}
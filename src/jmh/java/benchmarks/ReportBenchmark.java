@@ -0,0 +1,78 @@
+package benchmarks;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import entities.ReportRow;
+import services.ReportService;
+import utils.SessionManager;
+import utils.SyntheticDataGenerator;
+
+/**
+ * Время получения данных отчёта и генерации PDF-отчёта за период.
+ * Генерация PDF использует шаблон ViolationReport.jrxml из рабочего каталога
+ * и записывает Report.pdf, как и при работе приложения.
+ * <p>
+ * Запуск: {@code mvn -P benchmarks verify -Djmh.args="Report -p months=1,12"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class ReportBenchmark {
+
+    @Param({"100000"})
+    public int violations;
+
+    /**
+     * Длина периода отчёта в месяцах, отсчитываемых назад от последней даты набора данных.
+     */
+    @Param({"1", "12"})
+    public int months;
+
+    private SessionManager sessionManager;
+    private ReportService reportService;
+    private LocalDate startDate;
+    private LocalDate endDate;
+
+    @Setup(Level.Trial)
+    public void createDatabase() {
+        SyntheticDataGenerator generator = SyntheticDataGenerator.forViolations(BenchmarkDatabase.SEED, violations);
+        sessionManager = new SessionManager(BenchmarkDatabase.create("report" + violations, generator));
+        reportService = new ReportService(sessionManager);
+        endDate = generator.getLastViolationDate();
+        startDate = endDate.minusMonths(months);
+    }
+
+    @TearDown(Level.Trial)
+    public void dropDatabase() {
+        sessionManager.close();
+    }
+
+    @Benchmark
+    public List<ReportRow> getReportData() {
+        return reportService.getReportData(startDate, endDate);
+    }
+
+    @Benchmark
+    public void generatePdfReport() {
+        reportService.generatePdfReport(startDate, endDate);
+    }
+}
@@ -0,0 +1,129 @@
+package benchmarks;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+import javax.persistence.EntityManagerFactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import entities.Car;
+import entities.Violation;
+import entities.ViolationRow;
+import services.ViolationFilter;
+import services.ViolationPage;
+import services.ViolationService;
+import utils.SessionManager;
+import utils.SyntheticDataGenerator;
+
+/**
+ * Время поиска нарушений при различных сочетаниях условий фильтра.
+ * <ul>
+ *   <li>{@code date} - нарушения за месяц;</li>
+ *   <li>{@code car} - нарушения одного автомобиля;</li>
+ *   <li>{@code resolution} - подстрока номера постановления;</li>
+ *   <li>{@code type_unpaid} - неоплаченные нарушения одного типа;</li>
+ *   <li>{@code article_date} - нарушения по статье за месяц;</li>
+ *   <li>{@code all} - все условия одновременно.</li>
+ * </ul>
+ * Для каждого сочетания измеряются загрузка всего результата списком, первая страница
+ * постраничного поиска и обход всего результата потоком строк.
+ * <p>
+ * Запуск: {@code mvn -P benchmarks verify -Djmh.args="ViolationSearch"}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ViolationSearchBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+
+    @Param({"100000"})
+    public int violations;
+
+    @Param({"date", "car", "resolution", "type_unpaid", "article_date", "all"})
+    public String filter;
+
+    private EntityManagerFactory emf;
+    private SessionManager sessionManager;
+    private ViolationService violationService;
+
+    private String dateFrom;
+    private String dateTo;
+    private String resolution;
+    private String car;
+    private String violationType;
+    private String violationArticle;
+    private Boolean isPaid;
+    private ViolationFilter violationFilter;
+
+    @Setup(Level.Trial)
+    public void createDatabase() {
+        SyntheticDataGenerator generator = SyntheticDataGenerator.forViolations(BenchmarkDatabase.SEED, violations);
+        emf = BenchmarkDatabase.create("search" + violations, generator);
+        sessionManager = new SessionManager(emf);
+        violationService = new ViolationService(sessionManager);
+
+        // Значения условий берутся из одного нарушения, чтобы сочетание всех условий находило запись
+        int index = violations / 2;
+        Violation sample = generator.violation(index);
+        Car sampleCar = generator.car(generator.carIndex(index));
+        boolean dates = filter.equals("date") || filter.equals("article_date") || filter.equals("all");
+        if (dates) {
+            dateFrom = sample.getViolationDate().withDayOfMonth(1).toString();
+            dateTo = sample.getViolationDate().withDayOfMonth(1).plusMonths(1).minusDays(1).toString();
+        }
+        if (filter.equals("resolution") || filter.equals("all")) {
+            resolution = sample.getViolationResolution().substring(10);
+        }
+        if (filter.equals("car") || filter.equals("all")) {
+            car = sampleCar.getBrand() + " " + sampleCar.getModel() + " (" + sampleCar.getLicensePlate() + ")";
+        }
+        if (filter.equals("type_unpaid") || filter.equals("all")) {
+            violationType = generator.type(generator.typeIndex(index)).getViolationTypeName();
+            isPaid = filter.equals("all") ? sample.getViolationPaid() : Boolean.FALSE;
+        }
+        if (filter.equals("article_date") || filter.equals("all")) {
+            violationArticle = generator.article(generator.articleIndex(index)).getViolationArticleCode();
+        }
+        violationFilter = ViolationFilter.of(dateFrom, dateTo, resolution, car, violationType, violationArticle, isPaid);
+    }
+
+    @TearDown(Level.Trial)
+    public void dropDatabase() {
+        sessionManager.close();
+    }
+
+    @Benchmark
+    public List<Violation> searchViolations() {
+        return violationService.searchViolations(dateFrom, dateTo, resolution, car, violationType, violationArticle, isPaid);
+    }
+
+    @Benchmark
+    public ViolationPage searchViolationPage() {
+        return violationService.searchViolationPage(violationFilter, null, PAGE_SIZE);
+    }
+
+    @Benchmark
+    public long streamViolations() {
+        try (Stream<ViolationRow> rows = violationService.streamViolations(violationFilter)) {
+            return rows.count();
+        }
+    }
+}
@@ -0,0 +1,94 @@
+package benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import utils.SyntheticDataGenerator;
+import utils.XMLManager;
+
+/**
+ * Время полного экспорта базы данных в XML и импорта из XML с заменой данных.
+ * Каждое измерение - один вызов операции над набором из {@code violations} нарушений
+ * с водителями и автомобилями в соотношении генератора данных.
+ * <p>
+ * Запуск: {@code mvn -P benchmarks verify -Djmh.args="XmlExchange -p violations=100000"};
+ * набор из миллиона нарушений требует нескольких гигабайт памяти ({@code -jvmArgs -Xmx8g}).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 1)
+@Measurement(iterations = 3)
+@Fork(1)
+public class XmlExchangeBenchmark {
+
+    @Param({"10000", "100000", "1000000"})
+    public int violations;
+
+    private EntityManagerFactory emf;
+    private File exportFile;
+    private File importFile;
+    private EntityManager em;
+
+    @Setup(Level.Trial)
+    public void createDatabase() throws IOException {
+        emf = BenchmarkDatabase.create("xml" + violations,
+                SyntheticDataGenerator.forViolations(BenchmarkDatabase.SEED, violations));
+        exportFile = File.createTempFile("export", ".xml");
+        importFile = File.createTempFile("import", ".xml");
+
+        // Файл для импорта содержит тот же набор данных, что и база
+        EntityManager exportEm = emf.createEntityManager();
+        try {
+            XMLManager.exportDataToXML(importFile.getPath(), exportEm);
+        } finally {
+            exportEm.close();
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void openEntityManager() {
+        em = emf.createEntityManager();
+    }
+
+    @TearDown(Level.Iteration)
+    public void closeEntityManager() {
+        em.close();
+    }
+
+    @TearDown(Level.Trial)
+    public void dropDatabase() {
+        emf.close();
+        exportFile.delete();
+        importFile.delete();
+    }
+
+    @Benchmark
+    public long exportDataToXML() {
+        XMLManager.exportDataToXML(exportFile.getPath(), em);
+        return exportFile.length();
+    }
+
+    @Benchmark
+    public void importDataFromXML() {
+        XMLManager.importDataFromXML(importFile.getPath(), em, 0);
+    }
+}
@@ -1,3 +1,4 @@
+import org.apache.log4j.LogManager;
 import org.apache.log4j.Logger;
 
 import application.Application;
@@ -27,6 +28,8 @@ public class Main {
         Runtime.getRuntime().addShutdownHook(new Thread(() -> {
             // Логирование информации о закрытии приложения
             logger.info("Закрытие приложения");
+            // Записываем в файл события, оставшиеся в очереди асинхронного журнала
+            LogManager.shutdown();
         }));
     }
 }
@@ -9,6 +9,8 @@ import javax.persistence.Persistence;
 import javax.swing.*;
 import javax.swing.filechooser.FileNameExtensionFilter;
 
+import org.apache.log4j.Logger;
+
 import controllers.CarController;
 import controllers.DriverController;
 import controllers.ReportsController;
@@ -28,6 +30,12 @@ import ui.ViolationArticlesPanel;
 import ui.ViolationTypesPanel;
 import ui.ViolationsPanel;
 import ui.ReportsPanel;
+import ui.BackgroundJob;
+import utils.BulkJobLogging;
+import utils.ReferenceDataCache;
+import utils.SchemaMigrator;
+import utils.SearchQuery;
+import utils.SessionManager;
 import utils.XMLManager;
 
 /**
@@ -35,6 +43,8 @@ import utils.XMLManager;
  * взаимодействием между компонентами.
  */
 public class Application {
+    private static final Logger logger = Logger.getLogger(Application.class);
+
     // Объявление компонентов UI
 	private JFrame mainWindow;
 	private JPanel navigationPanel;
@@ -44,6 +54,8 @@ public class Application {
     private JMenu fileMenu;
     private JMenuItem exportItem;
     private JMenuItem importItem;
+    private JMenuItem cacheStatisticsItem;
+    private JCheckBoxMenuItem recordLoggingItem;
     
     private JButton btnDrivers;
     private JButton btnCars;
@@ -76,9 +88,8 @@ public class Application {
     private ViolationArticleController violationArticleController;
     private ViolationTypeController violationTypeController;
     
-    // EntityManager для работы с базой данных
-    private EntityManagerFactory emf;
-	private EntityManager em;
+    // Менеджер EntityManager и пула соединений для работы с базой данных
+    private SessionManager sessionManager;
     
 	/**
      * Метод для отображения главного окна приложения.
@@ -91,6 +102,13 @@ public class Application {
 		// Создание главного окна приложения
 		mainWindow = new JFrame("Система учета для ГАИ");
 		mainWindow.setDefaultCloseOperation(JFrame.EXIT_ON_CLOSE);
+		// Закрытие пула соединений при выходе из приложения
+		mainWindow.addWindowListener(new WindowAdapter() {
+			@Override
+			public void windowClosing(WindowEvent e) {
+				sessionManager.close();
+			}
+		});
         mainWindow.setSize(1250, 600);
         mainWindow.setLocationRelativeTo(null);
         
@@ -111,17 +129,70 @@ public class Application {
 	
 	/**
      * Инициализация соединения с базой данных.
-     * Создается EntityManager для работы с базой.
+     * Создается фабрика EntityManager с пулом соединений, применяются недостающие миграции схемы,
+     * а сервисы получают менеджер, выдающий отдельный EntityManager на каждую операцию.
+     * Планы запросов поиска сервисов подготавливаются в фоновом потоке.
      */
 	private void initDataBaseConnection() {
-		emf = Persistence.createEntityManagerFactory("persistence_connection");
-		em = emf.createEntityManager();
-		driverService = new DriverService(em);
-		carService = new CarService(em);
-		violationService = new ViolationService(em);
-		violationArticleService = new ViolationArticleService(em);
-		violationTypeService = new ViolationTypeService(em);
-		reportService = new ReportService(em);
+		EntityManagerFactory emf = Persistence.createEntityManagerFactory("persistence_connection");
+		sessionManager = new SessionManager(emf);
+
+		EntityManager migrationEm = emf.createEntityManager();
+		try {
+			SchemaMigrator.migrate(migrationEm);
+		} finally {
+			migrationEm.close();
+		}
+
+		driverService = new DriverService(sessionManager);
+		carService = new CarService(sessionManager);
+		violationService = new ViolationService(sessionManager);
+		violationArticleService = new ViolationArticleService(sessionManager);
+		violationTypeService = new ViolationTypeService(sessionManager);
+		reportService = new ReportService(sessionManager);
+
+		// Планы запросов поиска компилируются в фоне, чтобы не задерживать открытие окна
+		Thread warmUp = new Thread(() -> SearchQuery.warmUpAll(emf), "search-query-warm-up");
+		warmUp.setDaemon(true);
+		warmUp.start();
+
+		rebuildSearchIndexes();
+		fillStatistics();
+	}
+
+	/**
+     * Заполняет пустую сводку по нарушениям в фоновом потоке, чтобы группировка всей таблицы
+     * нарушений не задерживала открытие окна.
+     */
+	private void fillStatistics() {
+		Thread fill = new Thread(() -> {
+			try {
+				if (reportService.fillStatisticsIfEmpty()) {
+					logger.info("Сводка по нарушениям заполнена");
+				}
+			} catch (RuntimeException e) {
+				logger.error("Не удалось заполнить сводку по нарушениям", e);
+			}
+		}, "statistics-fill");
+		fill.setDaemon(true);
+		fill.start();
+	}
+
+	/**
+     * Перестраивает индексы поиска водителей и автомобилей в фоновом потоке.
+     * До завершения построения поиск выполняется запросами LIKE по таблицам.
+     */
+	private void rebuildSearchIndexes() {
+		Thread rebuild = new Thread(() -> {
+			try {
+				driverService.rebuildSearchIndex();
+				carService.rebuildSearchIndex();
+			} catch (RuntimeException e) {
+				logger.error("Не удалось построить индексы поиска", e);
+			}
+		}, "search-index-rebuild");
+		rebuild.setDaemon(true);
+		rebuild.start();
 	}
 	
 	/**
@@ -145,9 +216,26 @@ public class Application {
         exportItem = new JMenuItem("Экспорт в XML");
         importItem = new JMenuItem("Импорт из XML");
 
+        cacheStatisticsItem = new JMenuItem("Статистика кэша справочников");
+        recordLoggingItem = new JCheckBoxMenuItem("Журнал по каждой записи при импорте и экспорте",
+                !BulkJobLogging.isRecordLogsSuppressed());
+
         fileMenu.add(exportItem);
         fileMenu.add(importItem);
+        fileMenu.addSeparator();
+        fileMenu.add(cacheStatisticsItem);
+        fileMenu.add(recordLoggingItem);
         menuBar.add(fileMenu);
+
+        // Переключение подробного журнала; действует и на уже запущенный импорт или экспорт
+        recordLoggingItem.addActionListener(e -> BulkJobLogging.setRecordLogsSuppressed(!recordLoggingItem.isSelected()));
+        
+        // Обработчик события для просмотра попаданий и промахов кэша статей и типов нарушений
+        cacheStatisticsItem.addActionListener(e -> JOptionPane.showMessageDialog(
+                mainWindow,
+                ReferenceDataCache.describeStatistics(sessionManager.getEntityManagerFactory()),
+                "Статистика кэша справочников",
+                JOptionPane.INFORMATION_MESSAGE));
         
         // Обработчик события для экспорта данных
         exportItem.addActionListener(new ActionListener() {
@@ -166,11 +254,21 @@ public class Application {
             	        if (confirm != JOptionPane.YES_OPTION) {
             	            return;
             	        }
-                	XMLManager.exportDataToXML("data.xml", em);
-                	
-                    JOptionPane.showMessageDialog(mainWindow, "Экспорт данных выполнен успешно", "Экспорт", JOptionPane.INFORMATION_MESSAGE);
+            	        // Экспорт выполняется в фоне с собственным EntityManager, не занимая EntityManager интерфейса
+            	        setFileMenuEnabled(false);
+            	        new BackgroundJob(mainWindow, "Экспорт в XML", progress -> {
+            	            EntityManager exportEm = sessionManager.getEntityManagerFactory().createEntityManager();
+            	            try {
+            	                XMLManager.exportDataToXML("data.xml", exportEm, progress);
+            	            } finally {
+            	                exportEm.close();
+            	            }
+            	        })
+            	        .whenSucceeded(() -> JOptionPane.showMessageDialog(mainWindow, "Экспорт данных выполнен успешно", "Экспорт", JOptionPane.INFORMATION_MESSAGE))
+            	        .whenFinished(() -> setFileMenuEnabled(true))
+            	        .start();
                 } catch (Exception ex) {
-                	ex.printStackTrace();
+                	logger.error("Не удалось начать экспорт данных", ex);
                     // Ошибка при экспорте
         	        JOptionPane.showMessageDialog(mainWindow, "Произошла ошибка при экспорте данных: " + ex.getMessage(), "Ошибка", JOptionPane.ERROR_MESSAGE);
                 }
@@ -219,19 +317,24 @@ public class Application {
                     	        }
                             int mode = Integer.parseInt(choice.substring(0, 1));
 
-                            XMLManager.importDataFromXML(selectedFile.getAbsolutePath(), em, mode - 1);
-
-                            JOptionPane.showMessageDialog(mainWindow, "Импорт данных выполнен успешно", "Импорт", JOptionPane.INFORMATION_MESSAGE);
-                            
-                            driversPanel.updateDriverData(driverService.getAllDrivers());
-                            carsPanel.updateCarData(carService.getAllCars());
-                            violationsPanel.updateViolationData(violationService.getAllViolations());
-                            violationArticlesPanel.updateViolationArticleData(violationArticleService.getAllViolationArticles());
-                            violationTypesPanel.updateViolationTypeData(violationTypeService.getAllViolationTypes());
+                            // Импорт выполняется в фоне, панели обновляются один раз после его завершения
+                            setFileMenuEnabled(false);
+                            new BackgroundJob(mainWindow, "Импорт из XML",
+                                    progress -> {
+                                        XMLManager.importDataFromXML(selectedFile.getAbsolutePath(), sessionManager.getEntityManagerFactory(), mode - 1, progress);
+                                        reportService.refreshStatistics();  // Сводка по нарушениям пересчитывается в том же фоновом задании
+                                    })
+                            .whenSucceeded(() -> {
+                                refreshAllPanels();
+                                rebuildSearchIndexes();  // Импорт изменяет таблицы в обход сервисов
+                                JOptionPane.showMessageDialog(mainWindow, "Импорт данных выполнен успешно", "Импорт", JOptionPane.INFORMATION_MESSAGE);
+                            })
+                            .whenFinished(() -> setFileMenuEnabled(true))
+                            .start();
                         }
                     }
                 } catch (Exception ex) {
-                    ex.printStackTrace();
+                    logger.error("Не удалось начать импорт данных", ex);
                     JOptionPane.showMessageDialog(mainWindow, "Произошла ошибка при импорте данных: " + ex.getMessage(), "Ошибка", JOptionPane.ERROR_MESSAGE);
                 }
             }
@@ -239,6 +342,29 @@ public class Application {
 
 	}
 	
+	/**
+     * Включает или отключает пункты экспорта и импорта, чтобы не запускать одновременно несколько операций с файлами.
+     *
+     * @param enabled true, чтобы включить пункты меню.
+     */
+	private void setFileMenuEnabled(boolean enabled) {
+		exportItem.setEnabled(enabled);
+		importItem.setEnabled(enabled);
+	}
+	
+	/**
+     * Обновляет данные всех панелей после изменения базы данных другим EntityManager.
+     * Копии записей в EntityManager интерфейса сбрасываются, чтобы перечитать изменённые данные.
+     */
+	private void refreshAllPanels() {
+		sessionManager.clearUiEntityManager();
+		driversPanel.updateDriverData(driverService.getAllDrivers());
+		carsPanel.updateCarData(carService.getAllCars());
+		violationsPanel.showAllViolations();
+		violationArticlesPanel.updateViolationArticleData(violationArticleService.getAllViolationArticles());
+		violationTypesPanel.updateViolationTypeData(violationTypeService.getAllViolationTypes());
+	}
+	
 	/**
      * Инициализация панели навигации с кнопками для перехода между различными панелями приложения.
      */
@@ -290,10 +416,10 @@ public class Application {
         reportsPanel = new ReportsPanel();
         
         driverController = new DriverController(this, mainWindow, driversPanel, driverService, driversPanel.getDriversTableModel());
-        carController = new CarController(this, mainWindow, carsPanel, carService, carsPanel.getCarsTableModel(), driverController);
+        carController = new CarController(this, mainWindow, carsPanel, carService, driverService, carsPanel.getCarsTableModel(), driverController);
         violationArticleController = new ViolationArticleController(this, mainWindow, violationArticlesPanel, violationArticleService, violationArticlesPanel.getViolationArticlesDefaultTableModel());
         violationTypeController = new ViolationTypeController(this, mainWindow, violationTypesPanel, violationTypeService, violationTypesPanel.getViolationTypesTableModel());
-        violationController = new ViolationController(mainWindow, violationsPanel, violationService, violationsPanel.getViolationsTableModel(), carController, violationArticleController, violationTypeController);
+        violationController = new ViolationController(mainWindow, violationsPanel, violationService, carService, violationTypeService, violationArticleService, violationsPanel.getViolationsTableModel(), carController, violationArticleController, violationTypeController);
         new ReportsController(reportsPanel, reportService);
 
         // Добавление панелей на основную панель
@@ -1,9 +1,11 @@
 package controllers;
 
 import ui.CarsPanel;
+import ui.LookupDialog;
 import validators.CarValidator;
 
 import services.CarService;
+import services.DriverService;
 import entities.Car;
 import entities.Driver;
 
@@ -15,7 +17,7 @@ import application.Application;
 
 import java.awt.*;
 import java.time.LocalDate;
-import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Контроллер для работы с автомобилями.
@@ -25,6 +27,7 @@ public class CarController {
     private Application application;
     private CarsPanel carsPanel;
     private CarService carService;
+    private DriverService driverService;
     private JFrame parentWindow;
     private DefaultTableModel carsTableModel;
     private DriverController driverController;
@@ -35,14 +38,16 @@ public class CarController {
      * @param parentWindow родительское окно
      * @param carsPanel панель с автомобилями
      * @param carService сервис для работы с автомобилями
+     * @param driverService сервис для поиска владельцев автомобилей
      * @param carTableModel модель таблицы автомобилей
      * @param driverController контроллер водителей
      */
-    public CarController(Application application, JFrame parentWindow, CarsPanel carsPanel, CarService carService, DefaultTableModel carTableModel, DriverController driverController) {
+    public CarController(Application application, JFrame parentWindow, CarsPanel carsPanel, CarService carService, DriverService driverService, DefaultTableModel carTableModel, DriverController driverController) {
         this.application = application;
         this.parentWindow = parentWindow;
         this.carsPanel = carsPanel;
         this.carService = carService;
+        this.driverService = driverService;
         this.carsTableModel = carTableModel;
         this.driverController = driverController;
         
@@ -76,8 +81,10 @@ public class CarController {
 
     /**
      * Открытие окна для добавления нового автомобиля.
+     *
+     * @return добавленный автомобиль или null, если окно закрыто без добавления.
      */
-    public void openAddCarWindow() {
+    public Car openAddCarWindow() {
         JDialog addCarDialog = new JDialog(parentWindow, "Добавление автомобиля", true);
         addCarDialog.setSize(600, 300);
         addCarDialog.setLayout(new BorderLayout());
@@ -124,52 +131,10 @@ public class CarController {
 
         EntityManager em = carService.getEntityManager();
 
-        // Обработчик для кнопки выбора владельца
-        selectOwnerButton.addActionListener(e -> {
-            JDialog driverSelectionDialog = new JDialog(addCarDialog, "Выберите водителя", true);
-            driverSelectionDialog.setSize(400, 300);
-            
-            List<Driver> drivers = em.createQuery("SELECT d FROM Driver d", Driver.class).getResultList();
-            String[] driverNames = drivers.stream()
-                .map(dr -> dr.getFullName() + " (" + dr.getLicenseNumber() + ")")
-                .toArray(String[]::new);
-
-            JList<String> driverList = new JList<>(driverNames);
-            driverList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
-            driverSelectionDialog.add(new JScrollPane(driverList), BorderLayout.CENTER);
-
-            JButton addNewDriverButtonInDialog = new JButton("Добавить нового водителя");
-            driverSelectionDialog.add(addNewDriverButtonInDialog, BorderLayout.SOUTH);
-
-            // Обработчик для кнопки "Добавить нового водителя"
-            addNewDriverButtonInDialog.addActionListener(addEvent -> {
-                driverController.openAddDriverWindow();
-                List<Driver> updatedDrivers = em.createQuery("SELECT d FROM Driver d", Driver.class).getResultList();
-                String[] updatedDriverNames = updatedDrivers.stream()
-                    .map(dr -> dr.getFullName() + " (" + dr.getLicenseNumber() + ")")
-                    .toArray(String[]::new);
-                driverList.setListData(updatedDriverNames);
-                
-                if (updatedDriverNames.length > 0) {
-                    driverList.setSelectedIndex(updatedDriverNames.length - 1);
-                    ownerField.setText(updatedDriverNames[updatedDriverNames.length - 1]);
-                }
-            });
-
-            // Обработчик для выбора водителя
-            driverList.addListSelectionListener(event -> {
-                if (!event.getValueIsAdjusting()) {
-                    String selectedDriver = driverList.getSelectedValue();
-                    if (selectedDriver != null) {
-                        ownerField.setText(selectedDriver);
-                        driverSelectionDialog.dispose();
-                    }
-                }
-            });
+        // Выбор владельца с поиском по ФИО и номеру удостоверения
+        selectOwnerButton.addActionListener(e -> selectOwner(addCarDialog, "Выберите водителя", ownerField, true));
 
-            driverSelectionDialog.setLocationRelativeTo(addCarDialog);
-            driverSelectionDialog.setVisible(true);
-        });
+        AtomicReference<Car> addedCar = new AtomicReference<>();
 
         // Обработчик для кнопки добавления автомобиля
         addButton.addActionListener(e -> {
@@ -195,7 +160,10 @@ public class CarController {
                 	int endIndex = owner.indexOf(')');
                 	
                 	String licenseNumber = owner.substring(startIndex + 1, endIndex);
-                	Driver driver = (Driver) em.createQuery("SELECT d FROM Driver d WHERE d.licenseNumber = :license").setParameter("license", licenseNumber).getSingleResult();
+                	Driver driver = driverService.getDriverByLicense(em, licenseNumber);
+                	if (driver == null) {
+                		throw new IllegalArgumentException("Водитель с таким номером удостоверения не найден.");
+                	}
                 	car.setOwner(driver);
                 }
                 
@@ -204,6 +172,7 @@ public class CarController {
                 
                 // Добавление автомобиля в сервис
                 carService.addCar(car);
+                addedCar.set(car);
                 updateCarData();
                 addCarDialog.dispose();
             } catch (Exception ex) {
@@ -217,6 +186,7 @@ public class CarController {
 
         addCarDialog.setLocationRelativeTo(parentWindow);
         addCarDialog.setVisible(true);
+        return addedCar.get();
     }
 	
     /**
@@ -298,56 +268,8 @@ public class CarController {
         // Получаем менеджер сущностей для работы с базой данных
         EntityManager em = carService.getEntityManager();
 
-        // Обработчик выбора владельца
-        selectOwnerButton.addActionListener(e -> {
-            JDialog driverSelectionDialog = new JDialog(editCarDialog, "Выберите водителя", true);
-            driverSelectionDialog.setSize(400, 300);
-
-            // Загружаем список водителей из базы данных
-            List<Driver> drivers = em.createQuery("SELECT d FROM Driver d", Driver.class).getResultList();
-            String[] driverNames = drivers.stream()
-                .map(dr -> dr.getFullName() + " (" + dr.getLicenseNumber() + ")")
-                .toArray(String[]::new);
-
-            // Отображаем список водителей
-            JList<String> driverList = new JList<>(driverNames);
-            driverList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
-            driverSelectionDialog.add(new JScrollPane(driverList), BorderLayout.CENTER);
-
-            // Кнопка для добавления нового водителя
-            JButton addNewDriverButtonInDialog = new JButton("Добавить нового водителя");
-            driverSelectionDialog.add(addNewDriverButtonInDialog, BorderLayout.SOUTH);
-
-            // Обработчик для добавления нового водителя
-            addNewDriverButtonInDialog.addActionListener(addEvent -> {
-                driverController.openAddDriverWindow();
-                List<Driver> updatedDrivers = em.createQuery("SELECT d FROM Driver d", Driver.class).getResultList();
-                String[] updatedDriverNames = updatedDrivers.stream()
-                    .map(dr -> dr.getFullName() + " (" + dr.getLicenseNumber() + ")")
-                    .toArray(String[]::new);
-                driverList.setListData(updatedDriverNames);
-
-                if (updatedDriverNames.length > 0) {
-                    driverList.setSelectedIndex(updatedDriverNames.length - 1);
-                    ownerField.setText(updatedDriverNames[updatedDriverNames.length - 1]);
-                }
-            });
-
-            // Обработчик выбора водителя из списка
-            driverList.addListSelectionListener(event -> {
-                if (!event.getValueIsAdjusting()) {
-                    String selectedDriver = driverList.getSelectedValue();
-                    if (selectedDriver != null) {
-                        ownerField.setText(selectedDriver);
-                        driverSelectionDialog.dispose();
-                    }
-                }
-            });
-
-            // Отображаем окно выбора водителя
-            driverSelectionDialog.setLocationRelativeTo(editCarDialog);
-            driverSelectionDialog.setVisible(true);
-        });
+        // Выбор владельца с поиском по ФИО и номеру удостоверения
+        selectOwnerButton.addActionListener(e -> selectOwner(editCarDialog, "Выберите водителя", ownerField, true));
 
         // Обработчик кнопки "Сохранить"
         saveButton.addActionListener(e -> {
@@ -374,9 +296,10 @@ public class CarController {
 
                 // Извлекаем номер водительского удостоверения
                 String licenseNumber = owner.substring(startIndex + 1, endIndex);
-                Driver driver = (Driver) em.createQuery("SELECT d FROM Driver d WHERE d.licenseNumber = :license")
-                                            .setParameter("license", licenseNumber)
-                                            .getSingleResult();
+                Driver driver = driverService.getDriverByLicense(em, licenseNumber);
+                if (driver == null) {
+                    throw new IllegalArgumentException("Водитель с таким номером удостоверения не найден.");
+                }
                 tempCar.setOwner(driver);
 
                 // Проверка корректности данных автомобиля
@@ -492,38 +415,9 @@ public class CarController {
         buttonPanel.add(searchButton);
         buttonPanel.add(resetButton);
         searchPanel.add(buttonPanel);
-        
-        EntityManager em = carService.getEntityManager();
 
-        // Действие при выборе владельца
-        selectOwnerButton.addActionListener(e -> {
-            JDialog driverSelectionDialog = new JDialog(parentWindow, "Выберите владельца", true);
-            driverSelectionDialog.setSize(400, 300);
-
-            // Получение списка водителей из базы данных
-            List<Driver> drivers = em.createQuery("SELECT d FROM Driver d", Driver.class).getResultList();
-            String[] driverNames = drivers.stream()
-                .map(dr -> dr.getFullName() + " (" + dr.getLicenseNumber() + ")")
-                .toArray(String[]::new);
-
-            JList<String> driverList = new JList<>(driverNames);
-            driverList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
-            driverSelectionDialog.add(new JScrollPane(driverList), BorderLayout.CENTER);
-
-            // Действие при выборе водителя
-            driverList.addListSelectionListener(event -> {
-                if (!event.getValueIsAdjusting()) {
-                    String selectedDriver = driverList.getSelectedValue();
-                    if (selectedDriver != null) {
-                        ownerField.setText(selectedDriver);
-                        driverSelectionDialog.dispose();
-                    }
-                }
-            });
-
-            driverSelectionDialog.setLocationRelativeTo(null);
-            driverSelectionDialog.setVisible(true);
-        });
+        // Выбор владельца с поиском по ФИО и номеру удостоверения
+        selectOwnerButton.addActionListener(e -> selectOwner(parentWindow, "Выберите владельца", ownerField, false));
 
         // Действие при нажатии кнопки "Поиск"
         searchButton.addActionListener(e -> {
@@ -565,4 +459,28 @@ public class CarController {
         }
     }
 
+    /**
+     * Открывает окно выбора водителя и записывает выбранного водителя в поле владельца
+     * в формате «ФИО (номер удостоверения)».
+     *
+     * @param owner окно, над которым открывается окно выбора.
+     * @param title заголовок окна выбора.
+     * @param ownerField поле владельца.
+     * @param allowAdd true, чтобы в окне выбора можно было добавить нового водителя.
+     */
+    private void selectOwner(Window owner, String title, JTextField ownerField, boolean allowAdd) {
+        LookupDialog<Driver> driverLookupDialog = new LookupDialog<>(owner, title,
+                text -> driverService.suggestDrivers(text, LookupDialog.RESULT_LIMIT), CarController::formatOwner);
+        if (allowAdd) {
+            driverLookupDialog.setAddAction("Добавить нового водителя", driverController::openAddDriverWindow);
+        }
+        Driver driver = driverLookupDialog.showDialog();
+        if (driver != null) {
+            ownerField.setText(formatOwner(driver));
+        }
+    }
+
+    private static String formatOwner(Driver driver) {
+        return driver.getFullName() + " (" + driver.getLicenseNumber() + ")";
+    }
 }
@@ -10,6 +10,7 @@ import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Класс-контроллер для управления водителями.
@@ -62,8 +63,10 @@ public class DriverController {
 
     /**
      * Открывает окно для добавления нового водителя.
+     *
+     * @return добавленный водитель или null, если окно закрыто без добавления.
      */
-    public void openAddDriverWindow() {
+    public Driver openAddDriverWindow() {
         // Создаем диалоговое окно для добавления водителя
         JDialog addDriverDialog = new JDialog(parentWindow, "Добавление водителя", true);
         addDriverDialog.setSize(400, 300);
@@ -103,6 +106,8 @@ public class DriverController {
         addDriverDialog.add(inputPanel, BorderLayout.CENTER);
         addDriverDialog.add(buttonPanel, BorderLayout.SOUTH);
 
+        AtomicReference<Driver> addedDriver = new AtomicReference<>();
+
         // Обработчик кнопки добавления
         addButton.addActionListener(e -> {
             try {
@@ -125,6 +130,7 @@ public class DriverController {
 
                 // Добавляем водителя в базу данных
                 driverService.addDriver(driver);
+                addedDriver.set(driver);
                 updateCarData();
                 addDriverDialog.dispose();
             } catch (Exception ex) {
@@ -137,6 +143,7 @@ public class DriverController {
 
         addDriverDialog.setLocationRelativeTo(parentWindow);
         addDriverDialog.setVisible(true);
+        return addedDriver.get();
     }
 
     /**
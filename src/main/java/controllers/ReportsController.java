@@ -2,18 +2,25 @@ package controllers;
 
 import ui.ReportsPanel;
 import services.ReportService;
+import services.StatisticsDimension;
+import entities.ReportRow;
+import entities.StatisticsRow;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
+import java.util.EnumMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
 
 /**
  * Контроллер для работы с отчетами.
  * Управляет взаимодействием между панелью отчетов и сервисом отчетов.
- * Содержит логику обработки событий, таких как отображение отчетов и генерация PDF-файлов.
+ * Содержит логику обработки событий, таких как отображение отчетов, генерация PDF-файлов и отображение сводки.
  */
 public class ReportsController {
     private ReportsPanel reportsPanel;
@@ -86,7 +93,7 @@ public class ReportsController {
                 LocalDate endDate = LocalDate.parse(endDateText, formatter);
 
                 // Генерация отчета в формате PDF
-                reportService.generatePdfReport(startDate, endDate);
+                reportService.generatePdfReport(startDate, endDate, reportsPanel.getArchiveXmlCheckBox().isSelected());
 
                 // Сообщение об успешной генерации
                 JOptionPane.showMessageDialog(reportsPanel, "Создание отчёта успешно завершено.", "Успех", JOptionPane.INFORMATION_MESSAGE);
@@ -96,6 +103,121 @@ public class ReportsController {
             }
         });
 
+        // Обработчик события для кнопки отображения сводки
+        reportsPanel.getShowStatisticsButton().addActionListener(e -> {
+            try {
+                YearMonth from = parseMonth(reportsPanel.getFromMonthField().getText(), "Первый месяц");
+                YearMonth to = parseMonth(reportsPanel.getToMonthField().getText(), "Последний месяц");
+                showStatistics(from, to);
+            } catch (Exception ex) {
+                JOptionPane.showMessageDialog(reportsPanel, "Ошибка: " + ex.getMessage(), "Ошибка", JOptionPane.ERROR_MESSAGE);
+            }
+        });
+
+        // Обработчик события для кнопки пересчёта сводки
+        reportsPanel.getRefreshStatisticsButton().addActionListener(e -> {
+            int confirm = JOptionPane.showConfirmDialog(reportsPanel,
+                    "Пересчёт сводки по всем нарушениям может занять продолжительное время. Продолжить?",
+                    "Пересчёт сводки", JOptionPane.YES_NO_OPTION);
+            if (confirm != JOptionPane.YES_OPTION) {
+                return;
+            }
+            setStatisticsButtonsEnabled(false);
+            reportsPanel.getStatisticsStatusLabel().setText("Пересчёт сводки...");
+            new SwingWorker<Void, Void>() {
+                @Override
+                protected Void doInBackground() {
+                    reportService.refreshStatistics();
+                    return null;
+                }
+
+                @Override
+                protected void done() {
+                    setStatisticsButtonsEnabled(true);
+                    try {
+                        get();
+                        reportsPanel.getStatisticsStatusLabel().setText("Сводка пересчитана");
+                    } catch (InterruptedException | ExecutionException ex) {
+                        showStatisticsError(ex);
+                    }
+                }
+            }.execute();
+        });
+    }
+
+    /**
+     * Загружает сводку по всем признакам группировки в фоновом потоке и отображает её в таблицах.
+     *
+     * @param from первый месяц периода или null.
+     * @param to последний месяц периода или null.
+     */
+    private void showStatistics(YearMonth from, YearMonth to) {
+        setStatisticsButtonsEnabled(false);
+        reportsPanel.getStatisticsStatusLabel().setText("Загрузка сводки...");
+        new SwingWorker<Map<StatisticsDimension, List<StatisticsRow>>, Void>() {
+            @Override
+            protected Map<StatisticsDimension, List<StatisticsRow>> doInBackground() {
+                Map<StatisticsDimension, List<StatisticsRow>> result = new EnumMap<>(StatisticsDimension.class);
+                for (StatisticsDimension dimension : StatisticsDimension.values()) {
+                    result.put(dimension, reportService.getStatistics(dimension, from, to));
+                }
+                return result;
+            }
+
+            @Override
+            protected void done() {
+                setStatisticsButtonsEnabled(true);
+                try {
+                    long count = 0;
+                    long fineTotal = 0;
+                    for (Map.Entry<StatisticsDimension, List<StatisticsRow>> entry : get().entrySet()) {
+                        DefaultTableModel tableModel = reportsPanel.getStatisticsTableModel(entry.getKey());
+                        tableModel.setRowCount(0);
+                        for (StatisticsRow row : entry.getValue()) {
+                            tableModel.addRow(new Object[]{row.getLabel(), row.getCount(), row.getFineTotal()});
+                            // Статусы оплаты не пересекаются, поэтому их строки в сумме дают итог за период
+                            if (entry.getKey() == StatisticsDimension.PAYMENT) {
+                                count += row.getCount();
+                                fineTotal += row.getFineTotal();
+                            }
+                        }
+                    }
+                    reportsPanel.getStatisticsStatusLabel().setText("Всего нарушений: " + count + ", сумма штрафов: " + fineTotal);
+                } catch (InterruptedException | ExecutionException ex) {
+                    showStatisticsError(ex);
+                }
+            }
+        }.execute();
+    }
+
+    /**
+     * Преобразует месяц из поля ввода.
+     *
+     * @param text текст поля в формате ГГГГ-ММ.
+     * @param name название поля для сообщения об ошибке.
+     * @return месяц или null, если поле пустое.
+     * @throws IllegalArgumentException если месяц указан в неверном формате.
+     */
+    private static YearMonth parseMonth(String text, String name) {
+        String value = text.trim();
+        if (value.isEmpty()) {
+            return null;
+        }
+        if (!value.matches("\\d{4}-(0[1-9]|1[0-2])")) {
+            throw new IllegalArgumentException(name + " должен быть в формате ГГГГ-ММ.");
+        }
+        return YearMonth.parse(value);
+    }
+
+    private void setStatisticsButtonsEnabled(boolean enabled) {
+        reportsPanel.getShowStatisticsButton().setEnabled(enabled);
+        reportsPanel.getRefreshStatisticsButton().setEnabled(enabled);
+    }
+
+    private void showStatisticsError(Exception ex) {
+        Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+        reportsPanel.getStatisticsStatusLabel().setText(" ");
+        JOptionPane.showMessageDialog(reportsPanel, "Ошибка: " + cause.getMessage(), "Ошибка", JOptionPane.ERROR_MESSAGE);
     }
 
     /**
@@ -110,15 +232,15 @@ public class ReportsController {
         reportsPanel.getGeneratePdfButton().setEnabled(true);
 
         // Получаем данные для отчета из сервиса
-        List<Object[]> data = reportService.getReportData(startDate, endDate);
+        List<ReportRow> data = reportService.getReportData(startDate, endDate);
 
         // Получаем модель таблицы отчетов
         DefaultTableModel tableModel = reportsPanel.getReportsTableModel();
         tableModel.setRowCount(0); // Очищаем таблицу перед добавлением новых данных
 
         // Добавляем строки данных в таблицу
-        for (Object[] row : data) {
-            tableModel.addRow(row);
+        for (ReportRow row : data) {
+            tableModel.addRow(new Object[]{row.getDate(), row.getDriverName(), row.getCar(), row.getViolationType()});
         }
     }
 }
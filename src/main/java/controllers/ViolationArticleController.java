@@ -11,6 +11,7 @@ import javax.swing.table.DefaultTableModel;
 import application.Application;
 
 import java.awt.*;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Контроллер для управления статьями нарушений.
@@ -71,8 +72,10 @@ public class ViolationArticleController {
     
     /**
      * Открывает окно для добавления новой статьи нарушения.
+     *
+     * @return добавленная статья нарушения или null, если окно закрыто без добавления.
      */
-    public void openAddViolationArticleWindow() {
+    public ViolationArticle openAddViolationArticleWindow() {
         JDialog addArticleDialog = new JDialog(parentWindow, "Добавить статью нарушения", true);
         addArticleDialog.setSize(400, 200);
         addArticleDialog.setLayout(new BorderLayout());
@@ -99,6 +102,8 @@ public class ViolationArticleController {
         addArticleDialog.add(inputPanel, BorderLayout.CENTER);
         addArticleDialog.add(buttonPanel, BorderLayout.SOUTH);
 
+        AtomicReference<ViolationArticle> addedArticle = new AtomicReference<>();
+
         addButton.addActionListener(e -> {
             try {
                 ViolationArticle violationArticle = new ViolationArticle();
@@ -115,6 +120,7 @@ public class ViolationArticleController {
                 ViolationArticleValidator.validateViolationArticle(violationArticle, violationArticleService.getEntityManager(), " ");
                 
                 violationArticleService.addViolationArticle(violationArticle);
+                addedArticle.set(violationArticle);
                 updateViolationArticleData();  // Обновление данных на панели
                 addArticleDialog.dispose();  // Закрытие окна
             } catch (Exception ex) {
@@ -127,6 +133,7 @@ public class ViolationArticleController {
 
         addArticleDialog.setLocationRelativeTo(parentWindow);  // Размещение окна относительно родительского
         addArticleDialog.setVisible(true);  // Отображение окна
+        return addedArticle.get();
     }
     
     /**
@@ -1,9 +1,16 @@
 package controllers;
 
+import ui.LookupDialog;
 import ui.ViolationsPanel;
+import ui.ViolationsTableModel;
 import validators.ViolationValidator;
 
+import services.CarService;
+import services.ViolationArticleService;
+import services.ViolationFilter;
 import services.ViolationService;
+import services.ViolationTypeService;
+import utils.ReferenceDataCache;
 import entities.Violation;
 import entities.Car;
 import entities.ViolationArticle;
@@ -11,11 +18,9 @@ import entities.ViolationType;
 
 import javax.persistence.EntityManager;
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 
 import java.awt.*;
 import java.time.LocalDate;
-import java.util.List;
 
 /**
  * Контроллер для работы с нарушениями.
@@ -28,11 +33,18 @@ public class ViolationController {
 	// Сервис для работы с нарушениями
 	private ViolationService violationService;
 	
+	// Сервис для поиска автомобилей по госномеру
+	private CarService carService;
+	
+	// Сервисы справочников для окон выбора типа и статьи нарушения
+	private ViolationTypeService violationTypeService;
+	private ViolationArticleService violationArticleService;
+	
 	// Окно родительского компонента
 	private JFrame parentWindow;
 	
 	// Модель таблицы для отображения нарушений
-	private DefaultTableModel violationsTableModel;
+	private ViolationsTableModel violationsTableModel;
 	
 	// Контроллеры для работы с автомобилями, статьями нарушений и типами нарушений
 	private CarController carController;
@@ -45,15 +57,21 @@ public class ViolationController {
 	 * @param parentWindow родительское окно
 	 * @param violationsPanel панель с интерфейсом для работы с нарушениями
 	 * @param violationService сервис для работы с нарушениями
+	 * @param carService сервис для поиска автомобилей по госномеру
+	 * @param violationTypeService сервис типов нарушений
+	 * @param violationArticleService сервис статей нарушений
 	 * @param violationsTableModel модель таблицы для нарушений
 	 * @param carController контроллер для работы с автомобилями
 	 * @param violationArticleController контроллер для работы со статьями нарушений
 	 * @param violationTypeController контроллер для работы с типами нарушений
 	 */
-	public ViolationController(JFrame parentWindow, ViolationsPanel violationsPanel, ViolationService violationService, DefaultTableModel violationsTableModel, CarController carController, ViolationArticleController violationArticleController, ViolationTypeController violationTypeController) {
+	public ViolationController(JFrame parentWindow, ViolationsPanel violationsPanel, ViolationService violationService, CarService carService, ViolationTypeService violationTypeService, ViolationArticleService violationArticleService, ViolationsTableModel violationsTableModel, CarController carController, ViolationArticleController violationArticleController, ViolationTypeController violationTypeController) {
 		this.parentWindow = parentWindow;
 		this.violationsPanel = violationsPanel;
 		this.violationService = violationService;
+		this.carService = carService;
+		this.violationTypeService = violationTypeService;
+		this.violationArticleService = violationArticleService;
 		this.violationsTableModel = violationsTableModel;
 		this.carController = carController;
 		this.violationArticleController = violationArticleController;
@@ -77,15 +95,15 @@ public class ViolationController {
 		// Обработчик для поиска нарушения
 		violationsPanel.setSearchViolationAction(e -> openSearchViolationWindow());
 		// Обработчик для сброса фильтров
-		violationsPanel.setResetFiltersAction(e -> violationsPanel.updateViolationData(violationService.getAllViolations()));
+		violationsPanel.setResetFiltersAction(e -> violationsPanel.showAllViolations());
 	}
 	
 	/**
 	 * Обновляет данные о нарушениях в панели.
-	 * Загружает все нарушения из сервиса и отображает их на панели.
+	 * Отображает все нарушения; строки загружаются из сервиса постранично.
 	 */
 	public void updateViolationData() {
-	    violationsPanel.updateViolationData(violationService.getAllViolations());
+	    violationsPanel.showAllViolations();
 	}
 	
 	/**
@@ -157,160 +175,14 @@ public class ViolationController {
 	    // Получаем EntityManager для работы с базой данных
 	    EntityManager em = violationService.getEntityManager();
 
-	    // Обработчик выбора автомобиля
-	    selectCarButton.addActionListener(e -> {
-	        JDialog carSelectionDialog = new JDialog(addViolationDialog, "Выберите автомобиль", true);
-	        carSelectionDialog.setSize(400, 300);
-
-	        // Получаем список автомобилей из базы данных
-	        List<Car> cars = em.createQuery("SELECT c FROM Car c", Car.class).getResultList();
-	        String[] carDetails = cars.stream()
-	            .map(c -> c.getBrand() + " " + c.getModel() + " (" + c.getLicensePlate() + ")")
-	            .toArray(String[]::new);
-
-	        // Создаем список с автомобилями
-	        JList<String> carList = new JList<>(carDetails);
-	        carList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
-	        carSelectionDialog.add(new JScrollPane(carList), BorderLayout.CENTER);
-
-	        // Кнопка для добавления нового автомобиля
-	        JButton addNewCarButtonInDialog = new JButton("Добавить новый автомобиль");
-	        carSelectionDialog.add(addNewCarButtonInDialog, BorderLayout.SOUTH);
-
-	        // Обработчик для добавления нового автомобиля
-	        addNewCarButtonInDialog.addActionListener(ev -> {
-	            carController.openAddCarWindow();
-	            List<Car> updatedCars = em.createQuery("SELECT c FROM Car c", Car.class).getResultList();
-	            String[] updatedCarDetails = updatedCars.stream()
-	                .map(c -> c.getBrand() + " " + c.getModel() + " (" + c.getLicensePlate() + ")")
-	                .toArray(String[]::new);
-	            carList.setListData(updatedCarDetails);
-
-	            // Выбираем только что добавленный автомобиль
-	            if (updatedCarDetails.length > 0) {
-	                carList.setSelectedIndex(updatedCarDetails.length - 1);
-	                carField.setText(updatedCarDetails[updatedCarDetails.length - 1]);
-	            }
-	        });
-
-	        // Обработчик выбора автомобиля
-	        carList.addListSelectionListener(event -> {
-	            if (!event.getValueIsAdjusting()) {
-	                String selectedCar = carList.getSelectedValue();
-	                if (selectedCar != null) {
-	                    carField.setText(selectedCar);
-	                    carSelectionDialog.dispose();
-	                }
-	            }
-	        });
+	    // Выбор автомобиля с поиском по марке, модели, VIN и госномеру
+	    selectCarButton.addActionListener(e -> selectCar(addViolationDialog, "Выберите автомобиль", carField, true));
 
-	        carSelectionDialog.setLocationRelativeTo(addViolationDialog);
-	        carSelectionDialog.setVisible(true);
-	    });
+	    // Выбор типа нарушения
+	    selectViolationTypeButton.addActionListener(e -> selectViolationType(addViolationDialog, "Выберите тип нарушения", violationTypeField, true));
 
-	    // Обработчик выбора типа нарушения
-	    selectViolationTypeButton.addActionListener(e -> {
-	        JDialog violationTypeDialog = new JDialog(addViolationDialog, "Выберите тип нарушения", true);
-	        violationTypeDialog.setSize(400, 300);
-
-	        // Получаем список типов нарушений из базы данных
-	        List<ViolationType> violationTypes = em.createQuery("SELECT vt FROM ViolationType vt ORDER BY vt.violationTypeId", ViolationType.class).getResultList();
-	        String[] violationTypeNames = violationTypes.stream()
-	            .map(ViolationType::getViolationTypeName)
-	            .toArray(String[]::new);
-
-	        // Создаем список с типами нарушений
-	        JList<String> violationTypeList = new JList<>(violationTypeNames);
-	        violationTypeList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
-
-	        violationTypeDialog.add(new JScrollPane(violationTypeList), BorderLayout.CENTER);
-
-	        // Кнопка для добавления нового типа нарушения
-	        JButton addNewvViolationTypeButtonInDialog = new JButton("Добавить новый тип нарушения");
-	        violationTypeDialog.add(addNewvViolationTypeButtonInDialog, BorderLayout.SOUTH);
-
-	        // Обработчик для добавления нового типа нарушения
-	        addNewvViolationTypeButtonInDialog.addActionListener(ev -> {
-	            violationTypeController.openAddViolationTypeWindow();
-	            List<ViolationType> updatedViolationTypes = em.createQuery("SELECT vt FROM ViolationType vt ORDER BY vt.violationTypeId", ViolationType.class).getResultList();
-	            String[] updatedViolationTypeNames = updatedViolationTypes.stream()
-	                .map(ViolationType::getViolationTypeName)
-	                .toArray(String[]::new);
-	            violationTypeList.setListData(updatedViolationTypeNames);
-
-	            // Выбираем только что добавленный тип нарушения
-	            if (updatedViolationTypeNames.length > 0) {
-	                violationTypeList.setSelectedIndex(updatedViolationTypeNames.length - 1);
-	                violationTypeField.setText(updatedViolationTypeNames[updatedViolationTypeNames.length - 1]);
-	            }
-	        });
-
-	        // Обработчик выбора типа нарушения
-	        violationTypeList.addListSelectionListener(event -> {
-	            if (!event.getValueIsAdjusting()) {
-	                String selectedViolationType = violationTypeList.getSelectedValue();
-	                if (selectedViolationType != null) {
-	                    violationTypeField.setText(selectedViolationType);
-	                    violationTypeDialog.dispose();
-	                }
-	            }
-	        });
-
-	        violationTypeDialog.setLocationRelativeTo(addViolationDialog);
-	        violationTypeDialog.setVisible(true);
-	    });
-
-	    // Обработчик выбора статьи нарушения
-	    selectViolationArticleButton.addActionListener(e -> {
-	        JDialog violationArticleDialog = new JDialog(addViolationDialog, "Выберите статью нарушения", true);
-	        violationArticleDialog.setSize(400, 300);
-
-	        // Получаем список статей нарушений из базы данных
-	        List<ViolationArticle> violationArticles = em.createQuery("SELECT va FROM ViolationArticle va", ViolationArticle.class).getResultList();
-	        String[] violationArticleNames = violationArticles.stream()
-	            .map(ViolationArticle::getViolationArticleCode)
-	            .toArray(String[]::new);
-
-	        // Создаем список с статьями нарушений
-	        JList<String> violationArticleList = new JList<>(violationArticleNames);
-	        violationArticleList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
-
-	        violationArticleDialog.add(new JScrollPane(violationArticleList), BorderLayout.CENTER);
-
-	        // Кнопка для добавления новой статьи нарушения
-	        JButton addNewViolationArticleButtonInDialog = new JButton("Добавить новую статью");
-	        violationArticleDialog.add(addNewViolationArticleButtonInDialog, BorderLayout.SOUTH);
-
-	        // Обработчик для добавления новой статьи нарушения
-	        addNewViolationArticleButtonInDialog.addActionListener(ev -> {
-	            violationArticleController.openAddViolationArticleWindow();
-	            List<ViolationArticle> updatedViolationArticles = em.createQuery("SELECT va FROM ViolationArticle va", ViolationArticle.class).getResultList();
-	            String[] updatedViolationArticleNames = updatedViolationArticles.stream()
-	                .map(ViolationArticle::getViolationArticleCode)
-	                .toArray(String[]::new);
-	            violationArticleList.setListData(updatedViolationArticleNames);
-
-	            // Выбираем только что добавленную статью нарушения
-	            if (updatedViolationArticleNames.length > 0) {
-	                violationArticleList.setSelectedIndex(updatedViolationArticleNames.length - 1);
-	                violationArticleField.setText(updatedViolationArticleNames[updatedViolationArticleNames.length - 1]);
-	            }
-	        });
-
-	        // Обработчик выбора статьи нарушения
-	        violationArticleList.addListSelectionListener(event -> {
-	            if (!event.getValueIsAdjusting()) {
-	                String selectedArticle = violationArticleList.getSelectedValue();
-	                if (selectedArticle != null) {
-	                    violationArticleField.setText(selectedArticle);
-	                    violationArticleDialog.dispose();
-	                }
-	            }
-	        });
-
-	        violationArticleDialog.setLocationRelativeTo(addViolationDialog);
-	        violationArticleDialog.setVisible(true);
-	    });
+	    // Выбор статьи нарушения
+	    selectViolationArticleButton.addActionListener(e -> selectViolationArticle(addViolationDialog, "Выберите статью нарушения", violationArticleField, true));
 
 	    // Обработчик добавления нарушения
 	    addButton.addActionListener(e -> {
@@ -338,9 +210,10 @@ public class ViolationController {
 	            	String licensePlate = car.substring(carStart + 1, carEnd);
 	            	
 	            	// Ищем автомобиль по номеру
-	            	Car selectedCar = em.createQuery("SELECT c FROM Car c WHERE c.licensePlate = :plate", Car.class)
-	            			.setParameter("plate", licensePlate)
-	            			.getSingleResult();
+	            	Car selectedCar = carService.getCarByLicensePlate(em, licensePlate);
+	            	if (selectedCar == null) {
+	            		throw new IllegalArgumentException("Автомобиль с таким госномером не найден.");
+	            	}
 	            	violation.setCar(selectedCar);
 	            }
 
@@ -349,7 +222,7 @@ public class ViolationController {
 	            if (violationType.trim().isEmpty()) {
 	            	violation.setViolationType(null);
 	            } else {	            	
-	            	ViolationType selectedType = em.createQuery("SELECT vt FROM ViolationType vt WHERE vt.violationTypeName = :name ", ViolationType.class)
+	            	ViolationType selectedType = ReferenceDataCache.cacheable(em.createQuery("SELECT vt FROM ViolationType vt WHERE vt.violationTypeName = :name ", ViolationType.class))
 	            			.setParameter("name", violationType)
 	            			.getSingleResult();
 	            	violation.setViolationType(selectedType);
@@ -358,7 +231,7 @@ public class ViolationController {
 	            if (violationArticle.trim().isEmpty()) {
 	            	violation.setViolationArticle(null);
 	            } else {	            	
-	            	ViolationArticle selectedArticle = em.createQuery("SELECT va FROM ViolationArticle va WHERE va.violationArticleCode = :name", ViolationArticle.class)
+	            	ViolationArticle selectedArticle = ReferenceDataCache.cacheable(em.createQuery("SELECT va FROM ViolationArticle va WHERE va.violationArticleCode = :name", ViolationArticle.class))
 	            			.setParameter("name", violationArticle)
 	            			.getSingleResult();
 	            	violation.setViolationArticle(selectedArticle);
@@ -475,152 +348,14 @@ public class ViolationController {
 	    
 	    EntityManager em = violationService.getEntityManager();
 	    
-	    // Обработчик нажатия кнопки выбора автомобиля
-	    selectCarButton.addActionListener(e -> {
-	        JDialog carSelectionDialog = new JDialog(editViolationDialog, "Выберите автомобиль", true);
-	        carSelectionDialog.setSize(400, 300);
-
-	        // Получаем список автомобилей из базы данных
-	        List<Car> cars = em.createQuery("SELECT c FROM Car c", Car.class).getResultList();
-	        String[] carDetails = cars.stream()
-	            .map(c -> c.getBrand() + " " + c.getModel() + " (" + c.getLicensePlate() + ")")
-	            .toArray(String[]::new);
-
-	        JList<String> carList = new JList<>(carDetails);
-	        carList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
-	        carSelectionDialog.add(new JScrollPane(carList), BorderLayout.CENTER);
-	        
-	        JButton addNewCarButtonInDialog = new JButton("Добавить новый автомобиль");
-	        carSelectionDialog.add(addNewCarButtonInDialog, BorderLayout.SOUTH);
-	        
-	        addNewCarButtonInDialog.addActionListener(ev -> {
-	            carController.openAddCarWindow();
-	            // Обновляем список автомобилей после добавления нового
-	            List<Car> updatedCars = em.createQuery("SELECT c FROM Car c", Car.class).getResultList();
-	            String[] updatedCarDetails = updatedCars.stream()
-	                .map(c -> c.getBrand() + " " + c.getModel() + " (" + c.getLicensePlate() + ")")
-	                .toArray(String[]::new);
-	            carList.setListData(updatedCarDetails);
-
-	            // Если обновленные данные существуют, выбираем последний элемент
-	            if (updatedCarDetails.length > 0) {
-	                carList.setSelectedIndex(updatedCarDetails.length - 1);
-	                carField.setText(updatedCarDetails[updatedCarDetails.length - 1]);
-	            }
-	        });
-
-	        // Обработчик выбора автомобиля
-	        carList.addListSelectionListener(event -> {
-	            if (!event.getValueIsAdjusting()) {
-	                String selectedCar = carList.getSelectedValue();
-	                if (selectedCar != null) {
-	                    carField.setText(selectedCar);
-	                    carSelectionDialog.dispose();
-	                }
-	            }
-	        });
-
-	        carSelectionDialog.setLocationRelativeTo(editViolationDialog);
-	        carSelectionDialog.setVisible(true);
-	    });
-
-	    // Обработчик нажатия кнопки выбора типа нарушения
-	    selectViolationTypeButton.addActionListener(e -> {
-	        JDialog violationTypeDialog = new JDialog(editViolationDialog, "Выберите тип нарушения", true);
-	        violationTypeDialog.setSize(400, 300);
-
-	        // Получаем список типов нарушений
-	        List<ViolationType> violationTypes = em.createQuery("SELECT vt FROM ViolationType vt ORDER BY vt.violationTypeId", ViolationType.class).getResultList();
-	        String[] violationTypeNames = violationTypes.stream()
-	            .map(ViolationType::getViolationTypeName)
-	            .toArray(String[]::new);
-
-	        JList<String> violationTypeList = new JList<>(violationTypeNames);
-	        violationTypeList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
-	        
-	        violationTypeDialog.add(new JScrollPane(violationTypeList), BorderLayout.CENTER);
-	        
-	        JButton addNewvViolationTypeButtonInDialog = new JButton("Добавить новый тип нарушения");
-	        violationTypeDialog.add(addNewvViolationTypeButtonInDialog, BorderLayout.SOUTH);
-
-	        addNewvViolationTypeButtonInDialog.addActionListener(ev -> {
-	            violationTypeController.openAddViolationTypeWindow();
-	            // Обновляем список типов нарушений после добавления нового
-	            List<ViolationType> updatedViolationTypes = em.createQuery("SELECT vt FROM ViolationType vt ORDER BY vt.violationTypeId", ViolationType.class).getResultList();
-	            String[] updatedViolationTypeNames = updatedViolationTypes.stream()
-	                .map(ViolationType::getViolationTypeName)
-	                .toArray(String[]::new);
-	            violationTypeList.setListData(updatedViolationTypeNames);
-
-	            // Если обновленные данные существуют, выбираем последний элемент
-	            if (updatedViolationTypeNames.length > 0) {
-	                violationTypeList.setSelectedIndex(updatedViolationTypeNames.length - 1);
-	                violationTypeField.setText(updatedViolationTypeNames[updatedViolationTypeNames.length - 1]);
-	            }
-	        });
-	        
-	        violationTypeList.addListSelectionListener(event -> {
-	            if (!event.getValueIsAdjusting()) {
-	                String selectedViolationType = violationTypeList.getSelectedValue();
-	                if (selectedViolationType != null) {
-	                    violationTypeField.setText(selectedViolationType);
-	                    violationTypeDialog.dispose();
-	                }
-	            }
-	        });
+	    // Выбор автомобиля с поиском по марке, модели, VIN и госномеру
+	    selectCarButton.addActionListener(e -> selectCar(editViolationDialog, "Выберите автомобиль", carField, true));
 
-	        violationTypeDialog.setLocationRelativeTo(editViolationDialog);
-	        violationTypeDialog.setVisible(true);
-	    });
+	    // Выбор типа нарушения
+	    selectViolationTypeButton.addActionListener(e -> selectViolationType(editViolationDialog, "Выберите тип нарушения", violationTypeField, true));
 	    
-	    // Обработчик нажатия кнопки выбора статьи нарушения
-	    selectViolationArticleButton.addActionListener(e -> {
-	        JDialog violationArticleDialog = new JDialog(editViolationDialog, "Выберите статью нарушения", true);
-	        violationArticleDialog.setSize(400, 300);
-
-	        // Получаем список статей нарушений
-	        List<ViolationArticle> violationArticles = em.createQuery("SELECT va FROM ViolationArticle va", ViolationArticle.class).getResultList();
-	        String[] violationArticleNames = violationArticles.stream()
-	            .map(ViolationArticle::getViolationArticleCode)
-	            .toArray(String[]::new);
-
-	        JList<String> violationArticleList = new JList<>(violationArticleNames);
-	        violationArticleList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
-	        
-	        violationArticleDialog.add(new JScrollPane(violationArticleList), BorderLayout.CENTER);
-	        
-	        JButton addNewViolationArticleButtonInDialog = new JButton("Добавить новую статью");
-	        violationArticleDialog.add(addNewViolationArticleButtonInDialog, BorderLayout.SOUTH);
-
-	        addNewViolationArticleButtonInDialog.addActionListener(ev -> {
-	            violationArticleController.openAddViolationArticleWindow();
-	            // Обновляем список статей нарушений после добавления новой
-	            List<ViolationArticle> updatedViolationArticles = em.createQuery("SELECT va FROM ViolationArticle va", ViolationArticle.class).getResultList();
-	            String[] updatedViolationArticleNames = updatedViolationArticles.stream()
-	                .map(ViolationArticle::getViolationArticleCode)
-	                .toArray(String[]::new);
-	            violationArticleList.setListData(updatedViolationArticleNames);
-
-	            // Если обновленные данные существуют, выбираем последний элемент
-	            if (updatedViolationArticleNames.length > 0) {
-	                violationArticleList.setSelectedIndex(updatedViolationArticleNames.length - 1);
-	                violationArticleField.setText(updatedViolationArticleNames[updatedViolationArticleNames.length - 1]);
-	            }
-	        });
-	        
-	        violationArticleList.addListSelectionListener(event -> {
-	            if (!event.getValueIsAdjusting()) {
-	                String selectedArticle = violationArticleList.getSelectedValue();
-	                if (selectedArticle != null) {
-	                    violationArticleField.setText(selectedArticle);
-	                    violationArticleDialog.dispose();
-	                }
-	            }
-	        });
-
-	        violationArticleDialog.setLocationRelativeTo(editViolationDialog);
-	        violationArticleDialog.setVisible(true);
-	    });
+	    // Выбор статьи нарушения
+	    selectViolationArticleButton.addActionListener(e -> selectViolationArticle(editViolationDialog, "Выберите статью нарушения", violationArticleField, true));
 	    
         // Обработчик для кнопки "Сохранить" - добавляет изменение в нарушении в базу данных
 	    saveButton.addActionListener(e -> {
@@ -639,15 +374,16 @@ public class ViolationController {
 	            int carEnd = car.indexOf(')');
 	            String licensePlate = car.substring(carStart + 1, carEnd);
 
-	            Car selectedCar = em.createQuery("SELECT c FROM Car c WHERE c.licensePlate = :plate", Car.class)
-	                .setParameter("plate", licensePlate)
-	                .getSingleResult();
+	            Car selectedCar = carService.getCarByLicensePlate(em, licensePlate);
+	            if (selectedCar == null) {
+	                throw new IllegalArgumentException("Автомобиль с таким госномером не найден.");
+	            }
 	            tempViolation.setCar(selectedCar);
-	            ViolationType selectedType = em.createQuery("SELECT vt FROM ViolationType vt WHERE vt.violationTypeName = :name ", ViolationType.class)
+	            ViolationType selectedType = ReferenceDataCache.cacheable(em.createQuery("SELECT vt FROM ViolationType vt WHERE vt.violationTypeName = :name ", ViolationType.class))
 	            		.setParameter("name", violationTypeField.getText())
 	            		.getSingleResult();
 	            tempViolation.setViolationType(selectedType);
-	            ViolationArticle selectedArticle = em.createQuery("SELECT va FROM ViolationArticle va WHERE va.violationArticleCode = :name", ViolationArticle.class)
+	            ViolationArticle selectedArticle = ReferenceDataCache.cacheable(em.createQuery("SELECT va FROM ViolationArticle va WHERE va.violationArticleCode = :name", ViolationArticle.class))
 	                    .setParameter("name", violationArticleField.getText())
 	                    .getSingleResult();
 	            tempViolation.setViolationArticle(selectedArticle);
@@ -790,102 +526,17 @@ public class ViolationController {
 	    buttonPanel.add(resetButton);
 	    searchPanel.add(buttonPanel);
 
-	    EntityManager em = violationService.getEntityManager();
-
-	    // Обработчик для выбора автомобиля
-	    selectCarButton.addActionListener(e -> {
-	        // Окно выбора автомобиля
-	        JDialog carSelectionDialog = new JDialog(parentWindow, "Выберите автомобиль", true);
-	        carSelectionDialog.setSize(400, 300);
-	        
-	        List<Car> cars = em.createQuery("SELECT c FROM Car c", Car.class).getResultList();
-	        String[] carNames = cars.stream()
-	            .map(car -> car.getBrand() + " " + car.getModel() + " (" + car.getLicensePlate() + ")")
-	            .toArray(String[]::new);
-
-	        JList<String> carList = new JList<>(carNames);
-	        carList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
-	        carSelectionDialog.add(new JScrollPane(carList), BorderLayout.CENTER);
-
-	        // Обработчик выбора автомобиля
-	        carList.addListSelectionListener(event -> {
-	            if (!event.getValueIsAdjusting()) {
-	                String selectedCar = carList.getSelectedValue();
-	                if (selectedCar != null) {
-	                    carField.setText(selectedCar);
-	                    carSelectionDialog.dispose(); // Закрытие диалога после выбора
-	                }
-	            }
-	        });
-
-	        carSelectionDialog.setLocationRelativeTo(null);
-	        carSelectionDialog.setVisible(true);
-	    });
-
-	    // Обработчик для выбора типа нарушения
-	    selectViolationTypeButton.addActionListener(e -> {
-	        // Окно выбора типа нарушения
-	        JDialog violationTypeSelectionDialog = new JDialog(parentWindow, "Выберите тип нарушения", true);
-	        violationTypeSelectionDialog.setSize(400, 300);
-
-	        List<ViolationType> violationTypes = em.createQuery("SELECT v FROM ViolationType v ORDER BY v.violationTypeId", ViolationType.class).getResultList();
-	        String[] violationTypeNames = violationTypes.stream()
-	            .map(ViolationType::getViolationTypeName)
-	            .toArray(String[]::new);
-
-	        JList<String> violationTypeList = new JList<>(violationTypeNames);
-	        violationTypeList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
-	        violationTypeSelectionDialog.add(new JScrollPane(violationTypeList), BorderLayout.CENTER);
-
-	        // Обработчик выбора типа нарушения
-	        violationTypeList.addListSelectionListener(event -> {
-	            if (!event.getValueIsAdjusting()) {
-	                String selectedViolationType = violationTypeList.getSelectedValue();
-	                if (selectedViolationType != null) {
-	                    violationTypeField.setText(selectedViolationType);
-	                    violationTypeSelectionDialog.dispose(); // Закрытие диалога после выбора
-	                }
-	            }
-	        });
+	    // Выбор автомобиля с поиском по марке, модели, VIN и госномеру
+	    selectCarButton.addActionListener(e -> selectCar(parentWindow, "Выберите автомобиль", carField, false));
 
-	        violationTypeSelectionDialog.setLocationRelativeTo(null);
-	        violationTypeSelectionDialog.setVisible(true);
-	    });
+	    // Выбор типа нарушения
+	    selectViolationTypeButton.addActionListener(e -> selectViolationType(parentWindow, "Выберите тип нарушения", violationTypeField, false));
 
-	    // Обработчик для выбора статьи нарушения
-	    selectViolationArticleButton.addActionListener(e -> {
-	        // Окно выбора статьи нарушения
-	        JDialog violationArticleSelectionDialog = new JDialog(parentWindow, "Выберите статью", true);
-	        violationArticleSelectionDialog.setSize(400, 300);
-
-	        List<ViolationArticle> violationArticles = em.createQuery("SELECT v FROM ViolationArticle v", ViolationArticle.class).getResultList();
-	        String[] violationArticleNames = violationArticles.stream()
-	            .map(ViolationArticle::getViolationArticleCode)
-	            .toArray(String[]::new);
-
-	        JList<String> violationArticleList = new JList<>(violationArticleNames);
-	        violationArticleList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
-	        violationArticleSelectionDialog.add(new JScrollPane(violationArticleList), BorderLayout.CENTER);
-
-	        // Обработчик выбора статьи нарушения
-	        violationArticleList.addListSelectionListener(event -> {
-	            if (!event.getValueIsAdjusting()) {
-	                String selectedViolationArticle = violationArticleList.getSelectedValue();
-	                if (selectedViolationArticle != null) {
-	                    violationArticleField.setText(selectedViolationArticle);
-	                    violationArticleSelectionDialog.dispose(); // Закрытие диалога после выбора
-	                }
-	            }
-	        });
-
-	        violationArticleSelectionDialog.setLocationRelativeTo(null);
-	        violationArticleSelectionDialog.setVisible(true);
-	    });
+	    // Выбор статьи нарушения
+	    selectViolationArticleButton.addActionListener(e -> selectViolationArticle(parentWindow, "Выберите статью", violationArticleField, false));
 
 	    // Обработчик кнопки "Поиск"
 	    searchButton.addActionListener(e -> {
-	        violationsTableModel.setRowCount(0); // Очистка таблицы перед поиском
-	        
 	        // Получаем значения фильтров
 	        String violationDateFrom = violationDateFromField.getText();
 	        String violationDateTo = violationDateToField.getText();
@@ -895,8 +546,8 @@ public class ViolationController {
 	        String violationArticle = violationArticleField.getText();
 	        boolean isPaid = paymentStatusCheckbox.isSelected();
 
-	        // Выполнение поиска
-	        violationsPanel.updateViolationData(violationService.searchViolations(violationDateFrom, violationDateTo, resolutionNumber, car, violationType, violationArticle, isPaid));
+	        // Выполнение поиска: найденные нарушения загружаются в таблицу страницами по мере прокрутки
+	        violationsPanel.showViolations(ViolationFilter.of(violationDateFrom, violationDateTo, resolutionNumber, car, violationType, violationArticle, isPaid));
 	    });
 
 	    // Обработчик кнопки "Сбросить фильтры"
@@ -922,4 +573,72 @@ public class ViolationController {
 	    }
 	}
 
+	/**
+	 * Открывает окно выбора автомобиля и записывает выбранный автомобиль в поле
+	 * в формате «Марка Модель (госномер)».
+	 *
+	 * @param owner окно, над которым открывается окно выбора.
+	 * @param title заголовок окна выбора.
+	 * @param carField поле автомобиля.
+	 * @param allowAdd true, чтобы в окне выбора можно было добавить новый автомобиль.
+	 */
+	private void selectCar(Window owner, String title, JTextField carField, boolean allowAdd) {
+	    LookupDialog<Car> carLookupDialog = new LookupDialog<>(owner, title,
+	            text -> carService.suggestCars(text, LookupDialog.RESULT_LIMIT), ViolationController::formatCar);
+	    if (allowAdd) {
+	        carLookupDialog.setAddAction("Добавить новый автомобиль", carController::openAddCarWindow);
+	    }
+	    Car car = carLookupDialog.showDialog();
+	    if (car != null) {
+	        carField.setText(formatCar(car));
+	    }
+	}
+
+	/**
+	 * Открывает окно выбора типа нарушения и записывает название выбранного типа в поле.
+	 * Типы нарушений отбираются из кэшированного справочника.
+	 *
+	 * @param owner окно, над которым открывается окно выбора.
+	 * @param title заголовок окна выбора.
+	 * @param violationTypeField поле типа нарушения.
+	 * @param allowAdd true, чтобы в окне выбора можно было добавить новый тип нарушения.
+	 */
+	private void selectViolationType(Window owner, String title, JTextField violationTypeField, boolean allowAdd) {
+	    LookupDialog<ViolationType> typeLookupDialog = new LookupDialog<>(owner, title,
+	            LookupDialog.filtering(violationTypeService::getAllViolationTypes, ViolationType::getViolationTypeName),
+	            ViolationType::getViolationTypeName);
+	    if (allowAdd) {
+	        typeLookupDialog.setAddAction("Добавить новый тип нарушения", violationTypeController::openAddViolationTypeWindow);
+	    }
+	    ViolationType violationType = typeLookupDialog.showDialog();
+	    if (violationType != null) {
+	        violationTypeField.setText(violationType.getViolationTypeName());
+	    }
+	}
+
+	/**
+	 * Открывает окно выбора статьи нарушения и записывает код выбранной статьи в поле.
+	 * Статьи отбираются из кэшированного справочника.
+	 *
+	 * @param owner окно, над которым открывается окно выбора.
+	 * @param title заголовок окна выбора.
+	 * @param violationArticleField поле статьи нарушения.
+	 * @param allowAdd true, чтобы в окне выбора можно было добавить новую статью.
+	 */
+	private void selectViolationArticle(Window owner, String title, JTextField violationArticleField, boolean allowAdd) {
+	    LookupDialog<ViolationArticle> articleLookupDialog = new LookupDialog<>(owner, title,
+	            LookupDialog.filtering(violationArticleService::getAllViolationArticles, ViolationArticle::getViolationArticleCode),
+	            ViolationArticle::getViolationArticleCode);
+	    if (allowAdd) {
+	        articleLookupDialog.setAddAction("Добавить новую статью", violationArticleController::openAddViolationArticleWindow);
+	    }
+	    ViolationArticle violationArticle = articleLookupDialog.showDialog();
+	    if (violationArticle != null) {
+	        violationArticleField.setText(violationArticle.getViolationArticleCode());
+	    }
+	}
+
+	private static String formatCar(Car car) {
+	    return car.getBrand() + " " + car.getModel() + " (" + car.getLicensePlate() + ")";
+	}
 }
@@ -11,6 +11,7 @@ import javax.swing.table.DefaultTableModel;
 import application.Application;
 
 import java.awt.*;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * Контроллер для управления типами нарушений в приложении.
@@ -64,8 +65,10 @@ public class ViolationTypeController {
 
     /**
      * Открывает окно для добавления нового типа нарушения.
+     *
+     * @return добавленный тип нарушения или null, если окно закрыто без добавления.
      */
-    public void openAddViolationTypeWindow() {
+    public ViolationType openAddViolationTypeWindow() {
         JDialog addTypeDialog = new JDialog(parentWindow, "Добавить тип нарушения", true);
         addTypeDialog.setSize(400, 150);
         addTypeDialog.setLayout(new BorderLayout());
@@ -85,6 +88,8 @@ public class ViolationTypeController {
         addTypeDialog.add(inputPanel, BorderLayout.CENTER);
         addTypeDialog.add(buttonPanel, BorderLayout.SOUTH);
 
+        AtomicReference<ViolationType> addedType = new AtomicReference<>();
+
         // Обработчик добавления типа нарушения
         addButton.addActionListener(e -> {
             try {
@@ -94,6 +99,7 @@ public class ViolationTypeController {
                 ViolationTypeValidator.validateViolationType(violationType, violationTypeService.getEntityManager(), " ");
 
                 violationTypeService.addViolationType(violationType);
+                addedType.set(violationType);
                 updateViolationTypeData();
                 addTypeDialog.dispose();
             } catch (Exception ex) {
@@ -106,6 +112,7 @@ public class ViolationTypeController {
 
         addTypeDialog.setLocationRelativeTo(parentWindow);
         addTypeDialog.setVisible(true);
+        return addedType.get();
     }
 
     /**
@@ -8,9 +8,14 @@ import javax.persistence.*;
 /**
  * Сущность, представляющая автомобиль.
  * Маппится на таблицу "car" в базе данных.
+ * Госномер и VIN уникальны, по ним выполняется поиск автомобиля.
  */
 @Entity
-@Table(name = "app_db.car")
+@Table(name = "app_db.car",
+	   uniqueConstraints = {
+			@UniqueConstraint(name = "uk_car_license_plate", columnNames = "car_license_plate"),
+			@UniqueConstraint(name = "uk_car_vin_number", columnNames = "car_vin_number")
+	   })
 public class Car {
 
     /**
@@ -18,7 +23,9 @@ public class Car {
      * Это уникальный идентификатор для каждого автомобиля в базе данных.
      */
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.TABLE, generator = "car_id_generator")
+	@TableGenerator(name = "car_id_generator", table = "app_db.id_generator", pkColumnName = "generator_name",
+			valueColumnName = "next_value", pkColumnValue = "car", allocationSize = 50)
 	@Column(name = "car_id")
 	private Integer carId;
 	
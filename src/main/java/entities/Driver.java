@@ -18,7 +18,9 @@ public class Driver {
      */
 	@Id
     @Column(name = "driver_id")
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "driver_id_generator")
+    @TableGenerator(name = "driver_id_generator", table = "app_db.id_generator", pkColumnName = "generator_name",
+            valueColumnName = "next_value", pkColumnValue = "driver", allocationSize = 50)
 	private Integer driverId;
 	
     /**
@@ -140,11 +142,23 @@ public class Driver {
      * @return полное имя водителя.
      */
     public String getFullName() {
-        String fullName = this.lastName + " " + this.firstName.charAt(0);
+        return formatFullName(this.lastName, this.firstName, this.middleName);
+    }
+
+    /**
+     * Сформировать полное имя водителя в формате {@link #getFullName()} из отдельных полей.
+     * Используется там, где поля водителя выбираются запросом без загрузки сущности.
+     * @param lastName фамилия водителя.
+     * @param firstName имя водителя.
+     * @param middleName отчество водителя, может быть пустым.
+     * @return полное имя водителя.
+     */
+    public static String formatFullName(String lastName, String firstName, String middleName) {
+        String fullName = lastName + " " + firstName.charAt(0);
         
         // Добавляем первую букву отчества, если оно указано
-        if (this.middleName != null && !this.middleName.isEmpty()) {
-            fullName += "." + this.middleName.charAt(0);
+        if (middleName != null && !middleName.isEmpty()) {
+            fullName += "." + middleName.charAt(0);
         }
 
         return fullName;
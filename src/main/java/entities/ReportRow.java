@@ -0,0 +1,113 @@
+package entities;
+
+import java.time.LocalDate;
+
+/**
+ * Строка отчёта по нарушениям.
+ * Не является сущностью: создаётся выражением {@code SELECT NEW} в запросе отчёта
+ * и содержит только поля, выводимые в отчёт.
+ */
+public class ReportRow {
+
+    /**
+     * Дата нарушения.
+     */
+    private final LocalDate date;
+
+    /**
+     * ФИО водителя в формате {@link Driver#getFullName()}.
+     */
+    private final String driverName;
+
+    /**
+     * Автомобиль в формате «марка модель (госномер)».
+     */
+    private final String car;
+
+    /**
+     * Название типа нарушения.
+     */
+    private final String violationType;
+
+    /**
+     * Создаёт строку отчёта из уже сформированных значений.
+     *
+     * @param date дата нарушения.
+     * @param driverName ФИО водителя.
+     * @param car описание автомобиля.
+     * @param violationType название типа нарушения.
+     */
+    public ReportRow(LocalDate date, String driverName, String car, String violationType) {
+        this.date = date;
+        this.driverName = driverName;
+        this.car = car;
+        this.violationType = violationType;
+    }
+
+    /**
+     * Создаёт строку отчёта из столбцов запроса отчёта.
+     * ФИО водителя и описание автомобиля собираются так же, как в {@link Driver#getFullName()}
+     * и таблице автомобилей, чтобы отчёт не зависел от способа получения данных.
+     *
+     * @param date дата нарушения.
+     * @param lastName фамилия владельца автомобиля.
+     * @param firstName имя владельца автомобиля.
+     * @param middleName отчество владельца автомобиля, может быть пустым.
+     * @param brand марка автомобиля.
+     * @param model модель автомобиля.
+     * @param licensePlate госномер автомобиля.
+     * @param violationType название типа нарушения.
+     */
+    public ReportRow(LocalDate date, String lastName, String firstName, String middleName,
+                     String brand, String model, String licensePlate, String violationType) {
+        this(date, formatDriverName(lastName, firstName, middleName),
+             brand + " " + model + " (" + licensePlate + ")", violationType);
+    }
+
+    /**
+     * Получить дату нарушения.
+     * @return дата нарушения.
+     */
+    public LocalDate getDate() {
+        return date;
+    }
+
+    /**
+     * Получить ФИО водителя.
+     * @return ФИО водителя.
+     */
+    public String getDriverName() {
+        return driverName;
+    }
+
+    /**
+     * Получить описание автомобиля.
+     * @return описание автомобиля: марка, модель и госномер.
+     */
+    public String getCar() {
+        return car;
+    }
+
+    /**
+     * Получить название типа нарушения.
+     * @return название типа нарушения.
+     */
+    public String getViolationType() {
+        return violationType;
+    }
+
+    /**
+     * Формирует ФИО водителя: фамилия и инициалы, отчество - только если указано.
+     *
+     * @param lastName фамилия.
+     * @param firstName имя.
+     * @param middleName отчество, может быть пустым.
+     * @return ФИО водителя, или пустая строка, если у автомобиля нет владельца.
+     */
+    private static String formatDriverName(String lastName, String firstName, String middleName) {
+        if (lastName == null || firstName == null || firstName.isEmpty()) {
+            return "";
+        }
+        return Driver.formatFullName(lastName, firstName, middleName);
+    }
+}
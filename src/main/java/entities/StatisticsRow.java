@@ -0,0 +1,60 @@
+package entities;
+
+/**
+ * Строка сводки по нарушениям: значение группировки, количество нарушений и сумма штрафов.
+ * Не является сущностью: создаётся по результату агрегирующего запроса.
+ */
+public class StatisticsRow {
+
+    /**
+     * Значение группировки (тип нарушения, статья, регион, месяц или статус оплаты).
+     */
+    private final String label;
+
+    /**
+     * Количество нарушений.
+     */
+    private final long count;
+
+    /**
+     * Сумма штрафов по нарушениям.
+     */
+    private final long fineTotal;
+
+    /**
+     * Создаёт строку сводки.
+     *
+     * @param label значение группировки.
+     * @param count количество нарушений.
+     * @param fineTotal сумма штрафов.
+     */
+    public StatisticsRow(String label, long count, long fineTotal) {
+        this.label = label;
+        this.count = count;
+        this.fineTotal = fineTotal;
+    }
+
+    /**
+     * Получить значение группировки.
+     * @return значение группировки.
+     */
+    public String getLabel() {
+        return label;
+    }
+
+    /**
+     * Получить количество нарушений.
+     * @return количество нарушений.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Получить сумму штрафов.
+     * @return сумма штрафов.
+     */
+    public long getFineTotal() {
+        return fineTotal;
+    }
+}
@@ -6,9 +6,15 @@ import java.time.LocalDate;
 /**
  * Сущность, представляющая нарушение правил.
  * Маппится на таблицу "violation" в базе данных.
+ * Номер постановления уникален. Индекс по дате нарушения включает ссылки на автомобиль и тип нарушения,
+ * поэтому отчёт за период выбирает нужные строки по диапазону индекса, не читая таблицу целиком.
+ * Индекс по дате и идентификатору задаёт порядок постраничного поиска нарушений.
  */
 @Entity
-@Table(name = "app_db.violation")
+@Table(name = "app_db.violation",
+	   uniqueConstraints = @UniqueConstraint(name = "uk_violation_resolution", columnNames = "violation_resolution"),
+	   indexes = {@Index(name = "idx_violation_date_report", columnList = "violation_date, car_id, violation_type_id"),
+				  @Index(name = "idx_violation_date_id", columnList = "violation_date, violation_id")})
 public class Violation {
 
     /**
@@ -16,7 +22,9 @@ public class Violation {
      * Уникальный идентификатор для каждого нарушения в базе данных.
      */
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.TABLE, generator = "violation_id_generator")
+	@TableGenerator(name = "violation_id_generator", table = "app_db.id_generator", pkColumnName = "generator_name",
+			valueColumnName = "next_value", pkColumnValue = "violation", allocationSize = 50)
     @Column(name = "violation_id")
 	private Integer violationId;
 	
@@ -3,12 +3,19 @@ package entities;
 import java.util.List;
 import javax.persistence.*;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 /**
  * Сущность, представляющая статью нарушения.
  * Маппится на таблицу "violation_article" в базе данных.
+ * Статьи меняются редко, поэтому хранятся в кэше второго уровня.
  */
 @Entity
-@Table(name = "app_db.violation_article")
+@Table(name = "app_db.violation_article",
+	   uniqueConstraints = @UniqueConstraint(name = "uk_violation_article_code", columnNames = "violation_article_code"))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class ViolationArticle {
 
     /**
@@ -16,7 +23,9 @@ public class ViolationArticle {
      * Уникальный идентификатор для каждой статьи нарушения в базе данных.
      */
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.TABLE, generator = "violation_article_id_generator")
+	@TableGenerator(name = "violation_article_id_generator", table = "app_db.id_generator", pkColumnName = "generator_name",
+			valueColumnName = "next_value", pkColumnValue = "violation_article", allocationSize = 50)
     @Column(name = "violation_article_id")
     private Integer violationArticleId;
 	
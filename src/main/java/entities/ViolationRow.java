@@ -0,0 +1,142 @@
+package entities;
+
+import java.time.LocalDate;
+
+/**
+ * Строка результата поиска нарушений.
+ * Не является сущностью: создаётся выражением {@code SELECT NEW} в запросах поиска
+ * и содержит только отображаемые поля, поэтому не занимает место в контексте персистентности.
+ */
+public class ViolationRow {
+
+    /**
+     * Идентификатор нарушения.
+     */
+    private final Integer violationId;
+
+    /**
+     * Номер постановления.
+     */
+    private final String resolution;
+
+    /**
+     * Код статьи нарушения.
+     */
+    private final String articleCode;
+
+    /**
+     * Название типа нарушения.
+     */
+    private final String violationType;
+
+    /**
+     * Госномер автомобиля.
+     */
+    private final String licensePlate;
+
+    /**
+     * ФИО владельца автомобиля в формате {@link Driver#getFullName()}.
+     */
+    private final String ownerName;
+
+    /**
+     * Дата нарушения.
+     */
+    private final LocalDate violationDate;
+
+    /**
+     * Статус оплаты.
+     */
+    private final boolean paid;
+
+    /**
+     * Создаёт строку из столбцов запроса поиска.
+     *
+     * @param violationId идентификатор нарушения.
+     * @param resolution номер постановления.
+     * @param articleCode код статьи нарушения.
+     * @param violationType название типа нарушения.
+     * @param licensePlate госномер автомобиля.
+     * @param lastName фамилия владельца автомобиля.
+     * @param firstName имя владельца автомобиля.
+     * @param middleName отчество владельца автомобиля, может быть пустым.
+     * @param violationDate дата нарушения.
+     * @param paid статус оплаты.
+     */
+    public ViolationRow(Integer violationId, String resolution, String articleCode, String violationType,
+                        String licensePlate, String lastName, String firstName, String middleName,
+                        LocalDate violationDate, Boolean paid) {
+        this.violationId = violationId;
+        this.resolution = resolution;
+        this.articleCode = articleCode;
+        this.violationType = violationType;
+        this.licensePlate = licensePlate;
+        this.ownerName = lastName != null ? Driver.formatFullName(lastName, firstName, middleName) : null;
+        this.violationDate = violationDate;
+        this.paid = Boolean.TRUE.equals(paid);
+    }
+
+    /**
+     * Получить идентификатор нарушения.
+     * @return идентификатор нарушения.
+     */
+    public Integer getViolationId() {
+        return violationId;
+    }
+
+    /**
+     * Получить номер постановления.
+     * @return номер постановления.
+     */
+    public String getResolution() {
+        return resolution;
+    }
+
+    /**
+     * Получить код статьи нарушения.
+     * @return код статьи нарушения.
+     */
+    public String getArticleCode() {
+        return articleCode;
+    }
+
+    /**
+     * Получить название типа нарушения.
+     * @return название типа нарушения.
+     */
+    public String getViolationType() {
+        return violationType;
+    }
+
+    /**
+     * Получить госномер автомобиля.
+     * @return госномер автомобиля.
+     */
+    public String getLicensePlate() {
+        return licensePlate;
+    }
+
+    /**
+     * Получить ФИО владельца автомобиля.
+     * @return ФИО владельца или null, если у автомобиля нет владельца.
+     */
+    public String getOwnerName() {
+        return ownerName;
+    }
+
+    /**
+     * Получить дату нарушения.
+     * @return дата нарушения.
+     */
+    public LocalDate getViolationDate() {
+        return violationDate;
+    }
+
+    /**
+     * Получить статус оплаты.
+     * @return true, если нарушение оплачено.
+     */
+    public boolean isPaid() {
+        return paid;
+    }
+}
@@ -0,0 +1,45 @@
+package entities;
+
+import javax.persistence.*;
+
+/**
+ * Строка сводной таблицы нарушений: количество нарушений с одинаковыми месяцем, типом,
+ * статьёй, регионом и статусом оплаты.
+ * Маппится на таблицу "violation_statistic" в базе данных.
+ * <p>
+ * Строки изменяются только SQL-запросами {@link utils.StatisticsRollup} при записи нарушений
+ * и при пересчёте сводки, поэтому сущность доступна только для чтения. Сумма штрафов не хранится:
+ * она вычисляется при запросе по текущему размеру штрафа статьи.
+ */
+@Entity
+@Table(name = "app_db.violation_statistic")
+public class ViolationStatistic {
+
+    /**
+     * Месяц, тип, статья, регион и статус оплаты.
+     */
+    @EmbeddedId
+    private ViolationStatisticKey id;
+
+    /**
+     * Количество нарушений.
+     */
+    @Column(name = "violation_count", nullable = false)
+    private Long violationCount;
+
+    /**
+     * Получить ключ строки сводки.
+     * @return месяц, тип, статья, регион и статус оплаты.
+     */
+    public ViolationStatisticKey getId() {
+        return id;
+    }
+
+    /**
+     * Получить количество нарушений.
+     * @return количество нарушений.
+     */
+    public Long getViolationCount() {
+        return violationCount;
+    }
+}
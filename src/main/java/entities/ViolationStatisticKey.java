@@ -0,0 +1,106 @@
+package entities;
+
+import java.io.Serializable;
+import java.util.Objects;
+import javax.persistence.Column;
+import javax.persistence.Embeddable;
+
+/**
+ * Ключ строки сводной таблицы нарушений: месяц, тип нарушения, статья, регион и статус оплаты.
+ */
+@Embeddable
+public class ViolationStatisticKey implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * Месяц нарушения в виде числа ГГГГММ.
+     */
+    @Column(name = "violation_month", nullable = false)
+    private Integer violationMonth;
+
+    /**
+     * Идентификатор типа нарушения.
+     */
+    @Column(name = "violation_type_id", nullable = false)
+    private Integer violationTypeId;
+
+    /**
+     * Идентификатор статьи нарушения.
+     */
+    @Column(name = "violation_article_id", nullable = false)
+    private Integer violationArticleId;
+
+    /**
+     * Код региона из госномера автомобиля (символы после серии и номера).
+     */
+    @Column(name = "region", nullable = false, length = 3)
+    private String region;
+
+    /**
+     * Статус оплаты нарушения.
+     */
+    @Column(name = "violation_paid", nullable = false)
+    private Boolean paid;
+
+    /**
+     * Получить месяц нарушения.
+     * @return месяц в виде числа ГГГГММ.
+     */
+    public Integer getViolationMonth() {
+        return violationMonth;
+    }
+
+    /**
+     * Получить идентификатор типа нарушения.
+     * @return идентификатор типа нарушения.
+     */
+    public Integer getViolationTypeId() {
+        return violationTypeId;
+    }
+
+    /**
+     * Получить идентификатор статьи нарушения.
+     * @return идентификатор статьи нарушения.
+     */
+    public Integer getViolationArticleId() {
+        return violationArticleId;
+    }
+
+    /**
+     * Получить код региона.
+     * @return код региона из госномера.
+     */
+    public String getRegion() {
+        return region;
+    }
+
+    /**
+     * Получить статус оплаты.
+     * @return true, если нарушения оплачены.
+     */
+    public Boolean getPaid() {
+        return paid;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ViolationStatisticKey)) {
+            return false;
+        }
+        ViolationStatisticKey other = (ViolationStatisticKey) o;
+        return Objects.equals(violationMonth, other.violationMonth)
+                && Objects.equals(violationTypeId, other.violationTypeId)
+                && Objects.equals(violationArticleId, other.violationArticleId)
+                && Objects.equals(region, other.region)
+                && Objects.equals(paid, other.paid);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(violationMonth, violationTypeId, violationArticleId, region, paid);
+    }
+}
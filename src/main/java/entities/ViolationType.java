@@ -3,12 +3,18 @@ package entities;
 import java.util.List;
 import javax.persistence.*;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 /**
  * Сущность, представляющая тип нарушения.
  * Маппится на таблицу "violation_type" в базе данных.
+ * Тип нарушения меняется редко, поэтому хранится в кэше второго уровня.
  */
 @Entity
 @Table(name = "app_db.violation_type")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 public class ViolationType {
 
     /**
@@ -16,7 +22,9 @@ public class ViolationType {
      * Уникальный идентификатор для каждого типа нарушения.
      */
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.TABLE, generator = "violation_type_id_generator")
+	@TableGenerator(name = "violation_type_id_generator", table = "app_db.id_generator", pkColumnName = "generator_name",
+			valueColumnName = "next_value", pkColumnValue = "violation_type", allocationSize = 50)
     @Column(name = "violation_type_id")
     private Integer violationTypeId;
 	
@@ -2,34 +2,94 @@ package services;
 
 import entities.Car;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 import javax.persistence.EntityManager;
-import javax.persistence.EntityTransaction;
+import javax.persistence.PersistenceException;
 import javax.persistence.TypedQuery;
 
+import org.apache.log4j.Logger;
+
+import utils.NaturalKeyCache;
+import utils.SearchQuery;
+import utils.SessionManager;
+import utils.StatisticsRollup;
+import utils.TrigramIndex;
+import validators.UniquenessChecker;
+
 /**
  * Сервис для работы с автомобилями.
  * Предоставляет методы для добавления, обновления, удаления и поиска автомобилей.
  */
 public class CarService {
-    private EntityManager entityManager;
+    private static final Logger logger = Logger.getLogger(CarService.class);
+
+    private static final int LOOKUP_CACHE_SIZE = 10000;
+
+    /**
+     * Наибольшее количество кандидатов из индекса, которые проверяются запросами по идентификаторам.
+     * При большем количестве выполняется обычный поиск по таблице.
+     */
+    private static final int MAX_INDEX_CANDIDATES = 20000;
+
+    /**
+     * Количество автомобилей, читаемых одним запросом при построении индекса.
+     */
+    private static final int INDEX_PAGE_SIZE = 10000;
+
+    /**
+     * Условия поиска автомобилей; порядок условий совпадает с порядком параметров {@link #searchCars}.
+     */
+    private static final String[] SEARCH_CONDITIONS = {
+    		"c.brand LIKE :brand",
+    		"c.model LIKE :model",
+    		"c.vinNumber LIKE :vin",
+    		"c.licensePlate LIKE :licensePlate",
+    		"c.lastVehicleInspection >= :lastInspectionDateFrom",
+    		"c.lastVehicleInspection <= :lastInspectionDateTo",
+    		"c.owner.licenseNumber = :ownerLicense"};
+
+    private static final SearchQuery<Car> SEARCH_QUERY = SearchQuery.from(Car.class, "SELECT c FROM Car c")
+    		.where(SEARCH_CONDITIONS)
+    		.build();
+
+    /**
+     * Проверка кандидатов из индекса поиска теми же условиями.
+     */
+    private static final SearchQuery<Car> SEARCH_BY_IDS_QUERY = SearchQuery.from(Car.class, "SELECT c FROM Car c")
+    		.require("c.carId IN :ids")
+    		.where(SEARCH_CONDITIONS)
+    		.build();
+
+    private SessionManager sessionManager;
+
+    /**
+     * Идентификаторы автомобилей по госномерам.
+     */
+    private final NaturalKeyCache<String> carIds = new NaturalKeyCache<>(LOOKUP_CACHE_SIZE);
+
+    /**
+     * Индекс поиска по марке, модели, VIN и госномеру.
+     */
+    private final TrigramIndex searchIndex = new TrigramIndex();
     
     /**
      * Конструктор класса CarService.
      * 
-     * @param entityManager объект EntityManager для работы с базой данных.
+     * @param sessionManager менеджер EntityManager для работы с базой данных.
      */
-    public CarService(EntityManager entityManager) {
-    	this.entityManager = entityManager;
+    public CarService(SessionManager sessionManager) {
+    	this.sessionManager = sessionManager;
     }
     
     /**
      * Получение текущего EntityManager.
+     * Используется контроллерами для списков выбора и проверок в потоке обработки событий.
      * 
      * @return объект EntityManager.
      */
     public EntityManager getEntityManager() {
-    	return entityManager;
+    	return sessionManager.getUiEntityManager();
     }
     
     /**
@@ -39,15 +99,7 @@ public class CarService {
      * @return объект Car, если автомобиль найден, или null, если автомобиль не найден.
      */
     public Car getCarByLicensePlate(String licensePlate) {
-    	try {
-			TypedQuery<Car> query = entityManager.createQuery(
-					"SELECT c FROM Car c WHERE c.licensePlate = :licensePlate", Car.class);
-			query.setParameter("licensePlate", licensePlate);
-			return query.getSingleResult();
-		} catch (Exception e) {
-			// В случае ошибки (например, автомобиль не найден), возвращается null.
-			return null;
-		}
+    	return sessionManager.read(entityManager -> getCarByLicensePlate(entityManager, licensePlate));
     }
     
     /**
@@ -56,46 +108,50 @@ public class CarService {
      * @return список всех автомобилей.
      */
     public List<Car> getAllCars() {
-    	TypedQuery<Car> query = entityManager.createQuery("SELECT c FROM Car c", Car.class);
-    	return query.getResultList();
+    	return sessionManager.read(entityManager -> {
+	    	TypedQuery<Car> query = entityManager.createQuery("SELECT c FROM Car c", Car.class);
+	    	return query.getResultList();
+    	});
     }
     
     /**
      * Добавление нового автомобиля в базу данных.
      * 
      * @param car объект автомобиля, который необходимо добавить.
+     * @throws Exception если госномер или VIN-номер уже занят другим автомобилем.
      */
-    public void addCar(Car car) {
-    	EntityTransaction transaction = entityManager.getTransaction();
-        try {
-            transaction.begin();  
-            entityManager.persist(car);
-            transaction.commit();
-        } catch (Exception e) {
-            if (transaction.isActive()) {
-                transaction.rollback();
-            }
-            throw e;
-        }
+    public void addCar(Car car) throws Exception {
+    	try {
+    		sessionManager.inTransaction(entityManager -> entityManager.persist(car));
+    	} catch (PersistenceException e) {
+    		// Госномер или VIN мог быть занят другим пользователем после проверки валидатором
+    		throw UniquenessChecker.translate(e);
+    	}
+    	carIds.put(car.getLicensePlate(), car.getCarId());
+    	indexCar(car);
     }
     
     /**
      * Обновление данных автомобиля в базе данных.
      * 
      * @param car объект автомобиля с обновленными данными.
+     * @throws Exception если госномер или VIN-номер уже занят другим автомобилем.
      */
-    public void updateCar(Car car) {
-    	EntityTransaction transaction = entityManager.getTransaction();
-        try {
-            transaction.begin(); 
-            entityManager.merge(car);
-            transaction.commit();
-        } catch (Exception e) {
-            if (transaction.isActive()) {
-                transaction.rollback(); 
-            }
-            throw e;
-        }
+    public void updateCar(Car car) throws Exception {
+    	try {
+    		sessionManager.inTransaction(entityManager -> {
+    			// Регион нарушений в сводке определяется госномером, который мог измениться
+    			StatisticsRollup.subtract(entityManager, StatisticsRollup.Scope.CAR, car.getCarId());
+    			entityManager.merge(car);
+    			StatisticsRollup.add(entityManager, StatisticsRollup.Scope.CAR, car.getCarId());
+    		});
+    	} catch (PersistenceException e) {
+    		throw UniquenessChecker.translate(e);
+    	}
+    	// Прежний ключ мог измениться, поэтому запись удаляется из кэша по идентификатору
+    	carIds.invalidateId(car.getCarId());
+    	carIds.put(car.getLicensePlate(), car.getCarId());
+    	indexCar(car);
     }
     
     /**
@@ -105,18 +161,22 @@ public class CarService {
      * @throws IllegalArgumentException если автомобиль с таким номером не найден.
      */
     public void deleteCar(String licensePlate) {
-        Car car = getCarByLicensePlate(licensePlate);
-        if (car != null) {
-            entityManager.getTransaction().begin();
-            entityManager.remove(car);
-            entityManager.getTransaction().commit();
-        } else {
-            throw new IllegalArgumentException("Автомобиль с таким госномером не найден.");
-        }
+        sessionManager.inTransaction(entityManager -> {
+            Car car = getCarByLicensePlate(entityManager, licensePlate);
+            if (car != null) {
+                StatisticsRollup.subtract(entityManager, StatisticsRollup.Scope.CAR, car.getCarId());  // Нарушения удаляются каскадно
+                entityManager.remove(car);
+            } else {
+                throw new IllegalArgumentException("Автомобиль с таким госномером не найден.");
+            }
+        });
+        carIds.invalidate(licensePlate);
     }
     
     /**
      * Поиск автомобилей по различным параметрам (марка, модель, VIN, номер госзнака, дата последней проверки, владелец).
+     * Если индекс поиска построен и одно из текстовых полей содержит не менее трёх символов, проверяются только
+     * найденные в индексе автомобили; иначе условия LIKE проверяются по всей таблице.
      * 
      * @param brand марка автомобиля.
      * @param model модель автомобиля.
@@ -128,59 +188,194 @@ public class CarService {
      * @return список автомобилей, соответствующих поисковым критериям.
      */
     public List<Car> searchCars(String brand, String model, String vin, String licensePlate, String lastInspectionDateFrom, String lastInspectionDateTo, String owner) {
-	    StringBuilder queryBuilder = new StringBuilder("SELECT c FROM Car c WHERE 1=1");
-
-	    // Формирование динамического запроса с учетом непустых параметров
-	    if (brand != null && !brand.isEmpty()) {
-	        queryBuilder.append(" AND c.brand LIKE :brand");
-	    }
-	    if (model != null && !model.isEmpty()) {
-	        queryBuilder.append(" AND c.model LIKE :model");
-	    }
-	    if (vin != null && !vin.isEmpty()) {
-	        queryBuilder.append(" AND c.vinNumber LIKE :vin");
-	    }
-	    if (licensePlate != null && !licensePlate.isEmpty()) {
-	        queryBuilder.append(" AND c.licensePlate LIKE :licensePlate");
-	    }
-	    if (lastInspectionDateFrom != null && !lastInspectionDateFrom.isEmpty()) {
-	        queryBuilder.append(" AND c.lastVehicleInspection >= :lastInspectionDateFrom");
-	    }
-	    if (lastInspectionDateTo != null && !lastInspectionDateTo.isEmpty()) {
-	        queryBuilder.append(" AND c.lastVehicleInspection <= :lastInspectionDateTo");
-	    }
-	    if (owner != null && !owner.isEmpty()) {
-	        queryBuilder.append(" AND c.owner.licenseNumber = :ownerLicense");
+	    // Владелец выбирается в формате «ФИО (номер удостоверения)»
+	    String ownerLicense = owner != null && !owner.isEmpty() ? owner.substring(owner.indexOf('(') + 1, owner.indexOf(')')) : null;
+	    Object[] values = {
+	    		SearchQuery.contains(brand),
+	    		SearchQuery.contains(model),
+	    		SearchQuery.contains(vin),
+	    		SearchQuery.contains(licensePlate),
+	    		SearchQuery.date(lastInspectionDateFrom),
+	    		SearchQuery.date(lastInspectionDateTo),
+	    		ownerLicense};
+	    int[] candidates = searchIndex.candidates(brand, model, vin, licensePlate);
+	    if (candidates == null || candidates.length > MAX_INDEX_CANDIDATES) {
+	    	return sessionManager.read(entityManager -> SEARCH_QUERY.create(entityManager, values).getResultList());
 	    }
+	    return sessionManager.read(entityManager -> {
+	    	List<Car> cars = new ArrayList<>();
+	    	for (List<Integer> ids : TrigramIndex.batches(candidates)) {
+	    		cars.addAll(SEARCH_BY_IDS_QUERY.create(entityManager, values).setParameter("ids", ids).getResultList());
+	    	}
+	    	return cars;
+	    });
+    }
 
-	    TypedQuery<Car> query = entityManager.createQuery(queryBuilder.toString(), Car.class);
+    /**
+     * Подбор автомобилей для поля ввода с подсказками.
+     * Каждое слово текста должно содержаться в марке, модели, VIN или госномере автомобиля.
+     * Владельцы читаются тем же запросом, что и автомобили. Кандидаты из индекса поиска читаются
+     * частями, первая из которых не больше limit; пока индекс строится, слова ищутся условиями LIKE
+     * по всей таблице.
+     * 
+     * @param text введённый текст; пустой текст возвращает первые добавленные автомобили.
+     * @param limit максимальное количество автомобилей.
+     * @return автомобили в порядке добавления.
+     */
+    public List<Car> suggestCars(String text, int limit) {
+    	String[] words = text.trim().split("\\s+");
+    	if (words[0].isEmpty()) {
+    		// Без текста показываются первые записи
+    		return sessionManager.read(entityManager -> entityManager.createQuery(
+    				"SELECT c FROM Car c LEFT JOIN FETCH c.owner ORDER BY c.carId", Car.class)
+    				.setMaxResults(limit)
+    				.getResultList());
+    	}
+    	int[] candidates = searchIndex.candidates(words);
+    	return sessionManager.read(entityManager -> {
+    		List<Car> cars = new ArrayList<>();
+    		if (candidates == null && !searchIndex.isReady()) {
+    			// Индекс ещё строится: каждое слово ищется как подстрока, как и при поиске по индексу
+    			TypedQuery<Car> query = entityManager.createQuery(suggestBySubstringQuery(words.length), Car.class);
+    			for (int i = 0; i < words.length; i++) {
+    				query.setParameter("word" + i, SearchQuery.contains(words[i]));
+    			}
+    			query.setMaxResults(limit);
+    			return query.getResultList();
+    		}
+    		if (candidates == null) {
+    			// Короткое слово: госномер и VIN проверяются по началу, что позволяет использовать их индексы
+    			TypedQuery<Car> query = entityManager.createQuery(
+    					"SELECT c FROM Car c LEFT JOIN FETCH c.owner WHERE c.licensePlate LIKE :prefix OR c.vinNumber LIKE :prefix"
+    					+ " OR c.brand LIKE :prefix OR c.model LIKE :prefix", Car.class);
+    			query.setParameter("prefix", words[0] + "%");
+    			query.setMaxResults(limit);
+    			addMatching(cars, query.getResultList(), words, limit);
+    			return cars;
+    		}
+    		for (List<Integer> ids : TrigramIndex.batches(candidates, limit)) {
+    			TypedQuery<Car> query = entityManager.createQuery(
+    					"SELECT c FROM Car c LEFT JOIN FETCH c.owner WHERE c.carId IN :ids ORDER BY c.carId", Car.class);
+    			query.setParameter("ids", ids);
+    			if (addMatching(cars, query.getResultList(), words, limit)) {
+    				break;
+    			}
+    		}
+    		return cars;
+    	});
+    }
 
-	    // Установка параметров запроса для каждого поля, если оно не пустое
-	    if (brand != null && !brand.isEmpty()) {
-	        query.setParameter("brand", "%" + brand + "%");
-	    }
-	    if (model != null && !model.isEmpty()) {
-	        query.setParameter("model", "%" + model + "%");
-	    }
-	    if (vin != null && !vin.isEmpty()) {
-	        query.setParameter("vin", "%" + vin + "%");
-	    }
-	    if (licensePlate != null && !licensePlate.isEmpty()) {
-	        query.setParameter("licensePlate", "%" + licensePlate + "%");
-	    }
-	    if (lastInspectionDateFrom != null && !lastInspectionDateFrom.isEmpty()) {
-	        LocalDate inspectionDateFrom = LocalDate.parse(lastInspectionDateFrom);
-	        query.setParameter("lastInspectionDateFrom", inspectionDateFrom);
-	    }
-	    if (lastInspectionDateTo != null && !lastInspectionDateTo.isEmpty()) {
-	        LocalDate inspectionDateTo = LocalDate.parse(lastInspectionDateTo);
-	        query.setParameter("lastInspectionDateTo", inspectionDateTo);
-	    }
-	    if (owner != null && !owner.isEmpty()) {
-	        String licenseNumber = owner.substring(owner.indexOf('(') + 1, owner.indexOf(')'));
-	        query.setParameter("ownerLicense", licenseNumber);
-	    }
+    /**
+     * Перестраивает индекс поиска по данным базы. Пока индекс строится, поиск выполняется без него.
+     * Вызывается при запуске приложения и после импорта, который изменяет таблицу в обход сервиса.
+     */
+    public synchronized void rebuildSearchIndex() {
+    	long startTime = System.nanoTime();
+    	searchIndex.clear();
+    	int lastId = 0;
+    	int count = 0;
+    	while (true) {
+    		int afterId = lastId;
+    		List<Object[]> page = sessionManager.read(entityManager -> entityManager.createQuery(
+    				"SELECT c.carId, c.brand, c.model, c.vinNumber, c.licensePlate FROM Car c"
+    				+ " WHERE c.carId > :lastId ORDER BY c.carId", Object[].class)
+    				.setParameter("lastId", afterId)
+    				.setMaxResults(INDEX_PAGE_SIZE)
+    				.getResultList());
+    		for (Object[] row : page) {
+    			lastId = (Integer) row[0];
+    			searchIndex.add(lastId, (String) row[1], (String) row[2], (String) row[3], (String) row[4]);
+    		}
+    		count += page.size();
+    		if (page.size() < INDEX_PAGE_SIZE) {
+    			break;
+    		}
+    	}
+    	searchIndex.markReady();
+    	logger.info(String.format("Индекс поиска автомобилей построен: %d записей за %d мс",
+    			count, (System.nanoTime() - startTime) / 1_000_000));
+    }
+
+    private void indexCar(Car car) {
+    	searchIndex.add(car.getCarId(), car.getBrand(), car.getModel(), car.getVinNumber(), car.getLicensePlate());
+    }
+
+    /**
+     * Строит запрос подсказок, в котором каждое слово (параметры word0, word1, ...) должно содержаться
+     * хотя бы в одном текстовом поле автомобиля. Текст зависит только от количества слов,
+     * поэтому в кэше планов запросов остаётся несколько вариантов.
+     *
+     * @param wordCount количество слов.
+     * @return текст запроса JPQL.
+     */
+    private static String suggestBySubstringQuery(int wordCount) {
+    	List<String> conditions = new ArrayList<>(wordCount);
+    	for (int i = 0; i < wordCount; i++) {
+    		String word = ":word" + i;
+    		conditions.add("(c.brand LIKE " + word + " OR c.model LIKE " + word
+    				+ " OR c.vinNumber LIKE " + word + " OR c.licensePlate LIKE " + word + ")");
+    	}
+    	return "SELECT c FROM Car c LEFT JOIN FETCH c.owner WHERE " + String.join(" AND ", conditions) + " ORDER BY c.carId";
+    }
+
+    /**
+     * Добавляет автомобили, соответствующие всем словам, пока не набрано нужное количество.
+     *
+     * @return true, если набрано нужное количество.
+     */
+    private static boolean addMatching(List<Car> result, List<Car> cars, String[] words, int limit) {
+    	for (Car car : cars) {
+    		if (result.size() == limit) {
+    			return true;
+    		}
+    		if (TrigramIndex.matchesAll(words, car.getBrand(), car.getModel(), car.getVinNumber(), car.getLicensePlate())) {
+    			result.add(car);
+    		}
+    	}
+    	return result.size() == limit;
+    }
 
-	    return query.getResultList();
-	}
+    /**
+     * Находит автомобиль по госномеру в переданном EntityManager.
+     * Идентификатор берётся из кэша госномеров, поэтому автомобиль, уже загруженный в этот EntityManager,
+     * возвращается без обращения к базе, а остальные читаются по первичному ключу.
+     *
+     * @param entityManager EntityManager, в котором выполняется поиск.
+     * @param licensePlate госномер автомобиля.
+     * @return объект Car, если автомобиль найден, или null, если автомобиль не найден.
+     */
+    public Car getCarByLicensePlate(EntityManager entityManager, String licensePlate) {
+        Integer carId = carIds.get(licensePlate);
+        if (carId != null) {
+            Car car = entityManager.find(Car.class, carId);
+            if (car != null && licensePlate.equals(car.getLicensePlate())) {
+                return car;
+            }
+            carIds.invalidate(licensePlate);  // Автомобиль удалён или его госномер изменён в обход сервиса
+        }
+        Car car = findCarByLicensePlate(entityManager, licensePlate);
+        if (car != null) {
+            carIds.put(licensePlate, car.getCarId());
+        }
+        return car;
+    }
+
+    /**
+     * Получение автомобиля по номеру государственного регистрационного знака.
+     * 
+     * @param entityManager EntityManager, в котором выполняется поиск.
+     * @param licensePlate номер государственного регистрационного знака.
+     * @return объект Car, если автомобиль найден, или null, если автомобиль не найден.
+     */
+    private static Car findCarByLicensePlate(EntityManager entityManager, String licensePlate) {
+    	try {
+			TypedQuery<Car> query = entityManager.createQuery(
+					"SELECT c FROM Car c WHERE c.licensePlate = :licensePlate", Car.class);
+			query.setParameter("licensePlate", licensePlate);
+			return query.getSingleResult();
+		} catch (Exception e) {
+			// В случае ошибки (например, автомобиль не найден), возвращается null.
+			return null;
+		}
+    }
 }
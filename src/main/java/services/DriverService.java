@@ -3,34 +3,95 @@ package services;
 import entities.Driver;
 
 import javax.persistence.EntityManager;
-import javax.persistence.EntityTransaction;
+import javax.persistence.PersistenceException;
 import javax.persistence.TypedQuery;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
 
+import org.apache.log4j.Logger;
+
+import utils.NaturalKeyCache;
+import utils.SearchQuery;
+import utils.SessionManager;
+import utils.StatisticsRollup;
+import utils.TrigramIndex;
+import validators.UniquenessChecker;
+
 /**
  * Класс, предоставляющий услуги для работы с данными водителей.
  * Выполняет операции добавления, обновления, удаления и поиска водителей в базе данных.
  */
 public class DriverService {
-    private EntityManager entityManager;
+    private static final Logger logger = Logger.getLogger(DriverService.class);
+
+    private static final int LOOKUP_CACHE_SIZE = 10000;
+
+    /**
+     * Наибольшее количество кандидатов из индекса, которые проверяются запросами по идентификаторам.
+     * Короткие и распространённые подстроки (например, часть популярного имени) дают больше
+     * кандидатов, и для них выполняется обычный поиск по таблице.
+     */
+    private static final int MAX_INDEX_CANDIDATES = 20000;
+
+    /**
+     * Количество водителей, читаемых одним запросом при построении индекса.
+     */
+    private static final int INDEX_PAGE_SIZE = 10000;
+
+    /**
+     * Условия поиска водителей; порядок условий совпадает с порядком параметров {@link #searchDrivers}.
+     */
+    private static final String[] SEARCH_CONDITIONS = {
+            "d.firstName LIKE :firstName",
+            "d.lastName LIKE :lastName",
+            "d.middleName LIKE :middleName",
+            "d.licenseNumber LIKE :licenseNumber",
+            "d.city LIKE :city",
+            "d.birthday >= :fromDate",
+            "d.birthday <= :toDate"};
+
+    private static final SearchQuery<Driver> SEARCH_QUERY = SearchQuery.from(Driver.class, "SELECT d FROM Driver d")
+            .where(SEARCH_CONDITIONS)
+            .build();
+
+    /**
+     * Проверка кандидатов из индекса поиска теми же условиями.
+     */
+    private static final SearchQuery<Driver> SEARCH_BY_IDS_QUERY = SearchQuery.from(Driver.class, "SELECT d FROM Driver d")
+            .require("d.driverId IN :ids")
+            .where(SEARCH_CONDITIONS)
+            .build();
+
+    private SessionManager sessionManager;
+
+    /**
+     * Идентификаторы водителей по номерам водительских удостоверений.
+     */
+    private final NaturalKeyCache<String> driverIds = new NaturalKeyCache<>(LOOKUP_CACHE_SIZE);
+
+    /**
+     * Индекс поиска по фамилии, имени, отчеству, номеру удостоверения и городу.
+     */
+    private final TrigramIndex searchIndex = new TrigramIndex();
 
     /**
-     * Конструктор, инициализирует объект DriverService с переданным EntityManager.
+     * Конструктор, инициализирует объект DriverService с переданным менеджером EntityManager.
      *
-     * @param entityManager Менеджер сущностей для работы с базой данных.
+     * @param sessionManager менеджер EntityManager для работы с базой данных.
      */
-    public DriverService(EntityManager entityManager) {
-        this.entityManager = entityManager;
+    public DriverService(SessionManager sessionManager) {
+        this.sessionManager = sessionManager;
     }
 
     /**
      * Получает EntityManager, используемый для работы с базой данных.
+     * Это общий EntityManager интерфейса, обращаться к нему можно только из потока обработки событий Swing.
      *
      * @return EntityManager для работы с сущностями.
      */
     public EntityManager getEntityManager() {
-        return entityManager;
+        return sessionManager.getUiEntityManager();
     }
 
     /**
@@ -40,14 +101,7 @@ public class DriverService {
      * @return Водитель, если найден, иначе null.
      */
     public Driver getDriverByLicense(String licenseNumber) {
-        try {
-            TypedQuery<Driver> query = entityManager.createQuery(
-                    "SELECT d FROM Driver d WHERE d.licenseNumber = :license", Driver.class);
-            query.setParameter("license", licenseNumber);
-            return query.getSingleResult();
-        } catch (Exception e) {
-            return null;  // Если водитель не найден, возвращаем null
-        }
+        return sessionManager.read(entityManager -> getDriverByLicense(entityManager, licenseNumber));
     }
 
     /**
@@ -56,46 +110,45 @@ public class DriverService {
      * @return Список всех водителей.
      */
     public List<Driver> getAllDrivers() {
-        TypedQuery<Driver> query = entityManager.createQuery("SELECT d FROM Driver d", Driver.class);
-        return query.getResultList();
+        return sessionManager.read(entityManager -> {
+            TypedQuery<Driver> query = entityManager.createQuery("SELECT d FROM Driver d", Driver.class);
+            return query.getResultList();
+        });
     }
 
     /**
      * Добавляет нового водителя в базу данных.
      *
      * @param driver Водитель, которого нужно добавить.
+     * @throws Exception если водитель с таким номером удостоверения уже существует.
      */
-    public void addDriver(Driver driver) {
-        EntityTransaction transaction = entityManager.getTransaction();
+    public void addDriver(Driver driver) throws Exception {
         try {
-            transaction.begin();  
-            entityManager.persist(driver);  // Сохраняем водителя в базе данных
-            transaction.commit();
-        } catch (Exception e) {
-            if (transaction.isActive()) {
-                transaction.rollback();  // Если произошла ошибка, откатываем транзакцию
-            }
-            throw e;
+            sessionManager.inTransaction(entityManager -> entityManager.persist(driver));  // Сохраняем водителя в базе данных
+        } catch (PersistenceException e) {
+            // Номер удостоверения мог быть добавлен параллельно; ошибку ограничения переводим в исключение валидатора
+            throw UniquenessChecker.translate(e);
         }
+        driverIds.put(driver.getLicenseNumber(), driver.getDriverId());
+        indexDriver(driver);
     }
 
     /**
      * Обновляет информацию о водителе в базе данных.
      *
      * @param driver Водитель с обновленной информацией.
+     * @throws Exception если водитель с таким номером удостоверения уже существует.
      */
-    public void updateDriver(Driver driver) {
-        EntityTransaction transaction = entityManager.getTransaction();
+    public void updateDriver(Driver driver) throws Exception {
         try {
-            transaction.begin(); 
-            entityManager.merge(driver);  // Обновляем существующего водителя
-            transaction.commit();
-        } catch (Exception e) {
-            if (transaction.isActive()) {
-                transaction.rollback();  // Если произошла ошибка, откатываем транзакцию
-            }
-            throw e;
+            sessionManager.inTransaction(entityManager -> entityManager.merge(driver));  // Обновляем существующего водителя
+        } catch (PersistenceException e) {
+            throw UniquenessChecker.translate(e);
         }
+        // Прежний ключ мог измениться, поэтому запись удаляется из кэша по идентификатору
+        driverIds.invalidateId(driver.getDriverId());
+        driverIds.put(driver.getLicenseNumber(), driver.getDriverId());
+        indexDriver(driver);
     }
 
     /**
@@ -105,18 +158,23 @@ public class DriverService {
      * @throws IllegalArgumentException Если водитель с таким номером ВУ не найден.
      */
     public void deleteDriver(String licenseNumber) {
-        Driver driver = getDriverByLicense(licenseNumber);
-        if (driver != null) {
-            entityManager.getTransaction().begin();
-            entityManager.remove(driver);  // Удаляем водителя из базы данных
-            entityManager.getTransaction().commit();
-        } else {
-            throw new IllegalArgumentException("Водитель с таким номером ВУ не найден.");
-        }
+        sessionManager.inTransaction(entityManager -> {
+            Driver driver = getDriverByLicense(entityManager, licenseNumber);
+            if (driver != null) {
+                // Вместе с водителем каскадно удаляются его автомобили и их нарушения
+                StatisticsRollup.subtract(entityManager, StatisticsRollup.Scope.OWNER, driver.getDriverId());
+                entityManager.remove(driver);  // Удаляем водителя из базы данных
+            } else {
+                throw new IllegalArgumentException("Водитель с таким номером ВУ не найден.");
+            }
+        });
+        driverIds.invalidate(licenseNumber);
     }
 
     /**
      * Производит поиск водителей по различным параметрам.
+     * Если индекс поиска построен и одно из текстовых полей содержит не менее трёх символов,
+     * условия проверяются только для найденных в индексе водителей.
      *
      * @param firstName Имя водителя.
      * @param lastName Фамилия водителя.
@@ -128,58 +186,187 @@ public class DriverService {
      * @return Список водителей, удовлетворяющих заданным условиям.
      */
     public List<Driver> searchDrivers(String firstName, String lastName, String middleName, String licenseNumber, String city, String fromDate, String toDate) {
-        StringBuilder queryBuilder = new StringBuilder("SELECT d FROM Driver d WHERE 1=1");
-
-        // Добавляем условия поиска для каждого параметра, если они не пустые
-        if (firstName != null && !firstName.isEmpty()) {
-            queryBuilder.append(" AND d.firstName LIKE :firstName");
+        Object[] values = {
+                SearchQuery.contains(firstName),
+                SearchQuery.contains(lastName),
+                SearchQuery.contains(middleName),
+                SearchQuery.contains(licenseNumber),
+                SearchQuery.contains(city),
+                SearchQuery.date(fromDate),
+                SearchQuery.date(toDate)};
+        int[] candidates = searchIndex.candidates(firstName, lastName, middleName, licenseNumber, city);
+        if (candidates == null || candidates.length > MAX_INDEX_CANDIDATES) {
+            return sessionManager.read(entityManager -> SEARCH_QUERY.create(entityManager, values).getResultList());
         }
-        if (lastName != null && !lastName.isEmpty()) {
-            queryBuilder.append(" AND d.lastName LIKE :lastName");
-        }
-        if (middleName != null && !middleName.isEmpty()) {
-            queryBuilder.append(" AND d.middleName LIKE :middleName");
-        }
-        if (licenseNumber != null && !licenseNumber.isEmpty()) {
-            queryBuilder.append(" AND d.licenseNumber LIKE :licenseNumber");
+        return sessionManager.read(entityManager -> {
+            List<Driver> drivers = new ArrayList<>();
+            for (List<Integer> ids : TrigramIndex.batches(candidates)) {
+                drivers.addAll(SEARCH_BY_IDS_QUERY.create(entityManager, values).setParameter("ids", ids).getResultList());
+            }
+            return drivers;
+        });
+    }
+
+    /**
+     * Подбирает водителей для поля ввода с подсказками.
+     * Каждое слово текста должно содержаться в ФИО, номере удостоверения или городе водителя,
+     * поэтому «Иванов Пётр» находит Петра Иванова. Кандидаты из индекса поиска читаются частями,
+     * первая из которых не больше limit; пока индекс строится, слова ищутся условиями LIKE по всей таблице.
+     *
+     * @param text Введённый текст; пустой текст возвращает первых добавленных водителей.
+     * @param limit Максимальное количество водителей.
+     * @return Водители в порядке добавления.
+     */
+    public List<Driver> suggestDrivers(String text, int limit) {
+        String[] words = text.trim().split("\\s+");
+        if (words[0].isEmpty()) {
+            // Без текста показываются первые записи
+            return sessionManager.read(entityManager -> entityManager.createQuery("SELECT d FROM Driver d ORDER BY d.driverId", Driver.class)
+                    .setMaxResults(limit)
+                    .getResultList());
         }
-        if (city != null && !city.isEmpty()) {
-            queryBuilder.append(" AND d.city LIKE :city");
+        int[] candidates = searchIndex.candidates(words);
+        return sessionManager.read(entityManager -> {
+            List<Driver> drivers = new ArrayList<>();
+            if (candidates == null && !searchIndex.isReady()) {
+                // Индекс ещё строится: каждое слово ищется как подстрока, как и при поиске по индексу
+                TypedQuery<Driver> query = entityManager.createQuery(suggestBySubstringQuery(words.length), Driver.class);
+                for (int i = 0; i < words.length; i++) {
+                    query.setParameter("word" + i, SearchQuery.contains(words[i]));
+                }
+                query.setMaxResults(limit);
+                return query.getResultList();
+            }
+            if (candidates == null) {
+                // Короткое слово ищется по началу фамилии и номера удостоверения
+                TypedQuery<Driver> query = entityManager.createQuery(
+                        "SELECT d FROM Driver d WHERE d.lastName LIKE :prefix OR d.licenseNumber LIKE :prefix", Driver.class);
+                query.setParameter("prefix", words[0] + "%");
+                query.setMaxResults(limit);
+                addMatching(drivers, query.getResultList(), words, limit);
+                return drivers;
+            }
+            for (List<Integer> ids : TrigramIndex.batches(candidates, limit)) {
+                TypedQuery<Driver> query = entityManager.createQuery("SELECT d FROM Driver d WHERE d.driverId IN :ids ORDER BY d.driverId", Driver.class);
+                query.setParameter("ids", ids);
+                if (addMatching(drivers, query.getResultList(), words, limit)) {
+                    break;
+                }
+            }
+            return drivers;
+        });
+    }
+
+    /**
+     * Перестраивает индекс поиска по данным базы. Пока индекс строится, поиск выполняется без него.
+     */
+    public synchronized void rebuildSearchIndex() {
+        long startTime = System.nanoTime();
+        searchIndex.clear();
+        int lastId = 0;
+        int count = 0;
+        while (true) {
+            int afterId = lastId;
+            List<Object[]> page = sessionManager.read(entityManager -> entityManager.createQuery(
+                    "SELECT d.driverId, d.lastName, d.firstName, d.middleName, d.licenseNumber, d.city FROM Driver d"
+                    + " WHERE d.driverId > :lastId ORDER BY d.driverId", Object[].class)
+                    .setParameter("lastId", afterId)
+                    .setMaxResults(INDEX_PAGE_SIZE)
+                    .getResultList());
+            for (Object[] row : page) {
+                lastId = (Integer) row[0];
+                searchIndex.add(lastId, (String) row[1], (String) row[2], (String) row[3], (String) row[4], (String) row[5]);
+            }
+            count += page.size();
+            if (page.size() < INDEX_PAGE_SIZE) {
+                break;
+            }
         }
-        if (fromDate != null && !fromDate.isEmpty()) {
-	        queryBuilder.append(" AND d.birthday >= :fromDate");
-	    }
-	    if (toDate != null && !toDate.isEmpty()) {
-	        queryBuilder.append(" AND d.birthday <= :toDate");
-	    }
-
-        TypedQuery<Driver> query = entityManager.createQuery(queryBuilder.toString(), Driver.class);
-
-        // Устанавливаем параметры запроса, если они не пустые
-        if (firstName != null && !firstName.isEmpty()) {
-            query.setParameter("firstName", "%" + firstName + "%");
+        searchIndex.markReady();
+        logger.info(String.format("Индекс поиска водителей построен: %d записей за %d мс",
+                count, (System.nanoTime() - startTime) / 1_000_000));
+    }
+
+    private void indexDriver(Driver driver) {
+        searchIndex.add(driver.getDriverId(), driver.getLastName(), driver.getFirstName(), driver.getMiddleName(),
+                driver.getLicenseNumber(), driver.getCity());
+    }
+
+    /**
+     * Добавляет водителей, соответствующих всем словам, пока не набрано нужное количество.
+     *
+     * @return true, если набрано нужное количество.
+     */
+    private static boolean addMatching(List<Driver> result, List<Driver> drivers, String[] words, int limit) {
+        for (Driver driver : drivers) {
+            if (result.size() == limit) {
+                return true;
+            }
+            if (TrigramIndex.matchesAll(words, driver.getLastName(), driver.getFirstName(), driver.getMiddleName(),
+                    driver.getLicenseNumber(), driver.getCity())) {
+                result.add(driver);
+            }
         }
-        if (lastName != null && !lastName.isEmpty()) {
-            query.setParameter("lastName", "%" + lastName + "%");
+        return result.size() == limit;
+    }
+
+    /**
+     * Строит запрос подсказок, в котором каждое слово (параметры word0, word1, ...) должно содержаться
+     * в ФИО, номере удостоверения или городе водителя.
+     *
+     * @param wordCount количество слов.
+     * @return текст запроса JPQL.
+     */
+    private static String suggestBySubstringQuery(int wordCount) {
+        List<String> conditions = new ArrayList<>(wordCount);
+        for (int i = 0; i < wordCount; i++) {
+            String word = ":word" + i;
+            conditions.add("(d.lastName LIKE " + word + " OR d.firstName LIKE " + word + " OR d.middleName LIKE " + word
+                    + " OR d.licenseNumber LIKE " + word + " OR d.city LIKE " + word + ")");
         }
-        if (middleName != null && !middleName.isEmpty()) {
-	        query.setParameter("middleName", "%" + middleName + "%");
+        return "SELECT d FROM Driver d WHERE " + String.join(" AND ", conditions) + " ORDER BY d.driverId";
+    }
+
+    /**
+     * Получает водителя по номеру водительского удостоверения в переданном EntityManager.
+     * Сначала проверяется кэш номеров удостоверений; запрос по номеру выполняется только при промахе
+     * или если водитель с закэшированным идентификатором больше не имеет этого номера.
+     *
+     * @param entityManager EntityManager, в котором выполняется поиск.
+     * @param licenseNumber Номер водительского удостоверения.
+     * @return Водитель, если найден, иначе null.
+     */
+    public Driver getDriverByLicense(EntityManager entityManager, String licenseNumber) {
+        Integer driverId = driverIds.get(licenseNumber);
+        if (driverId != null) {
+            Driver driver = entityManager.find(Driver.class, driverId);
+            if (driver != null && licenseNumber.equals(driver.getLicenseNumber())) {
+                return driver;
+            }
+            driverIds.invalidate(licenseNumber);  // Водитель удалён или номер удостоверения изменён при импорте
         }
-        if (licenseNumber != null && !licenseNumber.isEmpty()) {
-            query.setParameter("licenseNumber", "%" + licenseNumber + "%");
+        Driver driver = findDriverByLicense(entityManager, licenseNumber);
+        if (driver != null) {
+            driverIds.put(licenseNumber, driver.getDriverId());
         }
-        if (city != null && !city.isEmpty()) {
-            query.setParameter("city", "%" + city + "%");
+        return driver;
+    }
+
+    /**
+     * Получает водителя по номеру водительского удостоверения.
+     *
+     * @param entityManager EntityManager, в котором выполняется поиск.
+     * @param licenseNumber Номер водительского удостоверения.
+     * @return Водитель, если найден, иначе null.
+     */
+    private static Driver findDriverByLicense(EntityManager entityManager, String licenseNumber) {
+        try {
+            TypedQuery<Driver> query = entityManager.createQuery(
+                    "SELECT d FROM Driver d WHERE d.licenseNumber = :license", Driver.class);
+            query.setParameter("license", licenseNumber);
+            return query.getSingleResult();
+        } catch (Exception e) {
+            return null;  // Если водитель не найден, возвращаем null
         }
-        if (fromDate != null && !fromDate.isEmpty()) {
-        	LocalDate fromLocalDate = LocalDate.parse(fromDate);
-	        query.setParameter("fromDate", fromLocalDate);
-	    }
-	    if (toDate != null && !toDate.isEmpty()) {
-	    	LocalDate toLocalDate = LocalDate.parse(toDate);
-	        query.setParameter("toDate", toLocalDate);
-	    }
-
-        return query.getResultList();  // Возвращаем результаты поиска
     }
 }
@@ -1,81 +1,147 @@
 package services;
 
-import entities.Driver;
-import entities.Violation;
+import entities.ReportRow;
+import entities.StatisticsRow;
 import utils.ReportManager;
 import utils.XMLManager;
 
 import javax.persistence.EntityManager;
 import javax.persistence.TypedQuery;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.util.ArrayList;
 import java.util.List;
 
+import utils.SessionManager;
+import utils.StatisticsRollup;
+
 /**
  * Класс для генерации отчетов по нарушениям.
- * Включает методы для получения данных для отчета и создания PDF-отчета.
+ * Включает методы для получения данных для отчета, создания PDF-отчета и сводки по нарушениям.
  */
 public class ReportService {
-    private EntityManager entityManager;
+    private SessionManager sessionManager;
 
     /**
-     * Конструктор, инициализирует объект ReportService с переданным EntityManager.
+     * Конструктор, инициализирует объект ReportService с переданным менеджером EntityManager.
      *
-     * @param entityManager Менеджер сущностей для работы с базой данных.
+     * @param sessionManager менеджер EntityManager для работы с базой данных.
      */
-    public ReportService(EntityManager entityManager) {
-        this.entityManager = entityManager;
+    public ReportService(SessionManager sessionManager) {
+        this.sessionManager = sessionManager;
     }
 
     /**
      * Получает данные для отчета о нарушениях в указанный период времени.
-     * Данные включают информацию о нарушении, водителе, автомобиле и типе нарушения.
+     * Данные включают информацию о нарушении, водителе, автомобиле и типе нарушения
+     * и выбираются одним запросом с соединением таблиц, без загрузки сущностей.
      *
      * @param startDate Дата начала периода для отчета.
      * @param endDate   Дата окончания периода для отчета.
-     * @return Список массивов объектов, представляющих данные для отчета.
+     * @return Список строк отчета.
      */
-    public List<Object[]> getReportData(LocalDate startDate, LocalDate endDate) {
-        List<Object[]> data = new ArrayList<>();
-
-        // Запрос к базе данных для получения нарушений в заданном периоде
-        TypedQuery<Violation> query = entityManager.createQuery(
-                "SELECT v FROM Violation v WHERE v.violationDate BETWEEN :startDate AND :endDate", Violation.class
-        );
-        query.setParameter("startDate", startDate);
-        query.setParameter("endDate", endDate);
-
-        // Для каждого нарушения собираем данные о водителе, автомобиле и типе нарушения
-        for (Violation violation : query.getResultList()) {
-            Driver driver = violation.getCar().getOwner();
-            data.add(new Object[]{
-                    violation.getViolationDate(),  // Дата нарушения
-                    driver.getFullName(),  // ФИО водителя
-                    violation.getCar().getBrand() + " " + violation.getCar().getModel() + " (" + violation.getCar().getLicensePlate() + ")",  // Автомобиль (марка, модель, номер)
-                    violation.getViolationType().getViolationTypeName()  // Тип нарушения
-            });
-        }
-        return data;  // Возвращаем данные для отчета
+    public List<ReportRow> getReportData(LocalDate startDate, LocalDate endDate) {
+        return sessionManager.read(entityManager -> {
+            // Запрос к базе данных для получения нарушений в заданном периоде вместе с водителем, автомобилем и типом нарушения
+            TypedQuery<ReportRow> query = entityManager.createQuery(
+                    "SELECT NEW entities.ReportRow(v.violationDate, o.lastName, o.firstName, o.middleName, "
+                    + "c.brand, c.model, c.licensePlate, t.violationTypeName) "
+                    + "FROM Violation v JOIN v.car c LEFT JOIN c.owner o LEFT JOIN v.violationType t "
+                    + "WHERE v.violationDate BETWEEN :startDate AND :endDate", ReportRow.class
+            );
+            query.setParameter("startDate", startDate);
+            query.setParameter("endDate", endDate);
+            return query.getResultList();  // Возвращаем данные для отчета
+        });
     }
 
     /**
      * Генерирует PDF-отчет по нарушениям за указанный период времени.
-     * Для этого создается XML-отчет, который затем используется для генерации PDF-отчета.
+     * Данные отчета передаются в генератор отчета напрямую, без промежуточного XML-файла.
      *
      * @param startDate Дата начала периода для отчета.
      * @param endDate   Дата окончания периода для отчета.
      * @throws RuntimeException Если произошла ошибка при генерации отчета.
      */
     public void generatePdfReport(LocalDate startDate, LocalDate endDate) {
+        generatePdfReport(startDate, endDate, false);
+    }
+
+    /**
+     * Генерирует PDF-отчет по нарушениям за указанный период времени
+     * и при необходимости сохраняет архивную копию данных отчета в XML-файл.
+     *
+     * @param startDate Дата начала периода для отчета.
+     * @param endDate   Дата окончания периода для отчета.
+     * @param archiveXml true, если данные отчета нужно дополнительно сохранить в report.xml.
+     * @throws RuntimeException Если произошла ошибка при генерации отчета.
+     */
+    public void generatePdfReport(LocalDate startDate, LocalDate endDate, boolean archiveXml) {
         try {
-            // Создание XML-файла с данными для отчета
-            XMLManager.createReportXML("report.xml", getReportData(startDate, endDate), startDate.toString(), endDate.toString());
+            List<ReportRow> data = getReportData(startDate, endDate);
+
+            // Архивная копия данных отчета создается только по запросу
+            if (archiveXml) {
+                XMLManager.createReportXML("report.xml", data, startDate.toString(), endDate.toString());
+            }
 
-            // Генерация PDF-отчета из XML-файла
-            ReportManager.generateViolationReport("report.xml", "Report.pdf");
+            // Генерация PDF-отчета из полученных данных
+            ReportManager.generateViolationReport(data, "Report.pdf");
         } catch (Exception e) {
             // Обработка ошибок и выбрасывание исключения с сообщением об ошибке
             throw new RuntimeException("Ошибка генерации PDF-отчёта: " + e.getMessage(), e);
         }
     }
+
+    /**
+     * Получает сводку по нарушениям за период, сгруппированную по указанному признаку.
+     * Данные читаются из сводной таблицы, размер которой не зависит от количества нарушений,
+     * а не из таблицы нарушений.
+     *
+     * @param dimension признак группировки.
+     * @param from первый месяц периода или null, если период не ограничен снизу.
+     * @param to последний месяц периода или null, если период не ограничен сверху.
+     * @return строки сводки с количеством нарушений и суммой штрафов.
+     */
+    public List<StatisticsRow> getStatistics(StatisticsDimension dimension, YearMonth from, YearMonth to) {
+        return sessionManager.read(entityManager -> {
+            List<Object[]> rows = entityManager.createQuery(dimension.getQuery(), Object[].class)
+                    .setParameter("fromMonth", from != null ? from.getYear() * 100 + from.getMonthValue() : 0)
+                    .setParameter("toMonth", to != null ? to.getYear() * 100 + to.getMonthValue() : 999999)
+                    .getResultList();
+            List<StatisticsRow> result = new ArrayList<>(rows.size());
+            for (Object[] row : rows) {
+                result.add(new StatisticsRow(dimension.format(row[0]), ((Number) row[1]).longValue(), ((Number) row[2]).longValue()));
+            }
+            return result;
+        });
+    }
+
+    /**
+     * Заполняет сводку, если она пуста, а нарушения в базе есть. Это происходит после того, как
+     * миграция создала сводную таблицу для существующих данных. Пересчёт выполняется в одной
+     * транзакции, поэтому прерванное заполнение не оставляет сводку частично заполненной
+     * и повторяется при следующем запуске.
+     *
+     * @return true, если сводка была заполнена.
+     */
+    public boolean fillStatisticsIfEmpty() {
+        boolean needed = sessionManager.read(entityManager ->
+                entityManager.createQuery("SELECT s.violationCount FROM ViolationStatistic s")
+                        .setMaxResults(1).getResultList().isEmpty()
+                && !entityManager.createQuery("SELECT v.violationId FROM Violation v")
+                        .setMaxResults(1).getResultList().isEmpty());
+        if (needed) {
+            refreshStatistics();
+        }
+        return needed;
+    }
+
+    /**
+     * Пересчитывает сводку по всем нарушениям.
+     * Используется после массовой загрузки данных в обход сервисов; выполняется долго на больших таблицах.
+     */
+    public void refreshStatistics() {
+        sessionManager.inTransaction(StatisticsRollup::refresh);
+    }
 }
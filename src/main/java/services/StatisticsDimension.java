@@ -0,0 +1,59 @@
+package services;
+
+import java.util.function.Function;
+
+/**
+ * Признак группировки сводки по нарушениям.
+ * <p>
+ * Для каждого признака текст агрегирующего запроса к сводной таблице строится один раз.
+ * Сумма штрафов вычисляется как произведение количества нарушений в строке сводки
+ * на текущий размер штрафа статьи.
+ */
+public enum StatisticsDimension {
+    TYPE("По типам нарушений", "t.violationTypeName", "SUM(s.violationCount) DESC", String::valueOf),
+    ARTICLE("По статьям", "a.violationArticleCode", "SUM(s.violationCount) DESC", String::valueOf),
+    REGION("По регионам", "s.id.region", "SUM(s.violationCount) DESC", String::valueOf),
+    MONTH("По месяцам", "s.id.violationMonth", "s.id.violationMonth",
+            value -> String.format("%d-%02d", (Integer) value / 100, (Integer) value % 100)),
+    PAYMENT("По статусу оплаты", "s.id.paid", "s.id.paid DESC",
+            value -> Boolean.TRUE.equals(value) ? "Оплачено" : "Не оплачено");
+
+    private final String title;
+    private final String query;
+    private final Function<Object, String> formatter;
+
+    StatisticsDimension(String title, String key, String orderBy, Function<Object, String> formatter) {
+        this.title = title;
+        this.query = "SELECT " + key + ", SUM(s.violationCount), SUM(s.violationCount * a.violationArticleFine) "
+                + "FROM ViolationStatistic s, ViolationType t, ViolationArticle a "
+                + "WHERE t.violationTypeId = s.id.violationTypeId AND a.violationArticleId = s.id.violationArticleId "
+                + "AND s.id.violationMonth BETWEEN :fromMonth AND :toMonth "
+                + "GROUP BY " + key + " HAVING SUM(s.violationCount) > 0 ORDER BY " + orderBy;
+        this.formatter = formatter;
+    }
+
+    /**
+     * Получить заголовок признака для интерфейса.
+     * @return заголовок.
+     */
+    public String getTitle() {
+        return title;
+    }
+
+    /**
+     * Получить текст запроса JPQL, возвращающего значение признака, количество нарушений и сумму штрафов.
+     * @return текст запроса с параметрами :fromMonth и :toMonth (месяцы в виде ГГГГММ).
+     */
+    String getQuery() {
+        return query;
+    }
+
+    /**
+     * Преобразует значение признака из результата запроса в подпись строки сводки.
+     * @param value значение признака.
+     * @return подпись.
+     */
+    String format(Object value) {
+        return formatter.apply(value);
+    }
+}
@@ -5,32 +5,50 @@ import entities.ViolationArticle;
 import java.util.List;
 
 import javax.persistence.EntityManager;
-import javax.persistence.EntityTransaction;
+import javax.persistence.PersistenceException;
 import javax.persistence.TypedQuery;
 
+import utils.ReferenceDataCache;
+import utils.SearchQuery;
+import utils.SessionManager;
+import utils.StatisticsRollup;
+import validators.UniquenessChecker;
+
 /**
  * Сервис для работы с статьями нарушений.
  * Содержит методы для добавления, обновления, удаления и поиска статей нарушений.
  */
 public class ViolationArticleService {
-    private EntityManager entityManager;
 
     /**
-     * Конструктор, инициализирует объект ViolationArticleService с переданным EntityManager.
+     * Запрос поиска статей нарушений; порядок условий совпадает с порядком параметров {@link #searchViolationArticles}.
+     */
+    private static final SearchQuery<ViolationArticle> SEARCH_QUERY = SearchQuery.from(ViolationArticle.class, "SELECT va FROM ViolationArticle va")
+    		.where("va.violationArticleCode LIKE :articleCode",
+    		       "va.violationArticleDescription LIKE :description",
+    		       "va.violationArticleFine >= :fineFrom",
+    		       "va.violationArticleFine <= :fineTo")
+    		.build();
+
+    private SessionManager sessionManager;
+
+    /**
+     * Конструктор, инициализирует объект ViolationArticleService с переданным менеджером EntityManager.
      *
-     * @param entityManager Менеджер сущностей для работы с базой данных.
+     * @param sessionManager менеджер EntityManager для работы с базой данных.
      */
-    public ViolationArticleService(EntityManager entityManager) {
-    	this.entityManager = entityManager;
+    public ViolationArticleService(SessionManager sessionManager) {
+    	this.sessionManager = sessionManager;
     }
     
     /**
      * Возвращает объект EntityManager, который используется для работы с базой данных.
+     * Предназначен для проверок уникальности в диалогах, сам сервис им не пользуется.
      *
      * @return EntityManager для работы с базой данных.
      */
     public EntityManager getEntityManager() {
-    	return entityManager;
+    	return sessionManager.getUiEntityManager();
     }
     
     /**
@@ -41,15 +59,7 @@ public class ViolationArticleService {
      * @return Статья нарушения с заданным кодом, или null, если не найдена.
      */
     public ViolationArticle getViolationArticleByCode(String code) {
-    	try {
-			TypedQuery<ViolationArticle> query = entityManager.createQuery(
-					"SELECT va FROM ViolationArticle va WHERE va.violationArticleCode = :violationArticleCode", ViolationArticle.class);
-			query.setParameter("violationArticleCode", code);
-			return query.getSingleResult();  // Возвращаем найденную статью нарушения
-		} catch (Exception e) {
-			// В случае ошибки или отсутствия статьи возвращаем null
-			return null;
-		}
+    	return sessionManager.read(entityManager -> findViolationArticleByCode(entityManager, code));
     }
     
     /**
@@ -58,48 +68,40 @@ public class ViolationArticleService {
      * @return Список всех статей нарушений.
      */
     public List<ViolationArticle> getAllViolationArticles() {
-    	TypedQuery<ViolationArticle> query = entityManager.createQuery("SELECT va FROM ViolationArticle va", ViolationArticle.class);
-    	return query.getResultList();  // Возвращаем все статьи нарушений
+    	return sessionManager.read(entityManager -> {
+	    	TypedQuery<ViolationArticle> query = ReferenceDataCache.cacheable(entityManager.createQuery("SELECT va FROM ViolationArticle va", ViolationArticle.class));
+	    	return query.getResultList();  // Возвращаем все статьи нарушений
+    	});
     }
     
     /**
      * Добавляет новую статью нарушения в базу данных.
      *
      * @param violationArticle Статья нарушения, которую нужно добавить.
+     * @throws Exception Если статья с таким кодом уже существует.
      */
-    public void addViolationArticle(ViolationArticle violationArticle) {
-    	EntityTransaction transaction = entityManager.getTransaction();
+    public void addViolationArticle(ViolationArticle violationArticle) throws Exception {
     	try {
-    		transaction.begin();  // Начинаем транзакцию
-            entityManager.persist(violationArticle);  // Сохраняем статью нарушения
-            transaction.commit();  // Подтверждаем транзакцию
-		} catch (Exception e) {
-			// В случае ошибки откатываем транзакцию
-			if (transaction.isActive()) {
-                transaction.rollback();
-            }
-            throw e;  // Бросаем исключение дальше
-		}
+    		sessionManager.inTransaction(entityManager -> entityManager.persist(violationArticle));  // Сохраняем статью нарушения
+    	} catch (PersistenceException e) {
+    		throw UniquenessChecker.translate(e);
+    	}
+    	evictCache();
     }
     
     /**
      * Обновляет существующую статью нарушения в базе данных.
      *
      * @param violationArticle Статья нарушения с обновленными данными.
+     * @throws Exception Если статья с таким кодом уже существует.
      */
-    public void updateViolationArticle(ViolationArticle violationArticle) {
-    	EntityTransaction transaction = entityManager.getTransaction();
+    public void updateViolationArticle(ViolationArticle violationArticle) throws Exception {
     	try {
-    		transaction.begin();  // Начинаем транзакцию
-            entityManager.merge(violationArticle);  // Обновляем статью нарушения
-            transaction.commit();  // Подтверждаем транзакцию
-		} catch (Exception e) {
-			// В случае ошибки откатываем транзакцию
-			if (transaction.isActive()) {
-                transaction.rollback();
-            }
-            throw e;  // Бросаем исключение дальше
-		}
+    		sessionManager.inTransaction(entityManager -> entityManager.merge(violationArticle));  // Обновляем статью нарушения
+    	} catch (PersistenceException e) {
+    		throw UniquenessChecker.translate(e);
+    	}
+    	evictCache();
     }
     
     /**
@@ -109,14 +111,16 @@ public class ViolationArticleService {
      * @throws IllegalArgumentException Если статья с указанным кодом не найдена.
      */
     public void deleteViolationArticle(String code) {
-    	ViolationArticle violationArticle = getViolationArticleByCode(code);
-    	if (violationArticle != null) {
-    		entityManager.getTransaction().begin();  // Начинаем транзакцию
-    		entityManager.remove(violationArticle);  // Удаляем статью нарушения
-    		entityManager.getTransaction().commit();  // Подтверждаем транзакцию
-    	} else {
-            throw new IllegalArgumentException("Статья нарушения с таким кодом не найдена.");  // Бросаем исключение, если статья не найдена
-    	}
+    	sessionManager.inTransaction(entityManager -> {
+	    	ViolationArticle violationArticle = findViolationArticleByCode(entityManager, code);
+	    	if (violationArticle != null) {
+	    		StatisticsRollup.subtract(entityManager, StatisticsRollup.Scope.VIOLATION_ARTICLE, violationArticle.getViolationArticleId());
+	    		entityManager.remove(violationArticle);  // Удаляем статью нарушения
+	    	} else {
+                throw new IllegalArgumentException("Статья нарушения с таким кодом не найдена.");  // Бросаем исключение, если статья не найдена
+	    	}
+    	});
+    	evictCache();
     }
     
     /**
@@ -130,38 +134,37 @@ public class ViolationArticleService {
      * @return Список статей нарушений, удовлетворяющих критериям поиска.
      */
     public List<ViolationArticle> searchViolationArticles(String articleCode, String description, String fineFrom, String fineTo) {
-	    StringBuilder queryBuilder = new StringBuilder("SELECT va FROM ViolationArticle va WHERE 1=1");
-
-	    // Добавляем условия поиска по каждому параметру, если он не пуст
-	    if (articleCode != null && !articleCode.isEmpty()) {
-	        queryBuilder.append(" AND va.violationArticleCode LIKE :articleCode");
-	    }
-	    if (description != null && !description.isEmpty()) {
-	        queryBuilder.append(" AND va.violationArticleDescription LIKE :description");
-	    }
-	    if (fineFrom != null && !fineFrom.isEmpty()) {
-	    	queryBuilder.append(" AND va.violationArticleFine >= :fineFrom");
-	    }
-	    if (fineTo != null && !fineTo.isEmpty()) {
-	    	queryBuilder.append(" AND va.violationArticleFine <= :fineTo");
-	    }
-
-	    TypedQuery<ViolationArticle> query = entityManager.createQuery(queryBuilder.toString(), ViolationArticle.class);
+	    return sessionManager.read(entityManager -> SEARCH_QUERY.create(entityManager,
+	    		SearchQuery.contains(articleCode),
+	    		SearchQuery.contains(description),
+	    		SearchQuery.number(fineFrom),
+	    		SearchQuery.number(fineTo)).getResultList());
+    }
 
-	    // Устанавливаем параметры для запроса
-	    if (articleCode != null && !articleCode.isEmpty()) {
-	        query.setParameter("articleCode", "%" + articleCode + "%");
-	    }
-	    if (description != null && !description.isEmpty()) {
-	        query.setParameter("description", "%" + description + "%");
-	    }
-	    if (fineFrom != null && !fineFrom.isEmpty()) {
-	    	query.setParameter("fineFrom", Integer.parseInt(fineFrom));
-	    }
-	    if (fineTo != null && !fineTo.isEmpty()) {
-	    	query.setParameter("fineTo", Integer.parseInt(fineTo));
-	    }
+    /**
+     * Находит статью нарушения по коду статьи.
+     * Возвращает null, если статья не найдена.
+     *
+     * @param entityManager EntityManager, в котором выполняется поиск.
+     * @param code Код статьи нарушения.
+     * @return Статья нарушения с заданным кодом, или null, если не найдена.
+     */
+    private static ViolationArticle findViolationArticleByCode(EntityManager entityManager, String code) {
+    	try {
+			TypedQuery<ViolationArticle> query = ReferenceDataCache.cacheable(entityManager.createQuery(
+					"SELECT va FROM ViolationArticle va WHERE va.violationArticleCode = :violationArticleCode", ViolationArticle.class));
+			query.setParameter("violationArticleCode", code);
+			return query.getSingleResult();  // Возвращаем найденную статью нарушения
+		} catch (Exception e) {
+			// В случае ошибки или отсутствия статьи возвращаем null
+			return null;
+		}
+    }
 
-	    return query.getResultList();  // Возвращаем список найденных статей нарушений
-	}
+    /**
+     * Удаляет статьи нарушений и закэшированные результаты запросов из кэша после изменения справочника.
+     */
+    private void evictCache() {
+    	ReferenceDataCache.evict(sessionManager.getEntityManagerFactory(), ViolationArticle.class);
+    }
 }
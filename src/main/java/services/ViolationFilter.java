@@ -0,0 +1,97 @@
+package services;
+
+import java.time.LocalDate;
+
+/**
+ * Условия поиска нарушений: диапазон дат, подстрока номера постановления, госномер автомобиля,
+ * тип и статья нарушения, статус оплаты. Незаданные условия не ограничивают поиск.
+ * <p>
+ * Условия записываются в запрос через псевдонимы {@code v} (нарушение), {@code c} (автомобиль),
+ * {@code t} (тип нарушения) и {@code a} (статья нарушения), которые должен объявить запрос.
+ */
+public final class ViolationFilter {
+
+    /**
+     * Условия поиска в виде фрагментов JPQL для {@link utils.SearchQuery}.
+     */
+    static final String[] CONDITIONS = {
+        "v.violationDate >= :violationDateFrom",
+        "v.violationDate <= :violationDateTo",
+        "v.violationResolution LIKE :resolutionNumber",
+        "c.licensePlate = :carLicensePlate",
+        "t.violationTypeName = :violationType",
+        "a.violationArticleCode = :violationArticle",
+        "v.violationPaid = :paymentStatus"
+    };
+
+    private final LocalDate dateFrom;
+    private final LocalDate dateTo;
+    private final String resolution;
+    private final String licensePlate;
+    private final String violationType;
+    private final String violationArticle;
+    private final Boolean paid;
+
+    private ViolationFilter(LocalDate dateFrom, LocalDate dateTo, String resolution, String licensePlate,
+                            String violationType, String violationArticle, Boolean paid) {
+        this.dateFrom = dateFrom;
+        this.dateTo = dateTo;
+        this.resolution = resolution;
+        this.licensePlate = licensePlate;
+        this.violationType = violationType;
+        this.violationArticle = violationArticle;
+        this.paid = paid;
+    }
+
+    /**
+     * Создаёт условия поиска из значений полей окна поиска. Пустые строки означают незаданное условие.
+     *
+     * @param violationDateFrom дата начала диапазона в формате ГГГГ-ММ-ДД.
+     * @param violationDateTo дата окончания диапазона в формате ГГГГ-ММ-ДД.
+     * @param resolution подстрока номера постановления.
+     * @param car автомобиль в формате «марка модель (госномер)» или госномер.
+     * @param violationType название типа нарушения.
+     * @param violationArticle код статьи нарушения.
+     * @param isPaid статус оплаты или null, если не важен.
+     * @return условия поиска.
+     * @throws java.time.format.DateTimeParseException если дата указана в неверном формате.
+     */
+    public static ViolationFilter of(String violationDateFrom, String violationDateTo, String resolution, String car,
+                                     String violationType, String violationArticle, Boolean isPaid) {
+        String licensePlate = null;
+        if (isSet(car)) {
+            int open = car.indexOf('(');
+            int close = car.indexOf(')', open + 1);
+            licensePlate = open >= 0 && close > open ? car.substring(open + 1, close) : car;
+        }
+        return new ViolationFilter(
+                isSet(violationDateFrom) ? LocalDate.parse(violationDateFrom) : null,
+                isSet(violationDateTo) ? LocalDate.parse(violationDateTo) : null,
+                isSet(resolution) ? resolution : null,
+                licensePlate,
+                isSet(violationType) ? violationType : null,
+                isSet(violationArticle) ? violationArticle : null,
+                isPaid);
+    }
+
+    /**
+     * Значения условий в порядке {@link #CONDITIONS}; незаданные условия равны null.
+     *
+     * @return значения условий.
+     */
+    Object[] values() {
+        return new Object[] {
+            dateFrom,
+            dateTo,
+            resolution != null ? "%" + resolution + "%" : null,
+            licensePlate,
+            violationType,
+            violationArticle,
+            paid
+        };
+    }
+
+    private static boolean isSet(String value) {
+        return value != null && !value.isEmpty();
+    }
+}
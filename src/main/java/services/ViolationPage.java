@@ -0,0 +1,79 @@
+package services;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+
+import entities.ViolationRow;
+
+/**
+ * Страница результата поиска нарушений.
+ * Строки упорядочены по дате нарушения и идентификатору. Следующая страница запрашивается
+ * по маркеру продолжения - закодированной паре (дата, идентификатор) последней строки страницы,
+ * поэтому выборка следующей страницы не зависит от количества уже просмотренных строк.
+ */
+public class ViolationPage {
+
+    private final List<ViolationRow> rows;
+    private final String nextPageToken;
+
+    ViolationPage(List<ViolationRow> rows, String nextPageToken) {
+        this.rows = rows;
+        this.nextPageToken = nextPageToken;
+    }
+
+    /**
+     * Получить строки страницы.
+     * @return строки в порядке даты нарушения и идентификатора.
+     */
+    public List<ViolationRow> getRows() {
+        return rows;
+    }
+
+    /**
+     * Получить маркер продолжения для запроса следующей страницы.
+     * @return маркер или null, если страница последняя.
+     */
+    public String getNextPageToken() {
+        return nextPageToken;
+    }
+
+    /**
+     * Проверяет, есть ли следующая страница.
+     * @return true, если за страницей следуют другие строки.
+     */
+    public boolean hasNextPage() {
+        return nextPageToken != null;
+    }
+
+    /**
+     * Кодирует положение строки в маркер продолжения.
+     *
+     * @param violationDate дата нарушения.
+     * @param violationId идентификатор нарушения.
+     * @return маркер продолжения.
+     */
+    static String encodeToken(LocalDate violationDate, Integer violationId) {
+        String key = violationDate + ":" + violationId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(key.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Раскодирует маркер продолжения.
+     *
+     * @param token маркер продолжения.
+     * @return дата нарушения и идентификатор нарушения.
+     * @throws IllegalArgumentException если маркер повреждён.
+     */
+    static Object[] decodeToken(String token) {
+        try {
+            String key = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.US_ASCII);
+            int separator = key.indexOf(':');
+            return new Object[] {LocalDate.parse(key.substring(0, separator)), Integer.valueOf(key.substring(separator + 1))};
+        } catch (IllegalArgumentException | DateTimeParseException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Некорректный маркер продолжения: " + token, e);
+        }
+    }
+}
@@ -1,37 +1,97 @@
 package services;
 
 import entities.Violation; 
+import entities.ViolationRow;
 
 import javax.persistence.EntityManager;
-import javax.persistence.EntityTransaction;
+import javax.persistence.PersistenceException;
 import javax.persistence.TypedQuery;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.query.Query;
+
+import utils.NaturalKeyCache;
+import utils.SearchQuery;
+import utils.SessionManager;
+import utils.StatisticsRollup;
+import validators.UniquenessChecker;
 
 /**
  * Сервис для работы с сущностями Нарушение (Violation).
  * Предоставляет методы для получения, добавления, обновления и удаления записей о нарушениях.
  */
 public class ViolationService {
-    private EntityManager entityManager;
+    private static final int LOOKUP_CACHE_SIZE = 10000;
+
+    /**
+     * Количество строк, получаемых от базы данных за одно обращение курсора при потоковом поиске.
+     */
+    private static final int STREAM_FETCH_SIZE = 500;
+
+    // Части запросов поиска: соединения для условий ViolationFilter и проекция строки результата
+    private static final String SEARCH_JOINS = " LEFT JOIN v.violationArticle a LEFT JOIN v.violationType t LEFT JOIN v.car c";
+    private static final String ROW_SELECT = "SELECT NEW entities.ViolationRow(v.violationId, v.violationResolution, "
+    		+ "a.violationArticleCode, t.violationTypeName, c.licensePlate, o.lastName, o.firstName, o.middleName, "
+    		+ "v.violationDate, v.violationPaid) FROM Violation v" + SEARCH_JOINS + " LEFT JOIN c.owner o";
+    private static final String ROW_ORDER = "v.violationDate, v.violationId";
+
+    // Связанные записи выбираются тем же запросом, а не отдельным запросом на каждое нарушение
+    private static final SearchQuery<Violation> SEARCH_QUERY = SearchQuery.from(Violation.class, "SELECT v FROM Violation v "
+    		+ "LEFT JOIN FETCH v.violationArticle a LEFT JOIN FETCH v.violationType t "
+    		+ "LEFT JOIN FETCH v.car c LEFT JOIN FETCH c.owner")
+    		.where(ViolationFilter.CONDITIONS)
+    		.build();
+    private static final SearchQuery<Long> COUNT_QUERY = SearchQuery.from(Long.class, "SELECT COUNT(v) FROM Violation v" + SEARCH_JOINS)
+    		.where(ViolationFilter.CONDITIONS)
+    		.build();
+    private static final SearchQuery<ViolationRow> ROW_QUERY = SearchQuery.from(ViolationRow.class, ROW_SELECT)
+    		.where(ViolationFilter.CONDITIONS)
+    		.orderBy(ROW_ORDER)
+    		.build();
+    private static final SearchQuery<ViolationRow> ROW_AFTER_QUERY = SearchQuery.from(ViolationRow.class, ROW_SELECT)
+    		.require("(v.violationDate > :afterDate OR (v.violationDate = :afterDate AND v.violationId > :afterId))")
+    		.where(ViolationFilter.CONDITIONS)
+    		.orderBy(ROW_ORDER)
+    		.build();
+    private static final SearchQuery<Object[]> KEY_QUERY = SearchQuery.from(Object[].class, "SELECT v.violationDate, v.violationId FROM Violation v" + SEARCH_JOINS)
+    		.where(ViolationFilter.CONDITIONS)
+    		.orderBy(ROW_ORDER)
+    		.build();
+
+    private SessionManager sessionManager;
+
+    /**
+     * Идентификаторы нарушений по номерам постановлений.
+     */
+    private final NaturalKeyCache<String> violationIds = new NaturalKeyCache<>(LOOKUP_CACHE_SIZE);
     
     /**
-     * Конструктор, инициализирует сервис с использованием переданного EntityManager.
+     * Конструктор, инициализирует сервис с использованием переданного менеджера EntityManager.
      * 
-     * @param entityManager менеджер сущностей для работы с базой данных
+     * @param sessionManager менеджер EntityManager для работы с базой данных.
      */
-    public ViolationService(EntityManager entityManager) {
-    	this.entityManager = entityManager;
+    public ViolationService(SessionManager sessionManager) {
+    	this.sessionManager = sessionManager;
     }
     
     /**
      * Получение EntityManager.
+     * Доступен только из потока обработки событий Swing.
      * 
      * @return текущий EntityManager
      */
     public EntityManager getEntityManager() {
-    	return entityManager;
+    	return sessionManager.getUiEntityManager();
     }
     
     /**
@@ -41,15 +101,7 @@ public class ViolationService {
      * @return объект нарушения, если найдено, иначе null
      */
     public Violation getViolationByResolution(String resolution) {
-    	try {
-    		TypedQuery<Violation> query = entityManager.createQuery(
-                    "SELECT v FROM Violation v WHERE v.violationResolution = :violationResolution", Violation.class);
-            query.setParameter("violationResolution", resolution);
-            return query.getSingleResult();
-		} catch (Exception e) {
-			// если нарушение с таким номером постановления не найдено, возвращаем null
-			return null;
-		}
+    	return sessionManager.read(entityManager -> getViolationByResolution(entityManager, resolution));
     }
     
     /**
@@ -58,46 +110,120 @@ public class ViolationService {
      * @return список всех нарушений
      */
     public List<Violation> getAllViolations() {
-    	TypedQuery<Violation> query = entityManager.createQuery("SELECT v FROM Violation v", Violation.class);
-    	return query.getResultList();
+    	return sessionManager.read(entityManager -> {
+	    	TypedQuery<Violation> query = entityManager.createQuery("SELECT v FROM Violation v", Violation.class);
+	    	return query.getResultList();
+    	});
+    }
+    
+    /**
+     * Получение количества нарушений в базе данных.
+     * 
+     * @return количество нарушений
+     */
+    public long countViolations() {
+    	return sessionManager.read(entityManager ->
+    			entityManager.createQuery("SELECT COUNT(v) FROM Violation v", Long.class).getSingleResult());
+    }
+    
+    /**
+     * Получение приблизительного количества нарушений из статистики таблицы MySQL.
+     * В отличие от {@link #countViolations()} не просматривает таблицу, поэтому выполняется быстро
+     * при любом её размере; значение может отличаться от точного на десятки процентов.
+     * 
+     * @return приблизительное количество нарушений или -1, если статистика недоступна
+     */
+    public long estimateViolationCount() {
+    	try {
+    		return sessionManager.read(entityManager -> {
+    			List<?> result = entityManager.createNativeQuery("SELECT TABLE_ROWS FROM information_schema.TABLES "
+    					+ "WHERE TABLE_SCHEMA = 'app_db' AND TABLE_NAME = 'violation'").getResultList();
+    			return result.isEmpty() || result.get(0) == null ? -1L : ((Number) result.get(0)).longValue();
+    		});
+    	} catch (RuntimeException e) {
+    		return -1;  // База данных без статистики таблиц в information_schema
+    	}
+    }
+    
+    /**
+     * Получение идентификатора нарушения по его позиции в порядке возрастания идентификаторов.
+     * Запрос выбирает только идентификатор, поэтому пропуск строк выполняется по индексу первичного ключа
+     * без чтения самих записей.
+     * 
+     * @param position позиция нарушения, начиная с 0
+     * @return идентификатор нарушения или null, если позиция за пределами таблицы
+     */
+    public Integer getViolationIdAt(int position) {
+    	return sessionManager.read(entityManager -> {
+	    	List<Integer> ids = entityManager.createQuery(
+	    			"SELECT v.violationId FROM Violation v ORDER BY v.violationId", Integer.class)
+	    			.setFirstResult(position)
+	    			.setMaxResults(1)
+	    			.getResultList();
+	    	return ids.isEmpty() ? null : ids.get(0);
+    	});
+    }
+    
+    /**
+     * Получение страницы строк таблицы нарушений, следующих за указанным идентификатором.
+     * Выбираются только отображаемые столбцы, без загрузки сущностей нарушения, автомобиля и владельца.
+     * 
+     * @param afterId идентификатор последнего нарушения предыдущей страницы или null для первой страницы
+     * @param limit максимальное количество строк
+     * @return строки в порядке возрастания идентификатора: идентификатор, номер постановления, код статьи,
+     *         тип нарушения, госномер, фамилия, имя и отчество владельца, дата нарушения, статус оплаты
+     */
+    public List<Object[]> getViolationRows(Integer afterId, int limit) {
+    	return sessionManager.read(entityManager -> entityManager.createQuery(
+    			"SELECT v.violationId, v.violationResolution, a.violationArticleCode, t.violationTypeName, "
+    			+ "c.licensePlate, o.lastName, o.firstName, o.middleName, v.violationDate, v.violationPaid "
+    			+ "FROM Violation v LEFT JOIN v.violationArticle a LEFT JOIN v.violationType t "
+    			+ "LEFT JOIN v.car c LEFT JOIN c.owner o "
+    			+ "WHERE v.violationId > :afterId ORDER BY v.violationId", Object[].class)
+    			.setParameter("afterId", afterId != null ? afterId : 0)
+    			.setMaxResults(limit)
+    			.getResultList());
     }
     
     /**
      * Добавление нового нарушения в базу данных.
      * 
      * @param violation объект нарушения для добавления
+     * @throws Exception если нарушение с таким номером постановления уже существует.
      */
-    public void addViolation(Violation violation) {
-    	EntityTransaction transaction = entityManager.getTransaction();
+    public void addViolation(Violation violation) throws Exception {
     	try {
-    		transaction.begin();
-    		entityManager.persist(violation);  // сохраняем нарушение в базе данных
-    		transaction.commit();  // подтверждаем изменения
-		} catch (Exception e) {
-			if (transaction.isActive()) {
-				transaction.rollback();  // откатываем изменения в случае ошибки
-			}
-			throw e;
-		}
+    		sessionManager.inTransaction(entityManager -> {
+    			entityManager.persist(violation);  // сохраняем нарушение в базе данных
+    			StatisticsRollup.add(entityManager, StatisticsRollup.Scope.VIOLATION, violation.getViolationId());
+    		});
+    	} catch (PersistenceException e) {
+    		// Окончательную уникальность номера постановления гарантирует ограничение базы данных
+    		throw UniquenessChecker.translate(e);
+    	}
+    	violationIds.put(violation.getViolationResolution(), violation.getViolationId());
     }
     
     /**
      * Обновление данных нарушения в базе.
      * 
      * @param violation объект нарушения с обновленными данными
+     * @throws Exception если нарушение с таким номером постановления уже существует.
      */
-    public void updateViolation(Violation violation) {
-    	EntityTransaction transaction = entityManager.getTransaction();
+    public void updateViolation(Violation violation) throws Exception {
     	try {
-    		transaction.begin();
-    		entityManager.merge(violation);  // слияние обновленного объекта с текущей базой данных
-    		transaction.commit();
-		} catch (Exception e) {
-			if (transaction.isActive()) {
-				transaction.rollback();  // откатываем изменения в случае ошибки
-			}
-			throw e;
-		}
+    		sessionManager.inTransaction(entityManager -> {
+    			// Нарушение вычитается из сводки в прежнем состоянии и прибавляется в новом
+    			StatisticsRollup.subtract(entityManager, StatisticsRollup.Scope.VIOLATION, violation.getViolationId());
+    			entityManager.merge(violation);  // слияние обновленного объекта с текущей базой данных
+    			StatisticsRollup.add(entityManager, StatisticsRollup.Scope.VIOLATION, violation.getViolationId());
+    		});
+    	} catch (PersistenceException e) {
+    		throw UniquenessChecker.translate(e);
+    	}
+    	// Прежний ключ мог измениться, поэтому запись удаляется из кэша по идентификатору
+    	violationIds.invalidateId(violation.getViolationId());
+    	violationIds.put(violation.getViolationResolution(), violation.getViolationId());
     }
     
     /**
@@ -106,19 +232,22 @@ public class ViolationService {
      * @param resolution номер постановления для удаления
      */
     public void deleteViolation(String resolution) {
-    	Violation violation = getViolationByResolution(resolution);
-    	if (violation != null) {
-    		entityManager.getTransaction().begin();
-    		entityManager.remove(violation);  // удаляем нарушение из базы данных
-    		entityManager.getTransaction().commit();
-    	} else {
-            throw new IllegalArgumentException("Нарушение с таким номером постановления не найдено.");
-    	}
+    	sessionManager.inTransaction(entityManager -> {
+	    	Violation violation = getViolationByResolution(entityManager, resolution);
+	    	if (violation != null) {
+	    		StatisticsRollup.subtract(entityManager, StatisticsRollup.Scope.VIOLATION, violation.getViolationId());
+	    		entityManager.remove(violation);  // удаляем нарушение из базы данных
+	    	} else {
+                throw new IllegalArgumentException("Нарушение с таким номером постановления не найдено.");
+	    	}
+    	});
+    	violationIds.invalidate(resolution);
     }
     
     /**
      * Поиск нарушений по различным критериям: дате нарушения, номеру постановления, 
      * номеру автомобиля, типу нарушения, статье нарушения, статусу оплаты.
+     * Весь результат загружается в память.
      * 
      * @param violationDateFrom дата начала диапазона для поиска по дате нарушения
      * @param violationDateTo дата окончания диапазона для поиска по дате нарушения
@@ -128,62 +257,152 @@ public class ViolationService {
      * @param violationArticle статья нарушения для поиска
      * @param isPaid статус оплаты (true - оплачено, false - не оплачено) для поиска
      * @return список нарушений, соответствующих всем критериям
+     * @see #searchViolationPage(ViolationFilter, String, int) постраничный поиск для больших результатов
+     * @see #streamViolations(ViolationFilter) потоковый поиск для пакетной обработки
      */
     public List<Violation> searchViolations(String violationDateFrom, String violationDateTo, String resolution, String car, String violationType, String violationArticle, Boolean isPaid) {
-	    StringBuilder queryBuilder = new StringBuilder("SELECT v FROM Violation v WHERE 1=1");
-
-	    // добавляем условия поиска в запрос
-	    if (violationDateFrom != null && !violationDateFrom.isEmpty()) {
-	        queryBuilder.append(" AND v.violationDate >= :violationDateFrom");
-	    }
-	    if (violationDateTo != null && !violationDateTo.isEmpty()) {
-	        queryBuilder.append(" AND v.violationDate <= :violationDateTo");
-	    }
-	    if (resolution != null && !resolution.isEmpty()) { 
-	        queryBuilder.append(" AND v.violationResolution LIKE :resolutionNumber");
-	    }
-	    if (car != null && !car.isEmpty()) {
-	        queryBuilder.append(" AND v.car.licensePlate = :carLicensePlate");
-	    }
-	    if (violationType != null && !violationType.isEmpty()) {
-	        queryBuilder.append(" AND v.violationType.violationTypeName = :violationType");
-	    }
-	    if (violationArticle != null && !violationArticle.isEmpty()) {
-	        queryBuilder.append(" AND v.violationArticle.violationArticleCode = :violationArticle");
-	    }
-	    if (isPaid != null) {	    	
-	    	queryBuilder.append(" AND v.violationPaid = :paymentStatus");
-	    }
-
-	    TypedQuery<Violation> query = entityManager.createQuery(queryBuilder.toString(), Violation.class);
-
-	    // устанавливаем параметры для запроса
-	    if (violationDateFrom != null && !violationDateFrom.isEmpty()) {
-	    	LocalDate DateFrom = LocalDate.parse(violationDateFrom);
-	        query.setParameter("violationDateFrom", DateFrom);
-	    }
-	    if (violationDateTo != null && !violationDateTo.isEmpty()) {
-	    	LocalDate DateTo = LocalDate.parse(violationDateTo);
-	        query.setParameter("violationDateTo", DateTo);
-	    }
-	    if (resolution != null && !resolution.isEmpty()) { 
-	        query.setParameter("resolutionNumber", "%" + resolution + "%");
-	    }
-	    if (car != null && !car.isEmpty()) {
-	        String carLicensePlate = car.substring(car.indexOf('(') + 1, car.indexOf(')')); 
-	        query.setParameter("carLicensePlate", carLicensePlate);
-	    }
-	    if (violationType != null && !violationType.isEmpty()) {
-	        query.setParameter("violationType", violationType);
-	    }
-	    if (violationArticle != null && !violationArticle.isEmpty()) {
-	        query.setParameter("violationArticle", violationArticle);
-	    }
-	    if (isPaid != null) {	    	
-		    query.setParameter("paymentStatus", isPaid);
-	    }   
-
-	    return query.getResultList();
-	}
+	    ViolationFilter filter = ViolationFilter.of(violationDateFrom, violationDateTo, resolution, car, violationType, violationArticle, isPaid);
+	    return sessionManager.read(entityManager -> SEARCH_QUERY.create(entityManager, filter.values()).getResultList());
+    }
+
+    /**
+     * Подсчёт нарушений, соответствующих условиям поиска.
+     *
+     * @param filter условия поиска
+     * @return количество нарушений
+     */
+    public long countViolations(ViolationFilter filter) {
+    	return sessionManager.read(entityManager -> COUNT_QUERY.create(entityManager, filter.values()).getSingleResult());
+    }
+
+    /**
+     * Поиск страницы нарушений, соответствующих условиям поиска.
+     * Строки упорядочены по дате нарушения и идентификатору; следующая страница выбирается
+     * условием на пару (дата, идентификатор) из маркера продолжения, а не пропуском строк,
+     * поэтому время выборки страницы не растёт по мере просмотра результата.
+     *
+     * @param filter условия поиска
+     * @param pageToken маркер продолжения из {@link ViolationPage#getNextPageToken()} или null для первой страницы
+     * @param pageSize максимальное количество строк на странице
+     * @return страница строк и маркер следующей страницы
+     * @throws IllegalArgumentException если маркер продолжения повреждён
+     */
+    public ViolationPage searchViolationPage(ViolationFilter filter, String pageToken, int pageSize) {
+    	Object[] after = pageToken != null ? ViolationPage.decodeToken(pageToken) : null;
+    	return sessionManager.read(entityManager -> {
+    		TypedQuery<ViolationRow> query = (after != null ? ROW_AFTER_QUERY : ROW_QUERY).create(entityManager, filter.values());
+    		if (after != null) {
+    			query.setParameter("afterDate", after[0]);
+    			query.setParameter("afterId", after[1]);
+    		}
+    		// Лишняя строка показывает, есть ли следующая страница
+    		List<ViolationRow> rows = query.setMaxResults(pageSize + 1).getResultList();
+    		if (rows.size() <= pageSize) {
+    			return new ViolationPage(rows, null);
+    		}
+    		rows = new ArrayList<>(rows.subList(0, pageSize));
+    		ViolationRow last = rows.get(pageSize - 1);
+    		return new ViolationPage(rows, ViolationPage.encodeToken(last.getViolationDate(), last.getViolationId()));
+    	});
+    }
+
+    /**
+     * Получение маркера продолжения для страницы, начинающейся с указанной позиции результата поиска.
+     * Используется при переходе к произвольной странице, когда маркер предыдущей страницы неизвестен:
+     * запрос выбирает только дату и идентификатор одной строки.
+     *
+     * @param filter условия поиска
+     * @param position позиция первой строки страницы, начиная с 0
+     * @return маркер продолжения, null для позиции 0
+     */
+    public String getViolationPageToken(ViolationFilter filter, int position) {
+    	if (position <= 0) {
+    		return null;
+    	}
+    	return sessionManager.read(entityManager -> {
+    		List<Object[]> keys = KEY_QUERY.create(entityManager, filter.values())
+    				.setFirstResult(position - 1).setMaxResults(1).getResultList();
+    		return keys.isEmpty() ? null : ViolationPage.encodeToken((LocalDate) keys.get(0)[0], (Integer) keys.get(0)[1]);
+    	});
+    }
+
+    /**
+     * Потоковый поиск нарушений, соответствующих условиям поиска.
+     * Строки читаются курсором {@link ScrollableResults} порциями по {@value #STREAM_FETCH_SIZE},
+     * поэтому обход результата любого размера занимает постоянный объём памяти.
+     * Поток удерживает соединение с базой данных и должен быть закрыт, например в try-with-resources.
+     *
+     * @param filter условия поиска
+     * @return поток строк в порядке даты нарушения и идентификатора
+     */
+    public Stream<ViolationRow> streamViolations(ViolationFilter filter) {
+    	EntityManager entityManager = sessionManager.getEntityManagerFactory().createEntityManager();
+    	try {
+    		@SuppressWarnings("unchecked")
+    		Query<ViolationRow> query = ROW_QUERY.create(entityManager, filter.values()).unwrap(Query.class);
+    		ScrollableResults results = query.setFetchSize(STREAM_FETCH_SIZE).setReadOnly(true).scroll(ScrollMode.FORWARD_ONLY);
+
+    		Spliterator<ViolationRow> rows = new Spliterators.AbstractSpliterator<ViolationRow>(Long.MAX_VALUE,
+    				Spliterator.ORDERED | Spliterator.NONNULL) {
+    			@Override
+    			public boolean tryAdvance(Consumer<? super ViolationRow> action) {
+    				if (!results.next()) {
+    					return false;
+    				}
+    				action.accept((ViolationRow) results.get(0));
+    				return true;
+    			}
+    		};
+    		return StreamSupport.stream(rows, false).onClose(() -> {
+    			results.close();
+    			entityManager.close();
+    		});
+    	} catch (RuntimeException e) {
+    		entityManager.close();
+    		throw e;
+    	}
+    }
+
+    /**
+     * Получение нарушения по номеру постановления в переданном EntityManager.
+     * Идентификатор нарушения ищется в кэше номеров постановлений, и нарушение читается по первичному ключу.
+     *
+     * @param entityManager EntityManager, в котором выполняется поиск.
+     * @param resolution номер постановления
+     * @return объект нарушения, если найдено, иначе null
+     */
+    public Violation getViolationByResolution(EntityManager entityManager, String resolution) {
+        Integer violationId = violationIds.get(resolution);
+        if (violationId != null) {
+            Violation violation = entityManager.find(Violation.class, violationId);
+            if (violation != null && resolution.equals(violation.getViolationResolution())) {
+                return violation;
+            }
+            violationIds.invalidate(resolution);  // Запись кэша устарела: нарушение удалено или номер постановления изменён
+        }
+        Violation violation = findViolationByResolution(entityManager, resolution);
+        if (violation != null) {
+            violationIds.put(resolution, violation.getViolationId());
+        }
+        return violation;
+    }
 
+    /**
+     * Получение нарушения по номеру постановления.
+     * 
+     * @param entityManager EntityManager, в котором выполняется поиск.
+     * @param resolution номер постановления
+     * @return объект нарушения, если найдено, иначе null
+     */
+    private static Violation findViolationByResolution(EntityManager entityManager, String resolution) {
+    	try {
+    		TypedQuery<Violation> query = entityManager.createQuery(
+                    "SELECT v FROM Violation v WHERE v.violationResolution = :violationResolution", Violation.class);
+            query.setParameter("violationResolution", resolution);
+            return query.getSingleResult();
+		} catch (Exception e) {
+			// если нарушение с таким номером постановления не найдено, возвращаем null
+			return null;
+		}
+    }
 }
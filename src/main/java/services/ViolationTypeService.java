@@ -5,30 +5,45 @@ import entities.ViolationType;
 import java.util.List;
 
 import javax.persistence.EntityManager;
-import javax.persistence.EntityTransaction;
+import javax.persistence.PersistenceException;
 import javax.persistence.TypedQuery;
 
+import utils.ReferenceDataCache;
+import utils.SearchQuery;
+import utils.SessionManager;
+import utils.StatisticsRollup;
+import validators.UniquenessChecker;
+
 /**
  * Сервис для работы с типами нарушений.
  * Предоставляет методы для добавления, обновления, удаления, поиска и получения всех типов нарушений.
  */
 public class ViolationTypeService {
-    private EntityManager entityManager;
+
+    /**
+     * Запрос поиска типов нарушений по подстроке названия.
+     */
+    private static final SearchQuery<ViolationType> SEARCH_QUERY = SearchQuery.from(ViolationType.class, "SELECT vt FROM ViolationType vt")
+            .where("vt.violationTypeName LIKE :typeName")
+            .build();
+
+    private SessionManager sessionManager;
 
     /**
      * Конструктор сервиса для работы с типами нарушений.
-     * @param entityManager {@link EntityManager} для работы с базой данных.
+     * @param sessionManager менеджер EntityManager для работы с базой данных.
      */
-    public ViolationTypeService(EntityManager entityManager) {
-        this.entityManager = entityManager;
+    public ViolationTypeService(SessionManager sessionManager) {
+        this.sessionManager = sessionManager;
     }
 
     /**
      * Получение {@link EntityManager}.
+     * EntityManager интерфейса, не для фоновых потоков.
      * @return {@link EntityManager} для работы с базой данных.
      */
     public EntityManager getEntityManager() {
-        return entityManager;
+        return sessionManager.getUiEntityManager();
     }
 
     /**
@@ -37,14 +52,7 @@ public class ViolationTypeService {
      * @return Объект типа {@link ViolationType}, если найдено, иначе {@code null}.
      */
     public ViolationType getViolationTypeByName(String name) {
-        try {
-            TypedQuery<ViolationType> query = entityManager.createQuery(
-                    "SELECT vt FROM ViolationType vt WHERE vt.violationTypeName = :violationTypeName", ViolationType.class);
-            query.setParameter("violationTypeName", name);
-            return query.getSingleResult();
-        } catch (Exception e) {
-            return null;  // Если тип нарушения не найден, возвращаем null
-        }
+        return sessionManager.read(entityManager -> findViolationTypeByName(entityManager, name));
     }
 
     /**
@@ -52,46 +60,40 @@ public class ViolationTypeService {
      * @return Список всех типов нарушений.
      */
     public List<ViolationType> getAllViolationTypes() {
-        TypedQuery<ViolationType> query = entityManager.createQuery("SELECT vt FROM ViolationType vt ORDER BY vt.violationTypeId", ViolationType.class);
-        return query.getResultList();
+        return sessionManager.read(entityManager -> {
+            TypedQuery<ViolationType> query = ReferenceDataCache.cacheable(entityManager.createQuery("SELECT vt FROM ViolationType vt ORDER BY vt.violationTypeId", ViolationType.class));
+            return query.getResultList();
+        });
     }
 
     /**
      * Добавить новый тип нарушения.
      * @param violationType Тип нарушения для добавления.
      * @throws RuntimeException Если транзакция не может быть завершена.
+     * @throws Exception Если тип нарушения с таким названием уже существует.
      */
-    public void addViolationType(ViolationType violationType) {
-        EntityTransaction transaction = entityManager.getTransaction();
+    public void addViolationType(ViolationType violationType) throws Exception {
         try {
-            transaction.begin();
-            entityManager.persist(violationType);  // Сохраняем новый тип нарушения
-            transaction.commit();
-        } catch (Exception e) {
-            if (transaction.isActive()) {
-                transaction.rollback();  // Откатываем транзакцию в случае ошибки
-            }
-            throw e;
+            sessionManager.inTransaction(entityManager -> entityManager.persist(violationType));  // Сохраняем новый тип нарушения
+        } catch (PersistenceException e) {
+            throw UniquenessChecker.translate(e);
         }
+        evictCache();
     }
 
     /**
      * Обновить существующий тип нарушения.
      * @param violationType Тип нарушения для обновления.
      * @throws RuntimeException Если транзакция не может быть завершена.
+     * @throws Exception Если тип нарушения с таким названием уже существует.
      */
-    public void updateViolationType(ViolationType violationType) {
-        EntityTransaction transaction = entityManager.getTransaction();
+    public void updateViolationType(ViolationType violationType) throws Exception {
         try {
-            transaction.begin();
-            entityManager.merge(violationType);  // Обновляем тип нарушения
-            transaction.commit();
-        } catch (Exception e) {
-            if (transaction.isActive()) {
-                transaction.rollback();  // Откатываем транзакцию в случае ошибки
-            }
-            throw e;
+            sessionManager.inTransaction(entityManager -> entityManager.merge(violationType));  // Обновляем тип нарушения
+        } catch (PersistenceException e) {
+            throw UniquenessChecker.translate(e);
         }
+        evictCache();
     }
 
     /**
@@ -100,14 +102,16 @@ public class ViolationTypeService {
      * @throws IllegalArgumentException Если тип нарушения с таким названием не найден.
      */
     public void deleteViolationType(String name) {
-        ViolationType violationType = getViolationTypeByName(name);
-        if (violationType != null) {
-            entityManager.getTransaction().begin();
-            entityManager.remove(violationType);  // Удаляем тип нарушения
-            entityManager.getTransaction().commit();
-        } else {
-            throw new IllegalArgumentException("Тип нарушения с таким названием не найден.");
-        }
+        sessionManager.inTransaction(entityManager -> {
+            ViolationType violationType = findViolationTypeByName(entityManager, name);
+            if (violationType != null) {
+                StatisticsRollup.subtract(entityManager, StatisticsRollup.Scope.VIOLATION_TYPE, violationType.getViolationTypeId());
+                entityManager.remove(violationType);  // Удаляем тип нарушения
+            } else {
+                throw new IllegalArgumentException("Тип нарушения с таким названием не найден.");
+            }
+        });
+        evictCache();
     }
 
     /**
@@ -116,18 +120,31 @@ public class ViolationTypeService {
      * @return Список типов нарушений, имя которых содержит указанный параметр.
      */
     public List<ViolationType> searchViolationTypes(String typeName) {
-        StringBuilder queryBuilder = new StringBuilder("SELECT vt FROM ViolationType vt WHERE 1=1");
-
-        if (typeName != null && !typeName.isEmpty()) {
-            queryBuilder.append(" AND vt.violationTypeName LIKE :typeName");
-        }
-
-        TypedQuery<ViolationType> query = entityManager.createQuery(queryBuilder.toString(), ViolationType.class);
+        return sessionManager.read(entityManager ->
+                SEARCH_QUERY.create(entityManager, SearchQuery.contains(typeName)).getResultList());
+    }
 
-        if (typeName != null && !typeName.isEmpty()) {
-            query.setParameter("typeName", "%" + typeName + "%");
+    /**
+     * Получить тип нарушения по названию.
+     * @param entityManager EntityManager, в котором выполняется поиск.
+     * @param name Название типа нарушения.
+     * @return Объект типа {@link ViolationType}, если найдено, иначе {@code null}.
+     */
+    private static ViolationType findViolationTypeByName(EntityManager entityManager, String name) {
+        try {
+            TypedQuery<ViolationType> query = ReferenceDataCache.cacheable(entityManager.createQuery(
+                    "SELECT vt FROM ViolationType vt WHERE vt.violationTypeName = :violationTypeName", ViolationType.class));
+            query.setParameter("violationTypeName", name);
+            return query.getSingleResult();
+        } catch (Exception e) {
+            return null;  // Если тип нарушения не найден, возвращаем null
         }
+    }
 
-        return query.getResultList();
+    /**
+     * Сбрасывает кэш типов нарушений и запросов к справочникам после изменения данных.
+     */
+    private void evictCache() {
+        ReferenceDataCache.evict(sessionManager.getEntityManagerFactory(), ViolationType.class);
     }
 }
@@ -0,0 +1,180 @@
+package ui;
+
+import javax.swing.*;
+
+import org.apache.log4j.Logger;
+
+import utils.JobProgress;
+
+import java.awt.*;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+
+/**
+ * Длительная операция, выполняемая в фоновом потоке, с окном хода выполнения.
+ * Окно показывает количество обработанных записей, объём прочитанных данных и оценку
+ * оставшегося времени, а кнопка «Отмена» запрашивает остановку операции через {@link JobProgress}.
+ * Действия по завершению выполняются в потоке обработки событий.
+ */
+public class BackgroundJob extends SwingWorker<Void, Void> {
+    private static final Logger logger = Logger.getLogger(BackgroundJob.class);
+
+    private static final int REFRESH_INTERVAL_MS = 250;
+
+    private final JFrame owner;
+    private final String title;
+    private final Consumer<JobProgress> task;
+    private final JobProgress progress = new JobProgress();
+
+    private Runnable onSuccess = () -> { };
+    private Runnable onFinish = () -> { };
+
+    private JDialog dialog;
+    private JProgressBar progressBar;
+    private JLabel statusLabel;
+    private JButton cancelButton;
+    private Timer refreshTimer;
+
+    /**
+     * Создаёт фоновую операцию.
+     *
+     * @param owner главное окно приложения.
+     * @param title заголовок окна хода выполнения.
+     * @param task операция; получает состояние, в которое сообщает ход выполнения и в котором проверяет отмену.
+     */
+    public BackgroundJob(JFrame owner, String title, Consumer<JobProgress> task) {
+        this.owner = owner;
+        this.title = title;
+        this.task = task;
+    }
+
+    /**
+     * Задаёт действие, выполняемое после успешного завершения операции.
+     *
+     * @param onSuccess действие при успехе.
+     * @return эта операция.
+     */
+    public BackgroundJob whenSucceeded(Runnable onSuccess) {
+        this.onSuccess = onSuccess;
+        return this;
+    }
+
+    /**
+     * Задаёт действие, выполняемое после завершения операции независимо от результата.
+     *
+     * @param onFinish действие при завершении.
+     * @return эта операция.
+     */
+    public BackgroundJob whenFinished(Runnable onFinish) {
+        this.onFinish = onFinish;
+        return this;
+    }
+
+    /**
+     * Показывает окно хода выполнения и запускает операцию в фоновом потоке.
+     */
+    public void start() {
+        initDialog();
+        refreshTimer = new Timer(REFRESH_INTERVAL_MS, e -> refreshStatus());
+        refreshTimer.start();
+        dialog.setVisible(true);
+        execute();
+    }
+
+    @Override
+    protected Void doInBackground() {
+        task.accept(progress);
+        return null;
+    }
+
+    @Override
+    protected void done() {
+        refreshTimer.stop();
+        dialog.dispose();
+        try {
+            get();
+            onSuccess.run();
+        } catch (ExecutionException ex) {
+            Throwable cause = ex.getCause();
+            if (cause instanceof CancellationException) {
+                JOptionPane.showMessageDialog(owner, "Операция отменена, изменения не сохранены", title, JOptionPane.INFORMATION_MESSAGE);
+            } else {
+                logger.error("Ошибка фоновой операции «" + title + "»", cause);
+                JOptionPane.showMessageDialog(owner, "Произошла ошибка: " + cause.getMessage(), "Ошибка", JOptionPane.ERROR_MESSAGE);
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        } finally {
+            onFinish.run();
+        }
+    }
+
+    /**
+     * Создаёт немодальное окно хода выполнения, чтобы остальной интерфейс оставался доступным.
+     */
+    private void initDialog() {
+        dialog = new JDialog(owner, title, false);
+        dialog.setDefaultCloseOperation(WindowConstants.DO_NOTHING_ON_CLOSE);
+        dialog.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosing(WindowEvent e) {
+                requestCancel();
+            }
+        });
+
+        progressBar = new JProgressBar(0, 1000);
+        progressBar.setIndeterminate(true);
+        statusLabel = new JLabel("Подготовка...");
+        cancelButton = new JButton("Отмена");
+        cancelButton.addActionListener(e -> requestCancel());
+
+        JPanel content = new JPanel(new BorderLayout(10, 10));
+        content.setBorder(BorderFactory.createEmptyBorder(10, 10, 10, 10));
+        content.add(statusLabel, BorderLayout.NORTH);
+        content.add(progressBar, BorderLayout.CENTER);
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        buttonPanel.add(cancelButton);
+        content.add(buttonPanel, BorderLayout.SOUTH);
+
+        dialog.setContentPane(content);
+        dialog.setSize(420, 140);
+        dialog.setLocationRelativeTo(owner);
+    }
+
+    /**
+     * Запрашивает отмену операции. Операция откатывает изменения и завершается при ближайшей проверке.
+     */
+    private void requestCancel() {
+        progress.cancel();
+        cancelButton.setEnabled(false);
+        statusLabel.setText("Отмена...");
+    }
+
+    /**
+     * Обновляет индикатор и текст состояния по текущим счётчикам операции.
+     */
+    private void refreshStatus() {
+        if (progress.isCancelled()) {
+            return;
+        }
+        double fraction = progress.getFraction();
+        if (fraction >= 0) {
+            progressBar.setIndeterminate(false);
+            progressBar.setValue((int) (fraction * 1000));
+        }
+
+        StringBuilder status = new StringBuilder("Записей: ").append(progress.getRecordsProcessed());
+        if (progress.getBytesRead() > 0) {
+            status.append(String.format(", прочитано: %.1f МБ", progress.getBytesRead() / (1024.0 * 1024.0)));
+        }
+        long eta = progress.getEtaMillis();
+        if (eta >= 0) {
+            long seconds = eta / 1000;
+            status.append(String.format(", осталось: %d:%02d", seconds / 60, seconds % 60));
+        }
+        statusLabel.setText(status.toString());
+    }
+}
@@ -0,0 +1,280 @@
+package ui;
+
+import javax.swing.*;
+import javax.swing.event.DocumentEvent;
+import javax.swing.event.DocumentListener;
+
+import utils.TrigramIndex;
+
+import java.awt.*;
+import java.awt.event.KeyEvent;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Модальное окно выбора записи с поиском по мере ввода.
+ * <p>
+ * Окно не загружает весь список записей: после паузы во вводе текст поиска передаётся функции
+ * подбора, которая выполняется в фоновом потоке и возвращает не более {@value #RESULT_LIMIT}
+ * записей. Ответы на устаревшие запросы, пришедшие после более нового, отбрасываются.
+ * Запись выбирается двойным щелчком или клавишей Enter; Enter в поле поиска выбирает
+ * выделенную или первую найденную запись.
+ *
+ * @param <T> тип выбираемых записей.
+ */
+public class LookupDialog<T> extends JDialog {
+
+    /**
+     * Наибольшее количество записей, которое показывает окно и которое должна возвращать функция подбора.
+     */
+    public static final int RESULT_LIMIT = 50;
+
+    /**
+     * Пауза во вводе, после которой выполняется поиск.
+     */
+    private static final int DEBOUNCE_DELAY_MS = 250;
+
+    /**
+     * Модель списка с найденными записями; заменяется целиком после каждого поиска.
+     */
+    private final class ResultListModel extends AbstractListModel<T> {
+        private List<T> items = Collections.emptyList();
+
+        void setItems(List<T> items) {
+            int oldSize = this.items.size();
+            this.items = items;
+            if (oldSize > 0) {
+                fireIntervalRemoved(this, 0, oldSize - 1);
+            }
+            if (!items.isEmpty()) {
+                fireIntervalAdded(this, 0, items.size() - 1);
+            }
+        }
+
+        @Override
+        public int getSize() {
+            return items.size();
+        }
+
+        @Override
+        public T getElementAt(int index) {
+            return items.get(index);
+        }
+    }
+
+    private final Function<String, List<T>> lookup;
+    private final Function<T, String> formatter;
+
+    private final JTextField searchField = new JTextField();
+    private final ResultListModel resultListModel = new ResultListModel();
+    private final JList<T> resultList = new JList<>(resultListModel);
+    private final JLabel statusLabel = new JLabel(" ");
+    private final JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+    private final Timer debounceTimer;
+
+    // Номер последнего запущенного поиска; изменяется только в потоке обработки событий
+    private int searchNumber;
+    private T selected;
+
+    /**
+     * Создаёт окно выбора.
+     *
+     * @param owner окно, над которым открывается окно выбора.
+     * @param title заголовок окна.
+     * @param lookup функция подбора записей по введённому тексту; вызывается в фоновом потоке,
+     *               поэтому не должна обращаться к EntityManager интерфейса.
+     * @param formatter строковое представление записи в списке.
+     */
+    public LookupDialog(Window owner, String title, Function<String, List<T>> lookup, Function<T, String> formatter) {
+        super(owner, title, ModalityType.APPLICATION_MODAL);
+        this.lookup = lookup;
+        this.formatter = formatter;
+        setSize(450, 350);
+        setLayout(new BorderLayout());
+
+        JPanel searchPanel = new JPanel(new BorderLayout());
+        searchPanel.add(new JLabel("Поиск: "), BorderLayout.WEST);
+        searchPanel.add(searchField, BorderLayout.CENTER);
+        add(searchPanel, BorderLayout.NORTH);
+
+        resultList.setSelectionMode(ListSelectionModel.SINGLE_SELECTION);
+        // Высота строк не вычисляется по содержимому каждой записи
+        resultList.setFixedCellHeight(searchField.getPreferredSize().height);
+        resultList.setCellRenderer(new DefaultListCellRenderer() {
+            @Override
+            public Component getListCellRendererComponent(JList<?> list, Object value, int index, boolean isSelected, boolean cellHasFocus) {
+                @SuppressWarnings("unchecked")
+                String text = formatter.apply((T) value);
+                return super.getListCellRendererComponent(list, text, index, isSelected, cellHasFocus);
+            }
+        });
+        add(new JScrollPane(resultList), BorderLayout.CENTER);
+
+        JPanel southPanel = new JPanel(new BorderLayout());
+        southPanel.add(statusLabel, BorderLayout.CENTER);
+        southPanel.add(buttonPanel, BorderLayout.EAST);
+        add(southPanel, BorderLayout.SOUTH);
+
+        debounceTimer = new Timer(DEBOUNCE_DELAY_MS, e -> search());
+        debounceTimer.setRepeats(false);
+        initEventHandlers();
+    }
+
+    /**
+     * Добавляет кнопку создания новой записи. Созданная запись сразу выбирается.
+     *
+     * @param caption надпись на кнопке.
+     * @param addAction действие, открывающее окно добавления и возвращающее добавленную запись или null.
+     */
+    public void setAddAction(String caption, Supplier<T> addAction) {
+        JButton addButton = new JButton(caption);
+        addButton.addActionListener(e -> {
+            T added = addAction.get();
+            if (added != null) {
+                choose(added);
+            }
+        });
+        buttonPanel.add(addButton);
+    }
+
+    /**
+     * Открывает окно и ожидает выбора записи.
+     *
+     * @return выбранная запись или null, если окно закрыто без выбора.
+     */
+    public T showDialog() {
+        search();
+        setLocationRelativeTo(getOwner());
+        setVisible(true);
+        return selected;
+    }
+
+    /**
+     * Возвращает функцию подбора, которая отбирает записи небольшого справочника по тексту их представления.
+     * Каждое слово введённого текста должно содержаться в представлении записи.
+     *
+     * @param items источник всех записей справочника; вызывается в фоновом потоке при каждом поиске.
+     * @param formatter строковое представление записи.
+     * @param <T> тип записей.
+     * @return функция подбора не более {@value #RESULT_LIMIT} записей.
+     */
+    public static <T> Function<String, List<T>> filtering(Supplier<List<T>> items, Function<T, String> formatter) {
+        return text -> {
+            String[] words = text.trim().split("\\s+");
+            List<T> result = new ArrayList<>();
+            for (T item : items.get()) {
+                if (words[0].isEmpty() || TrigramIndex.matchesAll(words, formatter.apply(item))) {
+                    result.add(item);
+                    if (result.size() == RESULT_LIMIT) {
+                        break;
+                    }
+                }
+            }
+            return result;
+        };
+    }
+
+    private void initEventHandlers() {
+        searchField.getDocument().addDocumentListener(new DocumentListener() {
+            @Override
+            public void insertUpdate(DocumentEvent e) {
+                debounceTimer.restart();
+            }
+
+            @Override
+            public void removeUpdate(DocumentEvent e) {
+                debounceTimer.restart();
+            }
+
+            @Override
+            public void changedUpdate(DocumentEvent e) {
+                debounceTimer.restart();
+            }
+        });
+
+        // Enter в поле поиска выбирает выделенную или первую запись, стрелка вниз переходит к списку
+        searchField.addActionListener(e -> {
+            if (resultList.getSelectedValue() != null) {
+                choose(resultList.getSelectedValue());
+            } else if (resultListModel.getSize() > 0) {
+                choose(resultListModel.getElementAt(0));
+            }
+        });
+        searchField.getInputMap().put(KeyStroke.getKeyStroke(KeyEvent.VK_DOWN, 0), "focusList");
+        searchField.getActionMap().put("focusList", new AbstractAction() {
+            @Override
+            public void actionPerformed(java.awt.event.ActionEvent e) {
+                if (resultListModel.getSize() > 0) {
+                    resultList.setSelectedIndex(0);
+                    resultList.requestFocusInWindow();
+                }
+            }
+        });
+
+        resultList.getInputMap().put(KeyStroke.getKeyStroke(KeyEvent.VK_ENTER, 0), "choose");
+        resultList.getActionMap().put("choose", new AbstractAction() {
+            @Override
+            public void actionPerformed(java.awt.event.ActionEvent e) {
+                if (resultList.getSelectedValue() != null) {
+                    choose(resultList.getSelectedValue());
+                }
+            }
+        });
+        resultList.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                if (e.getClickCount() == 2 && resultList.getSelectedValue() != null) {
+                    choose(resultList.getSelectedValue());
+                }
+            }
+        });
+
+        getRootPane().registerKeyboardAction(e -> dispose(),
+                KeyStroke.getKeyStroke(KeyEvent.VK_ESCAPE, 0), JComponent.WHEN_IN_FOCUSED_WINDOW);
+    }
+
+    /**
+     * Запускает поиск по текущему тексту в фоновом потоке.
+     */
+    private void search() {
+        debounceTimer.stop();
+        int number = ++searchNumber;
+        String text = searchField.getText();
+        statusLabel.setText("Поиск...");
+        new SwingWorker<List<T>, Void>() {
+            @Override
+            protected List<T> doInBackground() {
+                return lookup.apply(text);
+            }
+
+            @Override
+            protected void done() {
+                if (number != searchNumber) {
+                    return;  // Пока выполнялся поиск, текст изменился и запущен новый
+                }
+                try {
+                    List<T> items = get();
+                    resultListModel.setItems(items);
+                    statusLabel.setText(items.isEmpty() ? "Ничего не найдено"
+                            : items.size() < RESULT_LIMIT ? "Найдено: " + items.size()
+                            : "Показаны первые " + items.size() + ", уточните запрос");
+                } catch (InterruptedException | ExecutionException e) {
+                    resultListModel.setItems(Collections.emptyList());
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    statusLabel.setText("Ошибка поиска: " + cause.getMessage());
+                }
+            }
+        }.execute();
+    }
+
+    private void choose(T value) {
+        selected = value;
+        dispose();
+    }
+}
@@ -3,20 +3,33 @@ package ui;
 import javax.swing.*;
 import javax.swing.table.DefaultTableModel;
 import java.awt.*;
+import java.util.EnumMap;
+import java.util.Map;
+
+import services.StatisticsDimension;
 
 /**
  * Панель для отображения и генерации отчётов по нарушениям.
- * Содержит элементы для ввода диапазона дат, таблицу с данными отчётов
- * и кнопки для управления отображением и сохранением отчётов.
+ * Содержит вкладку отчёта за период с элементами для ввода диапазона дат, таблицей с данными отчётов
+ * и кнопками для управления отображением и сохранением отчётов, а также вкладку сводки
+ * с количеством нарушений и суммой штрафов по типам, статьям, регионам, месяцам и статусу оплаты.
  */
 public class ReportsPanel extends JPanel {
     private JTextField startDateField;
     private JTextField endDateField;
     private JButton showReportButton;
     private JButton generatePdfButton;
+    private JCheckBox archiveXmlCheckBox;
     private DefaultTableModel reportsTableModel;
     private JTable reportsTable;
 
+    private JTextField fromMonthField;
+    private JTextField toMonthField;
+    private JButton showStatisticsButton;
+    private JButton refreshStatisticsButton;
+    private JLabel statisticsStatusLabel;
+    private final Map<StatisticsDimension, DefaultTableModel> statisticsTableModels = new EnumMap<>(StatisticsDimension.class);
+
     /**
      * Конструктор панели отчётов. Инициализирует все элементы интерфейса.
      */
@@ -39,6 +52,7 @@ public class ReportsPanel extends JPanel {
         showReportButton = new JButton("Показать отчёт");
         generatePdfButton = new JButton("Сохранить отчёт в PDF");
         generatePdfButton.setEnabled(false); // Кнопка отключена по умолчанию
+        archiveXmlCheckBox = new JCheckBox("Сохранить данные в XML");
 
         datePanel.add(startDateLabel);
         datePanel.add(startDateField);
@@ -46,8 +60,10 @@ public class ReportsPanel extends JPanel {
         datePanel.add(endDateField);
         datePanel.add(showReportButton);
         datePanel.add(generatePdfButton);
+        datePanel.add(archiveXmlCheckBox);
 
-        add(datePanel, BorderLayout.NORTH);
+        JPanel reportTab = new JPanel(new BorderLayout());
+        reportTab.add(datePanel, BorderLayout.NORTH);
 
         // Инициализация таблицы для отображения отчётов
         String[] columnNames = {"Дата", "Водитель", "Автомобиль", "Нарушение"};
@@ -62,7 +78,54 @@ public class ReportsPanel extends JPanel {
         reportsTable.getTableHeader().setReorderingAllowed(false); // Отключение перестановки колонок
 
         JScrollPane scrollPane = new JScrollPane(reportsTable); // Прокрутка для таблицы
-        add(scrollPane, BorderLayout.CENTER);
+        reportTab.add(scrollPane, BorderLayout.CENTER);
+
+        JTabbedPane tabbedPane = new JTabbedPane();
+        tabbedPane.addTab("Отчёт за период", reportTab);
+        tabbedPane.addTab("Сводка", createStatisticsTab());
+        add(tabbedPane, BorderLayout.CENTER);
+    }
+
+    /**
+     * Создаёт вкладку сводки: поля периода, кнопки и по одной таблице на каждый признак группировки.
+     */
+    private JPanel createStatisticsTab() {
+        JPanel statisticsTab = new JPanel(new BorderLayout());
+
+        JPanel periodPanel = new JPanel(new FlowLayout());
+        fromMonthField = new JTextField(7);
+        toMonthField = new JTextField(7);
+        showStatisticsButton = new JButton("Показать");
+        refreshStatisticsButton = new JButton("Пересчитать сводку");
+        periodPanel.add(new JLabel("С месяца (ГГГГ-ММ):"));
+        periodPanel.add(fromMonthField);
+        periodPanel.add(new JLabel("по месяц (ГГГГ-ММ):"));
+        periodPanel.add(toMonthField);
+        periodPanel.add(showStatisticsButton);
+        periodPanel.add(refreshStatisticsButton);
+        statisticsTab.add(periodPanel, BorderLayout.NORTH);
+
+        // Таблицы сводки; пустые поля периода означают все месяцы
+        JPanel tablesPanel = new JPanel(new GridLayout(0, 2, 5, 5));
+        for (StatisticsDimension dimension : StatisticsDimension.values()) {
+            DefaultTableModel tableModel = new DefaultTableModel(new String[]{"Значение", "Нарушений", "Сумма штрафов"}, 0);
+            JTable table = new JTable(tableModel) {
+                @Override
+                public boolean isCellEditable(int row, int column) {
+                    return false;
+                }
+            };
+            table.getTableHeader().setReorderingAllowed(false);
+            JScrollPane tableScrollPane = new JScrollPane(table);
+            tableScrollPane.setBorder(BorderFactory.createTitledBorder(dimension.getTitle()));
+            tablesPanel.add(tableScrollPane);
+            statisticsTableModels.put(dimension, tableModel);
+        }
+        statisticsTab.add(tablesPanel, BorderLayout.CENTER);
+
+        statisticsStatusLabel = new JLabel(" ");
+        statisticsTab.add(statisticsStatusLabel, BorderLayout.SOUTH);
+        return statisticsTab;
     }
 
     /**
@@ -97,6 +160,14 @@ public class ReportsPanel extends JPanel {
         return generatePdfButton;
     }
 
+    /**
+     * Получить флажок сохранения архивной копии данных отчёта в XML.
+     * @return Флажок "Сохранить данные в XML".
+     */
+    public JCheckBox getArchiveXmlCheckBox() {
+        return archiveXmlCheckBox;
+    }
+
     /**
      * Получить модель данных таблицы отчётов.
      * @return Модель данных {@link DefaultTableModel}.
@@ -112,4 +183,53 @@ public class ReportsPanel extends JPanel {
     public JTable getReportsTable() {
         return reportsTable;
     }
+
+    /**
+     * Получить поле для ввода первого месяца сводки.
+     * @return Поле ввода первого месяца.
+     */
+    public JTextField getFromMonthField() {
+        return fromMonthField;
+    }
+
+    /**
+     * Получить поле для ввода последнего месяца сводки.
+     * @return Поле ввода последнего месяца.
+     */
+    public JTextField getToMonthField() {
+        return toMonthField;
+    }
+
+    /**
+     * Получить кнопку для отображения сводки.
+     * @return Кнопка "Показать".
+     */
+    public JButton getShowStatisticsButton() {
+        return showStatisticsButton;
+    }
+
+    /**
+     * Получить кнопку для пересчёта сводки по всем нарушениям.
+     * @return Кнопка "Пересчитать сводку".
+     */
+    public JButton getRefreshStatisticsButton() {
+        return refreshStatisticsButton;
+    }
+
+    /**
+     * Получить надпись с итогами и состоянием сводки.
+     * @return Надпись под таблицами сводки.
+     */
+    public JLabel getStatisticsStatusLabel() {
+        return statisticsStatusLabel;
+    }
+
+    /**
+     * Получить модель данных таблицы сводки по признаку группировки.
+     * @param dimension признак группировки.
+     * @return Модель данных {@link DefaultTableModel}.
+     */
+    public DefaultTableModel getStatisticsTableModel(StatisticsDimension dimension) {
+        return statisticsTableModels.get(dimension);
+    }
 }
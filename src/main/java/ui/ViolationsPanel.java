@@ -1,12 +1,12 @@
 package ui;
 
 import javax.swing.*;
-import javax.swing.table.DefaultTableModel;
 import java.awt.*;
 import java.awt.event.ActionListener;
 import java.util.List;
 
 import entities.Violation;
+import services.ViolationFilter;
 import services.ViolationService;
 
 /**
@@ -15,7 +15,7 @@ import services.ViolationService;
  */
 public class ViolationsPanel extends JPanel {
     private JTable violationsTable;
-    private DefaultTableModel violationsTableModel;
+    private ViolationsTableModel violationsTableModel;
     private JButton addViolationButton;
     private JButton editViolationButton;
     private JButton deleteViolationButton;
@@ -36,10 +36,8 @@ public class ViolationsPanel extends JPanel {
         titleLabel.setFont(new Font("Arial", Font.BOLD, 18));
         add(titleLabel, BorderLayout.NORTH);
 
-        // Инициализация таблицы с колонками.
-        String[] columns = {"Номер постановления", "Статья нарушения", "Тип нарушения", "Гос. номер", 
-                            "Нарушитель", "Дата нарушения", "Оплачено"};
-        violationsTableModel = new DefaultTableModel(columns, 0);
+        // Инициализация таблицы с колонками, строки которой загружаются постранично.
+        violationsTableModel = new ViolationsTableModel(violationService);
         violationsTable = new JTable(violationsTableModel) {
             @Override
             public boolean isCellEditable(int row, int column) {
@@ -58,7 +56,7 @@ public class ViolationsPanel extends JPanel {
         initControlPanel();
 
         // Заполнение таблицы данными.
-        updateViolationData(violationService.getAllViolations());
+        showAllViolations();
     }
 
     /**
@@ -87,9 +85,9 @@ public class ViolationsPanel extends JPanel {
 
     /**
      * Возвращает модель таблицы нарушений.
-     * @return объект {@link DefaultTableModel}, связанный с таблицей нарушений.
+     * @return объект {@link ViolationsTableModel}, связанный с таблицей нарушений.
      */
-    public DefaultTableModel getViolationsTableModel() {
+    public ViolationsTableModel getViolationsTableModel() {
         return violationsTableModel;
     }
 
@@ -133,23 +131,29 @@ public class ViolationsPanel extends JPanel {
         resetViolationFiltersButton.addActionListener(action);
     }
 
+    /**
+     * Отображает в таблице все нарушения.
+     * Строки загружаются из базы страницами по мере прокрутки таблицы.
+     */
+    public void showAllViolations() {
+        violationsTableModel.showAll();
+    }
+
+    /**
+     * Отображает в таблице нарушения, соответствующие условиям поиска.
+     * Строки загружаются из базы страницами по мере прокрутки таблицы.
+     * @param filter условия поиска.
+     */
+    public void showViolations(ViolationFilter filter) {
+        violationsTableModel.showSearch(filter);
+    }
+
     /**
      * Обновляет данные в таблице нарушений.
      * @param violations список нарушений для отображения в таблице.
      */
     public void updateViolationData(List<Violation> violations) {
-        violationsTableModel.setRowCount(0); // Очистка текущих данных таблицы.
-        for (Violation violation : violations) {
-            violationsTableModel.addRow(new Object[] {
-                violation.getViolationResolution(),
-                violation.getViolationArticle().getViolationArticleCode(),
-                violation.getViolationType().getViolationTypeName(),
-                violation.getCar().getLicensePlate(),
-                violation.getCar().getOwner().getFullName(),
-                violation.getViolationDate().toString(),
-                violation.getViolationPaid() ? "Да" : "Нет"
-            });
-        }
+        violationsTableModel.showList(violations);
     }
 
     /**
@@ -0,0 +1,415 @@
+package ui;
+
+import javax.swing.SwingUtilities;
+import javax.swing.SwingWorker;
+import javax.swing.table.AbstractTableModel;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.apache.log4j.Logger;
+
+import entities.Driver;
+import entities.Violation;
+import entities.ViolationRow;
+import services.ViolationFilter;
+import services.ViolationPage;
+import services.ViolationService;
+
+/**
+ * Модель таблицы нарушений.
+ * Работает в двух режимах:
+ * <ul>
+ *   <li>постраничный - строки всей таблицы или результата поиска загружаются из базы страницами
+ *       по мере прокрутки, последние просмотренные страницы хранятся в кэше;</li>
+ *   <li>списочный - отображается готовый список нарушений.</li>
+ * </ul>
+ * Страницы выбираются по ключу: строки всей таблицы - с идентификатором больше последнего
+ * идентификатора предыдущей страницы, строки результата поиска - по маркеру продолжения
+ * предыдущей страницы. Если предыдущая страница не загружена, граница страницы находится
+ * запросом одного ключа по позиции.
+ * <p>
+ * В постраничном режиме модель не обращается к базе в потоке обработки событий. Страницы
+ * загружаются по очереди в фоновом потоке; пока страница не загружена, её строки пусты,
+ * а после загрузки таблица перерисовывает их. Количество строк также вычисляется в фоне:
+ * для всей таблицы сначала показывается оценка из статистики MySQL, затем точное значение.
+ */
+public class ViolationsTableModel extends AbstractTableModel {
+
+    private static final Logger logger = Logger.getLogger(ViolationsTableModel.class);
+
+    /**
+     * Количество строк на странице.
+     */
+    private static final int PAGE_SIZE = 100;
+
+    /**
+     * Максимальное количество страниц в кэше.
+     */
+    private static final int MAX_CACHED_PAGES = 20;
+
+    /**
+     * Количество строк до конца страницы, при котором заранее загружается следующая страница.
+     */
+    private static final int PREFETCH_MARGIN = 20;
+
+    /**
+     * Страницы дальше этого количества от последней запрошенной не загружаются, когда до них
+     * доходит очередь: пользователь уже прокрутил таблицу мимо них.
+     */
+    private static final int LOAD_WINDOW = 3;
+
+    private static final String[] COLUMNS = {"Номер постановления", "Статья нарушения", "Тип нарушения", "Гос. номер",
+                                             "Нарушитель", "Дата нарушения", "Оплачено"};
+
+    /**
+     * Источник строк постраничного режима: условия поиска и известные границы страниц.
+     * Создаётся заново при каждом отображении, поэтому фоновые загрузки, начатые для прежнего
+     * источника, не изменяют состояние нового и их результаты отбрасываются.
+     */
+    private static final class PagedSource {
+        // Условия поиска; null - все нарушения
+        final ViolationFilter filter;
+        final Map<Integer, Integer> pageLastIds = new ConcurrentHashMap<>();
+        final Map<Integer, String> pageTokens = new ConcurrentHashMap<>();
+
+        PagedSource(ViolationFilter filter) {
+            this.filter = filter;
+        }
+    }
+
+    private final ViolationService violationService;
+
+    /**
+     * Поток загрузки страниц. Один поток загружает страницы по очереди, чтобы быстрая прокрутка
+     * не занимала все соединения с базой.
+     */
+    private final ExecutorService pageLoader = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "violations-page-loader");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    // Постраничный режим: источник строк (null в списочном режиме), количество строк и кэш страниц;
+    // изменяются только в потоке обработки событий
+    private volatile PagedSource source;
+    private int rowCount;
+    private boolean rowCountExact;
+    private final Map<Integer, List<Object[]>> pages = new LinkedHashMap<Integer, List<Object[]>>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, List<Object[]>> eldest) {
+            return size() > MAX_CACHED_PAGES;
+        }
+    };
+    private final Set<Integer> loadingPages = new HashSet<>();
+    private volatile int lastRequestedPage;
+
+    // Списочный режим: строки отображаемого списка
+    private List<Object[]> rows = new ArrayList<>();
+
+    /**
+     * Конструктор модели таблицы нарушений.
+     * @param violationService сервис для получения страниц нарушений.
+     */
+    public ViolationsTableModel(ViolationService violationService) {
+        this.violationService = violationService;
+    }
+
+    /**
+     * Переключает модель в постраничный режим и отображает все нарушения.
+     * Метод не обращается к базе: количество нарушений и строки загружаются в фоне.
+     */
+    public void showAll() {
+        showPaged(new PagedSource(null));
+    }
+
+    /**
+     * Переключает модель в постраничный режим и отображает нарушения, соответствующие условиям поиска.
+     * Количество найденных нарушений и строки загружаются в фоне, строки - в порядке даты нарушения.
+     * @param filter условия поиска.
+     */
+    public void showSearch(ViolationFilter filter) {
+        showPaged(new PagedSource(filter));
+    }
+
+    /**
+     * Переключает модель в списочный режим и отображает переданные нарушения.
+     * @param violations список нарушений для отображения.
+     */
+    public void showList(List<Violation> violations) {
+        source = null;
+        clearPages();
+        rows = new ArrayList<>(violations.size());
+        for (Violation violation : violations) {
+            rows.add(new Object[] {
+                violation.getViolationResolution(),
+                violation.getViolationArticle().getViolationArticleCode(),
+                violation.getViolationType().getViolationTypeName(),
+                violation.getCar().getLicensePlate(),
+                violation.getCar().getOwner().getFullName(),
+                violation.getViolationDate().toString(),
+                violation.getViolationPaid() ? "Да" : "Нет"
+            });
+        }
+        rowCount = rows.size();
+        rowCountExact = true;
+        fireTableDataChanged();
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return COLUMNS.length;
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return COLUMNS[column];
+    }
+
+    /**
+     * Возвращает значение ячейки. В постраничном режиме для строк ещё не загруженной страницы
+     * возвращает null и запрашивает загрузку страницы.
+     */
+    @Override
+    public Object getValueAt(int rowIndex, int columnIndex) {
+        if (source == null) {
+            return rows.get(rowIndex)[columnIndex];
+        }
+
+        int pageIndex = rowIndex / PAGE_SIZE;
+        List<Object[]> page = pages.get(pageIndex);
+        if (page == null) {
+            requestPage(pageIndex);
+        }
+
+        // Следующая страница загружается заранее, пока пользователь дочитывает текущую
+        if (rowIndex % PAGE_SIZE >= PAGE_SIZE - PREFETCH_MARGIN && (pageIndex + 1) * PAGE_SIZE < rowCount) {
+            requestPage(pageIndex + 1);
+        }
+
+        int offset = rowIndex % PAGE_SIZE;
+        // Нарушения могли быть удалены после подсчёта строк
+        return page != null && offset < page.size() ? page.get(offset)[columnIndex] : null;
+    }
+
+    /**
+     * Переключает модель на новый источник строк и запускает фоновый подсчёт строк.
+     * Таблица остаётся пустой до получения первой оценки количества строк или первой страницы.
+     */
+    private void showPaged(PagedSource pagedSource) {
+        source = pagedSource;
+        rows = new ArrayList<>();
+        clearPages();
+        rowCount = 0;
+        rowCountExact = false;
+        fireTableDataChanged();
+        requestPage(0);
+        requestRowCount(pagedSource);
+    }
+
+    /**
+     * Ставит страницу в очередь загрузки, если она не загружена и не загружается.
+     * @param pageIndex номер страницы, начиная с 0.
+     */
+    private void requestPage(int pageIndex) {
+        lastRequestedPage = pageIndex;
+        if (pages.containsKey(pageIndex) || !loadingPages.add(pageIndex)) {
+            return;
+        }
+        PagedSource requested = source;
+        pageLoader.execute(() -> {
+            List<Object[]> page = null;
+            // Страница, мимо которой пользователь уже прокрутил таблицу, не загружается
+            if (requested == source && Math.abs(pageIndex - lastRequestedPage) <= LOAD_WINDOW) {
+                try {
+                    page = loadPage(requested, pageIndex);
+                } catch (RuntimeException e) {
+                    logger.error("Не удалось загрузить страницу нарушений " + pageIndex, e);
+                    page = new ArrayList<>();  // Строки остаются пустыми, повторная загрузка - при новом отображении
+                }
+            }
+            List<Object[]> loaded = page;
+            SwingUtilities.invokeLater(() -> pageLoaded(requested, pageIndex, loaded));
+        });
+    }
+
+    /**
+     * Помещает загруженную страницу в кэш и перерисовывает её строки.
+     * @param requested источник, для которого загружалась страница.
+     * @param pageIndex номер страницы.
+     * @param page строки страницы или null, если загрузка была пропущена.
+     */
+    private void pageLoaded(PagedSource requested, int pageIndex, List<Object[]> page) {
+        if (requested != source) {
+            return;
+        }
+        loadingPages.remove(pageIndex);
+        if (page == null) {
+            return;
+        }
+        pages.put(pageIndex, page);
+
+        int first = pageIndex * PAGE_SIZE;
+        // Пока количество строк не подсчитано, таблица растёт до последней загруженной строки
+        if (!rowCountExact && first + page.size() > rowCount) {
+            setRowCount(first + page.size(), false);
+        }
+        int last = Math.min(first + PAGE_SIZE, rowCount) - 1;
+        if (first <= last) {
+            fireTableRowsUpdated(first, last);
+        }
+    }
+
+    /**
+     * Подсчитывает строки источника в фоне. Для всей таблицы сначала публикуется оценка.
+     * @param requested источник строк.
+     */
+    private void requestRowCount(PagedSource requested) {
+        new SwingWorker<Long, Long>() {
+            @Override
+            protected Long doInBackground() {
+                if (requested.filter != null) {
+                    return violationService.countViolations(requested.filter);
+                }
+                long estimate = violationService.estimateViolationCount();
+                if (estimate >= 0) {
+                    publish(estimate);
+                }
+                return violationService.countViolations();
+            }
+
+            @Override
+            protected void process(List<Long> estimates) {
+                if (requested == source && !rowCountExact) {
+                    setRowCount((int) Math.max(rowCount, estimates.get(estimates.size() - 1)), false);
+                }
+            }
+
+            @Override
+            protected void done() {
+                if (requested != source) {
+                    return;
+                }
+                try {
+                    setRowCount(get().intValue(), true);
+                } catch (InterruptedException | ExecutionException e) {
+                    logger.error("Не удалось подсчитать нарушения", e);
+                }
+            }
+        }.execute();
+    }
+
+    /**
+     * Изменяет количество строк, сообщая таблице только о добавленных или удалённых строках,
+     * чтобы не сбрасывать выделение и положение прокрутки.
+     */
+    private void setRowCount(int count, boolean exact) {
+        int old = rowCount;
+        rowCount = count;
+        rowCountExact = exact;
+        if (count > old) {
+            fireTableRowsInserted(old, count - 1);
+        } else if (count < old) {
+            fireTableRowsDeleted(count, old - 1);
+        }
+    }
+
+    /**
+     * Очищает кэш страниц. Загрузки, уже поставленные в очередь, отбрасываются по смене источника.
+     */
+    private void clearPages() {
+        pages.clear();
+        loadingPages.clear();
+    }
+
+    /**
+     * Загружает страницу строк из базы данных. Выполняется в потоке загрузки страниц.
+     * @param source источник строк.
+     * @param pageIndex номер страницы, начиная с 0.
+     * @return строки страницы в формате столбцов таблицы.
+     */
+    private List<Object[]> loadPage(PagedSource source, int pageIndex) {
+        if (source.filter != null) {
+            return loadSearchPage(source, pageIndex);
+        }
+
+        Integer afterId = null;
+        if (pageIndex > 0) {
+            afterId = source.pageLastIds.get(pageIndex - 1);
+            if (afterId == null) {
+                afterId = violationService.getViolationIdAt(pageIndex * PAGE_SIZE - 1);
+                if (afterId == null) {
+                    return new ArrayList<>();
+                }
+            }
+        }
+
+        List<Object[]> result = violationService.getViolationRows(afterId, PAGE_SIZE);
+        List<Object[]> page = new ArrayList<>(result.size());
+        for (Object[] row : result) {
+            page.add(new Object[] {
+                row[1],
+                row[2],
+                row[3],
+                row[4],
+                row[5] != null ? Driver.formatFullName((String) row[5], (String) row[6], (String) row[7]) : null,
+                row[8] != null ? row[8].toString() : null,
+                Boolean.TRUE.equals(row[9]) ? "Да" : "Нет"
+            });
+        }
+        if (!result.isEmpty()) {
+            source.pageLastIds.put(pageIndex, (Integer) result.get(result.size() - 1)[0]);
+        }
+        return page;
+    }
+
+    /**
+     * Загружает страницу результата поиска по маркеру продолжения предыдущей страницы.
+     * @param source источник строк с условиями поиска.
+     * @param pageIndex номер страницы, начиная с 0.
+     * @return строки страницы в формате столбцов таблицы.
+     */
+    private List<Object[]> loadSearchPage(PagedSource source, int pageIndex) {
+        String token = null;
+        if (pageIndex > 0) {
+            token = source.pageTokens.get(pageIndex);
+            if (token == null) {
+                token = violationService.getViolationPageToken(source.filter, pageIndex * PAGE_SIZE);
+                if (token == null) {
+                    return new ArrayList<>();
+                }
+            }
+        }
+
+        ViolationPage result = violationService.searchViolationPage(source.filter, token, PAGE_SIZE);
+        List<Object[]> page = new ArrayList<>(result.getRows().size());
+        for (ViolationRow row : result.getRows()) {
+            page.add(new Object[] {
+                row.getResolution(),
+                row.getArticleCode(),
+                row.getViolationType(),
+                row.getLicensePlate(),
+                row.getOwnerName(),
+                row.getViolationDate() != null ? row.getViolationDate().toString() : null,
+                row.isPaid() ? "Да" : "Нет"
+            });
+        }
+        if (result.hasNextPage()) {
+            source.pageTokens.put(pageIndex + 1, result.getNextPageToken());
+        }
+        return page;
+    }
+}
@@ -0,0 +1,123 @@
+package utils;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.apache.log4j.Level;
+import org.apache.log4j.Logger;
+
+/**
+ * Управление журналированием отдельных записей во время массовых операций (импорта и экспорта XML).
+ * <p>
+ * Пока выполняется хотя бы одна массовая операция и подавление включено, журналы, пишущие
+ * сообщение на каждую запись (валидаторы и SQL-запросы Hibernate), переводятся на уровень WARN,
+ * а {@link #isRecordLoggingEnabled()} возвращает false, и сообщения о пропущенных записях не формируются.
+ * Итоговые сообщения операций записываются как обычно. После завершения последней операции
+ * уровни журналов восстанавливаются. Подавление переключается во время работы приложения
+ * методом {@link #setRecordLogsSuppressed(boolean)}.
+ */
+public final class BulkJobLogging {
+
+    private static final Logger logger = Logger.getLogger(BulkJobLogging.class);
+
+    /**
+     * Журналы, сообщения которых относятся к отдельным записям.
+     */
+    private static final String[] RECORD_LOGGERS = {"validators", "org.hibernate.SQL"};
+
+    private static volatile boolean recordLogsSuppressed = true;
+    private static volatile int runningJobs;
+
+    // Уровни журналов до начала операций; изменяются только под блокировкой класса
+    private static final Map<String, Level> savedLevels = new HashMap<>();
+
+    private BulkJobLogging() {
+    }
+
+    /**
+     * Отмечает начало массовой операции.
+     * Каждому вызову должен соответствовать вызов {@link #jobFinished()} в блоке finally.
+     */
+    public static synchronized void jobStarted() {
+        runningJobs++;
+        if (runningJobs == 1 && recordLogsSuppressed) {
+            raiseLevels();
+        }
+    }
+
+    /**
+     * Отмечает завершение массовой операции.
+     */
+    public static synchronized void jobFinished() {
+        if (runningJobs == 0) {
+            return;
+        }
+        runningJobs--;
+        if (runningJobs == 0) {
+            restoreLevels();
+        }
+    }
+
+    /**
+     * Проверяет, нужно ли записывать в журнал сообщения об отдельных записях.
+     *
+     * @return false, если выполняется массовая операция и сообщения об отдельных записях подавляются.
+     */
+    public static boolean isRecordLoggingEnabled() {
+        return !recordLogsSuppressed || runningJobs == 0;
+    }
+
+    /**
+     * Проверяет, подавляются ли сообщения об отдельных записях во время массовых операций.
+     *
+     * @return true, если сообщения подавляются.
+     */
+    public static boolean isRecordLogsSuppressed() {
+        return recordLogsSuppressed;
+    }
+
+    /**
+     * Включает или отключает подавление сообщений об отдельных записях.
+     * Изменение применяется и к уже выполняющимся операциям.
+     *
+     * @param suppressed true, чтобы не записывать сообщения об отдельных записях во время массовых операций.
+     */
+    public static synchronized void setRecordLogsSuppressed(boolean suppressed) {
+        if (recordLogsSuppressed == suppressed) {
+            return;
+        }
+        recordLogsSuppressed = suppressed;
+        logger.info("Журналирование отдельных записей при импорте и экспорте " + (suppressed ? "отключено" : "включено"));
+        if (runningJobs > 0) {
+            if (suppressed) {
+                raiseLevels();
+            } else {
+                restoreLevels();
+            }
+        }
+    }
+
+    /**
+     * Переводит журналы отдельных записей на уровень WARN, запоминая прежние уровни.
+     */
+    private static void raiseLevels() {
+        for (String name : RECORD_LOGGERS) {
+            Logger recordLogger = Logger.getLogger(name);
+            savedLevels.put(name, recordLogger.getLevel());
+            if (!Level.WARN.isGreaterOrEqual(recordLogger.getEffectiveLevel())) {
+                continue; // Журнал и так записывает только ошибки
+            }
+            recordLogger.setLevel(Level.WARN);
+        }
+    }
+
+    /**
+     * Восстанавливает уровни журналов, сохранённые методом {@link #raiseLevels()}.
+     */
+    private static void restoreLevels() {
+        for (Map.Entry<String, Level> saved : savedLevels.entrySet()) {
+            Logger.getLogger(saved.getKey()).setLevel(saved.getValue());
+        }
+        savedLevels.clear();
+    }
+}
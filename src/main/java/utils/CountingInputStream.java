@@ -0,0 +1,59 @@
+package utils;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Входной поток, передающий количество прочитанных байтов в {@link JobProgress}.
+ */
+public class CountingInputStream extends FilterInputStream {
+    private final JobProgress progress;
+    private long count;
+
+    /**
+     * @param in исходный поток.
+     * @param progress состояние операции, получающее количество прочитанных байтов.
+     */
+    public CountingInputStream(InputStream in, JobProgress progress) {
+        super(in);
+        this.progress = progress;
+    }
+
+    /**
+     * @return количество байтов, прочитанных из этого потока.
+     */
+    public long getCount() {
+        return count;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b >= 0) {
+            count(1);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int n = super.read(b, off, len);
+        if (n > 0) {
+            count(n);
+        }
+        return n;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = super.skip(n);
+        count(skipped);
+        return skipped;
+    }
+
+    private void count(long n) {
+        count += n;
+        progress.addBytes(n);
+    }
+}
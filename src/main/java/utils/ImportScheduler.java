@@ -0,0 +1,338 @@
+package utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.Query;
+
+import org.apache.log4j.Logger;
+
+import validators.UniquenessChecker;
+
+/**
+ * Планировщик параллельного импорта.
+ * Порции записей выполняются в пуле потоков, каждая в собственном EntityManager и собственной транзакции.
+ * Порции одного этапа выполняются одновременно, а {@link #awaitStage()} дожидается их завершения,
+ * прежде чем начнётся следующий этап, ссылающийся на записи предыдущего.
+ * Идентификаторы добавленных записей запоминаются в виде диапазонов, чтобы при ошибке удалить их
+ * в {@link #compensate()}.
+ * <p>
+ * Записи с одинаковым естественным ключом в разных порциях отклоняет уникальный индекс базы данных.
+ * Порция, транзакция которой нарушила уникальность, выполняется заново: запрос существующих записей
+ * в новой транзакции находит записи, подтверждённые другой порцией, и они пропускаются.
+ */
+class ImportScheduler implements AutoCloseable {
+    private static final Logger logger = Logger.getLogger(ImportScheduler.class);
+
+    /**
+     * Наибольшее количество попыток записи порции, отклонённой уникальным индексом.
+     */
+    private static final int MAX_CHUNK_ATTEMPTS = 3;
+
+    /**
+     * Количество диапазонов идентификаторов в одном запросе удаления.
+     */
+    private static final int RANGES_PER_DELETE = 100;
+
+    /**
+     * Идентификаторы добавленных записей одной сущности в виде диапазонов [начало, конец].
+     * Генератор идентификаторов выделяет блоки подряд идущих значений, поэтому порция
+     * из тысячи записей занимает несколько диапазонов, а не тысячу объектов Integer.
+     */
+    private static final class IdRanges {
+        // Границы диапазонов парами: bounds[2i] - начало, bounds[2i + 1] - конец
+        private int[] bounds = new int[64];
+        private int rangeCount;
+        private long idCount;
+
+        /**
+         * Добавляет идентификаторы порции.
+         *
+         * @param ids идентификаторы в любом порядке.
+         */
+        synchronized void addAll(List<Integer> ids) {
+            if (ids.isEmpty()) {
+                return;
+            }
+            int[] sorted = new int[ids.size()];
+            for (int i = 0; i < sorted.length; i++) {
+                sorted[i] = ids.get(i);
+            }
+            Arrays.sort(sorted);
+            int start = sorted[0];
+            for (int i = 1; i <= sorted.length; i++) {
+                if (i == sorted.length || sorted[i] != sorted[i - 1] + 1) {
+                    addRange(start, sorted[i - 1]);
+                    if (i < sorted.length) {
+                        start = sorted[i];
+                    }
+                }
+            }
+            idCount += sorted.length;
+        }
+
+        private void addRange(int start, int end) {
+            if (rangeCount * 2 == bounds.length) {
+                bounds = Arrays.copyOf(bounds, bounds.length * 2);
+            }
+            bounds[rangeCount * 2] = start;
+            bounds[rangeCount * 2 + 1] = end;
+            rangeCount++;
+        }
+
+        synchronized int[] toArray() {
+            return Arrays.copyOf(bounds, rangeCount * 2);
+        }
+
+        synchronized long size() {
+            return idCount;
+        }
+    }
+
+    private final EntityManagerFactory emf;
+    private final ExecutorService executor;
+
+    /**
+     * Ограничивает количество порций, ожидающих выполнения, чтобы чтение файла
+     * не опережало запись в базу и прочитанные записи не копились в памяти.
+     */
+    private final Semaphore inFlight;
+
+    private final List<Future<?>> stageTasks = new ArrayList<>();
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+
+    /**
+     * Идентификаторы добавленных записей по именам сущностей в порядке регистрации.
+     */
+    private final Map<String, IdRanges> insertedIds = new LinkedHashMap<>();
+
+    /**
+     * Создаёт планировщик с пулом из указанного количества потоков.
+     *
+     * @param emf фабрика EntityManager для создания отдельного EntityManager на каждую порцию.
+     * @param threads количество потоков записи.
+     */
+    ImportScheduler(EntityManagerFactory emf, int threads) {
+        this.emf = emf;
+        this.executor = Executors.newFixedThreadPool(threads);
+        this.inFlight = new Semaphore(threads * 2);
+    }
+
+    /**
+     * Регистрирует сущность, добавленные записи которой нужно удалять при ошибке.
+     * Сущности должны регистрироваться в порядке зависимостей: от справочников к ссылающимся на них записям.
+     *
+     * @param entityName имя сущности в JPQL.
+     * @param idAttribute имя атрибута идентификатора.
+     */
+    void register(String entityName, String idAttribute) {
+        insertedIds.put(entityName + "." + idAttribute, new IdRanges());
+    }
+
+    /**
+     * Передаёт порцию на выполнение в пуле потоков.
+     * Если пул занят, метод ждёт освобождения места; если одна из порций уже завершилась ошибкой,
+     * новая порция не запускается.
+     *
+     * @param entityName имя сущности в JPQL, записи которой добавляет порция.
+     * @param idAttribute имя атрибута идентификатора.
+     * @param work работа порции, возвращающая идентификаторы добавленных записей.
+     * @throws Exception если одна из порций завершилась ошибкой или ожидание было прервано.
+     */
+    void submit(String entityName, String idAttribute, Function<EntityManager, List<Integer>> work) throws Exception {
+        checkFailure();
+        IdRanges ids = insertedIds.get(entityName + "." + idAttribute);
+        inFlight.acquire();
+        try {
+            stageTasks.add(executor.submit(() -> {
+                try {
+                    if (failure.get() == null) {
+                        ids.addAll(runChunk(entityName, work));
+                    }
+                } catch (RuntimeException ex) {
+                    failure.compareAndSet(null, ex);
+                    throw ex;
+                } finally {
+                    inFlight.release();
+                }
+            }));
+        } catch (RuntimeException ex) {
+            inFlight.release();
+            throw ex;
+        }
+    }
+
+    /**
+     * Дожидается завершения всех порций текущего этапа.
+     *
+     * @throws Exception если одна из порций этапа завершилась ошибкой.
+     */
+    void awaitStage() throws Exception {
+        try {
+            for (Future<?> task : stageTasks) {
+                task.get();
+            }
+        } catch (ExecutionException ex) {
+            throw failure.get() instanceof Exception ? (Exception) failure.get() : ex;
+        } finally {
+            stageTasks.clear();
+        }
+        checkFailure();
+    }
+
+    /**
+     * Выполняет чтение в отдельном EntityManager вызывающего потока.
+     *
+     * @param query чтение данных.
+     * @param <T> тип результата.
+     * @return результат чтения.
+     */
+    <T> T read(Function<EntityManager, T> query) {
+        EntityManager em = emf.createEntityManager();
+        try {
+            return query.apply(em);
+        } finally {
+            em.close();
+        }
+    }
+
+    /**
+     * Удаляет все записи, добавленные уже подтверждёнными порциями.
+     * Сначала дожидается порций, которые ещё выполняются, затем удаляет записи
+     * в порядке, обратном порядку регистрации сущностей, чтобы не нарушить внешние ключи.
+     */
+    void compensate() {
+        for (Future<?> task : stageTasks) {
+            try {
+                task.get();
+            } catch (Exception ex) {
+                // Ошибка порции уже записана, её изменения откатаны вместе с её транзакцией
+            }
+        }
+        stageTasks.clear();
+
+        List<String> entities = new ArrayList<>(insertedIds.keySet());
+        try {
+            inTransaction(em -> {
+                for (int i = entities.size() - 1; i >= 0; i--) {
+                    String[] names = entities.get(i).split("\\.");
+                    IdRanges ids = insertedIds.get(entities.get(i));
+                    deleteByRanges(em, names[0], names[1], ids.toArray());
+                    logger.info("Удалено добавленных записей " + names[0] + ": " + ids.size());
+                }
+                return null;
+            });
+        } catch (RuntimeException ex) {
+            logger.error("Не удалось удалить записи, добавленные незавершённым импортом", ex);
+        }
+    }
+
+    /**
+     * Останавливает пул потоков.
+     */
+    @Override
+    public void close() {
+        executor.shutdownNow();
+        try {
+            executor.awaitTermination(1, TimeUnit.MINUTES);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Записывает порцию, повторяя её, если транзакция нарушила уникальность естественного ключа.
+     *
+     * @param entityName имя сущности в JPQL, записи которой добавляет порция.
+     * @param work работа порции.
+     * @return идентификаторы добавленных записей.
+     */
+    private List<Integer> runChunk(String entityName, Function<EntityManager, List<Integer>> work) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return inTransaction(work);
+            } catch (RuntimeException ex) {
+                if (attempt == MAX_CHUNK_ATTEMPTS || UniquenessChecker.translate(ex) == ex) {
+                    throw ex;
+                }
+                logger.warn("Порция " + entityName + " содержит записи, уже добавленные другой порцией; "
+                        + "повторная запись без них, попытка " + (attempt + 1));
+            }
+        }
+    }
+
+    /**
+     * Выполняет работу в новом EntityManager и отдельной транзакции.
+     *
+     * @param work работа, выполняемая внутри транзакции.
+     * @param <T> тип результата.
+     * @return результат работы.
+     */
+    private <T> T inTransaction(Function<EntityManager, T> work) {
+        EntityManager em = emf.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            T result = work.apply(em);
+            em.getTransaction().commit();
+            return result;
+        } catch (RuntimeException ex) {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            throw ex;
+        } finally {
+            em.close();
+        }
+    }
+
+    /**
+     * Удаляет записи сущности по диапазонам идентификаторов, объединяя в запросе
+     * до {@value #RANGES_PER_DELETE} условий BETWEEN.
+     *
+     * @param em экземпляр EntityManager для выполнения запросов.
+     * @param entityName имя сущности в JPQL.
+     * @param idAttribute имя атрибута идентификатора.
+     * @param bounds границы диапазонов парами: начало, конец.
+     */
+    private static void deleteByRanges(EntityManager em, String entityName, String idAttribute, int[] bounds) {
+        int rangeCount = bounds.length / 2;
+        for (int first = 0; first < rangeCount; first += RANGES_PER_DELETE) {
+            int count = Math.min(RANGES_PER_DELETE, rangeCount - first);
+            List<String> conditions = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                conditions.add("e." + idAttribute + " BETWEEN :start" + i + " AND :end" + i);
+            }
+            Query query = em.createQuery("DELETE FROM " + entityName + " e WHERE " + String.join(" OR ", conditions));
+            for (int i = 0; i < count; i++) {
+                query.setParameter("start" + i, bounds[(first + i) * 2]);
+                query.setParameter("end" + i, bounds[(first + i) * 2 + 1]);
+            }
+            query.executeUpdate();
+        }
+    }
+
+    /**
+     * Прерывает работу, если одна из порций завершилась ошибкой.
+     *
+     * @throws Exception ошибка порции.
+     */
+    private void checkFailure() throws Exception {
+        Throwable error = failure.get();
+        if (error != null) {
+            throw error instanceof Exception ? (Exception) error : new IllegalStateException(error);
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package utils;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Состояние длительной операции импорта или экспорта.
+ * Операция обновляет счётчики из своего потока, а интерфейс читает их и может запросить отмену.
+ * Доля выполненной работы оценивается по прочитанным байтам, если известен объём файла,
+ * иначе по обработанным записям.
+ */
+public class JobProgress {
+    private final long startTime = System.nanoTime();
+    private final AtomicLong recordsProcessed = new AtomicLong();
+    private final AtomicLong bytesRead = new AtomicLong();
+    private volatile long totalRecords;
+    private volatile long totalBytes;
+    private volatile boolean cancelled;
+
+    /**
+     * Увеличивает количество обработанных записей.
+     *
+     * @param count количество записей.
+     */
+    public void addRecords(long count) {
+        recordsProcessed.addAndGet(count);
+    }
+
+    /**
+     * Увеличивает количество прочитанных байтов.
+     *
+     * @param count количество байтов.
+     */
+    public void addBytes(long count) {
+        bytesRead.addAndGet(count);
+    }
+
+    /**
+     * Возвращает количество обработанных записей.
+     *
+     * @return количество записей.
+     */
+    public long getRecordsProcessed() {
+        return recordsProcessed.get();
+    }
+
+    /**
+     * Возвращает количество прочитанных байтов.
+     *
+     * @return количество байтов.
+     */
+    public long getBytesRead() {
+        return bytesRead.get();
+    }
+
+    /**
+     * Возвращает общее количество записей операции.
+     *
+     * @return количество записей, или 0, если оно неизвестно.
+     */
+    public long getTotalRecords() {
+        return totalRecords;
+    }
+
+    /**
+     * Задаёт общее количество записей, если оно известно до начала обработки.
+     *
+     * @param totalRecords количество записей.
+     */
+    public void setTotalRecords(long totalRecords) {
+        this.totalRecords = totalRecords;
+    }
+
+    /**
+     * Возвращает объём обрабатываемого файла.
+     *
+     * @return объём в байтах, или 0, если он неизвестен.
+     */
+    public long getTotalBytes() {
+        return totalBytes;
+    }
+
+    /**
+     * Задаёт объём обрабатываемого файла.
+     *
+     * @param totalBytes объём в байтах.
+     */
+    public void setTotalBytes(long totalBytes) {
+        this.totalBytes = totalBytes;
+    }
+
+    /**
+     * Возвращает долю выполненной работы.
+     *
+     * @return значение от 0 до 1, или -1, если объём работы неизвестен.
+     */
+    public double getFraction() {
+        if (totalBytes > 0) {
+            return Math.min(1.0, (double) bytesRead.get() / totalBytes);
+        }
+        if (totalRecords > 0) {
+            return Math.min(1.0, (double) recordsProcessed.get() / totalRecords);
+        }
+        return -1;
+    }
+
+    /**
+     * Оценивает оставшееся время по средней скорости с начала операции.
+     *
+     * @return оставшееся время в миллисекундах, или -1, если оценить его пока нельзя.
+     */
+    public long getEtaMillis() {
+        double fraction = getFraction();
+        if (fraction <= 0) {
+            return -1;
+        }
+        long elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime);
+        return (long) (elapsed * (1 - fraction) / fraction);
+    }
+
+    /**
+     * Запрашивает отмену операции. Операция прерывается при ближайшей проверке {@link #checkCancelled()}.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Проверяет, запрошена ли отмена операции.
+     *
+     * @return true, если вызван {@link #cancel()}.
+     */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Прерывает операцию, если запрошена её отмена.
+     *
+     * @throws CancellationException если операция отменена.
+     */
+    public void checkCancelled() {
+        if (cancelled) {
+            throw new CancellationException("Операция отменена пользователем");
+        }
+    }
+}
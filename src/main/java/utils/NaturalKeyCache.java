@@ -0,0 +1,210 @@
+package utils;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Ограниченный по размеру кэш соответствия естественного ключа записи (госномера, номера
+ * удостоверения, номера постановления) её идентификатору.
+ * <p>
+ * Чтение не блокируется: запись ищется в {@link ConcurrentHashMap} и помечается как использованная.
+ * Добавление и удаление выполняются под блокировкой. При переполнении вытесняется запись по
+ * алгоритму CLOCK: стрелка обходит кольцо записей, снимает пометку с использованных и вытесняет
+ * первую непомеченную, поэтому часто запрашиваемые записи остаются в кэше.
+ * <p>
+ * Кэш не проверяет актуальность идентификаторов: вызывающий код должен убедиться,
+ * что найденная по идентификатору запись всё ещё имеет этот ключ.
+ *
+ * @param <K> тип естественного ключа.
+ */
+public class NaturalKeyCache<K> {
+
+    /**
+     * Запись кэша и её позиция в кольце вытеснения.
+     */
+    private static final class Slot<K> {
+        final K key;
+        final Integer id;
+        final int index;
+        volatile boolean referenced;
+
+        Slot(K key, Integer id, int index) {
+            this.key = key;
+            this.id = id;
+            this.index = index;
+        }
+    }
+
+    private final int capacity;
+    private final ConcurrentHashMap<K, Slot<K>> slots;
+
+    // Кольцо вытеснения, свободные позиции и стрелка; изменяются только под блокировкой
+    private final Slot<K>[] ring;
+    private final ArrayDeque<Integer> freeIndexes = new ArrayDeque<>();
+    private int used;
+    private int hand;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    /**
+     * Создаёт кэш указанной вместимости.
+     *
+     * @param capacity максимальное количество ключей в кэше.
+     */
+    @SuppressWarnings("unchecked")
+    public NaturalKeyCache(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Вместимость кэша должна быть положительной");
+        }
+        this.capacity = capacity;
+        this.slots = new ConcurrentHashMap<>(capacity * 4 / 3 + 1);
+        this.ring = (Slot<K>[]) new Slot<?>[capacity];
+    }
+
+    /**
+     * Возвращает идентификатор записи по ключу.
+     *
+     * @param key естественный ключ записи.
+     * @return идентификатор или null, если ключа нет в кэше.
+     */
+    public Integer get(K key) {
+        Slot<K> slot = key != null ? slots.get(key) : null;
+        if (slot == null) {
+            misses.increment();
+            return null;
+        }
+        // Пометка записывается только при её отсутствии, чтобы частые чтения не изменяли память
+        if (!slot.referenced) {
+            slot.referenced = true;
+        }
+        hits.increment();
+        return slot.id;
+    }
+
+    /**
+     * Запоминает идентификатор записи с указанным ключом.
+     * Если кэш заполнен, вытесняет давно не использованную запись.
+     *
+     * @param key естественный ключ записи.
+     * @param id идентификатор записи.
+     */
+    public synchronized void put(K key, Integer id) {
+        if (key == null || id == null) {
+            return;
+        }
+        Slot<K> existing = slots.get(key);
+        int index = existing != null ? existing.index : allocateIndex();
+        Slot<K> slot = new Slot<>(key, id, index);
+        ring[index] = slot;
+        slots.put(key, slot);
+    }
+
+    /**
+     * Удаляет ключ из кэша.
+     *
+     * @param key естественный ключ записи.
+     */
+    public synchronized void invalidate(K key) {
+        if (key == null) {
+            return;
+        }
+        Slot<K> slot = slots.remove(key);
+        if (slot != null) {
+            release(slot);
+        }
+    }
+
+    /**
+     * Удаляет из кэша все ключи записи с указанным идентификатором.
+     * Используется при изменении записи, когда прежний ключ неизвестен.
+     *
+     * @param id идентификатор записи.
+     */
+    public synchronized void invalidateId(Integer id) {
+        if (id == null) {
+            return;
+        }
+        for (Slot<K> slot : ring) {
+            if (slot != null && id.equals(slot.id)) {
+                slots.remove(slot.key, slot);
+                release(slot);
+            }
+        }
+    }
+
+    /**
+     * Очищает кэш.
+     */
+    public synchronized void invalidateAll() {
+        slots.clear();
+        Arrays.fill(ring, null);
+        freeIndexes.clear();
+        used = 0;
+        hand = 0;
+    }
+
+    /**
+     * Получить количество ключей в кэше.
+     * @return количество ключей.
+     */
+    public int size() {
+        return slots.size();
+    }
+
+    /**
+     * Получить количество обращений, для которых ключ был найден в кэше.
+     * @return количество попаданий.
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Получить количество обращений, для которых ключа не было в кэше.
+     * @return количество промахов.
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Выделяет позицию в кольце для новой записи: свободную или освобождённую вытеснением.
+     *
+     * @return позиция в кольце.
+     */
+    private int allocateIndex() {
+        if (!freeIndexes.isEmpty()) {
+            return freeIndexes.poll();
+        }
+        if (used < capacity) {
+            return used++;
+        }
+        // Все позиции заняты: стрелка снимает пометки, пока не найдёт непомеченную запись
+        while (true) {
+            Slot<K> candidate = ring[hand];
+            int index = hand;
+            hand = (hand + 1) % capacity;
+            if (candidate.referenced) {
+                candidate.referenced = false;
+            } else {
+                slots.remove(candidate.key, candidate);
+                return index;
+            }
+        }
+    }
+
+    /**
+     * Освобождает позицию удалённой записи в кольце.
+     *
+     * @param slot удалённая запись.
+     */
+    private void release(Slot<K> slot) {
+        if (ring[slot.index] == slot) {
+            ring[slot.index] = null;
+            freeIndexes.push(slot.index);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package utils;
+
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.TypedQuery;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.annotations.QueryHints;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+
+import entities.ViolationArticle;
+import entities.ViolationType;
+
+/**
+ * Утилитный класс для работы с кэшем справочников.
+ * Статьи и типы нарушений хранятся в кэше второго уровня Hibernate, а запросы к ним
+ * помечаются кэшируемыми и попадают в отдельную область кэша запросов.
+ * Кэш настраивается в persistence.xml и ehcache.xml.
+ */
+public class ReferenceDataCache {
+
+    /**
+     * Область кэша запросов к справочникам.
+     */
+    public static final String QUERY_REGION = "reference-data-queries";
+
+    /**
+     * Сущности справочников, хранящиеся в кэше второго уровня.
+     */
+    private static final Class<?>[] CACHED_ENTITIES = {ViolationArticle.class, ViolationType.class};
+
+    /**
+     * Помечает запрос к справочнику как кэшируемый.
+     * Повторный запрос с теми же параметрами берёт идентификаторы из кэша запросов,
+     * а сами записи - из кэша сущностей, не обращаясь к базе.
+     *
+     * @param query запрос к статьям или типам нарушений.
+     * @param <T> тип результата запроса.
+     * @return тот же запрос.
+     */
+    public static <T> TypedQuery<T> cacheable(TypedQuery<T> query) {
+        return query.setHint(QueryHints.CACHEABLE, true)
+                    .setHint(QueryHints.CACHE_REGION, QUERY_REGION);
+    }
+
+    /**
+     * Удаляет из кэша все записи сущности справочника и результаты запросов к справочникам.
+     * Вызывается после изменения справочника.
+     *
+     * @param emf фабрика EntityManager приложения.
+     * @param entityClass класс изменённой сущности.
+     */
+    public static void evict(EntityManagerFactory emf, Class<?> entityClass) {
+        emf.getCache().evict(entityClass);
+        emf.unwrap(SessionFactory.class).getCache().evictQueryRegion(QUERY_REGION);
+    }
+
+    /**
+     * Формирует описание статистики попаданий и промахов кэша справочников.
+     *
+     * @param emf фабрика EntityManager приложения.
+     * @return текст со статистикой по каждой области кэша.
+     */
+    public static String describeStatistics(EntityManagerFactory emf) {
+        Statistics statistics = emf.unwrap(SessionFactory.class).getStatistics();
+        if (!statistics.isStatisticsEnabled()) {
+            return "Сбор статистики кэша отключён (hibernate.generate_statistics)";
+        }
+
+        StringBuilder description = new StringBuilder();
+        for (Class<?> entityClass : CACHED_ENTITIES) {
+            appendRegion(description, entityClass.getSimpleName(), statistics.getDomainDataRegionStatistics(entityClass.getName()));
+        }
+        appendRegion(description, "Запросы к справочникам", statistics.getQueryRegionStatistics(QUERY_REGION));
+        description.append(String.format("Всего в кэше второго уровня: попаданий %d, промахов %d, записей %d",
+                statistics.getSecondLevelCacheHitCount(),
+                statistics.getSecondLevelCacheMissCount(),
+                statistics.getSecondLevelCachePutCount()));
+        return description.toString();
+    }
+
+    /**
+     * Добавляет к описанию строку со статистикой одной области кэша.
+     *
+     * @param description формируемое описание.
+     * @param title название области.
+     * @param region статистика области или null, если к области ещё не обращались.
+     */
+    private static void appendRegion(StringBuilder description, String title, CacheRegionStatistics region) {
+        if (region == null) {
+            description.append(title).append(": нет обращений\n");
+            return;
+        }
+        description.append(String.format("%s: попаданий %d, промахов %d, записей %d, в памяти %d%n",
+                title, region.getHitCount(), region.getMissCount(), region.getPutCount(), region.getElementCountInMemory()));
+    }
+}
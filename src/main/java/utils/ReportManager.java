@@ -1,19 +1,69 @@
 package utils;
 
+import entities.ReportRow;
 import net.sf.jasperreports.engine.*;
+import net.sf.jasperreports.engine.data.JRMapCollectionDataSource;
 import net.sf.jasperreports.engine.data.JRXmlDataSource;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Date;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import org.apache.log4j.Logger;
 
 /**
  * Класс для генерации отчётов в формате PDF с использованием JasperReports.
- * Генерирует отчёт на основе XML данных и сохраняет его в файл PDF.
+ * Генерирует отчёт на основе данных из памяти или XML-файла и сохраняет его в файл PDF.
+ * Скомпилированный шаблон отчёта хранится в памяти и компилируется заново
+ * только после изменения файла шаблона.
  */
 public class ReportManager {
     private static final Logger logger = Logger.getLogger(ReportManager.class);
 
+    /**
+     * Путь к шаблону отчёта по нарушениям.
+     */
+    private static final String VIOLATION_REPORT_TEMPLATE = "ViolationReport.jrxml";
+
+    // Скомпилированный шаблон и признаки файла, из которого он получен
+    private static JasperReport compiledReport;
+    private static long compiledModified;
+    private static byte[] compiledHash;
+
+    /**
+     * Генерирует отчёт по нарушениям в формате PDF из уже полученных строк отчёта.
+     * Строки передаются в отчёт напрямую, без записи и повторного разбора XML-файла.
+     *
+     * @param data строки отчёта.
+     * @param outputPath путь, куда будет сохранён сгенерированный отчёт в формате PDF.
+     */
+    public static void generateViolationReport(List<ReportRow> data, String outputPath) {
+        logger.info("Старт генерации отчёта в PDF");
+
+        // Поля источника данных совпадают с полями шаблона отчёта
+        Collection<Map<String, ?>> rows = new ArrayList<>(data.size());
+        for (ReportRow row : data) {
+            Map<String, Object> fields = new HashMap<>();
+            fields.put("date", row.getDate() != null ? Date.valueOf(row.getDate()) : null);
+            fields.put("driverName", row.getDriverName());
+            fields.put("car", row.getCar());
+            fields.put("violationType", row.getViolationType());
+            rows.add(fields);
+        }
+        generateViolationReport(new JRMapCollectionDataSource(rows), outputPath);
+    }
+
     /**
      * Генерирует отчёт по нарушениям в формате PDF.
      * Использует файл XML в качестве источника данных для отчёта.
@@ -22,27 +72,109 @@ public class ReportManager {
      * @param outputPath путь, куда будет сохранён сгенерированный отчёт в формате PDF.
      */
     public static void generateViolationReport(String xmlFilePath, String outputPath) {
-        logger.info("Старт генерации отчёта в PDF");
+        logger.info("Старт генерации отчёта в PDF из XML-файла: " + xmlFilePath);
 
+        try {
+            // Создание источника данных из XML
+            generateViolationReport(new JRXmlDataSource(xmlFilePath, "/report/violations/violation"), outputPath);
+        } catch (JRException e) {
+            logger.error("Ошибка во время генерации", e);
+        }
+    }
+
+    /**
+     * Заполняет шаблон отчёта по нарушениям данными и сохраняет результат в PDF.
+     *
+     * @param dataSource источник данных отчёта.
+     * @param outputPath путь, куда будет сохранён сгенерированный отчёт в формате PDF.
+     */
+    private static void generateViolationReport(JRDataSource dataSource, String outputPath) {
         try {
             // Создание карты для параметров отчёта (пока пустая)
             Map<String, Object> parameters = new HashMap<>();
 
-            // Компиляция JRXML файла в объект JasperReport
-            JasperReport jasperReport = JasperCompileManager.compileReport("ViolationReport.jrxml");
-
-            // Создание источника данных из XML
-            JRXmlDataSource xmlDataSource = new JRXmlDataSource(xmlFilePath, "/report/violations/violation");
+            // Получение скомпилированного шаблона отчёта
+            long startTime = System.nanoTime();
+            JasperReport jasperReport = getCompiledReport(VIOLATION_REPORT_TEMPLATE);
+            long compileTime = System.nanoTime() - startTime;
 
             // Заполнение отчёта данными
-            JasperPrint jasperPrint = JasperFillManager.fillReport(jasperReport, parameters, xmlDataSource);
+            startTime = System.nanoTime();
+            JasperPrint jasperPrint = JasperFillManager.fillReport(jasperReport, parameters, dataSource);
+            long fillTime = System.nanoTime() - startTime;
 
             // Экспорт отчёта в PDF файл
+            startTime = System.nanoTime();
             JasperExportManager.exportReportToPdfFile(jasperPrint, outputPath);
-            logger.info("Отчёт успешно сохранён в файл: " + outputPath);
+            long exportTime = System.nanoTime() - startTime;
+
+            if (logger.isInfoEnabled()) {
+                logger.info("Отчёт успешно сохранён в файл: " + outputPath);
+                logger.info(String.format("Время генерации отчёта: шаблон %d мс, заполнение %d мс, экспорт %d мс",
+                        TimeUnit.NANOSECONDS.toMillis(compileTime),
+                        TimeUnit.NANOSECONDS.toMillis(fillTime),
+                        TimeUnit.NANOSECONDS.toMillis(exportTime)));
+            }
         } catch (Exception e) {
             // Логирование ошибки, если генерация отчёта не удалась
             logger.error("Ошибка во время генерации", e);
         }
     }
+
+    /**
+     * Возвращает скомпилированный шаблон отчёта, компилируя его только при необходимости.
+     * Шаблон компилируется заново, если изменилась дата изменения файла и вместе с ней
+     * его хэш SHA-256; если файл лишь перезаписан без изменений, используется прежняя компиляция.
+     *
+     * @param templatePath путь к JRXML-файлу шаблона.
+     * @return скомпилированный шаблон отчёта.
+     * @throws JRException если шаблон не удалось скомпилировать.
+     * @throws IOException если файл шаблона не удалось прочитать.
+     */
+    private static synchronized JasperReport getCompiledReport(String templatePath) throws JRException, IOException {
+        File template = new File(templatePath);
+        long modified = template.lastModified();
+        if (compiledReport != null && modified == compiledModified) {
+            return compiledReport;
+        }
+
+        byte[] hash = sha256(template);
+        if (compiledReport != null && Arrays.equals(hash, compiledHash)) {
+            logger.debug("Шаблон отчёта перезаписан без изменений, используется прежняя компиляция");
+            compiledModified = modified;
+            return compiledReport;
+        }
+
+        long startTime = System.nanoTime();
+        compiledReport = JasperCompileManager.compileReport(templatePath);
+        compiledModified = modified;
+        compiledHash = hash;
+        if (logger.isInfoEnabled()) {
+            logger.info("Шаблон отчёта " + templatePath + " скомпилирован за "
+                    + TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime) + " мс");
+        }
+        return compiledReport;
+    }
+
+    /**
+     * Вычисляет хэш SHA-256 содержимого файла.
+     *
+     * @param file файл для вычисления хэша.
+     * @return хэш содержимого файла.
+     * @throws IOException если файл не удалось прочитать.
+     */
+    private static byte[] sha256(File file) throws IOException {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            try (InputStream in = new DigestInputStream(Files.newInputStream(file.toPath()), digest)) {
+                byte[] buffer = new byte[8192];
+                while (in.read(buffer) != -1) {
+                    // Содержимое учитывается в хэше по мере чтения
+                }
+            }
+            return digest.digest();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Алгоритм SHA-256 недоступен", e);
+        }
+    }
 }
@@ -0,0 +1,222 @@
+package utils;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import javax.persistence.EntityManager;
+
+import org.apache.log4j.Logger;
+
+/**
+ * Утилитный класс для обновления схемы существующей базы данных.
+ * Применяет SQL-скрипты из каталога {@code db/migration} ресурсов по порядку и запоминает
+ * применённые версии в таблице {@code schema_version}, поэтому успешно применённый скрипт
+ * больше не выполняется.
+ * <p>
+ * Скрипт не выполняется атомарно: MySQL неявно подтверждает транзакцию перед каждым оператором DDL,
+ * поэтому при ошибке в середине скрипта предыдущие операторы остаются применёнными, а версия не
+ * записывается, и при следующем запуске скрипт выполняется заново с начала. Поэтому каждый скрипт
+ * должен допускать повторное выполнение: таблицы создаются с {@code IF NOT EXISTS}, строки
+ * добавляются с {@code ON DUPLICATE KEY UPDATE}. Оператор {@code CREATE INDEX} в MySQL не имеет
+ * условия {@code IF NOT EXISTS}, поэтому мигратор пропускает его сам, если индекс уже существует.
+ */
+public class SchemaMigrator {
+    private static final Logger logger = Logger.getLogger(SchemaMigrator.class);
+
+    /**
+     * Оператор создания индекса: уникальность, имя индекса, схема, таблица и список столбцов.
+     */
+    private static final Pattern CREATE_INDEX = Pattern.compile(
+            "CREATE\\s+(UNIQUE\\s+)?INDEX\\s+(\\w+)\\s+ON\\s+(\\w+)\\.(\\w+)\\s*\\(([^)]*)\\)",
+            Pattern.CASE_INSENSITIVE);
+
+    /**
+     * Наибольшее количество повторяющихся значений одного индекса в сообщении об ошибке.
+     */
+    private static final int MAX_REPORTED_DUPLICATES = 20;
+
+    /**
+     * Скрипты миграции в порядке применения.
+     * Версией скрипта считается его имя.
+     */
+    private static final String[] MIGRATIONS = {
+        "V1__id_generator.sql",
+        "V2__natural_key_indexes.sql",
+        "V3__violation_keyset_index.sql",
+        "V4__violation_statistic.sql"
+    };
+
+    /**
+     * Применяет к базе данных все ещё не применённые скрипты миграции.
+     *
+     * @param em экземпляр EntityManager для выполнения запросов.
+     * @throws IllegalStateException если скрипт не удалось прочитать или выполнить.
+     */
+    public static void migrate(EntityManager em) {
+        logger.info("Проверка версии схемы базы данных");
+
+        runInTransaction(em, () -> em.createNativeQuery(
+                "CREATE TABLE IF NOT EXISTS app_db.schema_version ("
+                + "version VARCHAR(100) NOT NULL, "
+                + "applied_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP, "
+                + "PRIMARY KEY (version))").executeUpdate());
+
+        @SuppressWarnings("unchecked")
+        Set<String> applied = new HashSet<>(em.createNativeQuery("SELECT version FROM app_db.schema_version").getResultList());
+
+        for (String migration : MIGRATIONS) {
+            if (applied.contains(migration)) {
+                continue;
+            }
+            logger.info("Применение скрипта миграции: " + migration);
+
+            List<String> statements = readStatements("db/migration/" + migration);
+            try {
+                checkUniqueIndexData(em, statements);
+                runInTransaction(em, () -> {
+                    for (String statement : statements) {
+                        Matcher index = CREATE_INDEX.matcher(statement);
+                        if (index.lookingAt() && indexExists(em, index.group(3), index.group(4), index.group(2))) {
+                            logger.info("Индекс " + index.group(2) + " уже существует");
+                            continue;
+                        }
+                        em.createNativeQuery(statement).executeUpdate();
+                    }
+                    em.createNativeQuery("INSERT INTO app_db.schema_version (version) VALUES (?)")
+                      .setParameter(1, migration)
+                      .executeUpdate();
+                });
+            } catch (RuntimeException ex) {
+                logger.error("Ошибка при применении скрипта миграции: " + migration, ex);
+                throw new IllegalStateException("Не удалось обновить схему базы данных: " + migration + ": " + ex.getMessage(), ex);
+            }
+        }
+
+        logger.info("Схема базы данных актуальна");
+    }
+
+    /**
+     * Проверяет, что данные не содержат повторов значений для ещё не созданных уникальных индексов скрипта.
+     * Проверка выполняется до первого оператора скрипта, чтобы повтор не остановил скрипт
+     * после создания части индексов. После исправления данных скрипт выполняется при следующем запуске.
+     *
+     * @param em экземпляр EntityManager для выполнения запросов.
+     * @param statements операторы скрипта.
+     * @throws IllegalStateException если есть повторы; сообщение перечисляет повторяющиеся значения.
+     */
+    private static void checkUniqueIndexData(EntityManager em, List<String> statements) {
+        StringBuilder duplicates = new StringBuilder();
+        for (String statement : statements) {
+            Matcher index = CREATE_INDEX.matcher(statement);
+            if (!index.lookingAt() || index.group(1) == null
+                    || indexExists(em, index.group(3), index.group(4), index.group(2))) {
+                continue;
+            }
+            String table = index.group(3) + "." + index.group(4);
+            String columns = index.group(5).trim();
+            @SuppressWarnings("unchecked")
+            List<Object[]> rows = em.createNativeQuery("SELECT CONCAT_WS(', ', " + columns + "), COUNT(*) FROM " + table
+                    + " GROUP BY " + columns + " HAVING COUNT(*) > 1")
+                    .setMaxResults(MAX_REPORTED_DUPLICATES)
+                    .getResultList();
+            for (Object[] row : rows) {
+                duplicates.append('\n').append(table).append(" (").append(columns).append(") = '")
+                          .append(row[0]).append("': ").append(row[1]).append(" записей");
+            }
+        }
+        if (duplicates.length() > 0) {
+            throw new IllegalStateException("Нельзя создать уникальные индексы: в данных есть повторяющиеся значения "
+                    + "(показаны не более " + MAX_REPORTED_DUPLICATES + " для каждого индекса). "
+                    + "Исправьте или удалите повторяющиеся записи и перезапустите приложение:" + duplicates);
+        }
+    }
+
+    /**
+     * Проверяет, существует ли индекс таблицы.
+     *
+     * @param em экземпляр EntityManager для выполнения запросов.
+     * @param schema схема таблицы.
+     * @param table имя таблицы.
+     * @param index имя индекса.
+     * @return true, если индекс уже создан.
+     */
+    private static boolean indexExists(EntityManager em, String schema, String table, String index) {
+        return !em.createNativeQuery("SELECT 1 FROM information_schema.statistics "
+                + "WHERE table_schema = ? AND table_name = ? AND index_name = ?")
+                .setParameter(1, schema)
+                .setParameter(2, table)
+                .setParameter(3, index)
+                .setMaxResults(1)
+                .getResultList()
+                .isEmpty();
+    }
+
+    /**
+     * Выполняет действие в отдельной транзакции.
+     * Транзакция не охватывает операторы DDL, которые MySQL подтверждает неявно.
+     *
+     * @param em экземпляр EntityManager для выполнения запросов.
+     * @param action действие, выполняемое внутри транзакции.
+     */
+    private static void runInTransaction(EntityManager em, Runnable action) {
+        em.getTransaction().begin();
+        try {
+            action.run();
+            em.getTransaction().commit();
+        } catch (RuntimeException ex) {
+            if (em.getTransaction().isActive()) {
+                em.getTransaction().rollback();
+            }
+            throw ex;
+        }
+    }
+
+    /**
+     * Читает скрипт из ресурсов и разбивает его на отдельные SQL-операторы.
+     * Строки комментариев, начинающиеся с {@code --}, пропускаются, операторы разделяются символом ';'.
+     *
+     * @param resource путь к скрипту в ресурсах.
+     * @return список SQL-операторов скрипта.
+     * @throws IllegalStateException если скрипт не найден или не может быть прочитан.
+     */
+    private static List<String> readStatements(String resource) {
+        InputStream in = SchemaMigrator.class.getClassLoader().getResourceAsStream(resource);
+        if (in == null) {
+            throw new IllegalStateException("Скрипт миграции не найден: " + resource);
+        }
+
+        List<String> statements = new ArrayList<>();
+        StringBuilder current = new StringBuilder();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String trimmed = line.trim();
+                if (trimmed.isEmpty() || trimmed.startsWith("--")) {
+                    continue;
+                }
+                current.append(line).append('\n');
+                if (trimmed.endsWith(";")) {
+                    String statement = current.toString().trim();
+                    statements.add(statement.substring(0, statement.length() - 1));
+                    current.setLength(0);
+                }
+            }
+        } catch (IOException ex) {
+            throw new IllegalStateException("Не удалось прочитать скрипт миграции: " + resource, ex);
+        }
+
+        if (current.toString().trim().length() > 0) {
+            statements.add(current.toString().trim());
+        }
+        return statements;
+    }
+}
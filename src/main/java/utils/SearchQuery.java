@@ -0,0 +1,285 @@
+package utils;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.TypedQuery;
+
+import org.apache.log4j.Logger;
+
+/**
+ * Запрос поиска с необязательными условиями.
+ * <p>
+ * Каждое условие - фрагмент JPQL с одним именованным параметром. Условие входит в запрос,
+ * если его значение не равно null, поэтому сочетание заданных условий определяется битовой маской.
+ * Текст запроса для каждой маски строится один раз при создании запроса поиска, и при поиске
+ * Hibernate получает одну из заранее известных строк, план которой уже находится в кэше планов
+ * запросов, а не новую строку, которую нужно разобрать и преобразовать в SQL.
+ * <p>
+ * Планы запросов без условий и с одним условием компилируются заранее методом
+ * {@link #warmUpAll(EntityManagerFactory)} при запуске приложения.
+ *
+ * @param <T> тип результата запроса.
+ */
+public final class SearchQuery<T> {
+
+    private static final Logger logger = Logger.getLogger(SearchQuery.class);
+
+    /**
+     * Максимальное количество необязательных условий: тексты запросов строятся для всех масок.
+     */
+    private static final int MAX_CONDITIONS = 10;
+
+    /**
+     * Все созданные запросы поиска, планы которых компилируются при запуске.
+     */
+    private static final List<SearchQuery<?>> registry = new CopyOnWriteArrayList<>();
+
+    private final Class<T> resultClass;
+    private final String[] parameterNames;
+    private final String[] queries;
+
+    private SearchQuery(Class<T> resultClass, String select, List<String> required, List<String> conditions, String orderBy) {
+        this.resultClass = resultClass;
+        this.parameterNames = new String[conditions.size()];
+        for (int i = 0; i < parameterNames.length; i++) {
+            parameterNames[i] = parameterName(conditions.get(i));
+        }
+        this.queries = new String[1 << conditions.size()];
+        for (int mask = 0; mask < queries.length; mask++) {
+            List<String> where = new ArrayList<>(required);
+            for (int i = 0; i < conditions.size(); i++) {
+                if ((mask & (1 << i)) != 0) {
+                    where.add(conditions.get(i));
+                }
+            }
+            queries[mask] = select + (where.isEmpty() ? "" : " WHERE " + String.join(" AND ", where)) + orderBy;
+        }
+    }
+
+    /**
+     * Начинает построение запроса поиска.
+     *
+     * @param resultClass тип результата запроса.
+     * @param select начало запроса без предложения WHERE: SELECT, FROM и соединения.
+     * @param <T> тип результата запроса.
+     * @return построитель запроса.
+     */
+    public static <T> Builder<T> from(Class<T> resultClass, String select) {
+        return new Builder<>(resultClass, select);
+    }
+
+    /**
+     * Создаёт запрос для заданных значений условий и устанавливает их параметры.
+     * Параметры обязательных условий устанавливает вызывающий код.
+     *
+     * @param entityManager EntityManager, в котором выполняется запрос.
+     * @param values значения условий в порядке их объявления; null - условие не задано.
+     * @return запрос.
+     * @throws IllegalArgumentException если количество значений не совпадает с количеством условий.
+     */
+    public TypedQuery<T> create(EntityManager entityManager, Object... values) {
+        if (values.length != parameterNames.length) {
+            throw new IllegalArgumentException("Ожидается значений условий: " + parameterNames.length + ", передано: " + values.length);
+        }
+        int mask = 0;
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) {
+                mask |= 1 << i;
+            }
+        }
+
+        TypedQuery<T> query = entityManager.createQuery(queries[mask], resultClass);
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] != null) {
+                query.setParameter(parameterNames[i], values[i]);
+            }
+        }
+        return query;
+    }
+
+    /**
+     * Возвращает текст запроса для заданных значений условий.
+     *
+     * @param values значения условий в порядке их объявления; null - условие не задано.
+     * @return текст запроса JPQL.
+     */
+    public String getQueryString(Object... values) {
+        int mask = 0;
+        for (int i = 0; i < values.length && i < parameterNames.length; i++) {
+            if (values[i] != null) {
+                mask |= 1 << i;
+            }
+        }
+        return queries[mask];
+    }
+
+    /**
+     * Компилирует планы запроса без условий и с каждым условием по отдельности.
+     *
+     * @param entityManager EntityManager, через который компилируются планы.
+     */
+    void warmUp(EntityManager entityManager) {
+        entityManager.createQuery(queries[0], resultClass);
+        for (int i = 0; i < parameterNames.length; i++) {
+            entityManager.createQuery(queries[1 << i], resultClass);
+        }
+    }
+
+    /**
+     * Компилирует планы распространённых сочетаний условий всех созданных запросов поиска.
+     * Запросы не выполняются. Вызывается после создания сервисов, когда их запросы поиска уже созданы.
+     *
+     * @param emf фабрика EntityManager.
+     */
+    public static void warmUpAll(EntityManagerFactory emf) {
+        long startTime = System.nanoTime();
+        EntityManager entityManager = emf.createEntityManager();
+        try {
+            for (SearchQuery<?> query : registry) {
+                try {
+                    query.warmUp(entityManager);
+                } catch (RuntimeException e) {
+                    logger.warn("Не удалось подготовить запрос поиска: " + query.queries[0], e);
+                }
+            }
+        } finally {
+            entityManager.close();
+        }
+        logger.info(String.format("Подготовлено запросов поиска: %d за %d мс",
+                registry.size(), (System.nanoTime() - startTime) / 1_000_000));
+    }
+
+    /**
+     * Значение условия «содержит подстроку» для оператора LIKE.
+     *
+     * @param value подстрока из поля поиска.
+     * @return шаблон LIKE или null, если значение не задано.
+     */
+    public static String contains(String value) {
+        return isSet(value) ? "%" + value + "%" : null;
+    }
+
+    /**
+     * Значение условия точного совпадения.
+     *
+     * @param value значение из поля поиска.
+     * @return значение или null, если значение не задано.
+     */
+    public static String text(String value) {
+        return isSet(value) ? value : null;
+    }
+
+    /**
+     * Значение условия по дате.
+     *
+     * @param value дата в формате ГГГГ-ММ-ДД.
+     * @return дата или null, если значение не задано.
+     * @throws java.time.format.DateTimeParseException если дата указана в неверном формате.
+     */
+    public static LocalDate date(String value) {
+        return isSet(value) ? LocalDate.parse(value) : null;
+    }
+
+    /**
+     * Значение числового условия.
+     *
+     * @param value целое число.
+     * @return число или null, если значение не задано.
+     * @throws NumberFormatException если значение не является целым числом.
+     */
+    public static Integer number(String value) {
+        return isSet(value) ? Integer.valueOf(value) : null;
+    }
+
+    private static boolean isSet(String value) {
+        return value != null && !value.isEmpty();
+    }
+
+    /**
+     * Имя именованного параметра условия.
+     */
+    private static String parameterName(String condition) {
+        int start = condition.indexOf(':');
+        if (start < 0) {
+            throw new IllegalArgumentException("Условие поиска должно содержать именованный параметр: " + condition);
+        }
+        int end = start + 1;
+        while (end < condition.length() && Character.isJavaIdentifierPart(condition.charAt(end))) {
+            end++;
+        }
+        return condition.substring(start + 1, end);
+    }
+
+    /**
+     * Построитель запроса поиска.
+     *
+     * @param <T> тип результата запроса.
+     */
+    public static final class Builder<T> {
+        private final Class<T> resultClass;
+        private final String select;
+        private final List<String> required = new ArrayList<>();
+        private final List<String> conditions = new ArrayList<>();
+        private String orderBy = "";
+
+        private Builder(Class<T> resultClass, String select) {
+            this.resultClass = resultClass;
+            this.select = select;
+        }
+
+        /**
+         * Добавляет условие, которое входит в запрос всегда. Его параметры устанавливает вызывающий код.
+         *
+         * @param condition фрагмент JPQL.
+         * @return этот построитель.
+         */
+        public Builder<T> require(String condition) {
+            required.add(condition);
+            return this;
+        }
+
+        /**
+         * Добавляет необязательные условия. Порядок условий задаёт порядок значений
+         * в {@link SearchQuery#create(EntityManager, Object...)}.
+         *
+         * @param conditions фрагменты JPQL с одним именованным параметром каждый.
+         * @return этот построитель.
+         */
+        public Builder<T> where(String... conditions) {
+            this.conditions.addAll(Arrays.asList(conditions));
+            return this;
+        }
+
+        /**
+         * Задаёт порядок строк результата.
+         *
+         * @param orderBy выражения предложения ORDER BY.
+         * @return этот построитель.
+         */
+        public Builder<T> orderBy(String orderBy) {
+            this.orderBy = " ORDER BY " + orderBy;
+            return this;
+        }
+
+        /**
+         * Создаёт запрос поиска и регистрирует его для подготовки при запуске.
+         *
+         * @return запрос поиска.
+         * @throws IllegalArgumentException если условий больше {@value SearchQuery#MAX_CONDITIONS}.
+         */
+        public SearchQuery<T> build() {
+            if (conditions.size() > MAX_CONDITIONS) {
+                throw new IllegalArgumentException("Слишком много условий поиска: " + conditions.size());
+            }
+            SearchQuery<T> query = new SearchQuery<>(resultClass, select, required, conditions, orderBy);
+            registry.add(query);
+            return query;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package utils;
+
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.EntityTransaction;
+
+/**
+ * Управление EntityManager приложения.
+ * Каждая операция сервисов получает собственный EntityManager, который закрывается сразу
+ * после её завершения, поэтому фоновые задачи (импорт, экспорт, отчёты) и действия
+ * пользователя могут работать одновременно, а контекст персистентности не растёт со временем.
+ * Соединения берутся из пула, настроенного в persistence.xml.
+ * <p>
+ * Для запросов, которые интерфейс выполняет напрямую (списки выбора, проверки уникальности),
+ * предоставляется отдельный EntityManager интерфейса. Он используется только в потоке
+ * обработки событий Swing и очищается при обновлении данных панелей.
+ */
+public class SessionManager {
+    private final EntityManagerFactory emf;
+    private EntityManager uiEntityManager;
+
+    /**
+     * Создаёт менеджер поверх фабрики EntityManager.
+     *
+     * @param emf фабрика EntityManager единицы персистентности приложения.
+     */
+    public SessionManager(EntityManagerFactory emf) {
+        this.emf = emf;
+    }
+
+    /**
+     * Получить фабрику EntityManager для задач, управляющих EntityManager самостоятельно.
+     *
+     * @return фабрика EntityManager.
+     */
+    public EntityManagerFactory getEntityManagerFactory() {
+        return emf;
+    }
+
+    /**
+     * Получить EntityManager интерфейса.
+     * Должен использоваться только в потоке обработки событий Swing.
+     *
+     * @return EntityManager интерфейса.
+     */
+    public EntityManager getUiEntityManager() {
+        if (uiEntityManager == null || !uiEntityManager.isOpen()) {
+            uiEntityManager = emf.createEntityManager();
+        }
+        return uiEntityManager;
+    }
+
+    /**
+     * Очищает контекст персистентности EntityManager интерфейса,
+     * чтобы следующие запросы прочитали актуальные данные из базы.
+     */
+    public void clearUiEntityManager() {
+        if (uiEntityManager != null && uiEntityManager.isOpen()) {
+            uiEntityManager.clear();
+        }
+    }
+
+    /**
+     * Выполняет чтение в отдельном EntityManager.
+     * Возвращённые сущности отсоединены от контекста персистентности.
+     *
+     * @param work чтение данных.
+     * @param <T> тип результата.
+     * @return результат чтения.
+     */
+    public <T> T read(Function<EntityManager, T> work) {
+        EntityManager em = emf.createEntityManager();
+        try {
+            return work.apply(em);
+        } finally {
+            em.close();
+        }
+    }
+
+    /**
+     * Выполняет изменения в отдельном EntityManager и отдельной транзакции.
+     * При ошибке транзакция откатывается, а исключение передаётся вызывающему коду.
+     *
+     * @param work изменения данных.
+     */
+    public void inTransaction(Consumer<EntityManager> work) {
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction transaction = em.getTransaction();
+        try {
+            transaction.begin();
+            work.accept(em);
+            transaction.commit();
+        } catch (RuntimeException e) {
+            if (transaction.isActive()) {
+                transaction.rollback();  // Откатываем изменения в случае ошибки
+            }
+            throw e;
+        } finally {
+            em.close();
+        }
+    }
+
+    /**
+     * Закрывает EntityManager интерфейса и фабрику EntityManager вместе с пулом соединений.
+     */
+    public void close() {
+        if (uiEntityManager != null && uiEntityManager.isOpen()) {
+            uiEntityManager.close();
+        }
+        emf.close();
+    }
+}
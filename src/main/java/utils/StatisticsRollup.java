@@ -0,0 +1,140 @@
+package utils;
+
+import javax.persistence.EntityManager;
+import javax.persistence.Query;
+
+import org.hibernate.query.NativeQuery;
+
+import entities.ViolationStatistic;
+
+/**
+ * Обновление сводной таблицы нарушений {@code violation_statistic}.
+ * <p>
+ * Изменения вычисляются запросом к самим нарушениям: перед изменением или удалением записей
+ * их нарушения вычитаются из сводки, после добавления или изменения - прибавляются.
+ * Поэтому один и тот же запрос обслуживает добавление нарушения, смену госномера автомобиля
+ * и каскадное удаление водителя, типа или статьи. Методы вызываются внутри транзакции,
+ * в которой изменяются записи.
+ * <p>
+ * Массовые операции, записывающие таблицы в обход сервисов (импорт XML, генератор данных),
+ * после завершения пересчитывают сводку целиком методом {@link #refresh(EntityManager)}.
+ */
+public final class StatisticsRollup {
+
+    /**
+     * Записи, нарушения которых вычитаются из сводки или прибавляются к ней.
+     */
+    public enum Scope {
+        VIOLATION("v.violation_id"),
+        CAR("v.car_id"),
+        OWNER("c.car_owner_id"),
+        VIOLATION_TYPE("v.violation_type_id"),
+        VIOLATION_ARTICLE("v.violation_article_id");
+
+        private final String addQuery;
+        private final String subtractQuery;
+        private final String pruneQuery;
+
+        Scope(String idColumn) {
+            this.addQuery = deltaQuery(idColumn, "COUNT(*)");
+            this.subtractQuery = deltaQuery(idColumn, "-COUNT(*)");
+            this.pruneQuery = pruneQuery(idColumn);
+        }
+    }
+
+    /**
+     * Месяц нарушения в виде ГГГГММ.
+     */
+    private static final String VIOLATION_MONTH = "YEAR(v.violation_date) * 100 + MONTH(v.violation_date)";
+
+    /**
+     * Регион из госномера: символы после серии и номера.
+     */
+    private static final String PLATE_REGION = "SUBSTRING(c.car_license_plate, 7, 3)";
+
+    /**
+     * Столбцы группировки: месяц, тип, статья, регион и статус оплаты.
+     */
+    private static final String DIMENSIONS = VIOLATION_MONTH + ", v.violation_type_id, v.violation_article_id, " + PLATE_REGION + ", v.violation_paid";
+
+    /**
+     * Ключи строк сводки с именами столбцов сводной таблицы.
+     */
+    private static final String KEYS = VIOLATION_MONTH + " AS violation_month, v.violation_type_id AS violation_type_id, "
+            + "v.violation_article_id AS violation_article_id, " + PLATE_REGION + " AS region, v.violation_paid AS violation_paid";
+
+    private static final String INSERT = "INSERT INTO app_db.violation_statistic "
+            + "(violation_month, violation_type_id, violation_article_id, region, violation_paid, violation_count) ";
+
+    private static final String FROM = " FROM app_db.violation v JOIN app_db.car c ON c.car_id = v.car_id";
+
+    private StatisticsRollup() {
+    }
+
+    /**
+     * Прибавляет к сводке нарушения указанной записи в их текущем состоянии.
+     * Несохранённые изменения EntityManager записываются в базу перед запросом.
+     *
+     * @param entityManager EntityManager транзакции, в которой изменены записи.
+     * @param scope вид записи.
+     * @param id идентификатор записи.
+     */
+    public static void add(EntityManager entityManager, Scope scope, int id) {
+        entityManager.flush();
+        execute(entityManager.createNativeQuery(scope.addQuery).setParameter(1, id));
+    }
+
+    /**
+     * Вычитает из сводки нарушения указанной записи. Вызывается до изменения или удаления записи.
+     * Строки сводки, количество в которых стало нулевым, удаляются, чтобы таблица не росла
+     * от нарушений, перенесённых в другой месяц или удалённых.
+     *
+     * @param entityManager EntityManager транзакции, в которой изменяются записи.
+     * @param scope вид записи.
+     * @param id идентификатор записи.
+     */
+    public static void subtract(EntityManager entityManager, Scope scope, int id) {
+        entityManager.flush();
+        execute(entityManager.createNativeQuery(scope.subtractQuery).setParameter(1, id));
+        execute(entityManager.createNativeQuery(scope.pruneQuery).setParameter(1, id));
+    }
+
+    /**
+     * Пересчитывает сводку по всем нарушениям.
+     *
+     * @param entityManager EntityManager с активной транзакцией.
+     */
+    public static void refresh(EntityManager entityManager) {
+        execute(entityManager.createNativeQuery("DELETE FROM app_db.violation_statistic"));
+        execute(entityManager.createNativeQuery(INSERT + "SELECT " + DIMENSIONS + ", COUNT(*)" + FROM + " GROUP BY " + DIMENSIONS));
+    }
+
+    /**
+     * Выполняет изменяющий запрос к сводке.
+     * Запрос объявлен затрагивающим только сводную таблицу: иначе Hibernate считал бы изменёнными
+     * все таблицы и очищал кэш второго уровня справочников после каждой записи нарушения.
+     */
+    private static void execute(Query query) {
+        query.unwrap(NativeQuery.class).addSynchronizedEntityClass(ViolationStatistic.class);
+        query.executeUpdate();
+    }
+
+    private static String deltaQuery(String idColumn, String count) {
+        return INSERT + "SELECT " + DIMENSIONS + ", " + count + FROM + " WHERE " + idColumn + " = ?1"
+                + " GROUP BY " + DIMENSIONS
+                + " ON DUPLICATE KEY UPDATE violation_count = violation_count + VALUES(violation_count)";
+    }
+
+    /**
+     * Запрос удаления нулевых строк сводки с ключами нарушений записи. Выполняется до изменения
+     * записи, пока её нарушения ещё имеют прежние ключи.
+     */
+    private static String pruneQuery(String idColumn) {
+        return "DELETE s FROM app_db.violation_statistic s"
+                + " JOIN (SELECT DISTINCT " + KEYS + FROM + " WHERE " + idColumn + " = ?1) k"
+                + " ON s.violation_month = k.violation_month AND s.violation_type_id = k.violation_type_id"
+                + " AND s.violation_article_id = k.violation_article_id AND s.region = k.region"
+                + " AND s.violation_paid = k.violation_paid"
+                + " WHERE s.violation_count = 0";
+    }
+}
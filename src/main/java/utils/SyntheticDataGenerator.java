@@ -0,0 +1,851 @@
+package utils;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.EntityTransaction;
+import javax.persistence.Persistence;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamWriter;
+
+import org.apache.log4j.LogManager;
+import org.apache.log4j.Logger;
+import org.hibernate.Session;
+import org.hibernate.jdbc.Work;
+
+import entities.Car;
+import entities.Driver;
+import entities.Violation;
+import entities.ViolationArticle;
+import entities.ViolationType;
+
+/**
+ * Генератор синтетических данных для нагрузочного тестирования и бенчмарков.
+ * <p>
+ * Данные полностью определяются начальным значением генератора и количеством записей:
+ * каждая запись вычисляется по своему номеру независимо от остальных, поэтому один и тот же
+ * набор можно получить повторно и строить по частям. Номера удостоверений, госномера, VIN-номера
+ * и номера постановлений уникальны и проходят проверки формата валидаторов, коды статей
+ * соответствуют формату {@code КоАП РФ глава.параграф[ п.пункт]}.
+ * <p>
+ * Распределения неравномерны, как в рабочей базе: часть нарушений приходится на небольшую
+ * долю часто нарушающих автомобилей и на отдельные дни с повышенным количеством нарушений,
+ * а часть автомобилей принадлежит немногим владельцам автопарков.
+ * <p>
+ * Набор данных записывается в пустую базу пакетами JDBC или в XML-файл в формате
+ * экспорта {@link XMLManager}; записи строятся несколькими потоками. Запуск из командной строки:
+ * <pre>
+ * java utils.SyntheticDataGenerator &lt;seed&gt; &lt;нарушений&gt; (--db | --xml &lt;файл&gt;) [--threads N]
+ * </pre>
+ * Для 20 миллионов нарушений создаётся 1 миллион водителей и 3 миллиона автомобилей.
+ */
+public class SyntheticDataGenerator {
+
+    private static final Logger logger = Logger.getLogger(SyntheticDataGenerator.class);
+
+    /**
+     * Дата, относительно которой вычисляются даты рождения, техосмотров и нарушений.
+     * Не зависит от текущей даты, чтобы набор данных не менялся со временем.
+     */
+    static final LocalDate BASE_DATE = LocalDate.of(2024, 12, 31);
+
+    /**
+     * Количество записей в одной порции: порция записывается в одной транзакции
+     * или выводится в XML одним потоком.
+     */
+    private static final int WRITE_CHUNK_SIZE = 10_000;
+
+    /**
+     * Количество строк в одном пакете JDBC.
+     */
+    private static final int JDBC_BATCH_SIZE = 1000;
+
+    /**
+     * Размер блока идентификаторов в генераторах идентификаторов сущностей (allocationSize).
+     */
+    private static final int ID_ALLOCATION_SIZE = 50;
+
+    /**
+     * Количество дней, в течение которых распределены даты нарушений.
+     */
+    private static final int VIOLATION_DAYS = 3 * 365;
+
+    // Часто нарушающие автомобили: каждый сотый автомобиль, на них приходится 30% нарушений
+    private static final int HOT_CAR_RATIO = 100;
+    private static final double HOT_CAR_SHARE = 0.3;
+
+    // Дни с повышенным количеством нарушений: один в месяц, на них приходится 20% нарушений
+    private static final int HOT_DAY_COUNT = VIOLATION_DAYS / 30;
+    private static final double HOT_DAY_SHARE = 0.2;
+
+    // Владельцы автопарков: один водитель из тысячи, им принадлежит 10% автомобилей
+    private static final int FLEET_OWNER_RATIO = 1000;
+    private static final double FLEET_CAR_SHARE = 0.1;
+
+    // Виды записей для получения независимых случайных последовательностей
+    private static final long DRIVER = 1;
+    private static final long CAR = 2;
+    private static final long VIOLATION = 3;
+
+    static final String[][] ARTICLES = {
+        {"КоАП РФ 12.9 п.2", "Превышение скорости на 20-40 км/ч", "500"},
+        {"КоАП РФ 12.9 п.3", "Превышение скорости на 40-60 км/ч", "1000"},
+        {"КоАП РФ 12.9 п.4", "Превышение скорости на 60-80 км/ч", "2000"},
+        {"КоАП РФ 12.12 п.1", "Проезд на запрещающий сигнал светофора", "1000"},
+        {"КоАП РФ 12.16 п.1", "Несоблюдение требований дорожных знаков или разметки", "500"},
+        {"КоАП РФ 12.19 п.1", "Нарушение правил остановки или стоянки", "500"},
+        {"КоАП РФ 12.6", "Нарушение правил применения ремней безопасности", "1000"},
+        {"КоАП РФ 12.18", "Непредоставление преимущества пешеходам", "1500"},
+    };
+
+    static final String[] TYPES = {
+        "Превышение установленной скорости движения",
+        "Проезд на запрещающий сигнал светофора",
+        "Неправильная парковка",
+        "Нарушение требований дорожной разметки",
+        "Непристегнутый ремень безопасности",
+        "Непропуск пешехода",
+    };
+
+    private static final String[] MALE_FIRST_NAMES = {"Александр", "Михаил", "Андрей", "Дмитрий", "Сергей", "Иван", "Егор", "Виктор", "Алексей", "Павел"};
+    private static final String[] FEMALE_FIRST_NAMES = {"Анна", "Мария", "Елена", "Ольга", "Маргарита", "Наталья", "Ирина", "Татьяна"};
+    private static final String[] LAST_NAMES = {"Иванов", "Смирнов", "Кузнецов", "Попов", "Васильев", "Петров", "Соколов", "Михайлов", "Новиков", "Федоров", "Морозов", "Волков"};
+    private static final String[] PATRONYMIC_ROOTS = {"Александров", "Михайлов", "Андреев", "Сергеев", "Викторов", "Павлов", "Иванов", "Петров"};
+    private static final String[] CITIES = {"Москва", "Санкт-Петербург", "Казань", "Самара", "Пермь", "Сочи", "Архангельск", "Хабаровск", "Ростов-на-Дону", "Новосибирск"};
+
+    // Марка, модели и код изготовителя (первые три символа VIN)
+    private static final String[][] CAR_MAKES = {
+        {"XTA", "Lada", "Vesta", "Granta", "Niva"},
+        {"WVW", "Volkswagen", "Polo", "Tiguan", "Passat"},
+        {"JTD", "Toyota", "Camry", "Corolla", "RAV4"},
+        {"KMH", "Hyundai", "Solaris", "Creta", "Tucson"},
+        {"XWE", "Kia", "Rio", "Sportage", "Ceed"},
+        {"WBA", "BMW", "X5", "320i", "520d"},
+    };
+
+    private static final String VIN_CHARS = "ABCDEFGHJKLMNPRSTUVWXYZ0123456789";
+    private static final String PLATE_LETTERS = "АВЕКМНОРСТУХ";
+    private static final int[] PLATE_REGIONS = {77, 97, 99, 177, 197, 199, 777, 799, 50, 90, 150, 190, 750, 78, 98, 178, 198, 16, 116, 23};
+    private static final long PLATE_CAPACITY = 999L * 1728 * PLATE_REGIONS.length;
+
+    private final long seed;
+    private final int driverCount;
+    private final int carCount;
+    private final int violationCount;
+
+    /**
+     * Создаёт генератор набора данных заданного размера.
+     *
+     * @param seed начальное значение; одинаковые значения дают одинаковые наборы данных.
+     * @param driverCount количество водителей.
+     * @param carCount количество автомобилей.
+     * @param violationCount количество нарушений.
+     */
+    public SyntheticDataGenerator(long seed, int driverCount, int carCount, int violationCount) {
+        if (driverCount <= 0 || carCount <= 0 || violationCount < 0) {
+            throw new IllegalArgumentException("Набор данных должен содержать водителей и автомобили");
+        }
+        if (carCount > PLATE_CAPACITY) {
+            throw new IllegalArgumentException("Количество автомобилей превышает количество различных госномеров: " + PLATE_CAPACITY);
+        }
+        this.seed = seed;
+        this.driverCount = driverCount;
+        this.carCount = carCount;
+        this.violationCount = violationCount;
+    }
+
+    /**
+     * Создаёт генератор с соотношением записей как в рабочей базе: на 20 нарушений
+     * приходится 3 автомобиля и 1 водитель.
+     *
+     * @param seed начальное значение генератора.
+     * @param violationCount количество нарушений.
+     * @return генератор набора данных.
+     */
+    public static SyntheticDataGenerator forViolations(long seed, int violationCount) {
+        return new SyntheticDataGenerator(seed, Math.max(1, violationCount / 20),
+                Math.max(1, (int) (violationCount * 3L / 20)), violationCount);
+    }
+
+    /**
+     * Строит набор данных и записывает его в базу данных приложения или в XML-файл.
+     *
+     * @param args начальное значение, количество нарушений, {@code --db} или {@code --xml <файл>},
+     *             необязательно {@code --threads <количество потоков>}.
+     */
+    public static void main(String[] args) {
+        if (args.length < 3 || (args[2].equals("--xml") && args.length < 4)) {
+            System.err.println("Использование: utils.SyntheticDataGenerator <seed> <нарушений> (--db | --xml <файл>) [--threads N]");
+            System.exit(2);
+        }
+        int threads = Runtime.getRuntime().availableProcessors();
+        for (int i = 3; i < args.length - 1; i++) {
+            if (args[i].equals("--threads")) {
+                threads = Integer.parseInt(args[i + 1]);
+            }
+        }
+        SyntheticDataGenerator generator = forViolations(Long.parseLong(args[0]), Integer.parseInt(args[1]));
+        try {
+            if (args[2].equals("--xml")) {
+                generator.writeXml(args[3], threads);
+            } else {
+                EntityManagerFactory emf = Persistence.createEntityManagerFactory("persistence_connection");
+                try {
+                    EntityManager migrationEm = emf.createEntityManager();
+                    try {
+                        SchemaMigrator.migrate(migrationEm);
+                    } finally {
+                        migrationEm.close();
+                    }
+                    generator.writeTo(emf, threads);
+                } finally {
+                    emf.close();
+                }
+            }
+        } finally {
+            LogManager.shutdown();
+        }
+    }
+
+    public int getDriverCount() {
+        return driverCount;
+    }
+
+    public int getCarCount() {
+        return carCount;
+    }
+
+    public int getViolationCount() {
+        return violationCount;
+    }
+
+    /**
+     * Последняя возможная дата нарушения; даты нарушений распределены в течение трёх лет до неё.
+     *
+     * @return последняя дата нарушения набора данных.
+     */
+    public LocalDate getLastViolationDate() {
+        return BASE_DATE;
+    }
+
+    /**
+     * Создаёт статью нарушения справочника.
+     *
+     * @param index номер статьи от 0 до {@link #getArticleCount()}.
+     * @return статья нарушения.
+     */
+    public ViolationArticle article(int index) {
+        ViolationArticle article = new ViolationArticle();
+        article.setViolationArticleCode(ARTICLES[index][0]);
+        article.setViolationArticleDescription(ARTICLES[index][1]);
+        article.setViolationArticleFine(Integer.valueOf(ARTICLES[index][2]));
+        return article;
+    }
+
+    public int getArticleCount() {
+        return ARTICLES.length;
+    }
+
+    /**
+     * Создаёт тип нарушения справочника.
+     *
+     * @param index номер типа от 0 до {@link #getTypeCount()}.
+     * @return тип нарушения.
+     */
+    public ViolationType type(int index) {
+        ViolationType type = new ViolationType();
+        type.setViolationTypeName(TYPES[index]);
+        return type;
+    }
+
+    public int getTypeCount() {
+        return TYPES.length;
+    }
+
+    /**
+     * Создаёт водителя с указанным номером.
+     *
+     * @param index номер водителя от 0 до {@link #getDriverCount()}.
+     * @return водитель без идентификатора.
+     */
+    public Driver driver(int index) {
+        SplittableRandom random = random(DRIVER, index);
+        boolean female = random.nextInt(3) == 0;
+        Driver driver = new Driver();
+        driver.setFirstName(pick(random, female ? FEMALE_FIRST_NAMES : MALE_FIRST_NAMES));
+        driver.setLastName(pick(random, LAST_NAMES) + (female ? "а" : ""));
+        driver.setMiddleName(pick(random, PATRONYMIC_ROOTS) + (female ? "на" : "ич"));
+        driver.setBirthday(BASE_DATE.minusYears(18 + random.nextInt(62)).minusDays(random.nextInt(365)));
+        driver.setCity(pick(random, CITIES));
+        driver.setLicenseNumber(licenseNumber(index));
+        return driver;
+    }
+
+    /**
+     * Создаёт автомобиль с указанным номером. Владелец задаётся вызывающим кодом
+     * по номеру из {@link #ownerIndex(int)}.
+     *
+     * @param index номер автомобиля от 0 до {@link #getCarCount()}.
+     * @return автомобиль без идентификатора и владельца.
+     */
+    public Car car(int index) {
+        SplittableRandom random = random(CAR, index);
+        String[] make = CAR_MAKES[random.nextInt(CAR_MAKES.length)];
+        Car car = new Car();
+        car.setBrand(make[1]);
+        car.setModel(make[2 + random.nextInt(make.length - 2)]);
+        car.setVinNumber(vinNumber(make[0], random, index));
+        car.setLicensePlate(licensePlate(index));
+        car.setLastVehicleInspection(BASE_DATE.minusDays(random.nextInt(3 * 365)));
+        return car;
+    }
+
+    /**
+     * Номер водителя - владельца автомобиля. Часть автомобилей принадлежит владельцам автопарков.
+     *
+     * @param carIndex номер автомобиля.
+     * @return номер водителя.
+     */
+    public int ownerIndex(int carIndex) {
+        SplittableRandom random = random(CAR, carIndex).split();
+        return skewed(random, driverCount, FLEET_OWNER_RATIO, FLEET_CAR_SHARE);
+    }
+
+    /**
+     * Создаёт нарушение с указанным номером. Автомобиль, статья и тип задаются вызывающим
+     * кодом по номерам из {@link #carIndex(int)}, {@link #articleIndex(int)} и {@link #typeIndex(int)}.
+     *
+     * @param index номер нарушения от 0 до {@link #getViolationCount()}.
+     * @return нарушение без идентификатора и связанных записей.
+     */
+    public Violation violation(int index) {
+        SplittableRandom random = random(VIOLATION, index);
+        Violation violation = new Violation();
+        violation.setViolationResolution(resolution(index));
+        violation.setViolationDate(BASE_DATE.minusDays(violationDay(random)));
+        violation.setViolationPaid(random.nextInt(10) < 7);
+        return violation;
+    }
+
+    /**
+     * Номер автомобиля, к которому относится нарушение. Часть нарушений приходится
+     * на часто нарушающие автомобили.
+     *
+     * @param violationIndex номер нарушения.
+     * @return номер автомобиля.
+     */
+    public int carIndex(int violationIndex) {
+        SplittableRandom random = random(VIOLATION, violationIndex).split();
+        return skewed(random, carCount, HOT_CAR_RATIO, HOT_CAR_SHARE);
+    }
+
+    /**
+     * Номер статьи нарушения.
+     *
+     * @param violationIndex номер нарушения.
+     * @return номер статьи в справочнике.
+     */
+    public int articleIndex(int violationIndex) {
+        return (int) (mix(seed + violationIndex) >>> 33) % ARTICLES.length;
+    }
+
+    /**
+     * Номер типа нарушения; соответствует статье, чтобы тип и статья не противоречили друг другу.
+     *
+     * @param violationIndex номер нарушения.
+     * @return номер типа в справочнике.
+     */
+    public int typeIndex(int violationIndex) {
+        return articleIndex(violationIndex) * TYPES.length / ARTICLES.length;
+    }
+
+    /**
+     * Записывает набор данных в пустую базу данных пакетами JDBC, используя все процессоры.
+     *
+     * @param emf фабрика EntityManager базы данных, в которую записываются данные.
+     * @throws IllegalStateException если база данных уже содержит водителей.
+     */
+    public void writeTo(EntityManagerFactory emf) {
+        writeTo(emf, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Записывает набор данных в пустую базу данных пакетами JDBC.
+     * <p>
+     * Идентификатор записи равен её номеру, увеличенному на единицу, поэтому ссылки на связанные
+     * записи вычисляются без запросов к базе, а порции записываются независимо друг от друга
+     * в отдельных транзакциях. Таблицы заполняются по очереди, чтобы внешние ключи ссылались
+     * на уже записанные строки. После записи генераторы идентификаторов сущностей продолжают
+     * нумерацию после записанных строк.
+     *
+     * @param emf фабрика EntityManager базы данных, в которую записываются данные.
+     * @param threads количество потоков записи.
+     * @throws IllegalStateException если база данных уже содержит водителей.
+     */
+    public void writeTo(EntityManagerFactory emf, int threads) {
+        EntityManager em = emf.createEntityManager();
+        try {
+            long drivers = em.createQuery("SELECT COUNT(d) FROM Driver d", Long.class).getSingleResult();
+            if (drivers > 0) {
+                throw new IllegalStateException("Синтетические данные записываются только в пустую базу данных");
+            }
+        } finally {
+            em.close();
+        }
+
+        long startTime = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            insertAll(emf, executor, "app_db.violation_article", ARTICLES.length,
+                    "INSERT INTO app_db.violation_article (violation_article_id, violation_article_code, "
+                    + "violation_article_description, violation_article_fine) VALUES (?, ?, ?, ?)",
+                    (statement, i) -> {
+                        ViolationArticle article = article(i);
+                        statement.setInt(1, i + 1);
+                        statement.setString(2, article.getViolationArticleCode());
+                        statement.setString(3, article.getViolationArticleDescription());
+                        statement.setInt(4, article.getViolationArticleFine());
+                    });
+            insertAll(emf, executor, "app_db.violation_type", TYPES.length,
+                    "INSERT INTO app_db.violation_type (violation_type_id, violation_type_name) VALUES (?, ?)",
+                    (statement, i) -> {
+                        statement.setInt(1, i + 1);
+                        statement.setString(2, type(i).getViolationTypeName());
+                    });
+            insertAll(emf, executor, "app_db.drivers", driverCount,
+                    "INSERT INTO app_db.drivers (driver_id, driver_first_name, driver_last_name, driver_middle_name, "
+                    + "driver_birthday, driver_license_number, driver_city) VALUES (?, ?, ?, ?, ?, ?, ?)",
+                    (statement, i) -> {
+                        Driver driver = driver(i);
+                        statement.setInt(1, i + 1);
+                        statement.setString(2, driver.getFirstName());
+                        statement.setString(3, driver.getLastName());
+                        statement.setString(4, driver.getMiddleName());
+                        statement.setDate(5, Date.valueOf(driver.getBirthday()));
+                        statement.setString(6, driver.getLicenseNumber());
+                        statement.setString(7, driver.getCity());
+                    });
+            insertAll(emf, executor, "app_db.car", carCount,
+                    "INSERT INTO app_db.car (car_id, car_brand, car_model, car_vin_number, car_license_plate, "
+                    + "car_owner_id, car_last_vehicle_inspection) VALUES (?, ?, ?, ?, ?, ?, ?)",
+                    (statement, i) -> {
+                        Car car = car(i);
+                        statement.setInt(1, i + 1);
+                        statement.setString(2, car.getBrand());
+                        statement.setString(3, car.getModel());
+                        statement.setString(4, car.getVinNumber());
+                        statement.setString(5, car.getLicensePlate());
+                        statement.setInt(6, ownerIndex(i) + 1);
+                        statement.setDate(7, Date.valueOf(car.getLastVehicleInspection()));
+                    });
+            insertAll(emf, executor, "app_db.violation", violationCount,
+                    "INSERT INTO app_db.violation (violation_id, violation_article_id, car_id, violation_resolution, "
+                    + "violation_date, violation_paid, violation_type_id) VALUES (?, ?, ?, ?, ?, ?, ?)",
+                    (statement, i) -> {
+                        Violation violation = violation(i);
+                        statement.setInt(1, i + 1);
+                        statement.setInt(2, articleIndex(i) + 1);
+                        statement.setInt(3, carIndex(i) + 1);
+                        statement.setString(4, violation.getViolationResolution());
+                        statement.setDate(5, Date.valueOf(violation.getViolationDate()));
+                        statement.setBoolean(6, violation.getViolationPaid());
+                        statement.setInt(7, typeIndex(i) + 1);
+                    });
+        } finally {
+            executor.shutdownNow();
+        }
+        resetIdGenerators(emf);
+        refreshStatistics(emf);
+
+        logger.info(String.format("Сгенерировано водителей: %d, автомобилей: %d, нарушений: %d за %d мс",
+                driverCount, carCount, violationCount, (System.nanoTime() - startTime) / 1_000_000));
+    }
+
+    /**
+     * Записывает набор данных в XML-файл в формате экспорта {@link XMLManager}, используя все процессоры.
+     *
+     * @param filePath путь к файлу.
+     * @throws RuntimeException если файл не удалось записать.
+     */
+    public void writeXml(String filePath) {
+        writeXml(filePath, Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Записывает набор данных в XML-файл в формате экспорта {@link XMLManager}.
+     * Порции записей преобразуются в текст XML параллельно и выводятся в файл по порядку;
+     * одновременно в памяти находится не более двух порций на поток.
+     *
+     * @param filePath путь к файлу.
+     * @param threads количество потоков, строящих порции записей.
+     * @throws RuntimeException если файл не удалось записать.
+     */
+    public void writeXml(String filePath, int threads) {
+        long startTime = System.nanoTime();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try (Writer out = Files.newBufferedWriter(Paths.get(filePath), StandardCharsets.UTF_8)) {
+            out.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?><data>");
+            writeXmlSection(out, executor, threads, "drivers", driverCount, (writer, i) -> {
+                Driver driver = driver(i);
+                XMLManager.writeRecord(writer, "driver",
+                        "id", i + 1,
+                        "firstName", driver.getFirstName(),
+                        "lastName", driver.getLastName(),
+                        "middleName", driver.getMiddleName(),
+                        "licenseNumber", driver.getLicenseNumber(),
+                        "birthDate", driver.getBirthday(),
+                        "city", driver.getCity());
+            });
+            writeXmlSection(out, executor, threads, "cars", carCount, (writer, i) -> {
+                Car car = car(i);
+                XMLManager.writeRecord(writer, "car",
+                        "id", i + 1,
+                        "brand", car.getBrand(),
+                        "model", car.getModel(),
+                        "vinNumber", car.getVinNumber(),
+                        "licensePlate", car.getLicensePlate(),
+                        "ownerId", licenseNumber(ownerIndex(i)),
+                        "lastVehicleInspection", car.getLastVehicleInspection());
+            });
+            writeXmlSection(out, executor, threads, "violations", violationCount, (writer, i) -> {
+                Violation violation = violation(i);
+                XMLManager.writeRecord(writer, "violation",
+                        "id", i + 1,
+                        "violationResolution", violation.getViolationResolution(),
+                        "violationArticleV", ARTICLES[articleIndex(i)][0],
+                        "violationCar", licensePlate(carIndex(i)),
+                        "violationDate", violation.getViolationDate(),
+                        "violationPaid", violation.getViolationPaid(),
+                        "violationTypeV", TYPES[typeIndex(i)]);
+            });
+            writeXmlSection(out, executor, threads, "violationArticles", ARTICLES.length, (writer, i) ->
+                XMLManager.writeRecord(writer, "violationArticle",
+                        "id", i + 1,
+                        "violationArticleCode", ARTICLES[i][0],
+                        "violationArticleDescription", ARTICLES[i][1],
+                        "violationArticleFine", ARTICLES[i][2]));
+            writeXmlSection(out, executor, threads, "violationTypes", TYPES.length, (writer, i) ->
+                XMLManager.writeRecord(writer, "violationType",
+                        "id", i + 1,
+                        "violationTypeName", TYPES[i]));
+            out.write("</data>");
+        } catch (IOException ex) {
+            throw new RuntimeException("Ошибка записи файла синтетических данных: " + ex.getMessage(), ex);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        logger.info(String.format("Синтетические данные записаны в XML-файл %s за %d мс",
+                filePath, (System.nanoTime() - startTime) / 1_000_000));
+    }
+
+    /**
+     * Заполнение параметров инструкции INSERT значениями одной записи.
+     */
+    private interface RowBinder {
+        void bind(PreparedStatement statement, int index) throws SQLException;
+    }
+
+    /**
+     * Вывод одной записи в XML.
+     */
+    private interface RecordXml {
+        void write(XMLStreamWriter writer, int index) throws XMLStreamException;
+    }
+
+    /**
+     * Вставляет в таблицу записи с номерами от 0 до count: порции распределяются по потокам,
+     * каждая порция записывается в своей транзакции пакетами по {@value #JDBC_BATCH_SIZE} строк.
+     *
+     * @param emf фабрика EntityManager.
+     * @param executor потоки записи.
+     * @param table имя таблицы для журнала.
+     * @param count количество записей.
+     * @param sql инструкция INSERT.
+     * @param binder заполнение параметров инструкции.
+     */
+    private static void insertAll(EntityManagerFactory emf, ExecutorService executor, String table, int count,
+                                  String sql, RowBinder binder) {
+        long startTime = System.nanoTime();
+        List<Future<?>> chunks = new ArrayList<>();
+        for (int from = 0; from < count; from += WRITE_CHUNK_SIZE) {
+            int chunkFrom = from;
+            int chunkTo = Math.min(count, from + WRITE_CHUNK_SIZE);
+            chunks.add(executor.submit(() -> inTransaction(emf, connection -> {
+                try (PreparedStatement statement = connection.prepareStatement(sql)) {
+                    for (int i = chunkFrom; i < chunkTo; i++) {
+                        binder.bind(statement, i);
+                        statement.addBatch();
+                        if ((i - chunkFrom + 1) % JDBC_BATCH_SIZE == 0) {
+                            statement.executeBatch();
+                        }
+                    }
+                    statement.executeBatch();
+                }
+            })));
+        }
+        for (Future<?> chunk : chunks) {
+            await(chunk);
+        }
+        if (logger.isInfoEnabled()) {
+            logger.info(String.format("Таблица %s: записано %d строк за %d мс",
+                    table, count, (System.nanoTime() - startTime) / 1_000_000));
+        }
+    }
+
+    /**
+     * Устанавливает значения генераторов идентификаторов так, чтобы первый выделенный блок
+     * начинался после записанных строк, как это делает миграция V1__id_generator.sql.
+     *
+     * @param emf фабрика EntityManager.
+     */
+    private void resetIdGenerators(EntityManagerFactory emf) {
+        String[] names = {"violation_article", "violation_type", "driver", "car", "violation"};
+        long[] counts = {ARTICLES.length, TYPES.length, driverCount, carCount, violationCount};
+        inTransaction(emf, connection -> {
+            try (PreparedStatement delete = connection.prepareStatement(
+                         "DELETE FROM app_db.id_generator WHERE generator_name = ?");
+                 PreparedStatement insert = connection.prepareStatement(
+                         "INSERT INTO app_db.id_generator (generator_name, next_value) VALUES (?, ?)")) {
+                for (int i = 0; i < names.length; i++) {
+                    delete.setString(1, names[i]);
+                    delete.executeUpdate();
+                    insert.setString(1, names[i]);
+                    insert.setLong(2, counts[i] + ID_ALLOCATION_SIZE);
+                    insert.executeUpdate();
+                }
+            }
+        });
+    }
+
+    /**
+     * Пересчитывает сводку по записанным нарушениям.
+     *
+     * @param emf фабрика EntityManager.
+     */
+    private static void refreshStatistics(EntityManagerFactory emf) {
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction transaction = em.getTransaction();
+        try {
+            transaction.begin();
+            StatisticsRollup.refresh(em);
+            transaction.commit();
+        } catch (RuntimeException e) {
+            if (transaction.isActive()) {
+                transaction.rollback();
+            }
+            throw e;
+        } finally {
+            em.close();
+        }
+    }
+
+    /**
+     * Выполняет работу с соединением JDBC в транзакции отдельного EntityManager.
+     *
+     * @param emf фабрика EntityManager.
+     * @param work работа с соединением.
+     */
+    private static void inTransaction(EntityManagerFactory emf, Work work) {
+        EntityManager em = emf.createEntityManager();
+        EntityTransaction transaction = em.getTransaction();
+        try {
+            transaction.begin();
+            em.unwrap(Session.class).doWork(work);
+            transaction.commit();
+        } catch (RuntimeException e) {
+            if (transaction.isActive()) {
+                transaction.rollback();
+            }
+            throw e;
+        } finally {
+            em.close();
+        }
+    }
+
+    /**
+     * Выводит раздел XML с записями от 0 до count. Порции строятся в потоках исполнителя,
+     * а записываются в файл в порядке номеров.
+     *
+     * @param out файл.
+     * @param executor потоки, строящие порции.
+     * @param threads количество потоков.
+     * @param section имя элемента раздела.
+     * @param count количество записей.
+     * @param record вывод одной записи.
+     * @throws IOException если возникла ошибка записи в файл.
+     */
+    private static void writeXmlSection(Writer out, ExecutorService executor, int threads, String section,
+                                        int count, RecordXml record) throws IOException {
+        out.write("<" + section + ">");
+        Deque<Future<String>> pending = new ArrayDeque<>();
+        for (int from = 0; from < count; from += WRITE_CHUNK_SIZE) {
+            int chunkFrom = from;
+            int chunkTo = Math.min(count, from + WRITE_CHUNK_SIZE);
+            pending.add(executor.submit(xmlChunk(chunkFrom, chunkTo, record)));
+            if (pending.size() >= 2 * threads) {
+                out.write(await(pending.poll()));
+            }
+        }
+        while (!pending.isEmpty()) {
+            out.write(await(pending.poll()));
+        }
+        out.write("</" + section + ">");
+    }
+
+    /**
+     * Задача, строящая текст XML записей с номерами от from до to.
+     * Реализации StAX допускают только один корневой элемент, поэтому записи выводятся
+     * во временном элементе, который не входит в возвращаемый текст.
+     */
+    private static Callable<String> xmlChunk(int from, int to, RecordXml record) {
+        return () -> {
+            StringWriter text = new StringWriter();
+            XMLStreamWriter writer = XMLOutputFactory.newInstance().createXMLStreamWriter(text);
+            writer.writeStartElement("chunk");
+            writer.writeCharacters("");
+            writer.flush();
+            int start = text.getBuffer().length();
+            for (int i = from; i < to; i++) {
+                record.write(writer, i);
+            }
+            writer.flush();
+            return text.getBuffer().substring(start);
+        };
+    }
+
+    /**
+     * Ожидает завершения задачи, передавая её исключение вызывающему коду.
+     */
+    private static <T> T await(Future<T> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Генерация данных прервана", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new RuntimeException("Ошибка генерации данных: " + e.getCause().getMessage(), e.getCause());
+        }
+    }
+
+    /**
+     * Номер водительского удостоверения: 10 цифр, различные для различных номеров водителей.
+     * Номер перемешивается умножением на число, взаимно простое с 10^10.
+     */
+    String licenseNumber(int index) {
+        return String.format("%010d", (index * 7_919_370_001L) % 10_000_000_000L);
+    }
+
+    /**
+     * Госномер вида А123ВС77: номер автомобиля перемешивается по модулю количества
+     * различных госномеров и раскладывается на цифры, буквы и регион.
+     */
+    String licensePlate(int index) {
+        long n = (index * 1_000_003L) % PLATE_CAPACITY;
+        int digits = (int) (n % 999) + 1;
+        n /= 999;
+        int letters = (int) (n % 1728);
+        int region = PLATE_REGIONS[(int) (n / 1728)];
+        return new StringBuilder(9)
+                .append(PLATE_LETTERS.charAt(letters / 144))
+                .append(String.format("%03d", digits))
+                .append(PLATE_LETTERS.charAt(letters / 12 % 12))
+                .append(PLATE_LETTERS.charAt(letters % 12))
+                .append(region)
+                .toString();
+    }
+
+    /**
+     * VIN-номер: код изготовителя, шесть случайных символов и номер автомобиля
+     * в последних восьми символах, что делает VIN-номера различными.
+     */
+    private static String vinNumber(String manufacturer, SplittableRandom random, int index) {
+        char[] vin = new char[17];
+        manufacturer.getChars(0, 3, vin, 0);
+        for (int i = 3; i < 9; i++) {
+            vin[i] = VIN_CHARS.charAt(random.nextInt(VIN_CHARS.length()));
+        }
+        long serial = index;
+        for (int i = 16; i >= 9; i--) {
+            vin[i] = VIN_CHARS.charAt((int) (serial % VIN_CHARS.length()));
+            serial /= VIN_CHARS.length();
+        }
+        return new String(vin);
+    }
+
+    /**
+     * Номер постановления: 20 цифр, код подразделения и перемешанный номер нарушения.
+     */
+    String resolution(int index) {
+        return "18810" + String.format("%015d", (index * 998_244_353L) % 1_000_000_000_000_000L);
+    }
+
+    /**
+     * Номер из диапазона от 0 до count, у которого доля share значений приходится
+     * на каждый ratio-й номер, а остальные распределены равномерно.
+     */
+    private static int skewed(SplittableRandom random, int count, int ratio, double share) {
+        int hotCount = Math.max(1, count / ratio);
+        if (random.nextDouble() < share) {
+            return random.nextInt(hotCount) * (count / hotCount);
+        }
+        return random.nextInt(count);
+    }
+
+    /**
+     * Смещение даты нарушения от {@link #BASE_DATE} в днях. Часть нарушений приходится
+     * на дни с повышенным количеством нарушений, по одному в каждом месяце.
+     */
+    private int violationDay(SplittableRandom random) {
+        if (random.nextDouble() < HOT_DAY_SHARE) {
+            int month = random.nextInt(HOT_DAY_COUNT);
+            return month * 30 + (int) ((mix(seed + month) >>> 33) % 30);
+        }
+        return random.nextInt(VIOLATION_DAYS);
+    }
+
+    private static String pick(SplittableRandom random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    /**
+     * Случайная последовательность записи, зависящая только от начального значения, вида и номера записи.
+     */
+    private SplittableRandom random(long kind, int index) {
+        return new SplittableRandom(mix(seed * 31 + kind) ^ mix(index + kind * 0x9E3779B97F4A7C15L));
+    }
+
+    /**
+     * Перемешивание битов (финализатор SplitMix64).
+     */
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,278 @@
+package utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Индекс триграмм для поиска записей по подстроке текстовых полей.
+ * <p>
+ * Для каждой последовательности из трёх символов, встречающейся в полях записей, индекс хранит
+ * упорядоченный массив идентификаторов записей. Записи, содержащие подстроку длиной не менее трёх
+ * символов, находятся пересечением массивов её триграмм без просмотра всей таблицы.
+ * Сравнение выполняется без учёта регистра, буквы «ё» и «е» считаются одинаковыми, как в
+ * сравнении строк MySQL.
+ * <p>
+ * Индекс хранит только идентификаторы, поэтому возвращает кандидатов: все записи, содержащие
+ * подстроку, и, возможно, записи, которые её не содержат. При изменении записи её новые триграммы
+ * добавляются, а прежние не удаляются, и удалённые записи остаются в индексе до перестроения.
+ * Вызывающий код проверяет кандидатов исходными условиями поиска.
+ * <p>
+ * Пока индекс строится (после {@link #clear()} и до {@link #markReady()}), он не отвечает на
+ * запросы, и вызывающий код выполняет обычный поиск.
+ */
+public class TrigramIndex {
+
+    /**
+     * Количество идентификаторов в одной части для запроса с условием IN.
+     */
+    public static final int BATCH_SIZE = 500;
+
+    /**
+     * Упорядоченный по возрастанию массив идентификаторов записей, содержащих триграмму.
+     */
+    private static final class Postings {
+        int[] ids = new int[4];
+        int size;
+
+        void add(int id) {
+            if (size > 0 && ids[size - 1] >= id) {
+                int position = Arrays.binarySearch(ids, 0, size, id);
+                if (position >= 0) {
+                    return;
+                }
+                insert(-position - 1, id);  // Запись изменена или добавлена не по порядку идентификаторов
+                return;
+            }
+            insert(size, id);
+        }
+
+        private void insert(int position, int id) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size + (size >> 1) + 1);
+            }
+            System.arraycopy(ids, position, ids, position + 1, size - position);
+            ids[position] = id;
+            size++;
+        }
+
+        /**
+         * Находит позицию первого идентификатора, не меньшего заданного, начиная с позиции from.
+         * Шаг поиска удваивается, поэтому при последовательных запросах возрастающих идентификаторов
+         * просматривается только участок массива рядом с предыдущей позицией.
+         */
+        int seek(int from, int id) {
+            int step = 1;
+            int high = from;
+            while (high < size && ids[high] < id) {
+                from = high + 1;
+                high += step;
+                step <<= 1;
+            }
+            int position = Arrays.binarySearch(ids, from, Math.min(high + 1, size), id);
+            return position >= 0 ? position : -position - 1;
+        }
+    }
+
+    private final Map<Long, Postings> postings = new HashMap<>();
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private volatile boolean ready;
+
+    /**
+     * Добавляет запись в индекс или дополняет её триграммами новых значений полей.
+     *
+     * @param id идентификатор записи.
+     * @param values значения текстовых полей записи; null пропускаются.
+     */
+    public void add(int id, String... values) {
+        lock.writeLock().lock();
+        try {
+            for (String value : values) {
+                if (value == null) {
+                    continue;
+                }
+                String normalized = normalize(value);
+                for (int i = 0; i + 3 <= normalized.length(); i++) {
+                    postings.computeIfAbsent(trigram(normalized, i), key -> new Postings()).add(id);
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Удаляет все записи и переводит индекс в состояние построения.
+     */
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            ready = false;
+            postings.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Отмечает завершение построения индекса: после этого индекс отвечает на запросы.
+     */
+    public void markReady() {
+        ready = true;
+    }
+
+    /**
+     * Проверяет, построен ли индекс.
+     *
+     * @return true, если индекс отвечает на запросы.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Находит записи, каждое из полей которых может содержать соответствующую подстроку.
+     * Подстроки короче трёх символов и null не ограничивают результат.
+     *
+     * @param terms искомые подстроки.
+     * @return упорядоченные по возрастанию идентификаторы кандидатов или null, если индекс не построен,
+     *         ни одна подстрока не содержит триграмм или подстрока содержит символы шаблона LIKE.
+     */
+    public int[] candidates(String... terms) {
+        Set<Long> trigrams = new HashSet<>();
+        for (String term : terms) {
+            if (term == null) {
+                continue;
+            }
+            if (term.indexOf('%') >= 0 || term.indexOf('_') >= 0) {
+                return null;  // Шаблон LIKE совпадает со строками, которых нет среди кандидатов
+            }
+            String normalized = normalize(term);
+            for (int i = 0; i + 3 <= normalized.length(); i++) {
+                trigrams.add(trigram(normalized, i));
+            }
+        }
+        if (trigrams.isEmpty()) {
+            return null;
+        }
+
+        lock.readLock().lock();
+        try {
+            if (!ready) {
+                return null;
+            }
+            List<Postings> lists = new ArrayList<>(trigrams.size());
+            for (Long trigram : trigrams) {
+                Postings list = postings.get(trigram);
+                if (list == null) {
+                    return new int[0];
+                }
+                lists.add(list);
+            }
+            // Пересечение начинается с самого короткого массива; в остальных позиция поиска только растёт
+            lists.sort(Comparator.comparingInt(list -> list.size));
+            Postings shortest = lists.get(0);
+            int[] positions = new int[lists.size()];
+            int[] result = new int[shortest.size];
+            int count = 0;
+            next:
+            for (int i = 0; i < shortest.size; i++) {
+                int id = shortest.ids[i];
+                for (int j = 1; j < lists.size(); j++) {
+                    Postings list = lists.get(j);
+                    positions[j] = list.seek(positions[j], id);
+                    if (positions[j] == list.size) {
+                        break next;
+                    }
+                    if (list.ids[positions[j]] != id) {
+                        continue next;
+                    }
+                }
+                result[count++] = id;
+            }
+            return Arrays.copyOf(result, count);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Разбивает идентификаторы на части для запросов с условием IN.
+     *
+     * @param ids идентификаторы.
+     * @return списки не более чем из {@value #BATCH_SIZE} идентификаторов.
+     */
+    public static List<List<Integer>> batches(int[] ids) {
+        return batches(ids, BATCH_SIZE);
+    }
+
+    /**
+     * Разбивает идентификаторы на части для запросов с условием IN, ограничивая размер первой части.
+     * Используется, когда обычно достаточно первых записей: первый запрос читает не больше нужного,
+     * а следующие выполняются, только если части кандидатов не подошли.
+     *
+     * @param ids идентификаторы.
+     * @param firstBatchSize наибольший размер первой части.
+     * @return списки идентификаторов: первый - не более firstBatchSize, остальные - не более {@value #BATCH_SIZE}.
+     */
+    public static List<List<Integer>> batches(int[] ids, int firstBatchSize) {
+        List<List<Integer>> batches = new ArrayList<>();
+        int size = Math.max(1, Math.min(firstBatchSize, BATCH_SIZE));
+        for (int start = 0; start < ids.length; start += size, size = BATCH_SIZE) {
+            int end = Math.min(start + size, ids.length);
+            List<Integer> batch = new ArrayList<>(end - start);
+            for (int i = start; i < end; i++) {
+                batch.add(ids[i]);
+            }
+            batches.add(batch);
+        }
+        return batches;
+    }
+
+    /**
+     * Проверяет, что каждое слово запроса содержится хотя бы в одном из значений.
+     *
+     * @param words слова запроса.
+     * @param values значения полей записи; null пропускаются.
+     * @return true, если запись соответствует всем словам.
+     */
+    public static boolean matchesAll(String[] words, String... values) {
+        next:
+        for (String word : words) {
+            String normalized = normalize(word);
+            for (String value : values) {
+                if (value != null && normalize(value).contains(normalized)) {
+                    continue next;
+                }
+            }
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Приводит строку к виду, в котором она хранится в индексе.
+     *
+     * @param value исходная строка.
+     * @return строка в нижнем регистре с заменой «ё» на «е».
+     */
+    static String normalize(String value) {
+        char[] chars = new char[value.length()];
+        for (int i = 0; i < chars.length; i++) {
+            char c = Character.toLowerCase(value.charAt(i));
+            chars[i] = c == 'ё' ? 'е' : c;
+        }
+        return new String(chars);
+    }
+
+    private static long trigram(String value, int start) {
+        return ((long) value.charAt(start) << 32) | ((long) value.charAt(start + 1) << 16) | value.charAt(start + 2);
+    }
+}
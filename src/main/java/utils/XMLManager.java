@@ -1,29 +1,57 @@
 package utils;
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
-import org.w3c.dom.NodeList;
 
 import entities.Car;
 import entities.Driver;
+import entities.ReportRow;
 import entities.Violation;
 import entities.ViolationArticle;
 import entities.ViolationType;
+import validators.BatchValidator;
+import validators.ValidationReport;
 
 import java.time.LocalDate;
 
 import javax.persistence.EntityManager;
-import javax.persistence.TypedQuery;
+import javax.persistence.EntityManagerFactory;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.stream.StreamResult;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+import java.io.BufferedInputStream;
 import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import org.apache.log4j.Logger;
 
 /**
@@ -32,33 +60,108 @@ import org.apache.log4j.Logger;
 public class XMLManager {
     private static final Logger logger = Logger.getLogger(XMLManager.class);
 
+    /**
+     * Количество записей, выбираемых из базы данных за один запрос при экспорте.
+     */
+    private static final int EXPORT_PAGE_SIZE = 1000;
+
     /**
      * Экспортирует данные из базы данных в XML-файл.
      *
      * @param filePath путь к файлу для сохранения данных.
      * @param em экземпляр EntityManager для выполнения запросов.
+     * @throws RuntimeException если произошла ошибка при экспорте.
      */
     public static void exportDataToXML(String filePath, EntityManager em) {
+        exportDataToXML(filePath, em, new JobProgress());
+    }
+
+    /**
+     * Экспортирует данные из базы данных в XML-файл с отчётом о ходе выполнения.
+     * Данные выбираются постранично и сразу записываются в файл через {@link XMLStreamWriter},
+     * поэтому объём занимаемой памяти не зависит от количества записей.
+     * Запись идёт во временный файл, который заменяет целевой только после успешного завершения,
+     * так что при ошибке или отмене прежний файл остаётся нетронутым.
+     *
+     * @param filePath путь к файлу для сохранения данных.
+     * @param em экземпляр EntityManager для выполнения запросов.
+     * @param progress состояние операции: количество выгруженных записей и флаг отмены.
+     * @throws java.util.concurrent.CancellationException если экспорт отменён.
+     * @throws RuntimeException если произошла ошибка при экспорте.
+     */
+    public static void exportDataToXML(String filePath, EntityManager em, JobProgress progress) {
+        asBulkJob(() -> exportData(filePath, em, progress));
+    }
+
+    /**
+     * Выгружает данные в XML-файл; см. {@link #exportDataToXML(String, EntityManager, JobProgress)}.
+     */
+    private static void exportData(String filePath, EntityManager em, JobProgress progress) {
         logger.info("Старт экспорта данных в XML-файл");
 
+        Path target = Paths.get(filePath).toAbsolutePath();
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
         try {
-            // Создание нового XML-документа
-            Document doc = createDocument();
-            // Создание корневого элемента
-            Element rootElement = createRootElement(doc, "data");
-            
-            // Добавление всех сущностей в XML
-            appendDrivers(doc, rootElement, em);
-            appendCars(doc, rootElement, em);
-            appendViolations(doc, rootElement, em);
-            appendViolationArticles(doc, rootElement, em);
-            appendViolationTypes(doc, rootElement, em);
-
-            // Сохранение XML-документа в файл
-            writeDocumentToFile(doc, filePath);
+            progress.setTotalRecords(countAll(em));
+
+            try (Writer out = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                // Объявление XML записывается вручную, чтобы формат не зависел от реализации StAX
+                out.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>");
+                XMLStreamWriter writer = XMLOutputFactory.newInstance().createXMLStreamWriter(out);
+                try {
+                    // Создание корневого элемента
+                    writer.writeStartElement("data");
+
+                    // Запись всех сущностей в XML
+                    writeDrivers(writer, em, progress);
+                    writeCars(writer, em, progress);
+                    writeViolations(writer, em, progress);
+                    writeViolationArticles(writer, em, progress);
+                    writeViolationTypes(writer, em, progress);
+
+                    writer.writeEndElement();
+                    writer.flush();
+                } finally {
+                    writer.close();
+                }
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
             logger.info("Данные успешно сохранены в XML-файл: " + filePath);
+        } catch (CancellationException ex) {
+            logger.info("Экспорт данных отменён");
+            deleteQuietly(temp);
+            throw ex;
         } catch (Exception ex) {
             logger.error("Ошибка во время экспорта данных в XML-файл", ex);
+            deleteQuietly(temp);
+            throw new RuntimeException("Ошибка экспорта данных: " + ex.getMessage(), ex);
+        }
+    }
+
+    /**
+     * Подсчитывает общее количество выгружаемых записей для оценки оставшегося времени.
+     *
+     * @param em экземпляр EntityManager для выполнения запросов.
+     * @return суммарное количество записей всех сущностей.
+     */
+    private static long countAll(EntityManager em) {
+        long total = 0;
+        for (String entityName : new String[] {"Driver", "Car", "Violation", "ViolationArticle", "ViolationType"}) {
+            total += em.createQuery("SELECT COUNT(e) FROM " + entityName + " e", Long.class).getSingleResult();
+        }
+        return total;
+    }
+
+    /**
+     * Удаляет файл, если он существует, записывая ошибку удаления в журнал.
+     *
+     * @param path путь к файлу.
+     */
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException ex) {
+            logger.warn("Не удалось удалить временный файл: " + path, ex);
         }
     }
     
@@ -66,11 +169,11 @@ public class XMLManager {
      * Создаёт XML-файл для отчёта на основе переданных данных.
      *
      * @param filePath путь к файлу для сохранения отчёта.
-     * @param data список объектов для записи в отчёт.
+     * @param data строки отчёта.
      * @param startDate начало периода отчёта.
      * @param endDate конец периода отчёта.
      */
-    public static void createReportXML(String filePath, List<Object[]> data, String startDate, String endDate) {
+    public static void createReportXML(String filePath, List<ReportRow> data, String startDate, String endDate) {
     	try {
             logger.info("Старт экспорта данных для отчёта в XML-файл");
 
@@ -149,151 +252,246 @@ public class XMLManager {
      * @param rootElement корневой элемент, к которому будут добавлены данные.
      * @param data список данных для добавления в отчёт.
      */
-    private static void appendReport(Document doc, Element rootElement, List<Object[]> data) {
+    private static void appendReport(Document doc, Element rootElement, List<ReportRow> data) {
         // Создание элемента для хранения всех нарушений
     	Element violationsElement = doc.createElement("violations");
         rootElement.appendChild(violationsElement);
         
         // Добавление каждого нарушения в виде дочернего элемента
-        for (Object[] violation : data) {
+        for (ReportRow violation : data) {
             Element violationElement = createElementWithChildren(doc, "violation",
-                    "date", violation[0].toString(),
-                    "driverName", violation[1].toString(),
-                    "car", violation[2].toString(),
-                    "violationType", violation[3].toString());
+                    "date", violation.getDate().toString(),
+                    "driverName", violation.getDriverName(),
+                    "car", violation.getCar(),
+                    "violationType", violation.getViolationType());
             violationsElement.appendChild(violationElement);
         }
     }
     
     /**
-     * Добавляет водителей в XML-документ.
+     * Записывает водителей в XML-файл.
      *
-     * @param doc XML-документ, к которому будут добавлены данные.
-     * @param rootElement корневой элемент, к которому будут добавлены данные.
+     * @param writer потоковый XML-писатель.
      * @param em экземпляр EntityManager для получения данных из базы.
+     * @param progress состояние операции экспорта.
+     * @throws XMLStreamException если возникает ошибка при записи.
      */
-    private static void appendDrivers(Document doc, Element rootElement, EntityManager em) {
-        // Создаём элемент для водителей и добавляем его в корневой элемент
-        Element driversElement = doc.createElement("drivers");
-        rootElement.appendChild(driversElement);
-
-        // Получаем список водителей из базы данных
-        TypedQuery<Driver> query = em.createQuery("SELECT d FROM Driver d", Driver.class);
-        for (Driver driver : query.getResultList()) {
-            // Создаём элемент для каждого водителя с его данными
-            Element driverElement = createElementWithChildren(doc, "driver",
-                    "id", driver.getDriverId().toString(),
-                    "firstName", driver.getFirstName(),
-                    "lastName", driver.getLastName(),
-                    "middleName", driver.getMiddleName(),
-                    "licenseNumber", driver.getLicenseNumber(),
-                    "birthDate", driver.getBirthday().toString(),
-                    "city", driver.getCity());
-            driversElement.appendChild(driverElement); // Добавляем элемент водителя в список
+    private static void writeDrivers(XMLStreamWriter writer, EntityManager em, JobProgress progress) throws XMLStreamException {
+        writer.writeStartElement("drivers");
+
+        // Выбираем только нужные столбцы, чтобы не наполнять контекст персистентности сущностями
+        String jpql = "SELECT d.driverId, d.firstName, d.lastName, d.middleName, d.licenseNumber, d.birthday, d.city "
+                    + "FROM Driver d WHERE d.driverId > :lastId ORDER BY d.driverId";
+        List<Object[]> page;
+        int lastId = 0;
+        while (!(page = fetchExportPage(em, jpql, lastId, progress)).isEmpty()) {
+            for (Object[] row : page) {
+                writeRecord(writer, "driver",
+                        "id", row[0],
+                        "firstName", row[1],
+                        "lastName", row[2],
+                        "middleName", row[3],
+                        "licenseNumber", row[4],
+                        "birthDate", row[5],
+                        "city", row[6]);
+            }
+            lastId = (Integer) page.get(page.size() - 1)[0];
         }
+
+        writer.writeEndElement();
     }
     
     /**
-     * Добавляет автомобили в XML-документ.
+     * Записывает автомобили в XML-файл.
      *
-     * @param doc XML-документ, к которому будут добавлены данные.
-     * @param rootElement корневой элемент, к которому будут добавлены данные.
+     * @param writer потоковый XML-писатель.
      * @param em экземпляр EntityManager для получения данных из базы.
+     * @param progress состояние операции экспорта.
+     * @throws XMLStreamException если возникает ошибка при записи.
      */
-    private static void appendCars(Document doc, Element rootElement, EntityManager em) {
-        // Создаём элемент для автомобилей и добавляем его в корневой элемент
-        Element carsElement = doc.createElement("cars");
-        rootElement.appendChild(carsElement);
-
-        // Получаем список автомобилей из базы данных
-        TypedQuery<Car> query = em.createQuery("SELECT c FROM Car c", Car.class);
-        for (Car car : query.getResultList()) {
-            // Создаём элемент для каждого автомобиля с его данными
-            Element carElement = createElementWithChildren(doc, "car",
-                    "id", car.getCarId().toString(),
-                    "brand", car.getBrand(),
-                    "model", car.getModel(),
-                    "vinNumber", car.getVinNumber(),
-                    "licensePlate", car.getLicensePlate(),
-                    "ownerId", car.getOwner().getLicenseNumber(),
-                    "lastVehicleInspection", car.getLastVehicleInspection().toString());
-            carsElement.appendChild(carElement); // Добавляем элемент автомобиля в список
+    private static void writeCars(XMLStreamWriter writer, EntityManager em, JobProgress progress) throws XMLStreamException {
+        writer.writeStartElement("cars");
+
+        String jpql = "SELECT c.carId, c.brand, c.model, c.vinNumber, c.licensePlate, o.licenseNumber, c.lastVehicleInspection "
+                    + "FROM Car c JOIN c.owner o WHERE c.carId > :lastId ORDER BY c.carId";
+        List<Object[]> page;
+        int lastId = 0;
+        while (!(page = fetchExportPage(em, jpql, lastId, progress)).isEmpty()) {
+            for (Object[] row : page) {
+                writeRecord(writer, "car",
+                        "id", row[0],
+                        "brand", row[1],
+                        "model", row[2],
+                        "vinNumber", row[3],
+                        "licensePlate", row[4],
+                        "ownerId", row[5],
+                        "lastVehicleInspection", row[6]);
+            }
+            lastId = (Integer) page.get(page.size() - 1)[0];
         }
+
+        writer.writeEndElement();
     }
     
     /**
-     * Добавляет нарушения в XML-документ.
+     * Записывает нарушения в XML-файл.
      *
-     * @param doc XML-документ, к которому будут добавлены данные.
-     * @param rootElement корневой элемент, к которому будут добавлены данные.
+     * @param writer потоковый XML-писатель.
      * @param em экземпляр EntityManager для получения данных из базы.
+     * @param progress состояние операции экспорта.
+     * @throws XMLStreamException если возникает ошибка при записи.
      */
-    private static void appendViolations(Document doc, Element rootElement, EntityManager em) {
-        // Создаём элемент для нарушений и добавляем его в корневой элемент
-        Element violationsElement = doc.createElement("violations");
-        rootElement.appendChild(violationsElement);
-
-        // Получаем список нарушений из базы данных
-        TypedQuery<Violation> query = em.createQuery("SELECT v FROM Violation v", Violation.class);
-        for (Violation violation : query.getResultList()) {
-            // Создаём элемент для каждого нарушения с его данными
-            Element violationElement = createElementWithChildren(doc, "violation",
-                    "id", violation.getViolationId().toString(),
-                    "violationResolution", violation.getViolationResolution(),
-                    "violationArticleV", violation.getViolationArticle().getViolationArticleCode(),
-                    "violationCar", violation.getCar().getLicensePlate(),
-                    "violationDate", violation.getViolationDate().toString(),
-                    "violationPaid", violation.getViolationPaid().toString(),
-                    "violationTypeV", violation.getViolationType().getViolationTypeName());
-            violationsElement.appendChild(violationElement); // Добавляем элемент нарушения в список
+    private static void writeViolations(XMLStreamWriter writer, EntityManager em, JobProgress progress) throws XMLStreamException {
+        writer.writeStartElement("violations");
+
+        String jpql = "SELECT v.violationId, v.violationResolution, a.violationArticleCode, c.licensePlate, "
+                    + "v.violationDate, v.violationPaid, t.violationTypeName "
+                    + "FROM Violation v JOIN v.violationArticle a JOIN v.car c JOIN v.violationType t "
+                    + "WHERE v.violationId > :lastId ORDER BY v.violationId";
+        List<Object[]> page;
+        int lastId = 0;
+        while (!(page = fetchExportPage(em, jpql, lastId, progress)).isEmpty()) {
+            for (Object[] row : page) {
+                writeRecord(writer, "violation",
+                        "id", row[0],
+                        "violationResolution", row[1],
+                        "violationArticleV", row[2],
+                        "violationCar", row[3],
+                        "violationDate", row[4],
+                        "violationPaid", row[5],
+                        "violationTypeV", row[6]);
+            }
+            lastId = (Integer) page.get(page.size() - 1)[0];
         }
+
+        writer.writeEndElement();
     }
     
     /**
-     * Добавляет статьи нарушений в XML-документ.
+     * Записывает статьи нарушений в XML-файл.
      *
-     * @param doc XML-документ, к которому будут добавлены данные.
-     * @param rootElement корневой элемент, к которому будут добавлены данные.
+     * @param writer потоковый XML-писатель.
      * @param em экземпляр EntityManager для получения данных из базы.
+     * @param progress состояние операции экспорта.
+     * @throws XMLStreamException если возникает ошибка при записи.
      */
-    private static void appendViolationArticles(Document doc, Element rootElement, EntityManager em) {
-        // Создаём элемент для статей нарушений и добавляем его в корневой элемент
-        Element articlesElement = doc.createElement("violationArticles");
-        rootElement.appendChild(articlesElement);
-
-        // Получаем список статей нарушений из базы данных
-        TypedQuery<ViolationArticle> query = em.createQuery("SELECT va FROM ViolationArticle va", ViolationArticle.class);
-        for (ViolationArticle article : query.getResultList()) {
-            // Создаём элемент для каждой статьи нарушения с её данными
-            Element articleElement = createElementWithChildren(doc, "violationArticle",
-                    "id", article.getViolationArticleId().toString(),
-                    "violationArticleCode", article.getViolationArticleCode(),
-                    "violationArticleDescription", article.getViolationArticleDescription(),
-                    "violationArticleFine", article.getViolationArticleFine().toString());
-            articlesElement.appendChild(articleElement); // Добавляем элемент статьи нарушения в список
+    private static void writeViolationArticles(XMLStreamWriter writer, EntityManager em, JobProgress progress) throws XMLStreamException {
+        writer.writeStartElement("violationArticles");
+
+        String jpql = "SELECT va.violationArticleId, va.violationArticleCode, va.violationArticleDescription, va.violationArticleFine "
+                    + "FROM ViolationArticle va WHERE va.violationArticleId > :lastId ORDER BY va.violationArticleId";
+        List<Object[]> page;
+        int lastId = 0;
+        while (!(page = fetchExportPage(em, jpql, lastId, progress)).isEmpty()) {
+            for (Object[] row : page) {
+                writeRecord(writer, "violationArticle",
+                        "id", row[0],
+                        "violationArticleCode", row[1],
+                        "violationArticleDescription", row[2],
+                        "violationArticleFine", row[3]);
+            }
+            lastId = (Integer) page.get(page.size() - 1)[0];
         }
+
+        writer.writeEndElement();
     }
     
     /**
-     * Добавляет типы нарушений в XML-документ.
+     * Записывает типы нарушений в XML-файл.
      *
-     * @param doc XML-документ, к которому будут добавлены данные.
-     * @param rootElement корневой элемент, к которому будут добавлены данные.
+     * @param writer потоковый XML-писатель.
      * @param em экземпляр EntityManager для получения данных из базы.
+     * @param progress состояние операции экспорта.
+     * @throws XMLStreamException если возникает ошибка при записи.
      */
-    private static void appendViolationTypes(Document doc, Element rootElement, EntityManager em) {
-        // Создаём элемент для типов нарушений и добавляем его в корневой элемент
-        Element typesElement = doc.createElement("violationTypes");
-        rootElement.appendChild(typesElement);
+    private static void writeViolationTypes(XMLStreamWriter writer, EntityManager em, JobProgress progress) throws XMLStreamException {
+        writer.writeStartElement("violationTypes");
+
+        String jpql = "SELECT vt.violationTypeId, vt.violationTypeName "
+                    + "FROM ViolationType vt WHERE vt.violationTypeId > :lastId ORDER BY vt.violationTypeId";
+        List<Object[]> page;
+        int lastId = 0;
+        while (!(page = fetchExportPage(em, jpql, lastId, progress)).isEmpty()) {
+            for (Object[] row : page) {
+                writeRecord(writer, "violationType",
+                        "id", row[0],
+                        "violationTypeName", row[1]);
+            }
+            lastId = (Integer) page.get(page.size() - 1)[0];
+        }
 
-        // Получаем список типов нарушений из базы данных
-        TypedQuery<ViolationType> query = em.createQuery("SELECT vt FROM ViolationType vt", ViolationType.class);
-        for (ViolationType type : query.getResultList()) {
-            // Создаём элемент для каждого типа нарушения с его данными
-            Element typeElement = createElementWithChildren(doc, "violationType",
-                    "id", type.getViolationTypeId().toString(),
-                    "violationTypeName", type.getViolationTypeName());
-            typesElement.appendChild(typeElement); // Добавляем элемент типа нарушения в список
+        writer.writeEndElement();
+    }
+    
+    /**
+     * Выбирает очередную страницу записей для экспорта.
+     * Используется постраничная выборка по ключу: записи с идентификатором больше последнего выгруженного.
+     *
+     * @param em экземпляр EntityManager для выполнения запроса.
+     * @param jpql запрос с параметром {@code :lastId}, упорядоченный по идентификатору.
+     * @param lastId идентификатор последней выгруженной записи.
+     * @param progress состояние операции экспорта, учитывающее выбранные записи.
+     * @return список строк страницы, пустой, если записей больше нет.
+     * @throws java.util.concurrent.CancellationException если экспорт отменён.
+     */
+    private static List<Object[]> fetchExportPage(EntityManager em, String jpql, int lastId, JobProgress progress) {
+        progress.checkCancelled();
+        List<Object[]> page = em.createQuery(jpql, Object[].class)
+                                .setParameter("lastId", lastId)
+                                .setMaxResults(EXPORT_PAGE_SIZE)
+                                .getResultList();
+        progress.addRecords(page.size());
+        return page;
+    }
+    
+    /**
+     * Записывает элемент с дочерними элементами на основе переданных данных.
+     * Пустые значения записываются как пустой элемент, как это делал сериализатор DOM.
+     * Используется также генератором синтетических данных для записи файлов в формате экспорта.
+     *
+     * @param writer потоковый XML-писатель.
+     * @param elementName имя основного элемента.
+     * @param data пары имя-значение для дочерних элементов.
+     * @throws XMLStreamException если возникает ошибка при записи.
+     */
+    static void writeRecord(XMLStreamWriter writer, String elementName, Object... data) throws XMLStreamException {
+        writer.writeStartElement(elementName);
+        for (int i = 0; i < data.length; i += 2) {
+            String value = data[i + 1] != null ? data[i + 1].toString() : "";
+            if (value.isEmpty()) {
+                writer.writeEmptyElement((String) data[i]);
+            } else {
+                writer.writeStartElement((String) data[i]);
+                writeText(writer, value);
+                writer.writeEndElement();
+            }
+        }
+        writer.writeEndElement();
+    }
+    
+    /**
+     * Записывает текстовое содержимое элемента.
+     * Символы '>' и '\r' экранируются явно, так как реализации StAX обрабатывают их по-разному,
+     * а результат должен совпадать с прежним форматом файла.
+     *
+     * @param writer потоковый XML-писатель.
+     * @param text текст для записи.
+     * @throws XMLStreamException если возникает ошибка при записи.
+     */
+    private static void writeText(XMLStreamWriter writer, String text) throws XMLStreamException {
+        int start = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '>' || c == '\r') {
+                if (i > start) {
+                    writer.writeCharacters(text.substring(start, i));
+                }
+                writer.writeEntityRef(c == '>' ? "gt" : "#13");
+                start = i + 1;
+            }
+        }
+        if (start < text.length()) {
+            writer.writeCharacters(text.substring(start));
         }
     }
     
@@ -332,23 +530,62 @@ public class XMLManager {
         transformer.transform(source, result); // Выполняем запись документа в файл
     }
     
+    /**
+     * Количество записей XML-файла, передаваемых на сохранение за один раз при импорте.
+     * После каждой порции контекст персистентности сбрасывается в базу и очищается,
+     * поэтому значение должно быть кратно hibernate.jdbc.batch_size из persistence.xml.
+     */
+    private static final int IMPORT_CHUNK_SIZE = 500;
+
+    /**
+     * Количество разделов XML-файла; каждый раздел читается отдельным проходом по файлу.
+     */
+    private static final int SECTION_COUNT = 5;
+
+    /**
+     * Максимальное количество значений ключа в одном запросе с условием {@code IN}.
+     */
+    private static final int LOOKUP_BATCH_SIZE = 500;
+
     /**
      * Импортирует данные из XML-файла в базу данных.
+     * Файл читается потоковым парсером: записи каждого раздела считываются по одной
+     * и передаются на сохранение порциями по {@value #IMPORT_CHUNK_SIZE} штук,
+     * поэтому объём занимаемой памяти не зависит от размера файла.
      *
      * @param filePath путь к файлу для чтения данных.
      * @param em экземпляр EntityManager для выполнения запросов.
      * @param importMode режим импорта данных: 0 - заменить, 1 - добавить, 2 - обновить.
+     * @throws RuntimeException если произошла ошибка при импорте; изменения при этом откатываются.
      */
     public static void importDataFromXML(String filePath, EntityManager em, int importMode) {
+        importDataFromXML(filePath, em, importMode, new JobProgress());
+    }
+
+    /**
+     * Импортирует данные из XML-файла в базу данных в одной транзакции с отчётом о ходе выполнения.
+     * При отмене или ошибке транзакция откатывается.
+     *
+     * @param filePath путь к файлу для чтения данных.
+     * @param em экземпляр EntityManager для выполнения запросов.
+     * @param importMode режим импорта данных: 0 - заменить, 1 - добавить, 2 - обновить.
+     * @param progress состояние операции: прочитанные байты и записи, флаг отмены.
+     * @throws java.util.concurrent.CancellationException если импорт отменён.
+     * @throws RuntimeException если произошла ошибка при импорте.
+     */
+    public static void importDataFromXML(String filePath, EntityManager em, int importMode, JobProgress progress) {
+        asBulkJob(() -> importInTransaction(filePath, em, importMode, progress));
+    }
+
+    /**
+     * Импортирует данные в одной транзакции; см. {@link #importDataFromXML(String, EntityManager, int, JobProgress)}.
+     */
+    private static void importInTransaction(String filePath, EntityManager em, int importMode, JobProgress progress) {
         logger.info("Начат импорт данных из XML-файла: " + filePath);
 
         try {
-            // Чтение и парсинг XML-файла
-            DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-            factory.setNamespaceAware(true);
-            DocumentBuilder builder = factory.newDocumentBuilder();
-            Document doc = builder.parse(new File(filePath));
-            doc.getDocumentElement().normalize();
+            File file = new File(filePath);
+            progress.setTotalBytes(file.length() * SECTION_COUNT);
 
             logger.info("Запуск транзакции");
             em.getTransaction().begin(); // Начинаем транзакцию
@@ -359,40 +596,390 @@ public class XMLManager {
                 clearAllData(em); // Очистка данных
             }
 
-            // Проверяем наличие каждого типа данных и вызываем соответствующие методы импорта
-            if (doc.getElementsByTagName("violationArticles").getLength() > 0) {
-                logger.info("Импорт статей нарушений");
-                importViolationArticles(doc, em, importMode);
-            }
-            if (doc.getElementsByTagName("violationTypes").getLength() > 0) {
-                logger.info("Импорт типов нарушений");
-                importViolationTypes(doc, em, importMode);
-            }
-            if (doc.getElementsByTagName("drivers").getLength() > 0) {
-                logger.info("Импорт водителей");
-                importDrivers(doc, em, importMode);
-            }
-            if (doc.getElementsByTagName("cars").getLength() > 0) {
-                logger.info("Импорт автомобилей");
-                importCars(doc, em, importMode);
-            }
-            if (doc.getElementsByTagName("violations").getLength() > 0) {
-                logger.info("Импорт нарушений");
-                importViolations(doc, em, importMode);
-            }
+            // Разделы читаются отдельными проходами по файлу в порядке зависимостей между сущностями
+            importSection(file, progress, "violationArticles", "violationArticle", "Импорт статей нарушений",
+                    inBatches(em, records -> importViolationArticles(records, em, importMode)));
+            importSection(file, progress, "violationTypes", "violationType", "Импорт типов нарушений",
+                    inBatches(em, records -> importViolationTypes(records, em, importMode)));
+            importSection(file, progress, "drivers", "driver", "Импорт водителей",
+                    inBatches(em, records -> importDrivers(records, em, importMode)));
+            importSection(file, progress, "cars", "car", "Импорт автомобилей",
+                    inBatches(em, records -> importCars(records, em, importMode)));
+
+            // Справочники статей и типов невелики, поэтому загружаются целиком один раз
+            Map<String, Integer> articleIds = loadAllIds(em, "ViolationArticle", "violationArticleId", "violationArticleCode");
+            Map<String, Integer> typeIds = loadAllIds(em, "ViolationType", "violationTypeId", "violationTypeName");
+            importSection(file, progress, "violations", "violation", "Импорт нарушений",
+                    inBatches(em, records -> importViolations(records, em, importMode, articleIds, typeIds)));
 
             // Подтверждаем транзакцию
             logger.info("Подтверждение транзакции");
             em.getTransaction().commit();
             logger.info("Импорт данных завершён успешно");
         } catch (Exception ex) {
-            logger.error("Ошибка при импорте данных из XML-файла", ex);
             if (em.getTransaction().isActive()) {
                 em.getTransaction().rollback(); // Откатываем транзакцию в случае ошибки
             }
+            throw importFailure(ex);
         }
     }
     
+    /**
+     * Свойство persistence.xml с размером пула соединений.
+     */
+    private static final String POOL_SIZE_PROPERTY = "hibernate.hikari.maximumPoolSize";
+
+    /**
+     * Размер пула соединений, если он не указан в настройках (значение HikariCP по умолчанию).
+     */
+    private static final int DEFAULT_POOL_SIZE = 10;
+
+    /**
+     * Количество потоков записи при параллельном импорте.
+     * <p>
+     * Поток держит соединение на время транзакции порции и может занять второе, когда генератор
+     * идентификаторов выделяет новый блок в отдельной транзакции. Поэтому потоков не больше
+     * {@code maximumPoolSize / 2 - 1}: даже если все потоки одновременно ждут второе соединение,
+     * оно найдётся, и ещё два соединения остаются для работы интерфейса во время импорта.
+     * Потоков также не больше, чем процессоров.
+     *
+     * @param emf фабрика EntityManager, из настроек которой читается размер пула.
+     * @return количество потоков, не меньше одного.
+     */
+    static int importThreads(EntityManagerFactory emf) {
+        int poolSize = DEFAULT_POOL_SIZE;
+        Object value = emf.getProperties().get(POOL_SIZE_PROPERTY);
+        if (value != null) {
+            try {
+                poolSize = Integer.parseInt(value.toString().trim());
+            } catch (NumberFormatException ex) {
+                logger.warn("Неверный размер пула соединений " + POOL_SIZE_PROPERTY + ": " + value);
+            }
+        }
+        return Math.max(1, Math.min(Runtime.getRuntime().availableProcessors(), poolSize / 2 - 1));
+    }
+
+    /**
+     * Импортирует данные из XML-файла в базу данных, распределяя запись по пулу потоков.
+     * Независимые разделы (статьи, типы нарушений и водители) записываются одновременно,
+     * автомобили - после них, нарушения - после автомобилей, так что ссылки на записи
+     * предыдущих этапов всегда разрешаются. Каждая порция записывается в собственном
+     * EntityManager и собственной транзакции; при ошибке любой порции записи,
+     * добавленные уже подтверждёнными порциями, удаляются.
+     * <p>
+     * Параллельно выполняется только режим добавления: в режимах замены и обновления
+     * порции изменяют уже существующие записи, которые нельзя восстановить после ошибки,
+     * поэтому эти режимы выполняются в одной транзакции методом
+     * {@link #importDataFromXML(String, EntityManager, int)}.
+     *
+     * @param filePath путь к файлу для чтения данных.
+     * @param emf фабрика EntityManager для создания отдельного EntityManager на каждую порцию.
+     * @param importMode режим импорта данных: 0 - заменить, 1 - добавить, 2 - обновить.
+     * @throws RuntimeException если произошла ошибка при импорте; добавленные записи при этом удаляются.
+     */
+    public static void importDataFromXML(String filePath, EntityManagerFactory emf, int importMode) {
+        importDataFromXML(filePath, emf, importMode, new JobProgress());
+    }
+
+    /**
+     * Импортирует данные из XML-файла в базу данных через пул потоков с отчётом о ходе выполнения.
+     * При отмене или ошибке добавленные записи удаляются.
+     *
+     * @param filePath путь к файлу для чтения данных.
+     * @param emf фабрика EntityManager для создания отдельного EntityManager на каждую порцию.
+     * @param importMode режим импорта данных: 0 - заменить, 1 - добавить, 2 - обновить.
+     * @param progress состояние операции: прочитанные байты и записи, флаг отмены.
+     * @throws java.util.concurrent.CancellationException если импорт отменён.
+     * @throws RuntimeException если произошла ошибка при импорте.
+     */
+    public static void importDataFromXML(String filePath, EntityManagerFactory emf, int importMode, JobProgress progress) {
+        if (importMode != 1) {
+            EntityManager em = emf.createEntityManager();
+            try {
+                importDataFromXML(filePath, em, importMode, progress);
+            } finally {
+                em.close();
+            }
+            return;
+        }
+        asBulkJob(() -> importInParallel(filePath, emf, importMode, progress));
+    }
+
+    /**
+     * Импортирует данные через пул потоков; см. {@link #importDataFromXML(String, EntityManagerFactory, int, JobProgress)}.
+     */
+    private static void importInParallel(String filePath, EntityManagerFactory emf, int importMode, JobProgress progress) {
+
+        int threads = importThreads(emf);
+        logger.info("Начат параллельный импорт данных из XML-файла: " + filePath + ", потоков: " + threads);
+        File file = new File(filePath);
+        progress.setTotalBytes(file.length() * SECTION_COUNT);
+
+        try (ImportScheduler scheduler = new ImportScheduler(emf, threads)) {
+            scheduler.register("ViolationArticle", "violationArticleId");
+            scheduler.register("ViolationType", "violationTypeId");
+            scheduler.register("Driver", "driverId");
+            scheduler.register("Car", "carId");
+            scheduler.register("Violation", "violationId");
+            try {
+                // Этап 1: справочники и водители не ссылаются друг на друга
+                importSection(file, progress, "violationArticles", "violationArticle", "Импорт статей нарушений",
+                        firstByKey("violationArticleCode", records -> submitChunk(scheduler, "ViolationArticle", "violationArticleId",
+                                em -> importViolationArticles(records, em, importMode))));
+                importSection(file, progress, "violationTypes", "violationType", "Импорт типов нарушений",
+                        firstByKey("violationTypeName", records -> submitChunk(scheduler, "ViolationType", "violationTypeId",
+                                em -> importViolationTypes(records, em, importMode))));
+                importSection(file, progress, "drivers", "driver", "Импорт водителей",
+                        firstByKey("licenseNumber", records -> submitChunk(scheduler, "Driver", "driverId",
+                                em -> importDrivers(records, em, importMode))));
+                scheduler.awaitStage();
+
+                // Этап 2: автомобили ссылаются на водителей
+                importSection(file, progress, "cars", "car", "Импорт автомобилей",
+                        firstByKey("vinNumber", records -> submitChunk(scheduler, "Car", "carId",
+                                em -> importCars(records, em, importMode))));
+                scheduler.awaitStage();
+
+                // Этап 3: нарушения ссылаются на автомобили, статьи и типы
+                Map<String, Integer> articleIds = scheduler.read(em -> loadAllIds(em, "ViolationArticle", "violationArticleId", "violationArticleCode"));
+                Map<String, Integer> typeIds = scheduler.read(em -> loadAllIds(em, "ViolationType", "violationTypeId", "violationTypeName"));
+                importSection(file, progress, "violations", "violation", "Импорт нарушений",
+                        firstByKey("violationResolution", records -> submitChunk(scheduler, "Violation", "violationId",
+                                em -> importViolations(records, em, importMode, articleIds, typeIds))));
+                scheduler.awaitStage();
+
+                logger.info("Импорт данных завершён успешно");
+            } catch (Exception ex) {
+                logger.info("Удаление записей, добавленных прерванным импортом");
+                scheduler.compensate();
+                throw importFailure(ex);
+            }
+        }
+    }
+
+    /**
+     * Выполняет импорт или экспорт как массовую операцию: пока она идёт, сообщения
+     * об отдельных записях могут подавляться (см. {@link BulkJobLogging}).
+     *
+     * @param job импорт или экспорт данных.
+     */
+    private static void asBulkJob(Runnable job) {
+        BulkJobLogging.jobStarted();
+        try {
+            job.run();
+        } finally {
+            BulkJobLogging.jobFinished();
+        }
+    }
+
+    /**
+     * Передаёт порцию записей планировщику параллельного импорта.
+     * Ошибка планировщика передаётся через непроверяемое исключение, чтобы прервать чтение раздела.
+     *
+     * @param scheduler планировщик параллельного импорта.
+     * @param entityName имя сущности в JPQL, записи которой добавляет порция.
+     * @param idAttribute имя атрибута идентификатора.
+     * @param work запись порции, возвращающая идентификаторы добавленных записей.
+     */
+    private static void submitChunk(ImportScheduler scheduler, String entityName, String idAttribute,
+                                    Function<EntityManager, List<Integer>> work) {
+        try {
+            scheduler.submit(entityName, idAttribute, work);
+        } catch (RuntimeException ex) {
+            throw ex;
+        } catch (Exception ex) {
+            throw new IllegalStateException(ex);
+        }
+    }
+
+    /**
+     * Оставляет в порции только первую запись с каждым значением ключа.
+     * В режиме добавления последовательный импорт пропускает повторы ключа, потому что первая
+     * запись уже сохранена; внутри одной порции повторы не видны запросу существующих записей,
+     * поэтому отбрасываются до передачи порции в пул. Ключи запоминаются только в пределах порции,
+     * чтобы память не росла с размером файла; повторы в разных порциях отклоняет уникальный индекс,
+     * и порция записывается повторно без них (см. {@link ImportScheduler}).
+     *
+     * @param keyTag имя тега, содержащего естественный ключ записи.
+     * @param handler обработчик порции записей.
+     * @return обработчик, получающий порции без повторов ключа.
+     */
+    private static Consumer<List<Map<String, String>>> firstByKey(String keyTag, Consumer<List<Map<String, String>>> handler) {
+        return records -> {
+            Set<String> seen = new HashSet<>();
+            List<Map<String, String>> unique = new ArrayList<>(records.size());
+            for (Map<String, String> record : records) {
+                String key = safeGetText(record, keyTag);
+                if (key == null || seen.add(key)) {
+                    unique.add(record);
+                }
+            }
+            if (!unique.isEmpty()) {
+                handler.accept(unique);
+            }
+        };
+    }
+
+    /**
+     * Читает раздел XML-файла потоковым парсером и передаёт его записи обработчику порциями.
+     * Раздел ищется среди дочерних элементов корневого элемента, остальные разделы пропускаются.
+     *
+     * @param file XML-файл для чтения данных.
+     * @param progress состояние операции: каждый проход по файлу учитывается как полный размер файла.
+     * @param sectionTag имя элемента раздела, например {@code drivers}.
+     * @param recordTag имя элемента записи внутри раздела, например {@code driver}.
+     * @param message сообщение, записываемое в журнал при обнаружении раздела.
+     * @param handler обработчик порции записей.
+     * @return true, если раздел найден в файле.
+     * @throws java.util.concurrent.CancellationException если импорт отменён.
+     * @throws Exception если возникает ошибка при чтении файла.
+     */
+    private static boolean importSection(File file, JobProgress progress, String sectionTag, String recordTag, String message,
+                                         Consumer<List<Map<String, String>>> handler) throws Exception {
+        XMLInputFactory factory = XMLInputFactory.newInstance();
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+
+        CountingInputStream counter = new CountingInputStream(new FileInputStream(file), progress);
+        try (InputStream in = new BufferedInputStream(counter)) {
+            XMLStreamReader reader = factory.createXMLStreamReader(in);
+            try {
+                long startTime = System.nanoTime();
+                long count = 0;
+                int depth = 0;
+                boolean inSection = false;
+                List<Map<String, String>> chunk = new ArrayList<>(IMPORT_CHUNK_SIZE);
+
+                while (reader.hasNext()) {
+                    int event = reader.next();
+                    if (event == XMLStreamConstants.START_ELEMENT) {
+                        depth++;
+                        String name = reader.getLocalName();
+                        if (!inSection && depth == 2 && name.equals(sectionTag)) {
+                            logger.info(message);
+                            inSection = true;
+                        } else if (inSection && depth == 3 && name.equals(recordTag)) {
+                            chunk.add(readRecord(reader));
+                            count++;
+                            depth--; // readRecord дочитывает запись до закрывающего тега
+                            if (chunk.size() == IMPORT_CHUNK_SIZE) {
+                                acceptChunk(handler, chunk, progress);
+                                chunk = new ArrayList<>(IMPORT_CHUNK_SIZE);
+                            }
+                        }
+                    } else if (event == XMLStreamConstants.END_ELEMENT) {
+                        if (inSection && depth == 2) {
+                            // Раздел прочитан полностью, дальше файл читать не нужно
+                            if (!chunk.isEmpty()) {
+                                acceptChunk(handler, chunk, progress);
+                            }
+                            logThroughput(sectionTag, count, System.nanoTime() - startTime);
+                            return true;
+                        }
+                        depth--;
+                    }
+                }
+                return false;
+            } finally {
+                reader.close();
+            }
+        } finally {
+            // Остаток файла после раздела не читается, но для оценки хода считается пройденным
+            progress.addBytes(Math.max(0, file.length() - counter.getCount()));
+        }
+    }
+
+    /**
+     * Передаёт порцию записей обработчику, если импорт не отменён.
+     *
+     * @param handler обработчик порции записей.
+     * @param chunk порция записей.
+     * @param progress состояние операции импорта.
+     * @throws java.util.concurrent.CancellationException если импорт отменён.
+     */
+    private static void acceptChunk(Consumer<List<Map<String, String>>> handler, List<Map<String, String>> chunk,
+                                    JobProgress progress) {
+        progress.checkCancelled();
+        handler.accept(chunk);
+        progress.addRecords(chunk.size());
+    }
+
+    /**
+     * Записывает ошибку импорта в журнал и преобразует её в исключение для вызывающего кода.
+     * Отмена передаётся без изменений, чтобы её можно было отличить от ошибки.
+     *
+     * @param ex исключение, прервавшее импорт.
+     * @return исключение для выброса вызывающему коду.
+     */
+    private static RuntimeException importFailure(Exception ex) {
+        if (ex instanceof CancellationException) {
+            logger.info("Импорт данных отменён, изменения отменены");
+            return (CancellationException) ex;
+        }
+        logger.error("Ошибка при импорте данных из XML-файла", ex);
+        return new RuntimeException("Ошибка импорта данных: " + ex.getMessage(), ex);
+    }
+    
+    /**
+     * Оборачивает обработчик порции записей так, чтобы после каждой порции изменения
+     * отправлялись в базу пакетами JDBC, а контекст персистентности очищался.
+     * Без очистки контекст растёт на всё время импорта, и Hibernate проверяет изменения
+     * каждой загруженной сущности при каждом сбросе.
+     *
+     * @param em экземпляр EntityManager, в котором выполняется импорт.
+     * @param handler обработчик порции записей.
+     * @return обработчик, сбрасывающий и очищающий контекст после каждой порции.
+     */
+    private static Consumer<List<Map<String, String>>> inBatches(EntityManager em, Consumer<List<Map<String, String>>> handler) {
+        return records -> {
+            handler.accept(records);
+            em.flush();
+            em.clear();
+        };
+    }
+    
+    /**
+     * Записывает в журнал скорость импорта раздела.
+     *
+     * @param sectionTag имя элемента раздела.
+     * @param count количество прочитанных записей.
+     * @param elapsedNanos затраченное время в наносекундах.
+     */
+    private static void logThroughput(String sectionTag, long count, long elapsedNanos) {
+        if (!logger.isInfoEnabled()) {
+            return;
+        }
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        double perSecond = elapsedNanos > 0 ? count * 1_000_000_000.0 / elapsedNanos : 0;
+        logger.info(String.format("Раздел %s: обработано записей: %d за %d мс (%.0f записей/с)",
+                sectionTag, count, elapsedMillis, perSecond));
+    }
+    
+    /**
+     * Считывает одну запись: значения дочерних элементов текущего элемента.
+     * После вызова парсер стоит на закрывающем теге записи.
+     *
+     * @param reader потоковый парсер, установленный на открывающий тег записи.
+     * @return значения полей записи по именам тегов; текст очищен от пробелов по краям.
+     * @throws XMLStreamException если возникает ошибка при чтении файла.
+     */
+    private static Map<String, String> readRecord(XMLStreamReader reader) throws XMLStreamException {
+        Map<String, String> record = new HashMap<>();
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) {
+                String name = reader.getLocalName();
+                String text = reader.getElementText().trim();
+                // Как и прежде, при повторении тега используется первое значение
+                record.putIfAbsent(name, text);
+            } else if (event == XMLStreamConstants.END_ELEMENT) {
+                depth--;
+            }
+        }
+        return record;
+    }
+    
     /**
      * Удаляет все данные из базы данных.
      *
@@ -408,32 +995,25 @@ public class XMLManager {
     }
     
     /**
-     * Импортирует водителей из XML-файла.
+     * Импортирует водителей из порции записей XML-файла.
+     * Существующие водители загружаются одним запросом по всем номерам удостоверений порции,
+     * записи с некорректным номером удостоверения пропускаются.
      *
-     * @param doc XML-документ для чтения данных.
+     * @param records порция записей, прочитанных из XML-файла.
      * @param em экземпляр EntityManager для выполнения запросов.
      * @param importMode режим импорта данных: 0 - заменить, 1 - добавить, 2 - обновить.
+     * @return идентификаторы добавленных водителей.
      */
-    private static void importDrivers(Document doc, EntityManager em, int importMode) {
-        // Получаем все элементы с данными водителей
-        NodeList driverNodes = doc.getElementsByTagName("driver");
-
-        for (int i = 0; i < driverNodes.getLength(); i++) {
-            Element driverElement = (Element) driverNodes.item(i);
+    private static List<Integer> importDrivers(List<Map<String, String>> records, EntityManager em, int importMode) {
+        List<Integer> inserted = new ArrayList<>();
+        List<Map<String, String>> valid = validRecords("Водители", records, BatchValidator.validateDrivers(records));
+        // Находим уже существующих водителей по номерам удостоверений
+        Map<String, Driver> drivers = findByNaturalKeys(em, Driver.class, "licenseNumber",
+                collectKeys(valid, "licenseNumber"), Driver::getLicenseNumber);
 
-            String licenseNumber = safeGetText(driverElement, "licenseNumber");
-
-            if (licenseNumber == null) {
-                logger.warn("Номер водительского удостоверения отсутствует или некорректно задан. Пропускаем запись.");
-                continue;
-            }
-
-            // Находим водителя по номеру удостоверения
-            Driver driver = em.createQuery("SELECT d FROM Driver d WHERE d.licenseNumber = :licenseNumber", Driver.class)
-                              .setParameter("licenseNumber", licenseNumber)
-                              .getResultStream()
-                              .findFirst()
-                              .orElse(null);
+        for (Map<String, String> driverRecord : valid) {
+            String licenseNumber = safeGetText(driverRecord, "licenseNumber");
+            Driver driver = drivers.get(licenseNumber);
 
             // Пропускаем водителя, если он уже существует в режиме добавления
             if (importMode == 1 && driver != null) continue;
@@ -443,113 +1023,118 @@ public class XMLManager {
             }
 
             // Обновляем данные водителя
-            driver.setFirstName(safeGetText(driverElement, "firstName"));
-            driver.setLastName(safeGetText(driverElement, "lastName"));
-            driver.setMiddleName(safeGetText(driverElement, "middleName"));
-            driver.setBirthday(safeParseDate(driverElement, "birthDate"));
-            driver.setCity(safeGetText(driverElement, "city"));
+            driver.setFirstName(safeGetText(driverRecord, "firstName"));
+            driver.setLastName(safeGetText(driverRecord, "lastName"));
+            driver.setMiddleName(safeGetText(driverRecord, "middleName"));
+            driver.setBirthday(safeParseDate(driverRecord, "birthDate"));
+            driver.setCity(safeGetText(driverRecord, "city"));
             driver.setLicenseNumber(licenseNumber);
 
             // Сохраняем или обновляем данные водителя в базе
             if (driver.getDriverId() == null) {
                 em.persist(driver); // Новый водитель
+                inserted.add(driver.getDriverId());
             } else {
-                em.merge(driver); // Обновление существующего водителя
+                driver = em.merge(driver); // Обновление существующего водителя
             }
+            // Повторная запись с тем же номером в этой порции обновит только что сохранённого водителя
+            drivers.put(licenseNumber, driver);
         }
+        return inserted;
     }
+
     /**
-     * Импортирует данные об автомобилях из XML-документа в базу данных.
+     * Импортирует данные об автомобилях из порции записей XML-файла в базу данных.
+     * Существующие автомобили и владельцы загружаются одним запросом на порцию. Записи с некорректным
+     * VIN-номером или госномером и записи с госномером другого автомобиля пропускаются.
      *
-     * @param doc XML-документ для чтения данных.
+     * @param records порция записей, прочитанных из XML-файла.
      * @param em экземпляр EntityManager для выполнения запросов.
      * @param importMode режим импорта данных: 0 - заменить, 1 - добавить, 2 - обновить.
+     * @return идентификаторы добавленных записей.
      */
-    private static void importCars(Document doc, EntityManager em, int importMode) {
-        // Извлечение всех узлов <car> из XML-документа
-        NodeList carNodes = doc.getElementsByTagName("car");
-
-        for (int i = 0; i < carNodes.getLength(); i++) {
-            Element carElement = (Element) carNodes.item(i);
-
-            // Проверка наличия VIN-номера автомобиля
-            String vinNumber = safeGetText(carElement, "vinNumber");
-            if (vinNumber == null) {
-                logger.warn("VIN номер автомобиля отсутствует или некорректно задан. Пропускаем запись.");
-                continue;
-            }
-
-            // Поиск автомобиля в базе данных по VIN-номеру
-            Car car = em.createQuery("SELECT c FROM Car c WHERE c.vinNumber = :vinNumber", Car.class)
-                        .setParameter("vinNumber", vinNumber)
-                        .getResultStream()
-                        .findFirst()
-                        .orElse(null);
+    private static List<Integer> importCars(List<Map<String, String>> records, EntityManager em, int importMode) {
+        List<Integer> inserted = new ArrayList<>();
+        // Госномер, принадлежащий другому автомобилю, нарушил бы уникальность и отменил бы всю пачку,
+        // поэтому такие записи отбрасываются вместе с записями в неверном формате
+        List<Map<String, String>> valid = validRecords("Автомобили", records, BatchValidator.validateCars(records, em));
+        // Находим уже существующие автомобили по VIN-номерам и идентификаторы владельцев по номерам удостоверений
+        Map<String, Car> cars = findByNaturalKeys(em, Car.class, "vinNumber",
+                collectKeys(valid, "vinNumber"), Car::getVinNumber);
+        Map<String, Integer> ownerIds = findIdsByNaturalKeys(em, "Driver", "driverId", "licenseNumber",
+                collectKeys(valid, "ownerId"));
+
+        for (Map<String, String> carRecord : valid) {
+            String vinNumber = safeGetText(carRecord, "vinNumber");
+            Car car = cars.get(vinNumber);
 
             // Пропуск записи, если режим добавления и автомобиль уже существует
             if (importMode == 1 && car != null) continue;
 
+            String licensePlate = safeGetText(carRecord, "licensePlate");
+
             // Если автомобиль не найден, создаём новую запись
             if (car == null) {
                 car = new Car();
             }
 
             // Заполнение данных об автомобиле из XML
-            car.setBrand(safeGetText(carElement, "brand"));
-            car.setModel(safeGetText(carElement, "model"));
+            car.setBrand(safeGetText(carRecord, "brand"));
+            car.setModel(safeGetText(carRecord, "model"));
             car.setVinNumber(vinNumber);
-            car.setLicensePlate(safeGetText(carElement, "licensePlate"));
+            car.setLicensePlate(licensePlate);
 
             // Установка владельца автомобиля
-            String ownerLicenseNumber = safeGetText(carElement, "ownerId");
+            String ownerLicenseNumber = safeGetText(carRecord, "ownerId");
             if (ownerLicenseNumber != null) {
-                Driver owner = em.createQuery("SELECT d FROM Driver d WHERE d.licenseNumber = :licenseNumber", Driver.class)
-                                 .setParameter("licenseNumber", ownerLicenseNumber)
-                                 .getResultStream()
-                                 .findFirst()
-                                 .orElse(null);
-                if (owner != null) {
-                    car.setOwner(owner);
-                } else {
+                Integer ownerId = ownerIds.get(ownerLicenseNumber);
+                if (ownerId != null) {
+                    car.setOwner(em.getReference(Driver.class, ownerId));
+                } else if (BulkJobLogging.isRecordLoggingEnabled()) {
                     logger.warn("Владелец с номером удостоверения " + ownerLicenseNumber +
                                 " не найден в базе данных для автомобиля с VIN " + vinNumber);
                 }
             }
 
-            car.setLastVehicleInspection(safeParseDate(carElement, "lastVehicleInspection"));
+            car.setLastVehicleInspection(safeParseDate(carRecord, "lastVehicleInspection"));
 
             // Сохранение данных в базу
-            em.merge(car);
+            boolean created = car.getCarId() == null;
+            car = em.merge(car);
+            if (created) {
+                inserted.add(car.getCarId());
+            }
+            cars.put(vinNumber, car);
         }
+        return inserted;
     }
 
     /**
-     * Импортирует данные о нарушениях из XML-документа в базу данных.
+     * Импортирует данные о нарушениях из порции записей XML-файла в базу данных.
+     * Существующие нарушения и автомобили загружаются одним запросом на порцию,
+     * статьи и типы нарушений берутся из заранее загруженных справочников.
+     * Записи с некорректным номером постановления пропускаются.
      *
-     * @param doc XML-документ для чтения данных.
+     * @param records порция записей, прочитанных из XML-файла.
      * @param em экземпляр EntityManager для выполнения запросов.
      * @param importMode режим импорта данных: 0 - заменить, 1 - добавить, 2 - обновить.
+     * @param articleIds идентификаторы статей нарушений по кодам статей.
+     * @param typeIds идентификаторы типов нарушений по названиям типов.
+     * @return идентификаторы добавленных записей.
      */
-    private static void importViolations(Document doc, EntityManager em, int importMode) {
-        // Извлечение всех узлов <violation> из XML-документа
-        NodeList violationNodes = doc.getElementsByTagName("violation");
-
-        for (int i = 0; i < violationNodes.getLength(); i++) {
-            Element violationElement = (Element) violationNodes.item(i);
-
-            // Проверка наличия номера постановления нарушения
-            String violationResolution = safeGetText(violationElement, "violationResolution");
-            if (violationResolution == null) {
-                logger.warn("Номер постановления нарушения отсутствует или некорректно задан. Пропускаем запись.");
-                continue;
-            }
-
-            // Поиск нарушения в базе данных по номеру постановления
-            Violation violation = em.createQuery("SELECT v FROM Violation v WHERE v.violationResolution = :violationResolution", Violation.class)
-                                     .setParameter("violationResolution", violationResolution)
-                                     .getResultStream()
-                                     .findFirst()
-                                     .orElse(null);
+    private static List<Integer> importViolations(List<Map<String, String>> records, EntityManager em, int importMode,
+                                         Map<String, Integer> articleIds, Map<String, Integer> typeIds) {
+        List<Integer> inserted = new ArrayList<>();
+        List<Map<String, String>> valid = validRecords("Нарушения", records, BatchValidator.validateViolations(records));
+        // Находим уже существующие нарушения по номерам постановлений и идентификаторы автомобилей по госномерам
+        Map<String, Violation> violations = findByNaturalKeys(em, Violation.class, "violationResolution",
+                collectKeys(valid, "violationResolution"), Violation::getViolationResolution);
+        Map<String, Integer> carIds = findIdsByNaturalKeys(em, "Car", "carId", "licensePlate",
+                collectKeys(valid, "violationCar"));
+
+        for (Map<String, String> violationRecord : valid) {
+            String violationResolution = safeGetText(violationRecord, "violationResolution");
+            Violation violation = violations.get(violationResolution);
 
             // Пропуск записи, если режим добавления и нарушение уже существует
             if (importMode == 1 && violation != null) continue;
@@ -560,80 +1145,66 @@ public class XMLManager {
             }
 
             // Установка автомобиля, связанного с нарушением
-            String licensePlate = safeGetText(violationElement, "violationCar");
-            Car car = em.createQuery("SELECT c FROM Car c WHERE c.licensePlate = :licensePlate", Car.class)
-                        .setParameter("licensePlate", licensePlate)
-                        .getResultStream()
-                        .findFirst()
-                        .orElse(null);
-            if (car != null) {
-                violation.setCar(car);
-            } else {
+            String licensePlate = safeGetText(violationRecord, "violationCar");
+            Integer carId = carIds.get(licensePlate);
+            if (carId != null) {
+                violation.setCar(em.getReference(Car.class, carId));
+            } else if (BulkJobLogging.isRecordLoggingEnabled()) {
                 logger.warn("Автомобиль с госномером " + licensePlate + " не найден в базе данных.");
             }
 
             // Установка статьи нарушения
-            String violationArticle = safeGetText(violationElement, "violationArticleV");
-            ViolationArticle article = em.createQuery("SELECT a FROM ViolationArticle a WHERE a.violationArticleCode = :violationArticle", ViolationArticle.class)
-                                          .setParameter("violationArticle", violationArticle)
-                                          .getResultStream()
-                                          .findFirst()
-                                          .orElse(null);
-            if (article != null) {
-                violation.setViolationArticle(article);
-            } else {
+            String violationArticle = safeGetText(violationRecord, "violationArticleV");
+            Integer articleId = articleIds.get(violationArticle);
+            if (articleId != null) {
+                violation.setViolationArticle(em.getReference(ViolationArticle.class, articleId));
+            } else if (BulkJobLogging.isRecordLoggingEnabled()) {
                 logger.warn("Статья нарушения " + violationArticle + " не найдена в базе данных.");
             }
 
             // Установка типа нарушения
-            String violationType = safeGetText(violationElement, "violationTypeV");
-            ViolationType type = em.createQuery("SELECT t FROM ViolationType t WHERE t.violationTypeName = :violationTypeName", ViolationType.class)
-                                   .setParameter("violationTypeName", violationType)
-                                   .getResultStream()
-                                   .findFirst()
-                                   .orElse(null);
-            if (type != null) {
-                violation.setViolationType(type);
-            } else {
+            String violationType = safeGetText(violationRecord, "violationTypeV");
+            Integer typeId = typeIds.get(violationType);
+            if (typeId != null) {
+                violation.setViolationType(em.getReference(ViolationType.class, typeId));
+            } else if (BulkJobLogging.isRecordLoggingEnabled()) {
                 logger.warn("Тип нарушения " + violationType + " не найден в базе данных.");
             }
 
             violation.setViolationResolution(violationResolution);
-            violation.setViolationDate(safeParseDate(violationElement, "violationDate"));
-            violation.setViolationPaid(Boolean.parseBoolean(safeGetText(violationElement, "violationPaid")));
+            violation.setViolationDate(safeParseDate(violationRecord, "violationDate"));
+            violation.setViolationPaid(Boolean.parseBoolean(safeGetText(violationRecord, "violationPaid")));
 
             // Сохранение данных в базу
-            em.merge(violation);
+            boolean created = violation.getViolationId() == null;
+            violation = em.merge(violation);
+            if (created) {
+                inserted.add(violation.getViolationId());
+            }
+            violations.put(violationResolution, violation);
         }
+        return inserted;
     }
 
     /**
-     * Импортирует данные о статьях нарушений из XML-документа в базу данных.
+     * Импортирует данные о статьях нарушений из порции записей XML-файла в базу данных.
+     * Записи с некорректным кодом статьи пропускаются.
      *
-     * @param doc XML-документ для чтения данных.
+     * @param records порция записей, прочитанных из XML-файла.
      * @param em экземпляр EntityManager для выполнения запросов.
      * @param importMode режим импорта данных: 0 - заменить, 1 - добавить, 2 - обновить.
+     * @return идентификаторы добавленных записей.
      */
-    private static void importViolationArticles(Document doc, EntityManager em, int importMode) {
-        // Извлечение всех узлов <violationArticle> из XML-документа
-        NodeList articleNodes = doc.getElementsByTagName("violationArticle");
+    private static List<Integer> importViolationArticles(List<Map<String, String>> records, EntityManager em, int importMode) {
+        List<Integer> inserted = new ArrayList<>();
+        List<Map<String, String>> valid = validRecords("Статьи нарушений", records, BatchValidator.validateViolationArticles(records));
+        // Находим уже существующие статьи нарушений по кодам
+        Map<String, ViolationArticle> articles = findByNaturalKeys(em, ViolationArticle.class, "violationArticleCode",
+                collectKeys(valid, "violationArticleCode"), ViolationArticle::getViolationArticleCode);
 
-        for (int i = 0; i < articleNodes.getLength(); i++) {
-            Element articleElement = (Element) articleNodes.item(i);
-
-            // Проверка наличия кода статьи нарушения
-            String articleCode = safeGetText(articleElement, "violationArticleCode");
-            if (articleCode == null) {
-                logger.warn("Код статьи нарушения отсутствует или некорректно задан. Пропускаем запись.");
-                continue;
-            }
-
-            // Поиск статьи нарушения в базе данных по коду
-            ViolationArticle article = em.createQuery("SELECT a FROM ViolationArticle a WHERE a.violationArticleCode = :articleCode", ViolationArticle.class)
-                                         .setParameter("articleCode", articleCode)
-                                         .getResultStream()
-                                         .findFirst()
-                                         .orElse(null);
+        for (Map<String, String> articleRecord : valid) {
+            String articleCode = safeGetText(articleRecord, "violationArticleCode");
+            ViolationArticle article = articles.get(articleCode);
 
             // Пропуск записи, если режим добавления и статья уже существует
             if (importMode == 1 && article != null) continue;
@@ -644,41 +1215,45 @@ public class XMLManager {
             }
 
             article.setViolationArticleCode(articleCode);
-            article.setViolationArticleDescription(safeGetText(articleElement, "violationArticleDescription"));
-            article.setViolationArticleFine(safeParseInt(articleElement, "violationArticleFine"));
+            article.setViolationArticleDescription(safeGetText(articleRecord, "violationArticleDescription"));
+            article.setViolationArticleFine(safeParseInt(articleRecord, "violationArticleFine"));
 
             // Сохранение данных в базу
-            em.merge(article);
+            boolean created = article.getViolationArticleId() == null;
+            article = em.merge(article);
+            if (created) {
+                inserted.add(article.getViolationArticleId());
+            }
+            articles.put(articleCode, article);
         }
+        return inserted;
     }
 
     /**
-     * Импортирует данные о типах нарушений из XML-документа в базу данных.
+     * Импортирует данные о типах нарушений из порции записей XML-файла в базу данных.
      *
-     * @param doc XML-документ для чтения данных.
+     * @param records порция записей, прочитанных из XML-файла.
      * @param em экземпляр EntityManager для выполнения запросов.
      * @param importMode режим импорта данных: 0 - заменить, 1 - добавить, 2 - обновить.
+     * @return идентификаторы добавленных записей.
      */
-    private static void importViolationTypes(Document doc, EntityManager em, int importMode) {
-        // Извлечение всех узлов <violationType> из XML-документа
-        NodeList typeNodes = doc.getElementsByTagName("violationType");
-
-        for (int i = 0; i < typeNodes.getLength(); i++) {
-            Element typeElement = (Element) typeNodes.item(i);
+    private static List<Integer> importViolationTypes(List<Map<String, String>> records, EntityManager em, int importMode) {
+        List<Integer> inserted = new ArrayList<>();
+        // Находим уже существующие типы нарушений по названиям
+        Map<String, ViolationType> types = findByNaturalKeys(em, ViolationType.class, "violationTypeName",
+                collectKeys(records, "violationTypeName"), ViolationType::getViolationTypeName);
 
+        for (Map<String, String> typeRecord : records) {
             // Проверка наличия имени типа нарушения
-            String typeName = safeGetText(typeElement, "violationTypeName");
+            String typeName = safeGetText(typeRecord, "violationTypeName");
             if (typeName == null) {
-                logger.warn("Название нарушения отсутствует или некорректно задано. Пропускаем запись.");
+                if (BulkJobLogging.isRecordLoggingEnabled()) {
+                    logger.warn("Название нарушения отсутствует или некорректно задано. Пропускаем запись.");
+                }
                 continue;
             }
 
-            // Поиск типа нарушения в базе данных по имени
-            ViolationType type = em.createQuery("SELECT t FROM ViolationType t WHERE t.violationTypeName = :typeName", ViolationType.class)
-                                   .setParameter("typeName", typeName)
-                                   .getResultStream()
-                                   .findFirst()
-                                   .orElse(null);
+            ViolationType type = types.get(typeName);
 
             // Пропуск записи, если режим добавления и тип уже существует
             if (importMode == 1 && type != null) continue;
@@ -691,57 +1266,187 @@ public class XMLManager {
             type.setViolationTypeName(typeName);
 
             // Сохранение данных в базу
-            em.merge(type);
+            boolean created = type.getViolationTypeId() == null;
+            type = em.merge(type);
+            if (created) {
+                inserted.add(type.getViolationTypeId());
+            }
+            types.put(typeName, type);
         }
+        return inserted;
     }
     
     /**
-     * Безопасно извлекает текстовое содержимое из указанного элемента XML по заданному имени тега.
+     * Отбрасывает записи порции, не прошедшие пакетную проверку.
+     * В журнал записывается итог проверки порции, а ошибка каждой записи - только на уровне отладки.
      *
-     * @param element XML-элемент, из которого извлекается текст.
-     * @param tagName имя тега, текст которого необходимо извлечь.
-     * @return текстовое содержимое указанного тега, или null, если тег отсутствует или его содержимое пустое.
+     * @param sectionName название раздела для журнала.
+     * @param records порция записей XML-файла.
+     * @param report отчёт пакетной проверки порции.
+     * @return корректные записи порции.
      */
-    private static String safeGetText(Element element, String tagName) {
-        NodeList nodeList = element.getElementsByTagName(tagName);
-        if (nodeList.getLength() > 0 && nodeList.item(0) != null) {
-            return nodeList.item(0).getTextContent().trim();
+    private static List<Map<String, String>> validRecords(String sectionName, List<Map<String, String>> records,
+                                                          ValidationReport report) {
+        if (report.isValid()) {
+            return records;
         }
-        return null;
+        logger.warn(sectionName + ": " + report.summary() + ". Некорректные записи пропущены.");
+        if (logger.isDebugEnabled() && BulkJobLogging.isRecordLoggingEnabled()) {
+            for (int i = 0; i < records.size(); i++) {
+                if (!report.isValid(i)) {
+                    logger.debug(sectionName + ": запись " + records.get(i) + " пропущена: " + report.getError(i));
+                }
+            }
+        }
+        return report.filterValid(records);
+    }
+
+    /**
+     * Собирает непустые значения указанного поля из порции записей.
+     *
+     * @param records порция записей XML-файла.
+     * @param tagName имя тега, значения которого необходимо собрать.
+     * @return множество значений поля без повторов.
+     */
+    private static Set<String> collectKeys(List<Map<String, String>> records, String tagName) {
+        Set<String> keys = new HashSet<>();
+        for (Map<String, String> record : records) {
+            String key = safeGetText(record, tagName);
+            if (key != null) {
+                keys.add(key);
+            }
+        }
+        return keys;
+    }
+    
+    /**
+     * Загружает сущности по значениям естественного ключа.
+     * Ключи передаются в запрос частями по {@value #LOOKUP_BATCH_SIZE} штук в условии {@code IN},
+     * так что на порцию импорта обычно приходится один запрос вместо запроса на каждую запись.
+     *
+     * @param em экземпляр EntityManager для выполнения запросов.
+     * @param type класс сущности.
+     * @param keyAttribute имя атрибута сущности, содержащего естественный ключ.
+     * @param keys значения ключа для поиска.
+     * @param keyOf функция получения ключа из сущности.
+     * @param <T> тип сущности.
+     * @return найденные сущности по значениям ключа.
+     */
+    private static <T> Map<String, T> findByNaturalKeys(EntityManager em, Class<T> type, String keyAttribute,
+                                                       Collection<String> keys, Function<T, String> keyOf) {
+        Map<String, T> result = new HashMap<>();
+        String jpql = "SELECT e FROM " + type.getSimpleName() + " e WHERE e." + keyAttribute + " IN :keys";
+        for (List<String> part : partition(keys)) {
+            for (T entity : em.createQuery(jpql, type).setParameter("keys", part).getResultList()) {
+                result.putIfAbsent(keyOf.apply(entity), entity);
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Загружает идентификаторы сущностей по значениям естественного ключа без загрузки самих сущностей.
+     *
+     * @param em экземпляр EntityManager для выполнения запросов.
+     * @param entityName имя сущности в JPQL.
+     * @param idAttribute имя атрибута идентификатора.
+     * @param keyAttribute имя атрибута, содержащего естественный ключ.
+     * @param keys значения ключа для поиска.
+     * @return идентификаторы по значениям ключа.
+     */
+    private static Map<String, Integer> findIdsByNaturalKeys(EntityManager em, String entityName, String idAttribute,
+                                                            String keyAttribute, Collection<String> keys) {
+        Map<String, Integer> result = new HashMap<>();
+        String jpql = "SELECT e." + keyAttribute + ", e." + idAttribute + " FROM " + entityName + " e WHERE e." + keyAttribute + " IN :keys";
+        for (List<String> part : partition(keys)) {
+            for (Object[] row : em.createQuery(jpql, Object[].class).setParameter("keys", part).getResultList()) {
+                result.putIfAbsent((String) row[0], (Integer) row[1]);
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * Загружает идентификаторы всех записей небольшого справочника одним запросом.
+     *
+     * @param em экземпляр EntityManager для выполнения запросов.
+     * @param entityName имя сущности в JPQL.
+     * @param idAttribute имя атрибута идентификатора.
+     * @param keyAttribute имя атрибута, содержащего естественный ключ.
+     * @return идентификаторы по значениям ключа.
+     */
+    private static Map<String, Integer> loadAllIds(EntityManager em, String entityName, String idAttribute, String keyAttribute) {
+        Map<String, Integer> result = new HashMap<>();
+        String jpql = "SELECT e." + keyAttribute + ", e." + idAttribute + " FROM " + entityName + " e";
+        for (Object[] row : em.createQuery(jpql, Object[].class).getResultList()) {
+            result.putIfAbsent((String) row[0], (Integer) row[1]);
+        }
+        return result;
+    }
+    
+    /**
+     * Разбивает набор ключей на части для запросов с условием {@code IN}.
+     *
+     * @param keys значения ключа.
+     * @param <K> тип значений ключа.
+     * @return список частей размером не более {@value #LOOKUP_BATCH_SIZE}.
+     */
+    static <K> List<List<K>> partition(Collection<K> keys) {
+        List<K> all = new ArrayList<>(keys);
+        List<List<K>> parts = new ArrayList<>();
+        for (int from = 0; from < all.size(); from += LOOKUP_BATCH_SIZE) {
+            parts.add(all.subList(from, Math.min(from + LOOKUP_BATCH_SIZE, all.size())));
+        }
+        return parts;
+    }
+    
+    /**
+     * Безопасно извлекает текстовое значение поля записи XML по заданному имени тега.
+     *
+     * @param record запись XML, из которой извлекается текст.
+     * @param tagName имя тега, текст которого необходимо извлечь.
+     * @return текстовое содержимое указанного тега, или null, если тег отсутствует.
+     */
+    private static String safeGetText(Map<String, String> record, String tagName) {
+        return record.get(tagName);
     }
 
     /**
-     * Безопасно преобразует текстовое содержимое тега XML в целое число.
+     * Безопасно преобразует текстовое значение поля записи XML в целое число.
      *
-     * @param element XML-элемент, из которого извлекается значение.
+     * @param record запись XML, из которой извлекается значение.
      * @param tagName имя тега, значение которого необходимо преобразовать в целое число.
      * @return целочисленное значение, или null, если значение отсутствует, пустое или не является допустимым числом.
      */
-    private static Integer safeParseInt(Element element, String tagName) {
-        String value = safeGetText(element, tagName);
+    private static Integer safeParseInt(Map<String, String> record, String tagName) {
+        String value = safeGetText(record, tagName);
         if (value != null && !value.isEmpty()) {
             try {
                 return Integer.parseInt(value);
             } catch (NumberFormatException e) {
-                logger.warn("Невозможно преобразовать значение в целое число для тега: " + tagName);
+                if (BulkJobLogging.isRecordLoggingEnabled()) {
+                    logger.warn("Невозможно преобразовать значение в целое число для тега: " + tagName);
+                }
             }
         }
         return null;
     }
 
     /**
-     * Безопасно преобразует текстовое содержимое тега XML в объект LocalDate.
+     * Безопасно преобразует текстовое значение поля записи XML в объект LocalDate.
      *
-     * @param element XML-элемент, из которого извлекается значение.
+     * @param record запись XML, из которой извлекается значение.
      * @param tagName имя тега, значение которого необходимо преобразовать в дату.
      * @return объект LocalDate, или null, если значение отсутствует, пустое или не является допустимой датой.
      */
-    private static LocalDate safeParseDate(Element element, String tagName) {
-        String value = safeGetText(element, tagName);
+    private static LocalDate safeParseDate(Map<String, String> record, String tagName) {
+        String value = safeGetText(record, tagName);
         try {
             return value != null ? LocalDate.parse(value) : null;
         } catch (DateTimeParseException e) {
-            logger.warn("Невозможно преобразовать строку в дату для тега: " + tagName);
+            if (BulkJobLogging.isRecordLoggingEnabled()) {
+                logger.warn("Невозможно преобразовать строку в дату для тега: " + tagName);
+            }
             return null;
         }
     }
@@ -0,0 +1,108 @@
+package validators;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.persistence.EntityManager;
+
+/**
+ * Пакетная проверка записей, прочитанных при импорте из XML-файла.
+ * <p>
+ * Формат полей проверяется методами {@code check...} валидаторов, которые не выбрасывают
+ * исключений и не пишут в журнал, а уникальность значений для всей пачки проверяется
+ * одним запросом вместо запроса на каждую запись. Результат - {@link ValidationReport}
+ * с ошибкой для каждой некорректной записи. Записи передаются как соответствие
+ * имени тега XML его текстовому значению.
+ */
+public class BatchValidator {
+
+    /**
+     * Проверяет номера водительских удостоверений пачки водителей.
+     *
+     * @param records записи водителей.
+     * @return отчёт о проверке.
+     */
+    public static ValidationReport validateDrivers(List<Map<String, String>> records) {
+        ValidationReport report = new ValidationReport(records.size());
+        for (int i = 0; i < records.size(); i++) {
+            report.addError(i, LicenseNumberValidator.checkLicenseNumber(records.get(i).get("licenseNumber")));
+        }
+        return report;
+    }
+
+    /**
+     * Проверяет пачку автомобилей: формат VIN-номеров и госномеров, а также то, что госномер
+     * не принадлежит другому автомобилю ни в базе данных, ни среди предыдущих записей пачки.
+     * Госномер может отсутствовать; тогда он не проверяется.
+     *
+     * @param records записи автомобилей.
+     * @param em объект {@link EntityManager} для запроса занятых госномеров.
+     * @return отчёт о проверке.
+     */
+    public static ValidationReport validateCars(List<Map<String, String>> records, EntityManager em) {
+        ValidationReport report = new ValidationReport(records.size());
+        Set<String> plates = new HashSet<>();
+
+        for (int i = 0; i < records.size(); i++) {
+            Map<String, String> record = records.get(i);
+            report.addError(i, VinNumberValidator.checkVin(record.get("vinNumber")));
+
+            String plate = record.get("licensePlate");
+            if (plate != null) {
+                String error = LicensePlateValidator.checkLicensePlate(plate);
+                report.addError(i, error);
+                if (error == null) {
+                    plates.add(plate);
+                }
+            }
+        }
+        if (plates.isEmpty()) {
+            return report;
+        }
+
+        // VIN-номера автомобилей, которым уже принадлежат госномера пачки; дополняются записями пачки
+        Map<String, String> vinByPlate = UniquenessChecker.findKeysByValue(em, "Car", "licensePlate", "vinNumber", plates);
+        for (int i = 0; i < records.size(); i++) {
+            String plate = records.get(i).get("licensePlate");
+            if (plate == null || !report.isValid(i)) {
+                continue;
+            }
+            String vin = records.get(i).get("vinNumber");
+            String ownerVin = vinByPlate.putIfAbsent(plate, vin);
+            if (ownerVin != null && !ownerVin.equals(vin)) {
+                report.addError(i, "Госномер уже принадлежит автомобилю с VIN " + ownerVin + ".");
+            }
+        }
+        return report;
+    }
+
+    /**
+     * Проверяет номера постановлений пачки нарушений.
+     *
+     * @param records записи нарушений.
+     * @return отчёт о проверке.
+     */
+    public static ValidationReport validateViolations(List<Map<String, String>> records) {
+        ValidationReport report = new ValidationReport(records.size());
+        for (int i = 0; i < records.size(); i++) {
+            report.addError(i, ResolutionValidator.checkResolution(records.get(i).get("violationResolution")));
+        }
+        return report;
+    }
+
+    /**
+     * Проверяет коды пачки статей нарушений.
+     *
+     * @param records записи статей нарушений.
+     * @return отчёт о проверке.
+     */
+    public static ValidationReport validateViolationArticles(List<Map<String, String>> records) {
+        ValidationReport report = new ValidationReport(records.size());
+        for (int i = 0; i < records.size(); i++) {
+            report.addError(i, ViolationArticleCodeValidator.checkArticleCode(records.get(i).get("violationArticleCode")));
+        }
+        return report;
+    }
+}
@@ -16,6 +16,11 @@ import java.time.LocalDate;
  */
 public class CarValidator {
 
+    /**
+     * Символы, допустимые в названии модели помимо букв: знаки препинания, цифры и пробелы.
+     */
+    private static final int MODEL_SYMBOLS = CharClasses.ASCII_PUNCT | CharClasses.DIGIT | CharClasses.SPACE;
+
     /**
      * Выполняет валидацию данных автомобиля.
      * Проверяет корректность бренда, модели, VIN-номера, государственного номера, владельца и даты последнего ТО.
@@ -33,16 +38,18 @@ public class CarValidator {
         // Проверка бренда автомобиля
         if (car.getBrand() == null || car.getBrand().trim().isEmpty()) {
             errors.append("Бренд не может быть пустым.\n");
-        } else if (!car.getBrand().matches("[а-яА-Яa-zA-Z]+")) {
+        } else if (!CharClasses.consistsOf(car.getBrand(), CharClasses.RUSSIAN_LETTER | CharClasses.LATIN_LETTER)) {
             errors.append("Название бренда может содержать только буквы.\n");
-        } else if (!car.getBrand().matches("[а-яА-Я]+") && !car.getBrand().matches("[a-zA-Z]+")) {
+        } else if (!CharClasses.consistsOf(car.getBrand(), CharClasses.RUSSIAN_LETTER)
+                && !CharClasses.consistsOf(car.getBrand(), CharClasses.LATIN_LETTER)) {
             errors.append("Название бренда может содержать только русские или только английские буквы.\n");
         }
 
         // Проверка модели автомобиля
         if (car.getModel().isEmpty() || car.getModel().trim().isEmpty()) {
             errors.append("Модель не может быть пустой.\n");
-        } else if (!car.getModel().matches("[а-яА-Я\\p{Punct}0-9\\s]+") && !car.getModel().matches("[a-zA-Z\\p{Punct}0-9\\s]+")) {
+        } else if (!CharClasses.consistsOf(car.getModel(), CharClasses.RUSSIAN_LETTER | MODEL_SYMBOLS)
+                && !CharClasses.consistsOf(car.getModel(), CharClasses.LATIN_LETTER | MODEL_SYMBOLS)) {
             errors.append("Название модели не может содержать одновременно русские и английские буквы.\n");
         }
 
@@ -0,0 +1,128 @@
+package validators;
+
+/**
+ * Таблица классов символов для проверки формата полей без регулярных выражений.
+ * <p>
+ * Для каждого символа от U+0000 до конца основного диапазона кириллицы (U+044F) таблица хранит
+ * набор флагов классов, к которым он относится. Проверка строки сводится к обходу её символов
+ * с одним обращением к таблице на символ: объекты не создаются, а регулярные выражения
+ * не компилируются и не исполняются. Классы повторяют классы регулярных выражений,
+ * которые использовались валидаторами раньше, например {@code [а-яА-Я]} (без Ё/ё) и {@code \p{Punct}}.
+ */
+public final class CharClasses {
+
+    /** Русские буквы А-Я и а-я, класс {@code [а-яА-Я]}. */
+    public static final int RUSSIAN_LETTER = 1;
+
+    /** Латинские буквы, класс {@code [a-zA-Z]}. */
+    public static final int LATIN_LETTER = 1 << 1;
+
+    /** Цифры 0-9. */
+    public static final int DIGIT = 1 << 2;
+
+    /** Знаки препинания и символы ASCII, класс {@code \p{Punct}}. */
+    public static final int ASCII_PUNCT = 1 << 3;
+
+    /** Знаки препинания Юникода, класс {@code \p{P}}. */
+    public static final int PUNCTUATION = 1 << 4;
+
+    /** Пробельные символы, класс {@code \s}. */
+    public static final int SPACE = 1 << 5;
+
+    /** Дефис. */
+    public static final int HYPHEN = 1 << 6;
+
+    /** Буквы, допустимые в госномерах: А, В, Е, К, М, Н, О, Р, С, Т, У, Х. */
+    public static final int PLATE_LETTER = 1 << 7;
+
+    private static final char TABLE_END = 'я' + 1;
+
+    private static final short[] TABLE = new short[TABLE_END];
+
+    static {
+        for (char c = 'А'; c <= 'я'; c++) {
+            TABLE[c] |= RUSSIAN_LETTER;
+        }
+        for (char c = 'a'; c <= 'z'; c++) {
+            TABLE[c] |= LATIN_LETTER;
+            TABLE[Character.toUpperCase(c)] |= LATIN_LETTER;
+        }
+        for (char c = '0'; c <= '9'; c++) {
+            TABLE[c] |= DIGIT;
+        }
+        for (char c : "!\"#$%&'()*+,-./:;<=>?@[\\]^_`{|}~".toCharArray()) {
+            TABLE[c] |= ASCII_PUNCT;
+        }
+        for (char c : " \t\n\u000B\f\r".toCharArray()) {
+            TABLE[c] |= SPACE;
+        }
+        for (char c = 0; c < TABLE_END; c++) {
+            if (isUnicodePunctuation(c)) {
+                TABLE[c] |= PUNCTUATION;
+            }
+        }
+        TABLE['-'] |= HYPHEN;
+        for (char c : "АВЕКМНОРСТУХ".toCharArray()) {
+            TABLE[c] |= PLATE_LETTER;
+        }
+    }
+
+    private CharClasses() {
+    }
+
+    /**
+     * Проверяет, относится ли символ хотя бы к одному из классов.
+     *
+     * @param c проверяемый символ.
+     * @param classes флаги классов, объединённые через {@code |}.
+     * @return true, если символ относится к одному из классов.
+     */
+    public static boolean is(char c, int classes) {
+        if (c < TABLE_END) {
+            return (TABLE[c] & classes) != 0;
+        }
+        // За пределами таблицы из перечисленных классов встречаются только знаки препинания Юникода
+        return (classes & PUNCTUATION) != 0 && isUnicodePunctuation(c);
+    }
+
+    /**
+     * Проверяет, что строка непустая и каждый её символ относится хотя бы к одному из классов.
+     * Аналог {@code value.matches("[...]+")} для класса, составленного из флагов.
+     *
+     * @param value проверяемая строка.
+     * @param classes флаги допустимых классов, объединённые через {@code |}.
+     * @return true, если строка состоит только из символов указанных классов.
+     */
+    public static boolean consistsOf(String value, int classes) {
+        if (value == null || value.isEmpty()) {
+            return false;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            if (!is(value.charAt(i), classes)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Проверяет, относится ли символ к знакам препинания Юникода (категория P).
+     *
+     * @param c проверяемый символ.
+     * @return true, если символ - знак препинания.
+     */
+    private static boolean isUnicodePunctuation(char c) {
+        switch (Character.getType(c)) {
+            case Character.CONNECTOR_PUNCTUATION:
+            case Character.DASH_PUNCTUATION:
+            case Character.START_PUNCTUATION:
+            case Character.END_PUNCTUATION:
+            case Character.INITIAL_QUOTE_PUNCTUATION:
+            case Character.FINAL_QUOTE_PUNCTUATION:
+            case Character.OTHER_PUNCTUATION:
+                return true;
+            default:
+                return false;
+        }
+    }
+}
@@ -29,20 +29,20 @@ public class DriverValidator {
         // Валидация имени
         if (driver.getFirstName() == null || driver.getFirstName().trim().isEmpty()) {
             errors.append("Имя не может быть пустым.\n");
-        } else if (!driver.getFirstName().matches("[а-яА-Я]+")) {
+        } else if (!CharClasses.consistsOf(driver.getFirstName(), CharClasses.RUSSIAN_LETTER)) {
             errors.append("Имя должно содержать только русские буквы.\n");
         }
 
         // Валидация фамилии
         if (driver.getLastName() == null || driver.getLastName().trim().isEmpty()) {
             errors.append("Фамилия не может быть пустой.\n");
-        } else if (!driver.getLastName().matches("[а-яА-Я]+")) {
+        } else if (!CharClasses.consistsOf(driver.getLastName(), CharClasses.RUSSIAN_LETTER)) {
             errors.append("Фамилия должна содержать только русские буквы.\n");
         }
 
         // Валидация отчества (если указано)
         if (driver.getMiddleName() != null && !driver.getMiddleName().trim().isEmpty() &&
-            !driver.getMiddleName().matches("[а-яА-Я]+")) {
+            !CharClasses.consistsOf(driver.getMiddleName(), CharClasses.RUSSIAN_LETTER)) {
             errors.append("Отчество должно содержать только русские буквы.\n");
         }
 
@@ -58,7 +58,7 @@ public class DriverValidator {
         // Валидация города
         if (driver.getCity() == null || driver.getCity().trim().isEmpty()) {
             errors.append("Город не может быть пустым.\n");
-        } else if (!driver.getCity().matches("[а-яА-Я-]+")) {
+        } else if (!CharClasses.consistsOf(driver.getCity(), CharClasses.RUSSIAN_LETTER | CharClasses.HYPHEN)) {
             errors.append("Название города может содержать только русские буквы и тире.\n");
         }
 
@@ -1,7 +1,6 @@
 package validators;
 
 import javax.persistence.EntityManager;
-import javax.persistence.TypedQuery;
 
 import org.apache.log4j.Logger;
 
@@ -24,16 +23,34 @@ public class LicenseNumberValidator {
      * @throws InvalidLicenseNumberException если номер ВУ не соответствует формату.
      */
     public static void validateLicenseNumber(String licenseNumber) throws InvalidLicenseNumberException {
-        logger.debug("Валидация номера ВУ: " + licenseNumber);
+        if (logger.isDebugEnabled()) {
+            logger.debug("Валидация номера ВУ: " + licenseNumber);
+        }
 
-        // Проверка длины и формата номера ВУ
-        if (licenseNumber.length() != 10 || !licenseNumber.matches("\\d+")) {
+        String error = checkLicenseNumber(licenseNumber);
+        if (error != null) {
             logger.warn("Ошибка валидации: Неверный номер ВУ: " + licenseNumber);
 
-            throw new InvalidLicenseNumberException("Номер ВУ должен состоять только из 10 цифр.");
+            throw new InvalidLicenseNumberException(error);
         }
 
-        logger.info("Номер ВУ успешно прошёл валидацию: " + licenseNumber);
+        if (logger.isDebugEnabled()) {
+            logger.debug("Номер ВУ успешно прошёл валидацию: " + licenseNumber);
+        }
+    }
+
+    /**
+     * Проверяет формат номера ВУ без выбрасывания исключений и записи в журнал.
+     *
+     * @param licenseNumber номер ВУ, который необходимо проверить.
+     * @return описание ошибки или null, если номер ВУ корректен.
+     */
+    public static String checkLicenseNumber(String licenseNumber) {
+        // Проверка длины и формата номера ВУ
+        if (licenseNumber == null || licenseNumber.length() != 10 || !CharClasses.consistsOf(licenseNumber, CharClasses.DIGIT)) {
+            return "Номер ВУ должен состоять только из 10 цифр.";
+        }
+        return null;
     }
 
     /**
@@ -45,20 +62,19 @@ public class LicenseNumberValidator {
      * @throws LicenseAlreadyExistsException если номер ВУ уже существует в базе данных.
      */
     public static void validateLicenseUniqueness(String license, EntityManager em) throws LicenseAlreadyExistsException {
-        logger.debug("Проверка на уникальность номера ВУ: " + license);
-
-        // Запрос для проверки наличия номера ВУ в базе данных
-        TypedQuery<Long> query = em.createQuery("SELECT COUNT(d) FROM Driver d WHERE d.licenseNumber = :license", Long.class);
-        query.setParameter("license", license);
-        Long count = query.getSingleResult();
+        if (logger.isDebugEnabled()) {
+            logger.debug("Проверка на уникальность номера ВУ: " + license);
+        }
 
         // Если такой номер ВУ уже существует, выбрасываем исключение
-        if (count > 0) {
+        if (UniquenessChecker.exists(em, "Driver", "licenseNumber", license)) {
             logger.warn("Ошибка валидации: Номер ВУ уже существует: " + license);
 
             throw new LicenseAlreadyExistsException("Номер ВУ уже существует.");
         }
 
-        logger.info("Номер ВУ успешно прошёл проверку на уникальность: " + license);
+        if (logger.isDebugEnabled()) {
+            logger.debug("Номер ВУ успешно прошёл проверку на уникальность: " + license);
+        }
     }
 }
@@ -1,7 +1,6 @@
 package validators;
 
 import javax.persistence.EntityManager;
-import javax.persistence.TypedQuery;
 
 import org.apache.log4j.Logger;
 
@@ -16,12 +15,6 @@ public class LicensePlateValidator {
 
     private static final Logger logger = Logger.getLogger(LicensePlateValidator.class);
 
-    /**
-     * Допустимые буквы для государственных регистрационных номеров.
-     * Содержит только буквы русского алфавита, используемые в госномерах.
-     */
-    private static final String VALID_LETTERS = "АВЕКМНОРСТУХ";
-
     /**
      * Проверяет корректность формата государственного регистрационного номера.
      * Проверяет длину номера, используемые буквы, цифры и код региона.
@@ -30,43 +23,58 @@ public class LicensePlateValidator {
      * @throws InvalidLicensePlateException если номер не соответствует формату.
      */
     public static void validateLicensePlate(String licensePlate) throws InvalidLicensePlateException {
-        logger.debug("Валидация госномера: " + licensePlate);
+        if (logger.isDebugEnabled()) {
+            logger.debug("Валидация госномера: " + licensePlate);
+        }
+
+        String error = checkLicensePlate(licensePlate);
+        if (error != null) {
+            logger.warn("Ошибка валидации госномера " + licensePlate + ": " + error);
 
+            throw new InvalidLicensePlateException(error);
+        }
+
+        if (logger.isDebugEnabled()) {
+            logger.debug("Госномер успешно прошёл валидацию: " + licensePlate);
+        }
+    }
+
+    /**
+     * Проверяет формат государственного регистрационного номера и возвращает описание первой ошибки.
+     * Не создаёт объектов, не выбрасывает исключений и не пишет в журнал,
+     * поэтому подходит для проверки большого количества номеров при импорте.
+     *
+     * @param licensePlate государственный регистрационный номер, который необходимо проверить.
+     * @return описание ошибки или null, если номер корректен.
+     */
+    public static String checkLicensePlate(String licensePlate) {
         // Проверка длины госномера
         if (licensePlate == null || licensePlate.length() < 8 || licensePlate.length() > 9) {
-            logger.warn("Ошибка валидации: Неверная длина госномера: " + licensePlate);
-
-            throw new InvalidLicensePlateException("Номерной знак должен содержать от 8 до 9 символов.");
+            return "Номерной знак должен содержать от 8 до 9 символов.";
         }
 
         // Проверка допустимых букв в определенных позициях номера
-        if (!VALID_LETTERS.contains(String.valueOf(licensePlate.charAt(0))) ||
-            !VALID_LETTERS.contains(String.valueOf(licensePlate.charAt(4))) ||
-            !VALID_LETTERS.contains(String.valueOf(licensePlate.charAt(5)))) {
-            logger.warn("Ошибка валидации: Неверные символы в госномере: " + licensePlate);
-
-            throw new InvalidLicensePlateException("Неверные символы в номерном знаке.");
+        // (только буквы русского алфавита, совпадающие по написанию с латинскими)
+        if (!CharClasses.is(licensePlate.charAt(0), CharClasses.PLATE_LETTER) ||
+            !CharClasses.is(licensePlate.charAt(4), CharClasses.PLATE_LETTER) ||
+            !CharClasses.is(licensePlate.charAt(5), CharClasses.PLATE_LETTER)) {
+            return "Неверные символы в номерном знаке.";
         }
 
         // Проверка, что позиции 1-3 содержат цифры
         for (int i = 1; i < 4; i++) {
-            if (!Character.isDigit(licensePlate.charAt(i))) {
-                logger.warn("Ошибка валидации: Неверные цифры в госномере: " + licensePlate);
-
-                throw new InvalidLicensePlateException("Неверные цифры в номерном знаке.");
+            if (!CharClasses.is(licensePlate.charAt(i), CharClasses.DIGIT)) {
+                return "Неверные цифры в номерном знаке.";
             }
         }
 
         // Проверка, что код региона (позиции 6 и далее) содержит только цифры
         for (int i = 6; i < licensePlate.length(); i++) {
-            if (!Character.isDigit(licensePlate.charAt(i))) {
-                logger.warn("Ошибка валидации: Неверный код региона в госномере: " + licensePlate);
-
-                throw new InvalidLicensePlateException("Неверный код региона в номерном знаке.");
+            if (!CharClasses.is(licensePlate.charAt(i), CharClasses.DIGIT)) {
+                return "Неверный код региона в номерном знаке.";
             }
         }
-
-        logger.info("Госномер успешно прошёл валидацию: " + licensePlate);
+        return null;
     }
 
     /**
@@ -78,20 +86,19 @@ public class LicensePlateValidator {
      * @throws LicensePlateAlreadyExistsExeption если номер уже существует в базе данных.
      */
     public static void validateLicensePlateUniqueness(String licensePlate, EntityManager em) throws LicensePlateAlreadyExistsExeption {
-        logger.debug("Проверка на уникальность госномера: " + licensePlate);
-
-        // Выполняем запрос для проверки наличия госномера в базе данных
-        TypedQuery<Long> query = em.createQuery("SELECT COUNT(c) FROM Car c WHERE c.licensePlate = :licensePlate", Long.class);
-        query.setParameter("licensePlate", licensePlate);
-        Long count = query.getSingleResult();
+        if (logger.isDebugEnabled()) {
+            logger.debug("Проверка на уникальность госномера: " + licensePlate);
+        }
 
         // Если госномер уже существует, выбрасываем исключение
-        if (count > 0) {
+        if (UniquenessChecker.exists(em, "Car", "licensePlate", licensePlate)) {
             logger.warn("Ошибка валидации: Госномер уже существует: " + licensePlate);
 
             throw new LicensePlateAlreadyExistsExeption("Госномер уже существует.");
         }
 
-        logger.info("Госномер успешно прошёл проверку на уникальность: " + licensePlate);
+        if (logger.isDebugEnabled()) {
+            logger.debug("Госномер успешно прошёл проверку на уникальность: " + licensePlate);
+        }
     }
 }
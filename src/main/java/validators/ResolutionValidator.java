@@ -1,7 +1,6 @@
 package validators;
 
 import javax.persistence.EntityManager;
-import javax.persistence.TypedQuery;
 
 import exceptions.InvalidResolutionException;
 import exceptions.ResolutionAlreadyExistsExeption;
@@ -20,15 +19,29 @@ public class ResolutionValidator {
      * @throws InvalidResolutionException если номер постановления не соответствует формату.
      */
     public static void validateResolution(String resolution) throws InvalidResolutionException {
+        String error = checkResolution(resolution);
+        if (error != null) {
+            throw new InvalidResolutionException(error);
+        }
+    }
+
+    /**
+     * Проверяет формат номера постановления и возвращает описание ошибки вместо исключения.
+     *
+     * @param resolution номер постановления, который необходимо проверить.
+     * @return описание ошибки или null, если номер постановления корректен.
+     */
+    public static String checkResolution(String resolution) {
         // Проверка на null и длину
         if (resolution == null || resolution.length() != 20) {
-            throw new InvalidResolutionException("Номер постановления должен содержать 20 цифр.");
+            return "Номер постановления должен содержать 20 цифр.";
         }
 
         // Проверка, что строка состоит только из цифр
-        if (!resolution.matches("\\d+")) {
-            throw new InvalidResolutionException("Номер постановления должен содержать только числа.");
+        if (!CharClasses.consistsOf(resolution, CharClasses.DIGIT)) {
+            return "Номер постановления должен содержать только числа.";
         }
+        return null;
     }
 
     /**
@@ -40,15 +53,8 @@ public class ResolutionValidator {
      * @throws ResolutionAlreadyExistsExeption если номер постановления уже существует в базе данных.
      */
     public static void validateResolutionUniqueness(String resolution, EntityManager em) throws ResolutionAlreadyExistsExeption {
-        // Запрос для проверки количества записей с данным номером постановления
-        TypedQuery<Long> query = em.createQuery(
-            "SELECT COUNT(v) FROM Violation v WHERE v.violationResolution = :violationResolution", Long.class
-        );
-        query.setParameter("violationResolution", resolution);
-        Long count = query.getSingleResult();
-
         // Если номер постановления уже существует, выбрасываем исключение
-        if (count > 0) {
+        if (UniquenessChecker.exists(em, "Violation", "violationResolution", resolution)) {
             throw new ResolutionAlreadyExistsExeption("Номер постановления уже существует.");
         }
     }
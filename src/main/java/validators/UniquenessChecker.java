@@ -0,0 +1,155 @@
+package validators;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import javax.persistence.EntityManager;
+
+import org.apache.log4j.Logger;
+import org.hibernate.exception.ConstraintViolationException;
+
+import exceptions.LicenseAlreadyExistsException;
+import exceptions.LicensePlateAlreadyExistsExeption;
+import exceptions.ResolutionAlreadyExistsExeption;
+import exceptions.VinNumberAlreadyExistsExeption;
+import exceptions.ViolationArticleCodeAlreadyExistsExeption;
+
+/**
+ * Класс для проверки уникальности естественных ключей записей.
+ * <p>
+ * Проверки перед сохранением выполняются запросами существования, которые останавливаются
+ * на первой найденной записи, а при импорте значения проверяются пачками одним запросом.
+ * Эти проверки нужны для понятных сообщений пользователю, но не исключают гонку с одновременной
+ * вставкой, поэтому окончательной проверкой служат уникальные ограничения базы данных:
+ * их нарушение преобразуется методом {@link #translate(RuntimeException)} в те же исключения,
+ * что выбрасывают валидаторы.
+ */
+public class UniquenessChecker {
+
+    private static final Logger logger = Logger.getLogger(UniquenessChecker.class);
+
+    /**
+     * Максимальное количество ключей в одном запросе пакетной проверки.
+     */
+    private static final int BATCH_SIZE = 500;
+
+    /**
+     * Проверяет, существует ли запись с указанным значением атрибута.
+     * Запрос выбирает не более одной строки и не считает все совпадения.
+     *
+     * @param em         объект {@link EntityManager} для выполнения запроса.
+     * @param entityName имя сущности в JPQL.
+     * @param attribute  имя проверяемого атрибута.
+     * @param value      проверяемое значение.
+     * @return true, если запись с таким значением уже есть.
+     */
+    public static boolean exists(EntityManager em, String entityName, String attribute, Object value) {
+        List<Integer> found = em.createQuery(
+                "SELECT 1 FROM " + entityName + " e WHERE e." + attribute + " = :value", Integer.class)
+            .setParameter("value", value)
+            .setMaxResults(1)
+            .getResultList();
+        return !found.isEmpty();
+    }
+
+    /**
+     * Находит записи, у которых значение атрибута совпадает с одним из переданных значений,
+     * и возвращает естественные ключи этих записей. Используется, когда значение может
+     * принадлежать той же записи, например госномер автомобиля с тем же VIN-номером.
+     * Значения проверяются пачками по {@value #BATCH_SIZE} в одном запросе на пачку.
+     *
+     * @param em           объект {@link EntityManager} для выполнения запросов.
+     * @param entityName   имя сущности в JPQL.
+     * @param attribute    имя проверяемого атрибута.
+     * @param keyAttribute имя атрибута с естественным ключом записи.
+     * @param values       проверяемые значения.
+     * @return ключи записей по занятым значениям атрибута.
+     */
+    public static Map<String, String> findKeysByValue(EntityManager em, String entityName, String attribute,
+                                                      String keyAttribute, Collection<String> values) {
+        Map<String, String> keys = new HashMap<>();
+        String jpql = "SELECT e." + attribute + ", e." + keyAttribute + " FROM " + entityName
+                + " e WHERE e." + attribute + " IN :values";
+
+        List<String> batch = new ArrayList<>(Math.min(values.size(), BATCH_SIZE));
+        for (String value : values) {
+            batch.add(value);
+            if (batch.size() == BATCH_SIZE) {
+                putKeys(keys, em.createQuery(jpql, Object[].class).setParameter("values", batch).getResultList());
+                batch = new ArrayList<>(BATCH_SIZE);
+            }
+        }
+        if (!batch.isEmpty()) {
+            putKeys(keys, em.createQuery(jpql, Object[].class).setParameter("values", batch).getResultList());
+        }
+        return keys;
+    }
+
+    /**
+     * Добавляет пары значение - ключ из результата запроса.
+     *
+     * @param keys заполняемое соответствие.
+     * @param rows строки результата: значение атрибута и ключ записи.
+     */
+    private static void putKeys(Map<String, String> keys, List<Object[]> rows) {
+        for (Object[] row : rows) {
+            keys.put((String) row[0], (String) row[1]);
+        }
+    }
+
+    /**
+     * Преобразует ошибку сохранения, вызванную нарушением уникального ограничения,
+     * в исключение о повторяющемся значении, которое выбрасывает соответствующий валидатор.
+     * Ограничение определяется по имени столбца в имени ограничения или индекса.
+     *
+     * @param ex ошибка, возникшая при сохранении записи.
+     * @return исключение о повторяющемся значении или исходная ошибка, если она вызвана другой причиной.
+     */
+    public static Exception translate(RuntimeException ex) {
+        ConstraintViolationException violation = findConstraintViolation(ex);
+        if (violation == null || violation.getConstraintName() == null) {
+            return ex;
+        }
+
+        String constraint = violation.getConstraintName().toLowerCase(Locale.ROOT);
+        Exception translated;
+        if (constraint.contains("car_license_plate")) {
+            translated = new LicensePlateAlreadyExistsExeption("Госномер уже существует.");
+        } else if (constraint.contains("car_vin_number")) {
+            translated = new VinNumberAlreadyExistsExeption("VIN-номер уже существует.");
+        } else if (constraint.contains("driver_license_number")) {
+            translated = new LicenseAlreadyExistsException("Номер ВУ уже существует.");
+        } else if (constraint.contains("violation_resolution")) {
+            translated = new ResolutionAlreadyExistsExeption("Номер постановления уже существует.");
+        } else if (constraint.contains("violation_article_code")) {
+            translated = new ViolationArticleCodeAlreadyExistsExeption("Статья с таким кодом уже существует.");
+        } else if (constraint.contains("violation_type_name")) {
+            translated = new Exception("Тип нарушения с таким названием уже существует.");
+        } else {
+            return ex;
+        }
+
+        logger.warn("Нарушено ограничение уникальности " + violation.getConstraintName() + ": " + translated.getMessage());
+        translated.initCause(ex);
+        return translated;
+    }
+
+    /**
+     * Ищет в цепочке причин ошибку нарушения ограничения базы данных.
+     *
+     * @param ex ошибка сохранения.
+     * @return ошибка нарушения ограничения или null, если её нет в цепочке.
+     */
+    private static ConstraintViolationException findConstraintViolation(Throwable ex) {
+        for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+            if (cause instanceof ConstraintViolationException) {
+                return (ConstraintViolationException) cause;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,134 @@
+package validators;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Результат пакетной проверки записей.
+ * Хранит для каждой записи пачки описание первой найденной ошибки; записи без ошибок считаются корректными.
+ * Номера записей соответствуют их позициям в проверенном списке.
+ */
+public class ValidationReport {
+
+    /**
+     * Количество ошибок, приводимых в кратком описании отчёта.
+     */
+    private static final int SUMMARY_EXAMPLES = 5;
+
+    private final String[] errors;
+    private int invalidCount;
+
+    /**
+     * Создаёт пустой отчёт для пачки записей.
+     *
+     * @param recordCount количество записей в пачке.
+     */
+    public ValidationReport(int recordCount) {
+        this.errors = new String[recordCount];
+    }
+
+    /**
+     * Записывает ошибку записи. Если у записи уже есть ошибка, она сохраняется,
+     * а пустое описание ошибки игнорируется, поэтому сюда можно передавать
+     * результат любого метода проверки формата валидаторов.
+     *
+     * @param index номер записи в пачке.
+     * @param error описание ошибки или null.
+     */
+    public void addError(int index, String error) {
+        if (error == null || errors[index] != null) {
+            return;
+        }
+        errors[index] = error;
+        invalidCount++;
+    }
+
+    /**
+     * Проверяет, что у записи нет ошибок.
+     *
+     * @param index номер записи в пачке.
+     * @return true, если запись корректна.
+     */
+    public boolean isValid(int index) {
+        return errors[index] == null;
+    }
+
+    /**
+     * Получить описание ошибки записи.
+     *
+     * @param index номер записи в пачке.
+     * @return описание ошибки или null, если запись корректна.
+     */
+    public String getError(int index) {
+        return errors[index];
+    }
+
+    /**
+     * Получить количество записей в пачке.
+     * @return количество записей.
+     */
+    public int getRecordCount() {
+        return errors.length;
+    }
+
+    /**
+     * Получить количество записей с ошибками.
+     * @return количество некорректных записей.
+     */
+    public int getInvalidCount() {
+        return invalidCount;
+    }
+
+    /**
+     * Проверяет, что все записи пачки корректны.
+     *
+     * @return true, если ошибок нет.
+     */
+    public boolean isValid() {
+        return invalidCount == 0;
+    }
+
+    /**
+     * Оставляет из проверенной пачки только корректные записи.
+     *
+     * @param records пачка записей, для которой составлен отчёт.
+     * @param <T> тип записи.
+     * @return корректные записи в исходном порядке; сама пачка, если ошибок нет.
+     */
+    public <T> List<T> filterValid(List<T> records) {
+        if (records.size() != errors.length) {
+            throw new IllegalArgumentException("Отчёт составлен для пачки из " + errors.length + " записей, передано " + records.size());
+        }
+        if (invalidCount == 0) {
+            return records;
+        }
+        List<T> valid = new ArrayList<>(records.size() - invalidCount);
+        for (int i = 0; i < errors.length; i++) {
+            if (errors[i] == null) {
+                valid.add(records.get(i));
+            }
+        }
+        return valid;
+    }
+
+    /**
+     * Формирует краткое описание отчёта: количество некорректных записей и первые ошибки.
+     *
+     * @return описание отчёта.
+     */
+    public String summary() {
+        StringBuilder summary = new StringBuilder()
+                .append("Некорректных записей: ").append(invalidCount).append(" из ").append(errors.length);
+        int shown = 0;
+        for (int i = 0; i < errors.length && shown < SUMMARY_EXAMPLES; i++) {
+            if (errors[i] != null) {
+                summary.append(shown == 0 ? ". " : "; ").append('#').append(i + 1).append(": ").append(errors[i]);
+                shown++;
+            }
+        }
+        if (invalidCount > shown) {
+            summary.append("; ...");
+        }
+        return summary.toString();
+    }
+}
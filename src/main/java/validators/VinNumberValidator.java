@@ -1,7 +1,6 @@
 package validators;
 
 import javax.persistence.EntityManager;
-import javax.persistence.TypedQuery;
 
 import org.apache.log4j.Logger;
 
@@ -31,28 +30,46 @@ public class VinNumberValidator {
      * @throws InvalidVinNumberException если VIN-номер не соответствует формату.
      */
     public static void validateVin(String vin) throws InvalidVinNumberException {
-        logger.debug("Валидация VIN-номера: " + vin);
+        if (logger.isDebugEnabled()) {
+            logger.debug("Валидация VIN-номера: " + vin);
+        }
+
+        String error = checkVin(vin);
+        if (error != null) {
+            logger.warn("Ошибка валидации VIN-номера " + vin + ": " + error);
+            throw new InvalidVinNumberException(error);
+        }
 
+        if (logger.isDebugEnabled()) {
+            logger.debug("VIN-номер успешно прошёл валидацию: " + vin);
+        }
+    }
+
+    /**
+     * Проверяет формат VIN-номера без выбрасывания исключений и записи в журнал.
+     * Используется при пакетной проверке записей, где ошибка нужна как текст отчёта.
+     *
+     * @param vin VIN-номер, который необходимо проверить.
+     * @return описание ошибки или null, если VIN-номер корректен.
+     */
+    public static String checkVin(String vin) {
         // Проверка длины VIN-номера
         if (vin == null || vin.length() != 17) {
-            logger.warn("Ошибка валидации: Неверная длина VIN-номера: " + vin);
-            throw new InvalidVinNumberException("VIN должен содержать 17 символов.");
+            return "VIN должен содержать 17 символов.";
         }
 
         // Проверка на наличие запрещенных символов и недопустимых символов
-        for (char c : vin.toCharArray()) {
+        for (int i = 0; i < vin.length(); i++) {
+            char c = vin.charAt(i);
             if (FORBIDDEN_CHARS.indexOf(c) != -1) {
-                logger.warn("Ошибка валидации: Неверные символы в VIN-номере: " + vin);
-                throw new InvalidVinNumberException("VIN не должен содержать символы I, O, Q.");
+                return "VIN не должен содержать символы I, O, Q.";
             }
 
             if (!Character.isLetterOrDigit(c)) {
-                logger.warn("Ошибка валидации: VIN-номер содержит недопустимые символы: " + vin);
-                throw new InvalidVinNumberException("VIN должен содержать только буквы и цифры.");
+                return "VIN должен содержать только буквы и цифры.";
             }
         }
-
-        logger.info("VIN-номер успешно прошёл валидацию: " + vin);
+        return null;
     }
 
     /**
@@ -64,19 +81,18 @@ public class VinNumberValidator {
      * @throws VinNumberAlreadyExistsExeption если VIN-номер уже существует в базе данных.
      */
     public static void validateVinNumberUniqueness(String vinNumber, EntityManager em) throws VinNumberAlreadyExistsExeption {
-        logger.debug("Проверка на уникальность VIN-номера: " + vinNumber);
-
-        // Выполняем запрос для проверки уникальности VIN-номера
-        TypedQuery<Long> query = em.createQuery("SELECT COUNT(c) FROM Car c WHERE c.vinNumber = :vinNumber", Long.class);
-        query.setParameter("vinNumber", vinNumber);
-        Long count = query.getSingleResult();
+        if (logger.isDebugEnabled()) {
+            logger.debug("Проверка на уникальность VIN-номера: " + vinNumber);
+        }
 
         // Если VIN-номер уже существует, выбрасываем исключение
-        if (count > 0) {
+        if (UniquenessChecker.exists(em, "Car", "vinNumber", vinNumber)) {
             logger.warn("Ошибка валидации: VIN-номер уже существует: " + vinNumber);
             throw new VinNumberAlreadyExistsExeption("VIN-номер уже существует.");
         }
 
-        logger.info("VIN-номер успешно прошёл проверку на уникальность: " + vinNumber);
+        if (logger.isDebugEnabled()) {
+            logger.debug("VIN-номер успешно прошёл проверку на уникальность: " + vinNumber);
+        }
     }
 }
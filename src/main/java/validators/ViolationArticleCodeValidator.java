@@ -1,7 +1,6 @@
 package validators;
 
 import javax.persistence.EntityManager;
-import javax.persistence.TypedQuery;
 
 import exceptions.InvalidViolationArticleCodeException;
 import exceptions.ViolationArticleCodeAlreadyExistsExeption;
@@ -13,10 +12,17 @@ import exceptions.ViolationArticleCodeAlreadyExistsExeption;
 public class ViolationArticleCodeValidator {
 
     /**
-     * Регулярное выражение для проверки формата статьи нарушения.
+     * Начало кода статьи нарушения.
      * Пример правильного формата: "КоАП РФ 12.9 п.2".
      */
-    private static final String ARTICLE_REGEX = "КоАП РФ \\d+\\.\\d+( п\\.\\d+)?";
+    private static final String ARTICLE_PREFIX = "КоАП РФ ";
+
+    /**
+     * Разделитель между номером параграфа и необязательным номером пункта.
+     */
+    private static final String POINT_PREFIX = " п.";
+
+    private static final String FORMAT_ERROR = "Код статьи нарушения имеет неверный формат. Пример: 'КоАП РФ 12.9 п.2'.";
 
     /**
      * Проверяет корректность формата и логических диапазонов кода статьи нарушения.
@@ -25,50 +31,106 @@ public class ViolationArticleCodeValidator {
      * @throws InvalidViolationArticleCodeException если код статьи нарушения имеет неверный формат или выходит за логические границы.
      */
     public static void validateArticleCode(String article) throws InvalidViolationArticleCodeException {
+        String error = checkArticleCode(article);
+        if (error != null) {
+            throw new InvalidViolationArticleCodeException(error);
+        }
+    }
+
+    /**
+     * Проверяет формат и логические диапазоны кода статьи нарушения и возвращает описание ошибки.
+     * Код разбирается посимвольно, без регулярного выражения и разбиения строки:
+     * "КоАП РФ " глава "." параграф и необязательно " п." пункт.
+     * Глава должна быть от 1 до 20, параграф от 1 до 50, а пункт от 1 до 10.
+     *
+     * @param article код статьи нарушения, который необходимо проверить.
+     * @return описание ошибки или null, если код статьи корректен.
+     */
+    public static String checkArticleCode(String article) {
         // Проверка на null или пустое значение
         if (article == null || article.trim().isEmpty()) {
-            throw new InvalidViolationArticleCodeException("Код статьи нарушения не может быть пустым.");
+            return "Код статьи нарушения не может быть пустым.";
+        }
+
+        // Проверка формата: префикс, номер главы и точка
+        if (!article.startsWith(ARTICLE_PREFIX)) {
+            return FORMAT_ERROR;
+        }
+        int chapterStart = ARTICLE_PREFIX.length();
+        int chapterEnd = digitsEnd(article, chapterStart);
+        if (chapterEnd == chapterStart || chapterEnd == article.length() || article.charAt(chapterEnd) != '.') {
+            return FORMAT_ERROR;
+        }
+
+        // Номер параграфа
+        int paragraphStart = chapterEnd + 1;
+        int paragraphEnd = digitsEnd(article, paragraphStart);
+        if (paragraphEnd == paragraphStart) {
+            return FORMAT_ERROR;
         }
 
-        // Проверка формата с использованием регулярного выражения
-        if (!article.matches(ARTICLE_REGEX)) {
-            throw new InvalidViolationArticleCodeException("Код статьи нарушения имеет неверный формат. Пример: 'КоАП РФ 12.9 п.2'.");
+        // Необязательный номер пункта, которым код должен заканчиваться
+        int pointStart = -1;
+        if (paragraphEnd < article.length()) {
+            if (!article.startsWith(POINT_PREFIX, paragraphEnd)) {
+                return FORMAT_ERROR;
+            }
+            pointStart = paragraphEnd + POINT_PREFIX.length();
+            int pointEnd = digitsEnd(article, pointStart);
+            if (pointEnd == pointStart || pointEnd != article.length()) {
+                return FORMAT_ERROR;
+            }
         }
 
         // Проверка логических диапазонов номера главы, параграфа и пункта
-        validateLogicalRanges(article);
+        if (!inRange(article, chapterStart, chapterEnd, 1, 20)) {
+            return "Номер главы статьи должен быть от 1 до 20.";
+        }
+        if (!inRange(article, paragraphStart, paragraphEnd, 1, 50)) {
+            return "Номер параграфа статьи должен быть от 1 до 50.";
+        }
+        if (pointStart >= 0 && !inRange(article, pointStart, article.length(), 1, 10)) {
+            return "Номер пункта статьи должен быть от 1 до 10.";
+        }
+        return null;
     }
 
     /**
-     * Проверяет логические диапазоны главы, параграфа и пункта статьи.
-     * Например, глава должна быть от 1 до 20, параграф от 1 до 50, а пункт от 1 до 10.
+     * Находит конец последовательности цифр 0-9, начинающейся с указанной позиции.
      *
-     * @param article код статьи нарушения, который необходимо проверить.
-     * @throws InvalidViolationArticleCodeException если значения главы, параграфа или пункта выходят за допустимые диапазоны.
+     * @param value разбираемая строка.
+     * @param from позиция начала последовательности.
+     * @return позиция первого символа после последовательности цифр.
      */
-    private static void validateLogicalRanges(String article) throws InvalidViolationArticleCodeException {
-        // Удаляем префикс "КоАП РФ" и разбиваем строку на части
-        String[] parts = article.replace("КоАП РФ ", "").split("[\\. ]");
-
-        // Проверка главы статьи
-        int chapter = Integer.parseInt(parts[0]);
-        if (chapter < 1 || chapter > 20) {
-            throw new InvalidViolationArticleCodeException("Номер главы статьи должен быть от 1 до 20.");
-        }
-
-        // Проверка параграфа статьи
-        int paragraph = Integer.parseInt(parts[1]);
-        if (paragraph < 1 || paragraph > 50) {
-            throw new InvalidViolationArticleCodeException("Номер параграфа статьи должен быть от 1 до 50.");
+    private static int digitsEnd(String value, int from) {
+        int i = from;
+        while (i < value.length() && CharClasses.is(value.charAt(i), CharClasses.DIGIT)) {
+            i++;
         }
+        return i;
+    }
 
-        // Проверка пункта статьи, если он указан
-        if (parts.length == 3 && parts[2].startsWith("п")) {
-            int point = Integer.parseInt(parts[2].substring(2));
-            if (point < 1 || point > 10) {
-                throw new InvalidViolationArticleCodeException("Номер пункта статьи должен быть от 1 до 10.");
+    /**
+     * Проверяет, что число, записанное цифрами в части строки, лежит в заданном диапазоне.
+     * Разбор прекращается, как только число превышает максимум, поэтому длинная
+     * последовательность цифр не приводит к переполнению.
+     *
+     * @param value разбираемая строка.
+     * @param from позиция первой цифры.
+     * @param to позиция после последней цифры.
+     * @param min минимальное допустимое значение.
+     * @param max максимальное допустимое значение.
+     * @return true, если число лежит в диапазоне.
+     */
+    private static boolean inRange(String value, int from, int to, int min, int max) {
+        int number = 0;
+        for (int i = from; i < to; i++) {
+            number = number * 10 + (value.charAt(i) - '0');
+            if (number > max) {
+                return false;
             }
         }
+        return number >= min;
     }
 
     /**
@@ -80,15 +142,8 @@ public class ViolationArticleCodeValidator {
      * @throws ViolationArticleCodeAlreadyExistsExeption если статья с таким кодом уже существует.
      */
     public static void validateCodeUniqueness(String code, EntityManager em) throws ViolationArticleCodeAlreadyExistsExeption {
-        // Запрос для проверки количества записей с данным кодом статьи
-        TypedQuery<Long> query = em.createQuery(
-            "SELECT COUNT(va) FROM ViolationArticle va WHERE va.violationArticleCode = :violationArticleCode", Long.class
-        );
-        query.setParameter("violationArticleCode", code);
-        Long count = query.getSingleResult();
-
         // Если статья с таким кодом уже существует, выбрасываем исключение
-        if (count > 0) {
+        if (UniquenessChecker.exists(em, "ViolationArticle", "violationArticleCode", code)) {
             throw new ViolationArticleCodeAlreadyExistsExeption("Статья с таким кодом уже существует.");
         }
     }
@@ -41,7 +41,8 @@ public class ViolationArticleValidator {
         // Проверка описания статьи
         if (violationArticle.getViolationArticleDescription() == null || violationArticle.getViolationArticleDescription().trim().isEmpty()) {
             errors.append("Описание не может быть пустым.\n");
-        } else if (!violationArticle.getViolationArticleDescription().matches("[а-яА-Я\\p{Punct}0-9\\s]+")) {
+        } else if (!CharClasses.consistsOf(violationArticle.getViolationArticleDescription(),
+                CharClasses.RUSSIAN_LETTER | CharClasses.ASCII_PUNCT | CharClasses.DIGIT | CharClasses.SPACE)) {
             errors.append("Описание может содержать только русские буквы, знаки препинания и цифры.\n");
         }
 
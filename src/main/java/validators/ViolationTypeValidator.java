@@ -3,7 +3,6 @@ package validators;
 import entities.ViolationType;
 
 import javax.persistence.EntityManager;
-import javax.persistence.TypedQuery;
 
 /**
  * Класс для валидации типов нарушений.
@@ -26,19 +25,14 @@ public class ViolationTypeValidator {
         // Проверка названия типа
         if (violationType.getViolationTypeName() == null || violationType.getViolationTypeName().trim().isEmpty()) {
             errors.append("Название типа не может быть пустым.\n");
-        } else if (!violationType.getViolationTypeName().matches("[а-яА-Я\\s\\p{P}]+")) {
+        } else if (!CharClasses.consistsOf(violationType.getViolationTypeName(),
+                CharClasses.RUSSIAN_LETTER | CharClasses.SPACE | CharClasses.PUNCTUATION)) {
             errors.append("Название типа может содержать только русские буквы и знаки препинания.\n");
         }
 
         // Проверка уникальности названия типа
         if (!violationType.getViolationTypeName().equals(oldName)) {
-            TypedQuery<Long> query = em.createQuery(
-                "SELECT COUNT(vt) FROM ViolationType vt WHERE vt.violationTypeName = :violationTypeName", Long.class
-            );
-            query.setParameter("violationTypeName", violationType.getViolationTypeName());
-            Long count = query.getSingleResult();
-
-            if (count > 0) {
+            if (UniquenessChecker.exists(em, "ViolationType", "violationTypeName", violationType.getViolationTypeName())) {
                 errors.append("Тип нарушения с таким названием уже существует.\n");
             }
         }
@@ -0,0 +1,26 @@
+-- Таблица генераторов идентификаторов.
+-- Идентификаторы выделяются блоками по 50 значений (allocationSize в сущностях),
+-- что позволяет Hibernate объединять вставки в пакеты JDBC, в отличие от AUTO_INCREMENT.
+CREATE TABLE IF NOT EXISTS app_db.id_generator (
+    generator_name VARCHAR(64) NOT NULL,
+    next_value BIGINT NOT NULL,
+    PRIMARY KEY (generator_name)
+);
+
+-- Начальные значения выбираются так, чтобы первый выделенный блок начинался после существующих записей.
+-- При повторном выполнении скрипта после сбоя уже записанное значение не уменьшается.
+INSERT INTO app_db.id_generator (generator_name, next_value)
+    SELECT 'driver', COALESCE(MAX(driver_id), 0) + 50 FROM app_db.drivers
+    ON DUPLICATE KEY UPDATE next_value = GREATEST(next_value, VALUES(next_value));
+INSERT INTO app_db.id_generator (generator_name, next_value)
+    SELECT 'car', COALESCE(MAX(car_id), 0) + 50 FROM app_db.car
+    ON DUPLICATE KEY UPDATE next_value = GREATEST(next_value, VALUES(next_value));
+INSERT INTO app_db.id_generator (generator_name, next_value)
+    SELECT 'violation', COALESCE(MAX(violation_id), 0) + 50 FROM app_db.violation
+    ON DUPLICATE KEY UPDATE next_value = GREATEST(next_value, VALUES(next_value));
+INSERT INTO app_db.id_generator (generator_name, next_value)
+    SELECT 'violation_article', COALESCE(MAX(violation_article_id), 0) + 50 FROM app_db.violation_article
+    ON DUPLICATE KEY UPDATE next_value = GREATEST(next_value, VALUES(next_value));
+INSERT INTO app_db.id_generator (generator_name, next_value)
+    SELECT 'violation_type', COALESCE(MAX(violation_type_id), 0) + 50 FROM app_db.violation_type
+    ON DUPLICATE KEY UPDATE next_value = GREATEST(next_value, VALUES(next_value));
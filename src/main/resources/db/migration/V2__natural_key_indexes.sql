@@ -0,0 +1,14 @@
+-- Уникальные ключи и индексы для поиска по естественным ключам.
+-- Уникальность госномера, VIN, номера постановления и кода статьи раньше проверялась
+-- только валидаторами приложения, и данные могут содержать повторы. Перед выполнением скрипта
+-- мигратор ищет повторы для ещё не созданных уникальных индексов и, если они есть, останавливает
+-- запуск со списком повторяющихся значений. Уже созданные индексы при повторном запуске пропускаются.
+-- Уникальность названия типа нарушения и номера удостоверения уже задана в схеме.
+CREATE UNIQUE INDEX uk_car_license_plate ON app_db.car (car_license_plate);
+CREATE UNIQUE INDEX uk_car_vin_number ON app_db.car (car_vin_number);
+CREATE UNIQUE INDEX uk_violation_resolution ON app_db.violation (violation_resolution);
+CREATE UNIQUE INDEX uk_violation_article_code ON app_db.violation_article (violation_article_code);
+
+-- Отчёт за период: диапазон по дате, остальные столбцы индекса нужны для соединения
+-- с автомобилем и типом нарушения без обращения к строкам таблицы
+CREATE INDEX idx_violation_date_report ON app_db.violation (violation_date, car_id, violation_type_id);
@@ -0,0 +1,3 @@
+-- Постраничный и потоковый поиск нарушений упорядочивает строки по дате и идентификатору
+-- и продолжает выборку условием на эту пару, поэтому страница читается по диапазону индекса
+CREATE INDEX idx_violation_date_id ON app_db.violation (violation_date, violation_id);
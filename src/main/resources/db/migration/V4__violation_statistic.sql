@@ -0,0 +1,16 @@
+-- Сводная таблица нарушений для статистики и сводки на панели отчётов.
+-- Строка хранит количество нарушений с одинаковыми месяцем (ГГГГММ), типом, статьёй, регионом
+-- из госномера и статусом оплаты; агрегирующие запросы читают её вместо таблицы нарушений.
+-- Скрипт создаёт пустую таблицу: заполнение группировкой всей таблицы нарушений заняло бы минуты,
+-- поэтому приложение заполняет сводку в фоне после запуска (ReportService.fillStatisticsIfEmpty).
+-- Дальше таблица обновляется при записи нарушений (utils.StatisticsRollup)
+-- и пересчитывается после импорта.
+CREATE TABLE IF NOT EXISTS app_db.violation_statistic (
+    violation_month INT NOT NULL,
+    violation_type_id INT NOT NULL,
+    violation_article_id INT NOT NULL,
+    region VARCHAR(3) NOT NULL,
+    violation_paid BIT NOT NULL,
+    violation_count BIGINT NOT NULL,
+    PRIMARY KEY (violation_month, violation_type_id, violation_article_id, region, violation_paid)
+);
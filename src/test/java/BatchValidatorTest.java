@@ -0,0 +1,115 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import validators.BatchValidator;
+import validators.ValidationReport;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import javax.persistence.EntityManager;
+import javax.persistence.TypedQuery;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+public class BatchValidatorTest {
+	@Mock
+	private EntityManager em;
+
+	@Mock
+	private TypedQuery<Object[]> typedQuery;
+
+	@BeforeEach
+	void setup() {
+		MockitoAnnotations.openMocks(this);
+		when(em.createQuery(anyString(), eq(Object[].class))).thenReturn(typedQuery);
+		when(typedQuery.setParameter(eq("values"), any())).thenReturn(typedQuery);
+	}
+
+	private static Map<String, String> record(String... tagsAndValues) {
+		Map<String, String> record = new HashMap<>();
+		for (int i = 0; i < tagsAndValues.length; i += 2) {
+			record.put(tagsAndValues[i], tagsAndValues[i + 1]);
+		}
+		return record;
+	}
+
+	@Test
+	void testValidateDrivers_ReportsInvalidRecords() {
+		List<Map<String, String>> records = Arrays.asList(
+				record("licenseNumber", "1234567890"),
+				record("licenseNumber", "12345"),
+				record("firstName", "Иван"));
+
+		ValidationReport report = BatchValidator.validateDrivers(records);
+
+		assertEquals(3, report.getRecordCount());
+		assertEquals(2, report.getInvalidCount());
+		assertTrue(report.isValid(0));
+		assertEquals("Номер ВУ должен состоять только из 10 цифр.", report.getError(1));
+		assertEquals("Номер ВУ должен состоять только из 10 цифр.", report.getError(2));
+		assertEquals(Collections.singletonList(records.get(0)), report.filterValid(records));
+	}
+
+	@Test
+	void testValidateCars_PlateOfAnotherCar() {
+		List<Object[]> owners = Collections.singletonList(new Object[] {"А123ВС77", "1HGBH41JXMN109186"});
+		when(typedQuery.getResultList()).thenReturn(owners);
+		List<Map<String, String>> records = Arrays.asList(
+				record("vinNumber", "1HGBH41JXMN109186", "licensePlate", "А123ВС77"),
+				record("vinNumber", "2HGBH41JXMN109187", "licensePlate", "А123ВС77"));
+
+		ValidationReport report = BatchValidator.validateCars(records, em);
+
+		assertTrue(report.isValid(0));
+		assertEquals("Госномер уже принадлежит автомобилю с VIN 1HGBH41JXMN109186.", report.getError(1));
+		verify(em, times(1)).createQuery(anyString(), eq(Object[].class));
+	}
+
+	@Test
+	void testValidateCars_DuplicatePlateInBatch() {
+		when(typedQuery.getResultList()).thenReturn(Collections.emptyList());
+		List<Map<String, String>> records = Arrays.asList(
+				record("vinNumber", "1HGBH41JXMN109186", "licensePlate", "А123ВС77"),
+				record("vinNumber", "2HGBH41JXMN109187", "licensePlate", "А123ВС77"),
+				record("vinNumber", "3HGBH41JXMN109188"));
+
+		ValidationReport report = BatchValidator.validateCars(records, em);
+
+		assertEquals(1, report.getInvalidCount());
+		assertFalse(report.isValid(1));
+		assertTrue(report.isValid(2));
+	}
+
+	@Test
+	void testValidateCars_InvalidFormatSkipsQuery() {
+		List<Map<String, String>> records = Arrays.asList(
+				record("vinNumber", "1HGBH41IOQN109186", "licensePlate", "А123ВС77"),
+				record("vinNumber", "1HGBH41JXMN109186", "licensePlate", "123"));
+
+		ValidationReport report = BatchValidator.validateCars(records, em);
+
+		assertEquals("VIN не должен содержать символы I, O, Q.", report.getError(0));
+		assertEquals("Номерной знак должен содержать от 8 до 9 символов.", report.getError(1));
+		verify(em, never()).createQuery(anyString(), eq(Object[].class));
+	}
+
+	@Test
+	void testValidateViolationArticles_ReportsRangeErrors() {
+		List<Map<String, String>> records = Arrays.asList(
+				record("violationArticleCode", "КоАП РФ 12.9 п.2"),
+				record("violationArticleCode", "КоАП РФ 21.9"),
+				record("violationArticleCode", "КоАП 12.9"));
+
+		ValidationReport report = BatchValidator.validateViolationArticles(records);
+
+		assertTrue(report.isValid(0));
+		assertEquals("Номер главы статьи должен быть от 1 до 20.", report.getError(1));
+		assertEquals("Код статьи нарушения имеет неверный формат. Пример: 'КоАП РФ 12.9 п.2'.", report.getError(2));
+	}
+}
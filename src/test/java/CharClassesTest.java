@@ -0,0 +1,48 @@
+import org.junit.jupiter.api.Test;
+import validators.CharClasses;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class CharClassesTest {
+
+	@Test
+	void testConsistsOf_RussianLetters() {
+		assertTrue(CharClasses.consistsOf("Иванов", CharClasses.RUSSIAN_LETTER));
+		assertFalse(CharClasses.consistsOf("Ivanov", CharClasses.RUSSIAN_LETTER));
+		assertFalse(CharClasses.consistsOf("Иван1", CharClasses.RUSSIAN_LETTER));
+		// Класс [а-яА-Я] не включает букву Ё
+		assertFalse(CharClasses.consistsOf("Ёлкин", CharClasses.RUSSIAN_LETTER));
+	}
+
+	@Test
+	void testConsistsOf_EmptyOrNull() {
+		assertFalse(CharClasses.consistsOf("", CharClasses.RUSSIAN_LETTER));
+		assertFalse(CharClasses.consistsOf(null, CharClasses.DIGIT));
+	}
+
+	@Test
+	void testConsistsOf_CombinedClasses() {
+		assertTrue(CharClasses.consistsOf("Ростов-на-Дону", CharClasses.RUSSIAN_LETTER | CharClasses.HYPHEN));
+		assertFalse(CharClasses.consistsOf("Ростов.на.Дону", CharClasses.RUSSIAN_LETTER | CharClasses.HYPHEN));
+		assertTrue(CharClasses.consistsOf("X5 M 2.0", CharClasses.LATIN_LETTER | CharClasses.ASCII_PUNCT
+				| CharClasses.DIGIT | CharClasses.SPACE));
+	}
+
+	@Test
+	void testPunctuationClasses() {
+		// \p{P} включает кавычки-ёлочки и тире, а \p{Punct} - только символы ASCII
+		assertTrue(CharClasses.consistsOf("«Превышение» — скорости", CharClasses.RUSSIAN_LETTER
+				| CharClasses.SPACE | CharClasses.PUNCTUATION));
+		assertFalse(CharClasses.is('«', CharClasses.ASCII_PUNCT));
+		assertTrue(CharClasses.is('+', CharClasses.ASCII_PUNCT));
+		assertFalse(CharClasses.is('+', CharClasses.PUNCTUATION));
+	}
+
+	@Test
+	void testPlateLetters() {
+		assertTrue(CharClasses.is('А', CharClasses.PLATE_LETTER));
+		assertTrue(CharClasses.is('Х', CharClasses.PLATE_LETTER));
+		assertFalse(CharClasses.is('Б', CharClasses.PLATE_LETTER));
+		assertFalse(CharClasses.is('A', CharClasses.PLATE_LETTER));
+	}
+}
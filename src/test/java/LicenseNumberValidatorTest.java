@@ -6,6 +6,8 @@ import validators.LicenseNumberValidator;
 import exceptions.InvalidLicenseNumberException;
 import exceptions.LicenseAlreadyExistsException;
 
+import java.util.Collections;
+
 import javax.persistence.EntityManager;
 import javax.persistence.TypedQuery;
 
@@ -17,7 +19,7 @@ public class LicenseNumberValidatorTest {
 	private EntityManager em;
 	
 	@Mock
-	private TypedQuery<Long> typedQuery;
+	private TypedQuery<Integer> typedQuery;
 	
 	@BeforeEach
     void setup() {
@@ -50,33 +52,37 @@ public class LicenseNumberValidatorTest {
     void testValidateLicenseUniqueness_LicenseDoesNotExist() {
         String license = "1234567890";
 
-        when(em.createQuery("SELECT COUNT(d) FROM Driver d WHERE d.licenseNumber = :license", Long.class))
+        when(em.createQuery("SELECT 1 FROM Driver e WHERE e.licenseNumber = :value", Integer.class))
             .thenReturn(typedQuery);
-        when(typedQuery.setParameter("license", license)).thenReturn(typedQuery);
-        when(typedQuery.getSingleResult()).thenReturn(0L);
+        when(typedQuery.setParameter("value", license)).thenReturn(typedQuery);
+        when(typedQuery.setMaxResults(1)).thenReturn(typedQuery);
+        when(typedQuery.getResultList()).thenReturn(Collections.emptyList());
 
         assertDoesNotThrow(() -> LicenseNumberValidator.validateLicenseUniqueness(license, em));
 
-        verify(em).createQuery("SELECT COUNT(d) FROM Driver d WHERE d.licenseNumber = :license", Long.class);
-        verify(typedQuery).setParameter("license", license);
-        verify(typedQuery).getSingleResult();
+        verify(em).createQuery("SELECT 1 FROM Driver e WHERE e.licenseNumber = :value", Integer.class);
+        verify(typedQuery).setParameter("value", license);
+        verify(typedQuery).setMaxResults(1);
+        verify(typedQuery).getResultList();
     }
 	
 	 @Test
 	    void testValidateLicenseUniqueness_LicenseExists() {
 	        String license = "1234567890";
 
-	        when(em.createQuery("SELECT COUNT(d) FROM Driver d WHERE d.licenseNumber = :license", Long.class))
+	        when(em.createQuery("SELECT 1 FROM Driver e WHERE e.licenseNumber = :value", Integer.class))
 	            .thenReturn(typedQuery);
-	        when(typedQuery.setParameter("license", license)).thenReturn(typedQuery);
-	        when(typedQuery.getSingleResult()).thenReturn(1L);
+	        when(typedQuery.setParameter("value", license)).thenReturn(typedQuery);
+	        when(typedQuery.setMaxResults(1)).thenReturn(typedQuery);
+	        when(typedQuery.getResultList()).thenReturn(Collections.singletonList(1));
 
 	        Exception exception = assertThrows(LicenseAlreadyExistsException.class, () -> 
 	            LicenseNumberValidator.validateLicenseUniqueness(license, em));
 	        assertEquals("Номер ВУ уже существует.", exception.getMessage());
 
-	        verify(em).createQuery("SELECT COUNT(d) FROM Driver d WHERE d.licenseNumber = :license", Long.class);
-	        verify(typedQuery).setParameter("license", license);
-	        verify(typedQuery).getSingleResult();
+	        verify(em).createQuery("SELECT 1 FROM Driver e WHERE e.licenseNumber = :value", Integer.class);
+	        verify(typedQuery).setParameter("value", license);
+	        verify(typedQuery).setMaxResults(1);
+	        verify(typedQuery).getResultList();
 	    }
 }
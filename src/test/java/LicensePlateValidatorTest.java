@@ -7,6 +7,8 @@ import validators.LicensePlateValidator;
 import exceptions.InvalidLicensePlateException;
 import exceptions.LicensePlateAlreadyExistsExeption;
 
+import java.util.Collections;
+
 import javax.persistence.EntityManager;
 import javax.persistence.TypedQuery;
 
@@ -18,7 +20,7 @@ public class LicensePlateValidatorTest {
 	private EntityManager em;
 	
 	@Mock
-	private TypedQuery<Long> typedQuery;
+	private TypedQuery<Integer> typedQuery;
 	
 	@BeforeEach
     void setup() {
@@ -73,34 +75,38 @@ public class LicensePlateValidatorTest {
     void testValidateLicensePlateUniqueness_LicensePlateDoesNotExist() {
 		String licensePlate = "Е123ЕЕ78";
 
-        when(em.createQuery("SELECT COUNT(c) FROM Car c WHERE c.licensePlate = :licensePlate", Long.class))
+        when(em.createQuery("SELECT 1 FROM Car e WHERE e.licensePlate = :value", Integer.class))
             .thenReturn(typedQuery);
-        when(typedQuery.setParameter("licensePlate", licensePlate)).thenReturn(typedQuery);
-        when(typedQuery.getSingleResult()).thenReturn(0L);
+        when(typedQuery.setParameter("value", licensePlate)).thenReturn(typedQuery);
+        when(typedQuery.setMaxResults(1)).thenReturn(typedQuery);
+        when(typedQuery.getResultList()).thenReturn(Collections.emptyList());
 
         assertDoesNotThrow(() -> LicensePlateValidator.validateLicensePlateUniqueness(licensePlate, em));
 
-        verify(em).createQuery("SELECT COUNT(c) FROM Car c WHERE c.licensePlate = :licensePlate", Long.class);
-        verify(typedQuery).setParameter("licensePlate", licensePlate);
-        verify(typedQuery).getSingleResult();
+        verify(em).createQuery("SELECT 1 FROM Car e WHERE e.licensePlate = :value", Integer.class);
+        verify(typedQuery).setParameter("value", licensePlate);
+        verify(typedQuery).setMaxResults(1);
+        verify(typedQuery).getResultList();
     }
 	
 	@Test
     void testValidateLicensePlateUniqueness_LicensePlateExist() {
 		String licensePlate = "Е123ЕЕ78";
 
-		when(em.createQuery("SELECT COUNT(c) FROM Car c WHERE c.licensePlate = :licensePlate", Long.class))
+		when(em.createQuery("SELECT 1 FROM Car e WHERE e.licensePlate = :value", Integer.class))
         	.thenReturn(typedQuery);
-		when(typedQuery.setParameter("licensePlate", licensePlate)).thenReturn(typedQuery);
-        when(typedQuery.getSingleResult()).thenReturn(1L);
+		when(typedQuery.setParameter("value", licensePlate)).thenReturn(typedQuery);
+		when(typedQuery.setMaxResults(1)).thenReturn(typedQuery);
+        when(typedQuery.getResultList()).thenReturn(Collections.singletonList(1));
 
         Exception exception = assertThrows(LicensePlateAlreadyExistsExeption.class, () -> 
             LicensePlateValidator.validateLicensePlateUniqueness(licensePlate, em));
         assertEquals("Госномер уже существует.", exception.getMessage());
 
-        verify(em).createQuery("SELECT COUNT(c) FROM Car c WHERE c.licensePlate = :licensePlate", Long.class);
-        verify(typedQuery).setParameter("licensePlate", licensePlate);
-        verify(typedQuery).getSingleResult();
+        verify(em).createQuery("SELECT 1 FROM Car e WHERE e.licensePlate = :value", Integer.class);
+        verify(typedQuery).setParameter("value", licensePlate);
+        verify(typedQuery).setMaxResults(1);
+        verify(typedQuery).getResultList();
     }
 	
 }
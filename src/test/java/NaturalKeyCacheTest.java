@@ -0,0 +1,104 @@
+import org.junit.jupiter.api.Test;
+
+import utils.NaturalKeyCache;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class NaturalKeyCacheTest {
+
+	@Test
+	void testUnreferencedEntryEvicted() {
+		NaturalKeyCache<String> cache = new NaturalKeyCache<>(3);
+		cache.put("А123ВС77", 1);
+		cache.put("В456ОР99", 2);
+		cache.put("Е789КХ50", 3);
+		cache.get("А123ВС77");
+		cache.get("В456ОР99");
+
+		cache.put("К321МН78", 4);
+
+		assertEquals(3, cache.size());
+		assertNull(cache.get("Е789КХ50"));
+		assertEquals(Integer.valueOf(1), cache.get("А123ВС77"));
+		assertEquals(Integer.valueOf(2), cache.get("В456ОР99"));
+		assertEquals(Integer.valueOf(4), cache.get("К321МН78"));
+	}
+
+	@Test
+	void testHotKeyGetsSecondChance() {
+		NaturalKeyCache<String> cache = new NaturalKeyCache<>(3);
+		cache.put("hot", 1);
+		cache.put("cold1", 2);
+		cache.put("cold2", 3);
+
+		// Ключ, запрашиваемый между добавлениями, переживает вытеснение всех остальных
+		for (int i = 0; i < 10; i++) {
+			assertEquals(Integer.valueOf(1), cache.get("hot"));
+			cache.put("new" + i, 100 + i);
+		}
+
+		assertEquals(3, cache.size());
+		assertEquals(Integer.valueOf(1), cache.get("hot"));
+		assertNull(cache.get("cold1"));
+		assertNull(cache.get("cold2"));
+		assertEquals(Integer.valueOf(109), cache.get("new9"));
+	}
+
+	@Test
+	void testInvalidateIdFreesSlotsForReuse() {
+		NaturalKeyCache<String> cache = new NaturalKeyCache<>(3);
+		cache.put("old", 1);
+		cache.put("renamed", 1);
+		cache.put("other", 2);
+
+		cache.invalidateId(1);
+		assertEquals(1, cache.size());
+		assertNull(cache.get("old"));
+		assertNull(cache.get("renamed"));
+
+		// Освобождённые позиции занимаются без вытеснения оставшейся записи
+		cache.put("first", 3);
+		cache.put("second", 4);
+		assertEquals(3, cache.size());
+		assertEquals(Integer.valueOf(2), cache.get("other"));
+		assertEquals(Integer.valueOf(3), cache.get("first"));
+		assertEquals(Integer.valueOf(4), cache.get("second"));
+	}
+
+	@Test
+	void testSizeBoundedAtCapacity() {
+		NaturalKeyCache<String> cache = new NaturalKeyCache<>(2);
+		cache.put("a", 1);
+		cache.put("b", 2);
+
+		// Повторное добавление ключа заменяет идентификатор и не вытесняет другую запись
+		cache.put("a", 10);
+		assertEquals(2, cache.size());
+		assertEquals(Integer.valueOf(10), cache.get("a"));
+		assertEquals(Integer.valueOf(2), cache.get("b"));
+
+		for (int i = 0; i < 100; i++) {
+			cache.put("key" + i, i);
+			assertTrue(cache.size() <= 2);
+		}
+		assertEquals(Integer.valueOf(99), cache.get("key99"));
+	}
+
+	@Test
+	void testHitAndMissCountsAndInvalidation() {
+		NaturalKeyCache<String> cache = new NaturalKeyCache<>(2);
+		cache.put("a", 1);
+		cache.get("a");
+		cache.get("b");
+		cache.get(null);
+		assertEquals(1L, cache.getHitCount());
+		assertEquals(2L, cache.getMissCount());
+
+		cache.invalidate("a");
+		assertNull(cache.get("a"));
+		cache.put("b", 2);
+		cache.invalidateAll();
+		assertEquals(0, cache.size());
+		assertThrows(IllegalArgumentException.class, () -> new NaturalKeyCache<String>(0));
+	}
+}
@@ -0,0 +1,45 @@
+import org.junit.jupiter.api.Test;
+
+import entities.Driver;
+import entities.ReportRow;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ReportRowTest {
+
+	@Test
+	void testDriverNameMatchesDriverFullName() {
+		Driver driver = new Driver();
+		driver.setLastName("Иванов");
+		driver.setFirstName("Иван");
+		driver.setMiddleName("Иванович");
+
+		ReportRow row = new ReportRow(LocalDate.of(2024, 11, 17), "Иванов", "Иван", "Иванович",
+				"Lada", "Vesta", "А123ВС43", "Превышение скорости");
+		assertEquals(driver.getFullName(), row.getDriverName());
+	}
+
+	@Test
+	void testDriverNameWithoutMiddleName() {
+		ReportRow row = new ReportRow(LocalDate.of(2024, 11, 17), "Иванов", "Иван", null,
+				"Lada", "Vesta", "А123ВС43", "Превышение скорости");
+		assertEquals("Иванов И", row.getDriverName());
+	}
+
+	@Test
+	void testCarDescription() {
+		ReportRow row = new ReportRow(LocalDate.of(2024, 11, 17), "Иванов", "Иван", "Иванович",
+				"Lada", "Vesta", "А123ВС43", "Превышение скорости");
+		assertEquals("Lada Vesta (А123ВС43)", row.getCar());
+	}
+
+	@Test
+	void testGetDateAndViolationType() {
+		LocalDate date = LocalDate.of(2024, 11, 17);
+		ReportRow row = new ReportRow(date, "Иванов И.И", "Lada Vesta (А123ВС43)", "Превышение скорости");
+		assertEquals(date, row.getDate());
+		assertEquals("Превышение скорости", row.getViolationType());
+	}
+}
@@ -0,0 +1,61 @@
+import org.junit.jupiter.api.Test;
+
+import entities.Car;
+import utils.SearchQuery;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class SearchQueryTest {
+
+	private final SearchQuery<Car> query = SearchQuery.from(Car.class, "SELECT c FROM Car c")
+			.where("c.brand LIKE :brand", "c.lastVehicleInspection >= :from")
+			.orderBy("c.carId")
+			.build();
+
+	@Test
+	void testQueryWithoutConditions() {
+		assertEquals("SELECT c FROM Car c ORDER BY c.carId", query.getQueryString(null, null));
+	}
+
+	@Test
+	void testQueryWithSomeConditions() {
+		assertEquals("SELECT c FROM Car c WHERE c.lastVehicleInspection >= :from ORDER BY c.carId",
+				query.getQueryString(null, LocalDate.of(2024, 1, 1)));
+		assertEquals("SELECT c FROM Car c WHERE c.brand LIKE :brand AND c.lastVehicleInspection >= :from ORDER BY c.carId",
+				query.getQueryString("%Lada%", LocalDate.of(2024, 1, 1)));
+	}
+
+	@Test
+	void testSameShapeGivesSameQueryString() {
+		assertSame(query.getQueryString("%Lada%", null), query.getQueryString("%Kia%", null));
+	}
+
+	@Test
+	void testRequiredCondition() {
+		SearchQuery<Car> keyset = SearchQuery.from(Car.class, "SELECT c FROM Car c")
+				.require("c.carId > :afterId")
+				.where("c.brand LIKE :brand")
+				.build();
+		assertEquals("SELECT c FROM Car c WHERE c.carId > :afterId", keyset.getQueryString((Object) null));
+		assertEquals("SELECT c FROM Car c WHERE c.carId > :afterId AND c.brand LIKE :brand", keyset.getQueryString("%Lada%"));
+	}
+
+	@Test
+	void testValueHelpers() {
+		assertNull(SearchQuery.contains(""));
+		assertNull(SearchQuery.contains(null));
+		assertEquals("%Lada%", SearchQuery.contains("Lada"));
+		assertNull(SearchQuery.date(""));
+		assertEquals(LocalDate.of(2024, 5, 1), SearchQuery.date("2024-05-01"));
+		assertEquals(Integer.valueOf(500), SearchQuery.number("500"));
+		assertThrows(NumberFormatException.class, () -> SearchQuery.number("пятьсот"));
+	}
+
+	@Test
+	void testConditionWithoutParameter() {
+		assertThrows(IllegalArgumentException.class,
+				() -> SearchQuery.from(Car.class, "SELECT c FROM Car c").where("c.brand IS NOT NULL").build());
+	}
+}
@@ -0,0 +1,65 @@
+import org.junit.jupiter.api.Test;
+
+import entities.Car;
+import entities.Driver;
+import entities.ViolationType;
+import utils.SyntheticDataGenerator;
+import validators.CarValidator;
+import validators.DriverValidator;
+import validators.LicenseNumberValidator;
+import validators.LicensePlateValidator;
+import validators.VinNumberValidator;
+import validators.ViolationArticleCodeValidator;
+import validators.ViolationTypeValidator;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Сгенерированные записи должны проходить те же проверки, что и записи, введённые вручную.
+ * Проверки уникальности пропускаются: прежнее значение ключа совпадает с текущим, поэтому
+ * база данных не нужна, а формат ключей проверяется отдельно.
+ */
+public class SyntheticDataGeneratorTest {
+	private static final int SAMPLE_SIZE = 2000;
+
+	private final SyntheticDataGenerator generator = SyntheticDataGenerator.forViolations(42, 100_000);
+
+	@Test
+	void testGeneratedDriversPassValidation() {
+		int step = Math.max(1, generator.getDriverCount() / SAMPLE_SIZE);
+		for (int i = 0; i < generator.getDriverCount(); i += step) {
+			Driver driver = generator.driver(i);
+			assertDoesNotThrow(() -> DriverValidator.validateDriver(driver, null, driver.getLicenseNumber()),
+				"Водитель " + i);
+			assertDoesNotThrow(() -> LicenseNumberValidator.validateLicenseNumber(driver.getLicenseNumber()),
+				"Водитель " + i);
+		}
+	}
+
+	@Test
+	void testGeneratedCarsPassValidation() {
+		int step = Math.max(1, generator.getCarCount() / SAMPLE_SIZE);
+		for (int i = 0; i < generator.getCarCount(); i += step) {
+			Car car = generator.car(i);
+			car.setOwner(generator.driver(generator.ownerIndex(i)));
+			assertDoesNotThrow(() -> CarValidator.validateCar(car, null, car.getLicensePlate(), car.getVinNumber()),
+				"Автомобиль " + i);
+			assertDoesNotThrow(() -> VinNumberValidator.validateVin(car.getVinNumber()), "Автомобиль " + i);
+			assertDoesNotThrow(() -> LicensePlateValidator.validateLicensePlate(car.getLicensePlate()),
+				"Автомобиль " + i);
+		}
+	}
+
+	@Test
+	void testGeneratedDirectoriesPassValidation() {
+		for (int i = 0; i < generator.getArticleCount(); i++) {
+			String code = generator.article(i).getViolationArticleCode();
+			assertNull(ViolationArticleCodeValidator.checkArticleCode(code), code);
+		}
+		for (int i = 0; i < generator.getTypeCount(); i++) {
+			ViolationType type = generator.type(i);
+			String name = type.getViolationTypeName();
+			assertDoesNotThrow(() -> ViolationTypeValidator.validateViolationType(type, null, name), name);
+		}
+	}
+}
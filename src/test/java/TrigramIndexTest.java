@@ -0,0 +1,69 @@
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import utils.TrigramIndex;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class TrigramIndexTest {
+
+	private TrigramIndex index;
+
+	@BeforeEach
+	void setUp() {
+		index = new TrigramIndex();
+		index.add(1, "Lada", "Vesta", "XTA210990Y2765432", "А123ВС77");
+		index.add(2, "Kia", "Rio", "Z94CB41AAGR323020", "В456ОР99");
+		index.add(3, "Лада", "Гранта", "XTA219010L0123456", "Е789КХ50");
+		index.markReady();
+	}
+
+	@Test
+	void testCandidatesBySubstring() {
+		assertArrayEquals(new int[] {1, 3}, index.candidates("xta21"));
+		assertArrayEquals(new int[] {2}, index.candidates("rio", null, "323"));
+		assertArrayEquals(new int[0], index.candidates("Toyota"));
+	}
+
+	@Test
+	void testCaseAndYoInsensitive() {
+		index.add(4, "Ёлкин");
+		assertArrayEquals(new int[] {4}, index.candidates("ЕЛК"));
+		assertArrayEquals(new int[] {3}, index.candidates("гРаНт"));
+	}
+
+	@Test
+	void testNotAnsweredWithoutTrigramsOrWhileBuilding() {
+		assertNull(index.candidates("Ki"));
+		assertNull(index.candidates("La_a"));
+		index.clear();
+		assertFalse(index.isReady());
+		assertNull(index.candidates("Lada"));
+	}
+
+	@Test
+	void testUpdatedRecordKeepsSortedOrder() {
+		index.add(1, "Гранта");
+		assertArrayEquals(new int[] {1, 3}, index.candidates("гранта"));
+	}
+
+	@Test
+	void testMatchesAll() {
+		assertTrue(TrigramIndex.matchesAll(new String[] {"иванов", "пётр"}, "Иванов", "Петр", null));
+		assertFalse(TrigramIndex.matchesAll(new String[] {"иванов", "сидор"}, "Иванов", "Петр"));
+	}
+
+	@Test
+	void testBatches() {
+		assertEquals(3, TrigramIndex.batches(new int[TrigramIndex.BATCH_SIZE * 2 + 1]).size());
+		assertTrue(TrigramIndex.batches(new int[0]).isEmpty());
+
+		List<List<Integer>> limited = TrigramIndex.batches(new int[TrigramIndex.BATCH_SIZE + 100], 50);
+		assertEquals(3, limited.size());
+		assertEquals(50, limited.get(0).size());
+		assertEquals(TrigramIndex.BATCH_SIZE, limited.get(1).size());
+		assertEquals(50, limited.get(2).size());
+	}
+}
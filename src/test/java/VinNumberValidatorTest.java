@@ -6,6 +6,8 @@ import validators.VinNumberValidator;
 import exceptions.InvalidVinNumberException;
 import exceptions.VinNumberAlreadyExistsExeption;
 
+import java.util.Collections;
+
 import javax.persistence.EntityManager;
 import javax.persistence.TypedQuery;
 
@@ -17,7 +19,7 @@ public class VinNumberValidatorTest {
 	private EntityManager em;
 	
 	@Mock
-	private TypedQuery<Long> typedQuery;
+	private TypedQuery<Integer> typedQuery;
 	
 	@BeforeEach
     void setup() {
@@ -58,35 +60,39 @@ public class VinNumberValidatorTest {
     void testValidateVinNumberUniqueness_VinDoesNotExist() {
         String vin = "1HGCM82633A123456";
 
-        when(em.createQuery("SELECT COUNT(c) FROM Car c WHERE c.vinNumber = :vinNumber", Long.class))
+        when(em.createQuery("SELECT 1 FROM Car e WHERE e.vinNumber = :value", Integer.class))
             .thenReturn(typedQuery);
-        when(typedQuery.setParameter("vinNumber", vin)).thenReturn(typedQuery);
-        when(typedQuery.getSingleResult()).thenReturn(0L);
+        when(typedQuery.setParameter("value", vin)).thenReturn(typedQuery);
+        when(typedQuery.setMaxResults(1)).thenReturn(typedQuery);
+        when(typedQuery.getResultList()).thenReturn(Collections.emptyList());
 
         assertDoesNotThrow(() -> VinNumberValidator.validateVinNumberUniqueness(vin, em)
         );
         
-        verify(em).createQuery("SELECT COUNT(c) FROM Car c WHERE c.vinNumber = :vinNumber", Long.class);
-        verify(typedQuery).setParameter("vinNumber", vin);
-        verify(typedQuery).getSingleResult();
+        verify(em).createQuery("SELECT 1 FROM Car e WHERE e.vinNumber = :value", Integer.class);
+        verify(typedQuery).setParameter("value", vin);
+        verify(typedQuery).setMaxResults(1);
+        verify(typedQuery).getResultList();
     }
 
     @Test
     void testValidateVinNumberUniqueness_VinExists() {
         String vin = "1HGCM82633A123456";
 
-        when(em.createQuery("SELECT COUNT(c) FROM Car c WHERE c.vinNumber = :vinNumber", Long.class))
+        when(em.createQuery("SELECT 1 FROM Car e WHERE e.vinNumber = :value", Integer.class))
             .thenReturn(typedQuery);
-        when(typedQuery.setParameter("vinNumber", vin)).thenReturn(typedQuery);
-        when(typedQuery.getSingleResult()).thenReturn(1L);
+        when(typedQuery.setParameter("value", vin)).thenReturn(typedQuery);
+        when(typedQuery.setMaxResults(1)).thenReturn(typedQuery);
+        when(typedQuery.getResultList()).thenReturn(Collections.singletonList(1));
 
         Exception exception = assertThrows(VinNumberAlreadyExistsExeption.class, () ->
             VinNumberValidator.validateVinNumberUniqueness(vin, em)
         );
         assertEquals("VIN-номер уже существует.", exception.getMessage());
         
-        verify(em).createQuery("SELECT COUNT(c) FROM Car c WHERE c.vinNumber = :vinNumber", Long.class);
-        verify(typedQuery).setParameter("vinNumber", vin);
-        verify(typedQuery).getSingleResult();
+        verify(em).createQuery("SELECT 1 FROM Car e WHERE e.vinNumber = :value", Integer.class);
+        verify(typedQuery).setParameter("value", vin);
+        verify(typedQuery).setMaxResults(1);
+        verify(typedQuery).getResultList();
     }
 }
@@ -0,0 +1,40 @@
+import org.junit.jupiter.api.Test;
+
+import entities.Driver;
+import entities.ViolationRow;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ViolationRowTest {
+
+	@Test
+	void testOwnerNameMatchesDriverFullName() {
+		Driver driver = new Driver();
+		driver.setLastName("Иванов");
+		driver.setFirstName("Иван");
+		driver.setMiddleName("Иванович");
+
+		ViolationRow row = new ViolationRow(1, "18810012345678901234", "КоАП РФ 12.9 п.2", "Превышение скорости",
+				"А123ВС43", "Иванов", "Иван", "Иванович", LocalDate.of(2024, 11, 17), true);
+		assertEquals(driver.getFullName(), row.getOwnerName());
+	}
+
+	@Test
+	void testCarWithoutOwner() {
+		ViolationRow row = new ViolationRow(1, "18810012345678901234", "КоАП РФ 12.9 п.2", "Превышение скорости",
+				"А123ВС43", null, null, null, LocalDate.of(2024, 11, 17), true);
+		assertNull(row.getOwnerName());
+	}
+
+	@Test
+	void testPaidStatus() {
+		ViolationRow paid = new ViolationRow(1, "18810012345678901234", "КоАП РФ 12.9 п.2", "Превышение скорости",
+				"А123ВС43", "Иванов", "Иван", null, LocalDate.of(2024, 11, 17), Boolean.TRUE);
+		ViolationRow unknown = new ViolationRow(2, "18810012345678901235", "КоАП РФ 12.9 п.2", "Превышение скорости",
+				"А123ВС43", "Иванов", "Иван", null, LocalDate.of(2024, 11, 17), null);
+		assertTrue(paid.isPaid());
+		assertFalse(unknown.isPaid());
+	}
+}